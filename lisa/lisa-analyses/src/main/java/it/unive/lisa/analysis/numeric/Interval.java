@@ -124,7 +124,7 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 	public Interval evalNonNullConstant(Constant constant, ProgramPoint pp) {
 		if (constant.getValue() instanceof Integer) {
 			Integer i = (Integer) constant.getValue();
-			return new Interval(new MathNumber(i), new MathNumber(i));
+			return new Interval(MathNumber.valueOf(i), MathNumber.valueOf(i));
 		}
 
 		return top();
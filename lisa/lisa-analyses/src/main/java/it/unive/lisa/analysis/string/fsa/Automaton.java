@@ -5,13 +5,26 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * A class that describes an generic automaton(dfa, nfa, epsilon nfa).
+ * A class that describes an generic automaton(dfa, nfa, epsilon nfa).<br>
+ * <br>
+ * While states and transitions are exposed as objects, most of the algorithms
+ * work on an index of the automaton that is built lazily the first time it is
+ * needed: states are numbered following their order, symbols are interned
+ * into integers (where {@code 0} is reserved for epsilon), and each state
+ * holds the arrays of its outgoing and incoming transitions. Minimization
+ * uses Hopcroft's partition refinement algorithm on the determinized
+ * automaton.
  *
  * @author <a href="mailto:simone.leoni2@studenti.unipr.it">Simone Leoni</a>
  * @author <a href="mailto:vincenzo.arceri@unipr.it">Vincenzo Arceri</a>
  */
 public final class Automaton {
 
+	/**
+	 * The interned identifier of the epsilon symbol.
+	 */
+	private static final int EPSILON = 0;
+
 	/**
 	 * The states of the automaton
 	 */
@@ -36,6 +49,12 @@ public final class Automaton {
 	 */
 	private boolean IS_MINIMIZED;
 
+	/**
+	 * The lazily computed index of this automaton. This field is not used
+	 * inside {@link Automaton#equals}.
+	 */
+	private Index index;
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(states, transitions);
@@ -96,6 +115,12 @@ public final class Automaton {
 		}
 	}
 
+	private Index index() {
+		if (index == null)
+			index = new Index(states, transitions);
+		return index;
+	}
+
 	/**
 	 * Computes all the automaton transitions to validate a given string
 	 * {@code str}.
@@ -106,35 +131,26 @@ public final class Automaton {
 	 *             accepted or not.
 	 */
 	public boolean validateString(String str) {
+		Index idx = index();
 		// stores all the possible states reached by the automaton after each
 		// input char
-		Set<State> currentStates = epsClosure();
-
-		for (int i = 0; i < str.length(); ++i) {
-			String c = "" + str.charAt(i);
+		BitSet current = idx.epsClosure(idx.initials);
 
-			// stores temporally the new currentStates
-			Set<State> newCurr = new TreeSet<>();
-			for (State s : currentStates) {
-
-				// stores all the states reached after char computation
-				Set<State> dest = transitions.stream().filter(t -> t.getSource().equals(s) && t.getSymbol().equals(c))
-						.map(Transition::getDestination).collect(Collectors.toSet());
-				if (!dest.isEmpty()) {
-					dest = epsClosure(dest);
-					newCurr.addAll(dest);
-				}
-			}
-			currentStates = newCurr;
+		for (int i = 0; i < str.length() && !current.isEmpty(); ++i) {
+			Integer c = idx.symbolIds.get("" + str.charAt(i));
+			if (c == null)
+				return false;
+			current = idx.epsClosure(idx.step(current, c));
 		}
 
 		// checks if there is at least one final state in the set of possible
 		// reached states at the end of the validation process
-		return currentStates.stream().anyMatch(State::isFinal);
+		return current.intersects(idx.finals);
 	}
 
 	/**
-	 * Brzozowski minimization algorithm.
+	 * Hopcroft minimization algorithm, applied to the determinized version of
+	 * this automaton.
 	 *
 	 * @return the minimum automaton that accepts the same language as
 	 *             {@code this}.
@@ -142,12 +158,172 @@ public final class Automaton {
 	public Automaton minimize() {
 		if (IS_MINIMIZED)
 			return this;
-		Automaton min = reverse().determinize().reach().reverse().determinize().reach();
+		Automaton min = determinize().refine();
 		min.IS_MINIMIZED = true;
 		min.IS_DETERMINIZED = true;
 		return min;
 	}
 
+	/**
+	 * Computes the minimum automaton equivalent to this one, that must be
+	 * deterministic, through Hopcroft's partition refinement. The states that
+	 * are not reachable or that cannot reach a final state are discarded
+	 * before refining, and are replaced by a single sink state to make the
+	 * automaton complete. The states of the resulting automaton are created
+	 * following a breadth-first visit from the initial one, with symbols
+	 * visited in lexicographic order.
+	 * 
+	 * @return the minimum automaton
+	 */
+	private Automaton refine() {
+		Index idx = index();
+		BitSet live = idx.forward(idx.initials);
+		live.and(idx.backward(idx.finals));
+		if (!live.intersects(idx.initials)) {
+			// the empty language
+			SortedSet<State> sts = new TreeSet<>();
+			sts.add(new State(true, false));
+			return new Automaton(sts, new TreeSet<>());
+		}
+
+		// renumber live states, the sink is the last one
+		int[] renaming = new int[idx.states.length];
+		int sink = 0;
+		for (int s = live.nextSetBit(0); s >= 0; s = live.nextSetBit(s + 1))
+			renaming[s] = sink++;
+		int n = sink + 1;
+		int k = idx.symbols.length;
+
+		// the complete transition function, indexed by state * k + symbol
+		int[] delta = new int[n * k];
+		Arrays.fill(delta, sink);
+		for (int t = 0; t < idx.src.length; t++)
+			if (idx.sym[t] != EPSILON && live.get(idx.src[t]) && live.get(idx.dst[t]))
+				delta[renaming[idx.src[t]] * k + idx.sym[t]] = renaming[idx.dst[t]];
+
+		// the inverse of the transition function, where the predecessors of q
+		// through c are stored in preds[predStart[c * n + q]] to
+		// preds[predStart[c * n + q + 1]] (excluded)
+		int[] predStart = new int[k * n + 1];
+		for (int q = 0; q < n; q++)
+			for (int c = 1; c < k; c++)
+				predStart[c * n + delta[q * k + c] + 1]++;
+		for (int i = 1; i < predStart.length; i++)
+			predStart[i] += predStart[i - 1];
+		int[] preds = new int[predStart[predStart.length - 1]];
+		int[] fill = Arrays.copyOf(predStart, predStart.length - 1);
+		for (int q = 0; q < n; q++)
+			for (int c = 1; c < k; c++)
+				preds[fill[c * n + delta[q * k + c]]++] = q;
+
+		// the partition: the elements of block b are stored in elements, from
+		// first[b] to end[b] (excluded); the ones marked during a refinement
+		// step are moved at the beginning of their block
+		int[] elements = new int[n], position = new int[n], blockOf = new int[n];
+		int[] first = new int[n], end = new int[n], marked = new int[n];
+		boolean[] isFinal = new boolean[n];
+		for (int s = live.nextSetBit(0); s >= 0; s = live.nextSetBit(s + 1))
+			isFinal[renaming[s]] = idx.finals.get(s);
+		int size = 0;
+		for (int q = 0; q < n; q++)
+			if (isFinal[q])
+				elements[size++] = q;
+		int finals = size;
+		for (int q = 0; q < n; q++)
+			if (!isFinal[q])
+				elements[size++] = q;
+		for (int i = 0; i < n; i++) {
+			position[elements[i]] = i;
+			blockOf[elements[i]] = i < finals ? 0 : 1;
+		}
+		first[0] = 0;
+		end[0] = finals;
+		first[1] = finals;
+		end[1] = n;
+		int blocks = 2;
+
+		int[] worklist = new int[n];
+		boolean[] pending = new boolean[n];
+		int top = 0;
+		worklist[top++] = 0;
+		worklist[top++] = 1;
+		pending[0] = pending[1] = true;
+
+		int[] touched = new int[n];
+		while (top > 0) {
+			int splitter = worklist[--top];
+			pending[splitter] = false;
+			int[] members = Arrays.copyOfRange(elements, first[splitter], end[splitter]);
+			for (int c = 1; c < k; c++) {
+				int touchedCount = 0;
+				for (int q : members)
+					for (int i = predStart[c * n + q]; i < predStart[c * n + q + 1]; i++) {
+						int p = preds[i];
+						int b = blockOf[p];
+						int bound = first[b] + marked[b];
+						if (position[p] < bound)
+							// already marked
+							continue;
+						if (marked[b] == 0)
+							touched[touchedCount++] = b;
+						int other = elements[bound];
+						elements[position[p]] = other;
+						position[other] = position[p];
+						elements[bound] = p;
+						position[p] = bound;
+						marked[b]++;
+					}
+
+				for (int i = 0; i < touchedCount; i++) {
+					int b = touched[i];
+					int m = marked[b];
+					marked[b] = 0;
+					if (m == end[b] - first[b])
+						continue;
+
+					// the marked elements form a new block
+					int nb = blocks++;
+					first[nb] = first[b];
+					end[nb] = first[b] + m;
+					first[b] = end[nb];
+					for (int j = first[nb]; j < end[nb]; j++)
+						blockOf[elements[j]] = nb;
+
+					int next = pending[b] || m <= end[b] - first[b] ? nb : b;
+					worklist[top++] = next;
+					pending[next] = true;
+				}
+			}
+		}
+
+		// build the quotient automaton, visiting it breadth-first
+		SortedSet<State> sts = new TreeSet<>();
+		SortedSet<Transition> ts = new TreeSet<>();
+		State[] created = new State[blocks];
+		int[] queue = new int[blocks];
+		int initial = blockOf[renaming[idx.initials.nextSetBit(0)]];
+		created[initial] = new State(true, isFinal[elements[first[initial]]]);
+		sts.add(created[initial]);
+		queue[0] = initial;
+		for (int head = 0, tail = 1; head < tail; head++) {
+			int b = queue[head];
+			int representative = elements[first[b]];
+			for (int c = 1; c < k; c++) {
+				int target = blockOf[delta[representative * k + c]];
+				if (target == blockOf[sink])
+					continue;
+				if (created[target] == null) {
+					created[target] = new State(false, isFinal[elements[first[target]]]);
+					sts.add(created[target]);
+					queue[tail++] = target;
+				}
+				ts.add(new Transition(created[b], created[target], idx.symbols[c]));
+			}
+		}
+
+		return new Automaton(sts, ts);
+	}
+
 	/**
 	 * Remove all the unreachable states from the current automaton.
 	 *
@@ -155,30 +331,17 @@ public final class Automaton {
 	 *             {@code this}.
 	 */
 	Automaton reach() {
-		// used to store temporarily the states reached from the states in NS
-		SortedSet<State> T;
-		SortedSet<State> initialStates = epsClosure();
+		Index idx = index();
 		// stores the reached states of the automaton
-		SortedSet<State> RS = new TreeSet<>(initialStates);
-		// states that will be checked in the following iteration
-		SortedSet<State> NS = new TreeSet<>(initialStates);
-
-		do {
-			T = new TreeSet<>();
-
-			for (State q : NS) {
-				T.addAll(transitions.stream().filter(t -> t.getSource().equals(q) && !RS.contains(t.getDestination()))
-						.map(Transition::getDestination).collect(Collectors.toSet()));
-			}
-			NS = T;
-			RS.addAll(T);
-		} while (!NS.isEmpty());
+		BitSet reached = idx.forward(idx.initials);
 		// add to the new automaton only the transitions between the states of
 		// the new Automaton
-		SortedSet<Transition> tr = transitions;
-		tr.removeIf(t -> !RS.contains(t.getSource()) || !RS.contains(t.getDestination()));
+		SortedSet<Transition> tr = new TreeSet<>();
+		for (int t = 0; t < idx.src.length; t++)
+			if (reached.get(idx.src[t]) && reached.get(idx.dst[t]))
+				tr.add(idx.transitions[t]);
 
-		return new Automaton(RS, tr);
+		return new Automaton(idx.toStates(reached), tr);
 	}
 
 	/**
@@ -223,80 +386,59 @@ public final class Automaton {
 		if (IS_DETERMINIZED)
 			return this;
 
+		Index idx = index();
 		// transitions of the new deterministic automaton
 		SortedSet<Transition> delta = new TreeSet<>();
 		// states of the new deterministic automaton
 		SortedSet<State> sts = new TreeSet<>();
-		// store the macrostates of the new Automaton
-		List<SortedSet<State>> detStates = new ArrayList<>();
-		// used to map the macrostate with the corresponding state of the new
-		// automaton
-		Map<State, SortedSet<State>> stateToMacro = new HashMap<>();
-		Map<SortedSet<State>, State> macroToState = new HashMap<>();
-		// stores the already controlled states
-		Set<State> marked = new TreeSet<>();
-		// automaton alphabet
-		Set<String> alphabet = transitions.stream().map(Transition::getSymbol).filter(s -> !s.equals(""))
-				.collect(Collectors.toSet());
+		// the macrostates of the new automaton, in order of discovery, together
+		// with the corresponding states
+		List<BitSet> macros = new ArrayList<>();
+		List<State> created = new ArrayList<>();
+		Map<BitSet, Integer> known = new HashMap<>();
 
 		// the first macrostate is the one associated with the epsilon closure
 		// of the initial states
-		SortedSet<State> initialStates = epsClosure();
-		detStates.add(initialStates);
-		State q = null;
-		for (State s : initialStates)
-			if (s.isFinal()) {
-				q = new State(true, true);
-				break;
-			}
-		if (q == null)
-			q = new State(true, false);
+		BitSet initialStates = idx.epsClosure(idx.initials);
+		State q = new State(true, initialStates.intersects(idx.finals));
+		macros.add(initialStates);
+		created.add(q);
+		known.put(initialStates, 0);
 		sts.add(q);
-		stateToMacro.put(q, initialStates);
-		macroToState.put(initialStates, q);
-		// used to keep track of current state
-		State current = q;
-
-		// iterate until all the states have been checked
-		while (!marked.equals(sts)) {
-			for (State s : sts) {
-				// get the first state that has not been checked yet
-				if (!marked.contains(s)) {
-					marked.add(s);
-					current = s;
-					break;
-				}
-			}
-			// macrostate corresponding to the current state
-			Set<State> currStates = stateToMacro.get(current);
+
+		BitSet[] successors = new BitSet[idx.symbols.length];
+		for (int m = 0; m < macros.size(); m++) {
+			BitSet current = macros.get(m);
 			// find all the destination states of any non epsilon transaction
-			// starting from a current state
-			for (String c : alphabet) {
-				Set<State> R = epsClosure(transitions.stream().filter(
-						t -> currStates.contains(t.getSource()) && t.getSymbol().equals(c) && !t.getSymbol().equals(""))
-						.map(Transition::getDestination).collect(Collectors.toSet()));
-				// add R to detStates only if it is a new macrostate
-				if (!detStates.contains(R) && !R.isEmpty()) {
-					TreeSet<State> currentStates = (TreeSet<State>) R;
-					detStates.add(currentStates);
-					State nq = null;
-					// make nq final if any of the state in the correspondent
-					// macrostate is final
-					for (State s : R)
-						if (s.isFinal()) {
-							nq = new State(false, true);
-							break;
-						}
-					if (nq == null)
-						nq = new State(false, false);
+			// starting from a current state, grouped by symbol
+			Arrays.fill(successors, null);
+			for (int s = current.nextSetBit(0); s >= 0; s = current.nextSetBit(s + 1))
+				for (int t : idx.outgoing[s]) {
+					int c = idx.sym[t];
+					if (c == EPSILON)
+						continue;
+					if (successors[c] == null)
+						successors[c] = new BitSet(idx.states.length);
+					successors[c].set(idx.dst[t]);
+				}
+
+			for (int c = 1; c < successors.length; c++) {
+				if (successors[c] == null)
+					continue;
+				BitSet r = idx.epsClosure(successors[c]);
+				Integer target = known.get(r);
+				// add R to the macrostates only if it is a new one
+				if (target == null) {
+					target = macros.size();
+					// the new state is final if any of the state in the
+					// correspondent macrostate is final
+					State nq = new State(false, r.intersects(idx.finals));
+					macros.add(r);
+					created.add(nq);
+					known.put(r, target);
 					sts.add(nq);
-					stateToMacro.put(nq, currentStates);
-					macroToState.put(currentStates, nq);
 				}
-				// add transition from currStates macrostate to R that is
-				// destination macrostate
-				if (!R.isEmpty())
-					delta.add(new Transition(macroToState.get(currStates), macroToState.get(R), c));
+				delta.add(new Transition(created.get(m), created.get(target), idx.symbols[c]));
 			}
 		}
 
@@ -314,7 +456,8 @@ public final class Automaton {
 	 *             just with epsilon transitions.
 	 */
 	SortedSet<State> epsClosure() {
-		return epsClosure(states.stream().filter(State::isInitial).collect(Collectors.toSet()));
+		Index idx = index();
+		return idx.toStates(idx.epsClosure(idx.initials));
 	}
 
 	/**
@@ -329,55 +472,17 @@ public final class Automaton {
 	 *             epsilon transitions.
 	 */
 	Set<State> epsClosure(State state) {
-		Set<State> eps = new TreeSet<>();
-		eps.add(state);
-		// used to make sure that a state isn't checked twice
-		Set<State> checked = new TreeSet<>();
-
-		// add current state
-		do {
-			// used to collect new states that have to be added to eps inside
-			// for
-			// loop
-			Set<State> temp = new TreeSet<>();
-			for (State s : eps) {
-				if (!checked.contains(s)) {
-					checked.add(s);
-
-					// collect all the possible destination from the current
-					// state
-					Set<State> dest = transitions.stream()
-							.filter(t -> t.getSource().equals(s) && t.getSymbol().equals(""))
-							.map(Transition::getDestination).collect(Collectors.toSet());
-
-					temp.addAll(dest);
-				}
-			}
-
-			eps.addAll(temp);
-
-		} while (!checked.containsAll(eps));
-
-		return eps;
-	}
-
-	/**
-	 * Computes the epsilon closure of this automaton starting from
-	 * {@code state}, namely the set of states that are reachable from
-	 * {@code st} just with epsilon transitions.
-	 *
-	 * @param st the set of states from which the epsilon closure is computed.
-	 * 
-	 * @return the set of states that are reachable from {@code state} just with
-	 *             epsilon transitions.
-	 */
-	private SortedSet<State> epsClosure(Set<State> st) {
-		SortedSet<State> eps = new TreeSet<>();
-
-		for (State s : st)
-			eps.addAll(epsClosure(s));
+		Index idx = index();
+		Integer id = idx.ids.get(state);
+		if (id == null) {
+			Set<State> eps = new TreeSet<>();
+			eps.add(state);
+			return eps;
+		}
 
-		return eps;
+		BitSet start = new BitSet(idx.states.length);
+		start.set(id);
+		return idx.toStates(idx.epsClosure(start));
 	}
 
 	/**
@@ -481,26 +586,24 @@ public final class Automaton {
 		// the set representing the accepted language
 		SortedSet<String> lang = new TreeSet<>();
 		lang.add("");
+		Index idx = index();
+		Integer start = idx.ids.get(q);
+		if (start == null)
+			return lang;
+
 		// used to keep track of every single possible path
-		LinkedList<AbstractMap.SimpleImmutableEntry<String, State>> stack = new LinkedList<>();
-		// add all initialStates to the stack
-		stack.addFirst(new AbstractMap.SimpleImmutableEntry<>("", q));
+		Deque<AbstractMap.SimpleImmutableEntry<String, Integer>> stack = new ArrayDeque<>();
+		stack.addFirst(new AbstractMap.SimpleImmutableEntry<>("", start));
 
 		while (!stack.isEmpty()) {
-			AbstractMap.SimpleImmutableEntry<String, State> top = stack.removeFirst();
+			AbstractMap.SimpleImmutableEntry<String, Integer> top = stack.removeFirst();
 			String currentString = top.getKey();
-			Set<String> newChars = transitions.stream().filter(t -> t.getSource().equals(top.getValue()))
-					.map(Transition::getSymbol).collect(Collectors.toSet());
-			for (String c : newChars) {
-				String newString = currentString + c;
+			for (int t : idx.outgoing[top.getValue()]) {
+				String newString = currentString + idx.symbols[idx.sym[t]];
 				lang.add(newString);
 
-				if (newString.length() < length) {
-					for (State s : getOutgoingTranstionsFrom(top.getValue()).stream()
-							.filter(t -> t.getSymbol().equals(c)).map(Transition::getDestination)
-							.collect(Collectors.toSet()))
-						stack.add(new AbstractMap.SimpleImmutableEntry<>(newString, s));
-				}
+				if (newString.length() < length)
+					stack.addLast(new AbstractMap.SimpleImmutableEntry<>(newString, idx.dst[t]));
 			}
 		}
 
@@ -509,42 +612,42 @@ public final class Automaton {
 	}
 
 	/**
-	 * Returns all the outgoing transitions from a given state.
-	 *
-	 * @param q the source of the transitions.
+	 * Checks if the Automaton {@code this} has any cycle reachable from its
+	 * initial states.
 	 * 
-	 * @return a Set containing all the outgoing transitions from the state q.
-	 */
-	private Set<Transition> getOutgoingTranstionsFrom(State q) {
-		return transitions.stream().filter(t -> t.getSource().equals(q)).collect(Collectors.toSet());
-	}
-
-	/**
-	 * Checks if the Automaton {@code this} has any cycle.
-	 *
 	 * @return a boolean value that tells if {@code this} has any cycle.
 	 */
 	boolean hasCycle() {
-		if (states.size() == 1) {
-			for (Transition t : transitions) {
-				if (t.getSource() == t.getDestination())
-					return true;
-			}
-		}
-		// visit the automaton to check if there is any cycle
-		Set<State> currentStates = states.stream().filter(State::isInitial).collect(Collectors.toSet());
-		Set<State> visited = new TreeSet<>();
-		while (!visited.containsAll(states)) {
-			Set<State> temp = new TreeSet<>();
-			for (State s : currentStates) {
-				temp.addAll(transitions.stream().filter(t -> t.getSource().equals(s)).map(Transition::getDestination)
-						.collect(Collectors.toSet()));
+		Index idx = index();
+		int n = idx.states.length;
+		// 0 = not visited, 1 = on the current path, 2 = fully explored
+		byte[] color = new byte[n];
+		int[] stack = new int[n];
+		int[] next = new int[n];
+		// iterative depth-first visit looking for back edges
+		for (int root = idx.initials.nextSetBit(0); root >= 0; root = idx.initials.nextSetBit(root + 1)) {
+			if (color[root] != 0)
+				continue;
+			int top = 0;
+			stack[top] = root;
+			next[top++] = 0;
+			color[root] = 1;
+			while (top > 0) {
+				int q = stack[top - 1];
+				if (next[top - 1] < idx.outgoing[q].length) {
+					int d = idx.dst[idx.outgoing[q][next[top - 1]++]];
+					if (color[d] == 1)
+						return true;
+					if (color[d] == 0) {
+						color[d] = 1;
+						stack[top] = d;
+						next[top++] = 0;
+					}
+				} else {
+					color[q] = 2;
+					top--;
+				}
 			}
-			for (State s : temp)
-				if (visited.contains(s))
-					return true;
-			visited.addAll(currentStates);
-			currentStates = temp;
 		}
 
 		return false;
@@ -563,30 +666,29 @@ public final class Automaton {
 		if (hasCycle())
 			throw new CyclicAutomatonException();
 
+		Index idx = index();
 		// stack used to keep track of transitions that will be "visited"
 		// each element is a pair to keep track of old String and next
 		// Transition
-		LinkedList<AbstractMap.SimpleImmutableEntry<String, Transition>> stack = new LinkedList<>();
-		Set<State> initialStates = states.stream().filter(State::isInitial).collect(Collectors.toSet());
+		Deque<AbstractMap.SimpleImmutableEntry<String, Integer>> stack = new ArrayDeque<>();
 		// add initial states transitions to stack
-		for (State q : initialStates) {
-			for (Transition t : getOutgoingTranstionsFrom(q)) {
+		for (int q = idx.initials.nextSetBit(0); q >= 0; q = idx.initials.nextSetBit(q + 1))
+			for (int t : idx.outgoing[q])
 				stack.addFirst(new AbstractMap.SimpleImmutableEntry<>("", t));
-			}
-		}
+
 		// generate all the strings and add them to lang
 		while (!stack.isEmpty()) {
-			AbstractMap.SimpleImmutableEntry<String, Transition> top = stack.removeFirst();
-			String currentString = top.getKey();
-			Transition tr = top.getValue();
+			AbstractMap.SimpleImmutableEntry<String, Integer> top = stack.removeFirst();
+			int tr = top.getValue();
+			String currentString = top.getKey() + idx.symbols[idx.sym[tr]];
 			// when it finds a final state it adds the generated string to the
 			// language
-			if (tr.getDestination().isFinal())
-				lang.add(currentString + tr.getSymbol());
+			if (idx.finals.get(idx.dst[tr]))
+				lang.add(currentString);
 			// adds all the possible path from current transition destination to
 			// the stack
-			for (Transition t : getOutgoingTranstionsFrom(tr.getDestination()))
-				stack.addFirst(new AbstractMap.SimpleImmutableEntry<>(currentString + tr.getSymbol(), t));
+			for (int t : idx.outgoing[idx.dst[tr]])
+				stack.addFirst(new AbstractMap.SimpleImmutableEntry<>(currentString, t));
 		}
 
 		return lang;
@@ -597,6 +699,7 @@ public final class Automaton {
 	 * complete.
 	 */
 	private Automaton complete(Set<String> sigma) {
+		Index idx = index();
 		SortedSet<State> newStates = new TreeSet<>(states);
 		SortedSet<Transition> newTransitions = new TreeSet<>(transitions);
 		// add a new "garbage" state
@@ -604,11 +707,16 @@ public final class Automaton {
 		newStates.add(garbage);
 
 		// adds all the transitions to the garbage state
-		for (State s : newStates)
+		for (State s : newStates) {
+			Integer id = idx.ids.get(s);
+			Set<String> available = new HashSet<>();
+			if (id != null)
+				for (int t : idx.outgoing[id])
+					available.add(idx.symbols[idx.sym[t]]);
 			for (String c : sigma)
-				if (newTransitions.stream().filter(t -> t.getSymbol().equals(c) && t.getSource().equals(s))
-						.collect(Collectors.toSet()).isEmpty())
+				if (!available.contains(c))
 					newTransitions.add(new Transition(s, garbage, c));
+		}
 		return new Automaton(newStates, newTransitions);
 	}
 
@@ -673,16 +781,104 @@ public final class Automaton {
 
 	/**
 	 * Checks if the automaton {@code this} contains the automaton
-	 * {@code other}.
+	 * {@code other}.<br>
+	 * <br>
+	 * Inclusion is checked on-the-fly, without complementing {@code other}:
+	 * the product between the states of {@code this} and the macrostates of
+	 * {@code other} (that is, the sets of states reached when reading the same
+	 * word) is explored lazily, until a final state of {@code this} is paired
+	 * with a macrostate with no final states. Visited pairs are kept in an
+	 * antichain: a pair is not explored if it is subsumed by one with the same
+	 * state of {@code this} and a smaller macrostate, since any counterexample
+	 * found from the former can also be found from the latter.
 	 * 
 	 * @param other the other automaton
 	 * 
 	 * @return a boolean value that points out if the automaton is contained or
 	 *             not
+	 * 
+	 * @see <a href="https://doi.org/10.1007/11817963_5">Antichains: A New
+	 *          Algorithm for Checking Universality of Finite Automata</a>
 	 */
 	public boolean isContained(Automaton other) {
-		Automaton intersection = intersection(other.complement(commonAlphabet(other))).minimize();
-		return intersection.acceptsEmptyLanguage();
+		if (this == other)
+			return true;
+
+		Index left = index(), right = other.index();
+		// states of this automaton that cannot reach a final state cannot be
+		// part of a counterexample
+		BitSet useful = left.backward(left.finals);
+		// the symbols of this automaton, mapped to the ones of other
+		int[] translation = new int[left.symbols.length];
+		for (int c = 0; c < translation.length; c++) {
+			Integer id = right.symbolIds.get(left.symbols[c]);
+			translation[c] = id == null ? -1 : id;
+		}
+		// successors of the macrostates of other, for each symbol of other
+		Map<BitSet, BitSet[]> successors = new HashMap<>();
+
+		@SuppressWarnings("unchecked")
+		List<BitSet>[] antichain = new List[left.states.length];
+		Deque<AbstractMap.SimpleImmutableEntry<Integer, BitSet>> worklist = new ArrayDeque<>();
+		BitSet start = right.epsClosure(right.initials);
+		for (int p = left.initials.nextSetBit(0); p >= 0; p = left.initials.nextSetBit(p + 1))
+			if (useful.get(p) && addToAntichain(antichain, p, start))
+				worklist.add(new AbstractMap.SimpleImmutableEntry<>(p, start));
+
+		while (!worklist.isEmpty()) {
+			AbstractMap.SimpleImmutableEntry<Integer, BitSet> pair = worklist.removeFirst();
+			int p = pair.getKey();
+			BitSet macro = pair.getValue();
+			if (!antichain[p].contains(macro))
+				// subsumed after being added to the worklist
+				continue;
+			if (left.finals.get(p) && !macro.intersects(right.finals))
+				return false;
+
+			for (int t : left.outgoing[p]) {
+				int q = left.dst[t];
+				if (!useful.get(q))
+					continue;
+				BitSet next;
+				if (left.sym[t] == EPSILON)
+					next = macro;
+				else if (translation[left.sym[t]] < 0)
+					next = new BitSet();
+				else {
+					int c = translation[left.sym[t]];
+					BitSet[] succ = successors.computeIfAbsent(macro, m -> new BitSet[right.symbols.length]);
+					if (succ[c] == null)
+						succ[c] = right.epsClosure(right.step(macro, c));
+					next = succ[c];
+				}
+				if (addToAntichain(antichain, q, next))
+					worklist.add(new AbstractMap.SimpleImmutableEntry<>(q, next));
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Adds the pair {@code (state, macro)} to the given antichain, unless it
+	 * is subsumed by a pair already in it. Pairs that are subsumed by the new
+	 * one are removed.
+	 */
+	private static boolean addToAntichain(List<BitSet>[] antichain, int state, BitSet macro) {
+		if (antichain[state] == null)
+			antichain[state] = new LinkedList<>();
+		for (BitSet existing : antichain[state])
+			if (isSubset(existing, macro))
+				return false;
+		antichain[state].removeIf(existing -> isSubset(macro, existing));
+		antichain[state].add(macro);
+		return true;
+	}
+
+	private static boolean isSubset(BitSet first, BitSet second) {
+		BitSet diff = (BitSet) first.clone();
+		diff.andNot(second);
+		return diff.isEmpty();
 	}
 
 	/**
@@ -694,6 +890,8 @@ public final class Automaton {
 	 * @return a boolean value that points out if the automata are equivalent
 	 */
 	public boolean isEqual(Automaton other) {
+		if (this == other)
+			return true;
 		if (!isContained(other))
 			return false;
 		return other.isContained(this);
@@ -709,8 +907,8 @@ public final class Automaton {
 	 */
 	Set<String> commonAlphabet(Automaton other) {
 		Set<String> result = new TreeSet<>();
-		result.addAll(transitions.stream().map(Transition::getSymbol).collect(Collectors.toSet()));
-		result.addAll(other.transitions.stream().map(Transition::getSymbol).collect(Collectors.toSet()));
+		Collections.addAll(result, index().symbols);
+		Collections.addAll(result, other.index().symbols);
 
 		// remove the empty string
 		result.remove("");
@@ -727,49 +925,37 @@ public final class Automaton {
 	 */
 	public Automaton widening(int n) {
 		SortedSet<State> newStates = new TreeSet<>();
-		// stores all the powerstates - note that this does not need to be
-		// sorted: this is used only to iterate and produce a transition
-		// that is added to sorted set, and thus the order in which those are
-		// created does not matter
-		Set<SortedSet<State>> powerStates = new HashSet<>();
-		// used to store a mapping between the powerstate and the new state
-		Map<SortedSet<State>, State> powerToNew = new HashMap<>();
-		// used to store languages to improve performance
+		// states recognizing the same strings of length at most n are merged
+		// together, and the language is used to identify the merged state
+		Map<SortedSet<String>, State> languageToNew = new HashMap<>();
+		Map<State, State> oldToNew = new HashMap<>();
+		Map<SortedSet<String>, boolean[]> flags = new HashMap<>();
 		Map<State, SortedSet<String>> languages = new HashMap<>();
-		// generate all the languages for the states
-		for (State s : states)
-			languages.put(s, getLanguageAtMost(s, n));
+		for (State s : states) {
+			SortedSet<String> lang = getLanguageAtMost(s, n);
+			languages.put(s, lang);
+			boolean[] f = flags.computeIfAbsent(lang, l -> new boolean[2]);
+			f[0] |= s.isInitial();
+			f[1] |= s.isFinal();
+		}
 
 		// create the new states for the new automaton
 		for (State s : states) {
-			SortedSet<State> ps = new TreeSet<>();
-			ps.add(s);
-			for (State q : states)
-				if (!q.equals(s) && languages.get(s).equals(languages.get(q)))
-					ps.add(q);
-
-			boolean isInitial = false, isFinal = false;
-			for (State q : ps) {
-				if (q.isInitial())
-					isInitial = true;
-				if (q.isFinal())
-					isFinal = true;
-			}
-
-			State ns = new State(isInitial, isFinal);
-			powerStates.add(ps);
-			powerToNew.put(ps, ns);
-			newStates.add(ns);
+			SortedSet<String> lang = languages.get(s);
+			State ns = languageToNew.computeIfAbsent(lang, l -> {
+				boolean[] f = flags.get(l);
+				State q = new State(f[0], f[1]);
+				newStates.add(q);
+				return q;
+			});
+			oldToNew.put(s, ns);
 		}
 
 		// add transitions between the new states
 		SortedSet<Transition> newTransitions = new TreeSet<>();
 		for (Transition t : transitions)
-			for (SortedSet<State> ps : powerStates)
-				if (ps.contains(t.getSource()))
-					for (SortedSet<State> psd : powerStates)
-						if (psd.contains(t.getDestination()))
-							newTransitions.add(new Transition(powerToNew.get(ps), powerToNew.get(psd), t.getSymbol()));
+			newTransitions.add(new Transition(oldToNew.get(t.getSource()), oldToNew.get(t.getDestination()),
+					t.getSymbol()));
 
 		Automaton automaton = new Automaton(newStates, newTransitions);
 		return automaton.minimize();
@@ -1004,11 +1190,173 @@ public final class Automaton {
 	 */
 	public Set<Transition> getAllTransitionsConnecting(State s1, State s2) {
 		Set<Transition> result = new TreeSet<>();
+		Index idx = index();
+		Integer source = idx.ids.get(s1);
+		Integer dest = idx.ids.get(s2);
+		if (source == null || dest == null)
+			return result;
 
-		for (Transition t : this.transitions)
-			if (t.getSource().equals(s1) && t.getDestination().equals(s2))
-				result.add(t);
+		for (int t : idx.outgoing[source])
+			if (idx.dst[t] == dest)
+				result.add(idx.transitions[t]);
 
 		return result;
 	}
+
+	/**
+	 * An integer-based index of an automaton. States are numbered following
+	 * their order (states that only appear in transitions are numbered last),
+	 * while symbols are interned following their lexicographic order, with the
+	 * empty string (that is, epsilon) always being {@link Automaton#EPSILON}.
+	 * The transitions are numbered following their order, and are described by
+	 * the arrays {@link #src}, {@link #dst} and {@link #sym}.
+	 */
+	private static final class Index {
+
+		private final State[] states;
+
+		private final Map<State, Integer> ids;
+
+		private final String[] symbols;
+
+		private final Map<String, Integer> symbolIds;
+
+		private final Transition[] transitions;
+
+		private final int[] src, dst, sym;
+
+		/**
+		 * The indexes of the transitions leaving each state.
+		 */
+		private final int[][] outgoing;
+
+		/**
+		 * The indexes of the transitions reaching each state.
+		 */
+		private final int[][] incoming;
+
+		private final BitSet initials, finals;
+
+		private Index(SortedSet<State> states, SortedSet<Transition> transitions) {
+			ids = new HashMap<>();
+			List<State> sts = new ArrayList<>(states);
+			for (State s : sts)
+				ids.put(s, ids.size());
+			for (Transition t : transitions)
+				for (State s : new State[] { t.getSource(), t.getDestination() })
+					if (!ids.containsKey(s)) {
+						ids.put(s, ids.size());
+						sts.add(s);
+					}
+			this.states = sts.toArray(State[]::new);
+
+			SortedSet<String> alphabet = new TreeSet<>();
+			for (Transition t : transitions)
+				alphabet.add(t.getSymbol());
+			alphabet.remove("");
+			symbols = new String[alphabet.size() + 1];
+			symbolIds = new HashMap<>();
+			symbols[EPSILON] = "";
+			symbolIds.put("", EPSILON);
+			for (String s : alphabet) {
+				symbols[symbolIds.size()] = s;
+				symbolIds.put(s, symbolIds.size());
+			}
+
+			int n = this.states.length;
+			int m = transitions.size();
+			this.transitions = transitions.toArray(Transition[]::new);
+			src = new int[m];
+			dst = new int[m];
+			sym = new int[m];
+			int[] out = new int[n], in = new int[n];
+			for (int t = 0; t < m; t++) {
+				src[t] = ids.get(this.transitions[t].getSource());
+				dst[t] = ids.get(this.transitions[t].getDestination());
+				sym[t] = symbolIds.get(this.transitions[t].getSymbol());
+				out[src[t]]++;
+				in[dst[t]]++;
+			}
+
+			outgoing = new int[n][];
+			incoming = new int[n][];
+			for (int s = 0; s < n; s++) {
+				outgoing[s] = new int[out[s]];
+				incoming[s] = new int[in[s]];
+				out[s] = in[s] = 0;
+			}
+			for (int t = 0; t < m; t++) {
+				outgoing[src[t]][out[src[t]]++] = t;
+				incoming[dst[t]][in[dst[t]]++] = t;
+			}
+
+			initials = new BitSet(n);
+			finals = new BitSet(n);
+			for (int s = 0; s < n; s++) {
+				if (this.states[s].isInitial())
+					initials.set(s);
+				if (this.states[s].isFinal())
+					finals.set(s);
+			}
+		}
+
+		private SortedSet<State> toStates(BitSet set) {
+			SortedSet<State> result = new TreeSet<>();
+			for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1))
+				result.add(states[s]);
+			return result;
+		}
+
+		/**
+		 * Yields the states reachable from the given ones through epsilon
+		 * transitions, including the given ones.
+		 */
+		private BitSet epsClosure(BitSet start) {
+			return visit(start, true, outgoing, dst);
+		}
+
+		/**
+		 * Yields the states reachable from the given ones, including the given
+		 * ones.
+		 */
+		private BitSet forward(BitSet start) {
+			return visit(start, false, outgoing, dst);
+		}
+
+		/**
+		 * Yields the states that can reach the given ones, including the given
+		 * ones.
+		 */
+		private BitSet backward(BitSet start) {
+			return visit(start, false, incoming, src);
+		}
+
+		private BitSet visit(BitSet start, boolean epsilonOnly, int[][] adjacency, int[] target) {
+			BitSet result = (BitSet) start.clone();
+			int[] worklist = new int[states.length];
+			int top = 0;
+			for (int s = start.nextSetBit(0); s >= 0; s = start.nextSetBit(s + 1))
+				worklist[top++] = s;
+			while (top > 0)
+				for (int t : adjacency[worklist[--top]])
+					if ((!epsilonOnly || sym[t] == EPSILON) && !result.get(target[t])) {
+						result.set(target[t]);
+						worklist[top++] = target[t];
+					}
+			return result;
+		}
+
+		/**
+		 * Yields the states reachable from the given ones through a single
+		 * transition labeled with the given symbol.
+		 */
+		private BitSet step(BitSet from, int symbol) {
+			BitSet result = new BitSet(states.length);
+			for (int s = from.nextSetBit(0); s >= 0; s = from.nextSetBit(s + 1))
+				for (int t : outgoing[s])
+					if (sym[t] == symbol)
+						result.set(dst[t]);
+			return result;
+		}
+	}
 }
\ No newline at end of file
@@ -6,15 +6,39 @@ import static it.unive.lisa.analysis.string.stringgraph.StringGraph.NodeType.*;
 import it.unive.lisa.analysis.SemanticDomain;
 import it.unive.lisa.analysis.string.stringgraph.exception.WrongBuildStringGraphException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
 
 /**
- * The string graph domain.
+ * The string graph domain.<br>
+ * <br>
+ * Every node carries a version stamp that is refreshed whenever the subgraph
+ * rooted in it changes, that is, when the sons, the label or the bound of any
+ * of its descendants change, or when any of its descendants gains or loses a
+ * father. Stamps are used to avoid repeating work on unchanged subgraphs: the
+ * structural hash of a node and the results of
+ * {@link #checkPartialOrder(StringGraph, StringGraph)} are cached until the
+ * involved subgraphs change, and {@link #compact()} skips the subgraphs that
+ * have not changed since their last compaction. For the stamps to be
+ * accurate, the graph must be modified only through the methods of this
+ * class, and not through the lists returned by {@link #getSons()} and
+ * {@link #getFathers()}.
  */
 public class StringGraph {
 
+	/**
+	 * The clock used to generate version stamps.
+	 */
+	private static final AtomicLong CLOCK = new AtomicLong();
+
+	/**
+	 * The value of {@link #hashVersion} while the structural hash of a node is
+	 * being computed.
+	 */
+	private static final long HASHING = -2;
+
 	/**
 	 * NodeType represents string graph basic unit.
 	 */
@@ -158,6 +182,35 @@ public class StringGraph {
 	private CHARACTER character;
 	private Integer bound; // NEEDED FOR evalTernaryExpression() METHOD
 
+	/**
+	 * The stamp of the last modification of the subgraph rooted in this node.
+	 */
+	private long version = CLOCK.incrementAndGet();
+
+	/**
+	 * The value of {@link #version} when this node was last compacted.
+	 */
+	private long compactedVersion = -1;
+
+	/**
+	 * The value of {@link #version} when {@link #hash} was computed.
+	 */
+	private long hashVersion = -1;
+
+	private int hash;
+
+	/**
+	 * Whether or not this node is being compacted or normalized, used to stop
+	 * the recursion on cycles.
+	 */
+	private boolean visiting;
+
+	/**
+	 * The results of {@link #checkPartialOrder(StringGraph, StringGraph)}
+	 * having this node as first argument, keyed by the second argument.
+	 */
+	private Map<StringGraph, Ordering> orderings;
+
 	/**
 	 * Builds a {@link StringGraph} by specifying root node, (optional) subtrees
 	 * and (optional) character.
@@ -280,6 +333,10 @@ public class StringGraph {
 	 *             otherwise.
 	 */
 	private boolean isStringInt(String s) {
+		// avoid the exception for strings that are clearly not numbers
+		for (int i = 0; i < s.length(); i++)
+			if (!Character.isDigit(s.charAt(i)) && (i > 0 || (s.charAt(i) != '-' && s.charAt(i) != '+')))
+				return false;
 		try {
 			Integer.parseInt(s);
 			return true;
@@ -366,10 +423,18 @@ public class StringGraph {
 	public void addSon(StringGraph son) {
 		if (son.getLabel() != SIMPLE && this.isNormalized())
 			this.setNormalized(false);
-		if (!this.sons.contains(son))
+		boolean changed = false;
+		if (!this.sons.contains(son)) {
 			this.getSons().add(son);
-		if (!son.getFathers().contains(this))
+			changed = true;
+		}
+		if (!son.getFathers().contains(this)) {
 			son.getFathers().add(this);
+			changed = true;
+		}
+		if (changed)
+			// this is now a father of son, and will be touched as well
+			son.touch();
 	}
 
 	/**
@@ -380,6 +445,8 @@ public class StringGraph {
 	public void removeSon(StringGraph son) {
 		this.getSons().remove(son);
 		son.getFathers().remove(this);
+		this.touch();
+		son.touch();
 	}
 
 	/**
@@ -412,8 +479,10 @@ public class StringGraph {
 	public void removeAllSons() {
 		for (StringGraph s : this.getSons()) {
 			s.getFathers().remove(this);
+			s.touch();
 		}
 		this.sons = new ArrayList<>();
+		this.touch();
 	}
 
 	/**
@@ -422,8 +491,39 @@ public class StringGraph {
 	public void removeAllFathers() {
 		for (StringGraph f : this.getFathers()) {
 			f.getSons().remove(this);
+			f.touch();
 		}
 		this.fathers = new ArrayList<>();
+		this.touch();
+	}
+
+	/**
+	 * Refreshes the version stamp of this node and of all its ancestors,
+	 * signaling that the subgraphs rooted in them have changed.
+	 */
+	private void touch() {
+		long stamp = CLOCK.incrementAndGet();
+		// the worklist is only needed when there is more than one path to
+		// follow upwards
+		Deque<StringGraph> worklist = null;
+		StringGraph current = this;
+		while (current != null) {
+			StringGraph next = null;
+			if (current.version != stamp) {
+				current.version = stamp;
+				for (StringGraph father : current.fathers)
+					if (father.version == stamp)
+						continue;
+					else if (next == null)
+						next = father;
+					else {
+						if (worklist == null)
+							worklist = new ArrayDeque<>();
+						worklist.push(father);
+					}
+			}
+			current = next != null || worklist == null ? next : worklist.poll();
+		}
 	}
 
 	/**
@@ -442,6 +542,7 @@ public class StringGraph {
 	 */
 	public void setLabel(NodeType label) {
 		this.label = label;
+		this.touch();
 	}
 
 	/**
@@ -507,14 +608,19 @@ public class StringGraph {
 	 */
 	public void setBound(Integer bound) {
 		this.bound = bound;
+		this.touch();
 	}
 
 	/**
 	 * Compact the string graph by applying the 8 rule defined in the article
 	 * <i>"Deriving Descriptions of Possible Values of Program Variables by
-	 * Means of Abstract Interpretation".</i>
+	 * Means of Abstract Interpretation".</i> Subgraphs that have not changed
+	 * since their last compaction are not compacted again.
 	 */
 	protected void compact() {
+		if (this.compactedVersion == this.version || this.visiting)
+			return;
+		this.visiting = true;
 
 		// Compact all the sons if they are not fathers of current string graph
 		for (StringGraph s : this.getSons()) {
@@ -619,6 +725,9 @@ public class StringGraph {
 				}
 			}
 		}
+
+		this.visiting = false;
+		this.compactedVersion = this.version;
 	}
 
 	/**
@@ -628,7 +737,8 @@ public class StringGraph {
 	 */
 	protected void normalize() {
 
-		if (!this.isNormalized()) {
+		if (!this.isNormalized() && !this.visiting) {
+			this.visiting = true;
 
 			for (StringGraph s : this.getSons()) {
 				if (!(this.getFathers().contains(s)))
@@ -722,6 +832,7 @@ public class StringGraph {
 
 			// At the end we know for sure that our StringGraph is normalized
 			this.setNormalized(true);
+			this.visiting = false;
 		}
 	}
 
@@ -917,6 +1028,29 @@ public class StringGraph {
 
 	}
 
+	/**
+	 * Checks the partial order between two string graphs. The result is cached
+	 * in {@code first}, and reused until either {@code first} or
+	 * {@code second} change.
+	 * 
+	 * @param first  string graph to be compared
+	 * @param second string graph to be compared
+	 * 
+	 * @return true if {@code first} is contained or equal to {@code second},
+	 *             false otherwise.
+	 */
+	public static boolean checkPartialOrder(StringGraph first, StringGraph second) {
+		Ordering cached = first.orderings == null ? null : first.orderings.get(second);
+		if (cached != null && cached.firstVersion == first.version && cached.secondVersion == second.version)
+			return cached.result;
+
+		boolean result = checkPartialOrder(first, second, new HashSet<>());
+		if (first.orderings == null)
+			first.orderings = new WeakHashMap<>();
+		first.orderings.put(second, new Ordering(first.version, second.version, result));
+		return result;
+	}
+
 	/**
 	 * Auxiliary function to check the partial order between two string graphs.
 	 * 
@@ -928,7 +1062,7 @@ public class StringGraph {
 	 *             false otherwise.
 	 */
 	public static boolean checkPartialOrder(StringGraph first, StringGraph second,
-			List<Pair<StringGraph, StringGraph>> edges) {
+			Set<Pair<StringGraph, StringGraph>> edges) {
 		Pair<StringGraph, StringGraph> currentEdge = Pair.of(first, second);
 		if (edges.contains(currentEdge))
 			return true;
@@ -1061,11 +1195,12 @@ public class StringGraph {
 		// ancestor --> va
 		// other --> vn
 		// son --> vo
+		Map<StringGraph, Integer> depths = new HashMap<>();
 		for (StringGraph son : this.getSons()) {
 			for (StringGraph ancestor : ancestors) {
-				if (checkPartialOrder(other, ancestor, new ArrayList<>()) &&
-						son.depth(new HashSet<>()) >= ancestor.depth(new HashSet<>()) &&
-						son.depth(new HashSet<>()) - other.depth(new HashSet<>()) < 2) {
+				if (checkPartialOrder(other, ancestor) &&
+						depth(son, depths) >= depth(ancestor, depths) &&
+						depth(son, depths) - depth(other, depths) < 2) {
 					pair = Pair.of(other, ancestor);
 					break;
 				}
@@ -1121,12 +1256,13 @@ public class StringGraph {
 		// ancestor --> va
 		// other --> vn
 		// son --> vo
+		Map<StringGraph, Integer> depths = new HashMap<>();
 		for (StringGraph son : this.getSons()) {
 			for (StringGraph ancestor : ancestors) {
-				if (!checkPartialOrder(other, ancestor, new ArrayList<>()) &&
-						son.depth(new HashSet<>()) >= ancestor.depth(new HashSet<>()) &&
+				if (!checkPartialOrder(other, ancestor) &&
+						depth(son, depths) >= depth(ancestor, depths) &&
 						(ancestor.getPrincipalLabels().contains(other.getPrincipalLabels()) ||
-								son.depth(new HashSet<>()) < other.depth(new HashSet<>()))) {
+								depth(son, depths) < depth(other, depths))) {
 					pair = Pair.of(ancestor, other);
 					break;
 				}
@@ -1195,7 +1331,7 @@ public class StringGraph {
 	 */
 	private boolean topologicalClash(StringGraph other) {
 
-		if (checkPartialOrder(this, other, new ArrayList<>())) {
+		if (checkPartialOrder(this, other)) {
 			return this.topologicalClashAux(other);
 		}
 		return false;
@@ -1235,18 +1371,23 @@ public class StringGraph {
 	private Collection<StringGraph> getAncestors() {
 
 		Collection<StringGraph> ancestors = new HashSet<>();
-
-		if (this.getFathers().isEmpty())
-			return new HashSet<>();
-
-		for (StringGraph father : this.getFathers()) {
-			ancestors.addAll(this.getFathers());
-			ancestors.addAll(father.getAncestors());
+		Deque<StringGraph> worklist = new ArrayDeque<>(this.getFathers());
+		while (!worklist.isEmpty()) {
+			StringGraph current = worklist.pop();
+			if (ancestors.add(current))
+				worklist.addAll(current.getFathers());
 		}
 
 		return ancestors;
 	}
 
+	/**
+	 * Yields the depth of {@code node}, caching it in {@code depths}.
+	 */
+	private static int depth(StringGraph node, Map<StringGraph, Integer> depths) {
+		return depths.computeIfAbsent(node, n -> n.depth(new HashSet<>()));
+	}
+
 	/**
 	 * @return depth of a string graph
 	 */
@@ -1333,6 +1474,88 @@ public class StringGraph {
 		}
 	}
 
+	/**
+	 * Yields a hash of the structure of the graph rooted in this node, built
+	 * from the labels, characters and bounds of its nodes. Structurally equal
+	 * acyclic graphs (see {@link #structurallyEquals(StringGraph)}) have the
+	 * same hash, while the hash of nodes that are part of a cycle also depends
+	 * on the node where the computation started. Hashes are cached in each
+	 * node until the subgraph rooted in it changes, and are thus recomputed
+	 * only for the changed portions of the graph.
+	 * 
+	 * @return the structural hash of this graph
+	 */
+	public int structuralHash() {
+		if (this.hashVersion == this.version)
+			return this.hash;
+
+		this.hashVersion = HASHING;
+		int result = 31 * (31 * label.ordinal() + (character == null ? 0 : character.ordinal())) + Objects.hashCode(bound);
+		for (StringGraph son : this.sons)
+			// sons being hashed are reached through a cycle
+			result = 31 * result + (son.hashVersion == HASHING ? son.label.ordinal() : son.structuralHash());
+		this.hash = result;
+		this.hashVersion = this.version;
+		return result;
+	}
+
+	/**
+	 * Checks whether this graph and {@code other} have the same structure,
+	 * that is, if their roots have the same label, character and bound, and
+	 * if their sons, taken in order, are pairwise structurally equal. Cycles
+	 * are handled by assuming that the pairs of nodes being compared are
+	 * equal. Structurally equal graphs represent the same strings, but they
+	 * are different objects and thus they are not equal according to
+	 * {@link #equals(Object)}.
+	 * 
+	 * @param other the other graph
+	 * 
+	 * @return whether or not the two graphs are structurally equal
+	 */
+	public boolean structurallyEquals(StringGraph other) {
+		if (this == other)
+			return true;
+		if (structuralHash() != other.structuralHash())
+			return false;
+		return structurallyEquals(this, other, new HashSet<>());
+	}
+
+	private static boolean structurallyEquals(StringGraph first, StringGraph second,
+			Set<Pair<StringGraph, StringGraph>> assumed) {
+		if (first == second)
+			return true;
+		if (first.label != second.label
+				|| first.character != second.character
+				|| !Objects.equals(first.bound, second.bound)
+				|| first.sons.size() != second.sons.size())
+			return false;
+		if (!assumed.add(Pair.of(first, second)))
+			return true;
+		for (int i = 0; i < first.sons.size(); i++)
+			if (!structurallyEquals(first.sons.get(i), second.sons.get(i), assumed))
+				return false;
+		return true;
+	}
+
+	/**
+	 * A cached result of {@link StringGraph#checkPartialOrder(StringGraph,
+	 * StringGraph)}, together with the versions of the compared graphs.
+	 */
+	private static final class Ordering {
+
+		private final long firstVersion;
+
+		private final long secondVersion;
+
+		private final boolean result;
+
+		private Ordering(long firstVersion, long secondVersion, boolean result) {
+			this.firstVersion = firstVersion;
+			this.secondVersion = secondVersion;
+			this.result = result;
+		}
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder stringGraphToRepresent = new StringBuilder();
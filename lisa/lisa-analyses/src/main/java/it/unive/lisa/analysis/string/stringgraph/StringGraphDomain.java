@@ -17,7 +17,6 @@ import it.unive.lisa.symbolic.value.operator.ternary.TernaryOperator;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * StringGraphDomain: abstract domain used to represent strings.
@@ -80,6 +79,10 @@ public class StringGraphDomain extends BaseNonRelationalValueDomain<StringGraphD
 
 	@Override
 	public StringGraphDomain lubAux(StringGraphDomain other) {
+		// do not grow the graph when joining two copies of the same structure
+		if (this.stringGraph.structurallyEquals(other.stringGraph))
+			return this;
+
 		StringGraph lubGraph = new StringGraph(StringGraph.NodeType.OR,
 				new ArrayList<>(List.of(this.stringGraph, other.stringGraph)), null);
 		lubGraph.compact();
@@ -92,7 +95,7 @@ public class StringGraphDomain extends BaseNonRelationalValueDomain<StringGraphD
 
 		// other --> gn
 		// this --> go
-		if (checkPartialOrder(this.stringGraph, other.stringGraph, new ArrayList<>())) {
+		if (checkPartialOrder(this.stringGraph, other.stringGraph)) {
 			return this;
 		} else {
 			return this.widen(this.lubAux(other));
@@ -125,8 +128,8 @@ public class StringGraphDomain extends BaseNonRelationalValueDomain<StringGraphD
 
 	@Override
 	public boolean lessOrEqualAux(StringGraphDomain other) {
-		List<Pair<StringGraph, StringGraph>> edges = new ArrayList<>();
-		return checkPartialOrder(this.stringGraph, other.stringGraph, edges);
+		return this.stringGraph.structurallyEquals(other.stringGraph)
+				|| checkPartialOrder(this.stringGraph, other.stringGraph);
 	}
 
 	@Override
@@ -23,6 +23,7 @@ import it.unive.lisa.type.NullType;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.type.TypeSystem;
 import it.unive.lisa.type.TypeTokenType;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
@@ -31,7 +32,11 @@ import java.util.stream.Collectors;
 
 /**
  * An {@link InferredValue} holding a set of {@link Type}s, representing the
- * inferred runtime types of an {@link Expression}.
+ * inferred runtime types of an {@link Expression}. Whenever a
+ * {@link TypeSystem} is available, the set of types is an {@link ExternalSet}
+ * built through {@link TypeSystem#mkTypeSet(Iterable)}, so that lattice
+ * operations between sets coming from the same type system happen one machine
+ * word at a time.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
@@ -72,7 +77,8 @@ public class InferredTypes extends BaseNonRelationalTypeDomain<InferredTypes> {
 	 * @param types      the types to be included in the set of inferred types
 	 */
 	public InferredTypes(TypeSystem typeSystem, Set<Type> types) {
-		this(typeSystem != null && types.equals(typeSystem.getTypes()), types);
+		this.elements = typeSystem == null ? types : typeSystem.mkTypeSet(types);
+		this.isTop = typeSystem != null && typeSystem.isFullTypeSet(elements);
 	}
 
 	/**
@@ -116,7 +122,7 @@ public class InferredTypes extends BaseNonRelationalTypeDomain<InferredTypes> {
 
 	@Override
 	public boolean isBottom() {
-		return super.isBottom() || BOTTOM.elements.equals(elements);
+		return super.isBottom() || (elements != null && elements.isEmpty());
 	}
 
 	@Override
@@ -144,7 +150,7 @@ public class InferredTypes extends BaseNonRelationalTypeDomain<InferredTypes> {
 	public InferredTypes evalPushAny(PushAny pushAny, ProgramPoint pp) {
 		TypeSystem types = pp.getProgram().getTypes();
 		if (pushAny.getStaticType().isUntyped())
-			return new InferredTypes(true, types.getTypes());
+			return new InferredTypes(true, types.getTypeSet());
 		return new InferredTypes(types, pushAny.getRuntimeTypes(types));
 	}
 
@@ -162,7 +168,7 @@ public class InferredTypes extends BaseNonRelationalTypeDomain<InferredTypes> {
 	public InferredTypes evalUnaryExpression(UnaryOperator operator, InferredTypes arg,
 			ProgramPoint pp) {
 		TypeSystem types = pp.getProgram().getTypes();
-		Set<Type> elems = arg.isTop() ? types.getTypes() : arg.elements;
+		Set<Type> elems = arg.isTop() ? types.getTypeSet() : arg.elements;
 		Set<Type> inferred = operator.typeInference(types, elems);
 		if (inferred.isEmpty())
 			return BOTTOM;
@@ -173,8 +179,8 @@ public class InferredTypes extends BaseNonRelationalTypeDomain<InferredTypes> {
 	public InferredTypes evalBinaryExpression(BinaryOperator operator, InferredTypes left,
 			InferredTypes right, ProgramPoint pp) {
 		TypeSystem types = pp.getProgram().getTypes();
-		Set<Type> lelems = left.isTop() ? types.getTypes() : left.elements;
-		Set<Type> relems = right.isTop() ? types.getTypes() : right.elements;
+		Set<Type> lelems = left.isTop() ? types.getTypeSet() : left.elements;
+		Set<Type> relems = right.isTop() ? types.getTypeSet() : right.elements;
 		Set<Type> inferred = operator.typeInference(types, lelems, relems);
 		if (inferred.isEmpty())
 			return BOTTOM;
@@ -185,9 +191,9 @@ public class InferredTypes extends BaseNonRelationalTypeDomain<InferredTypes> {
 	public InferredTypes evalTernaryExpression(TernaryOperator operator, InferredTypes left,
 			InferredTypes middle, InferredTypes right, ProgramPoint pp) {
 		TypeSystem types = pp.getProgram().getTypes();
-		Set<Type> lelems = left.isTop() ? types.getTypes() : left.elements;
-		Set<Type> melems = middle.isTop() ? types.getTypes() : middle.elements;
-		Set<Type> relems = right.isTop() ? types.getTypes() : right.elements;
+		Set<Type> lelems = left.isTop() ? types.getTypeSet() : left.elements;
+		Set<Type> melems = middle.isTop() ? types.getTypeSet() : middle.elements;
+		Set<Type> relems = right.isTop() ? types.getTypeSet() : right.elements;
 		Set<Type> inferred = operator.typeInference(types, lelems, melems, relems);
 		if (inferred.isEmpty())
 			return BOTTOM;
@@ -198,8 +204,8 @@ public class InferredTypes extends BaseNonRelationalTypeDomain<InferredTypes> {
 	public Satisfiability satisfiesBinaryExpression(BinaryOperator operator, InferredTypes left,
 			InferredTypes right, ProgramPoint pp) {
 		TypeSystem types = pp.getProgram().getTypes();
-		Set<Type> lelems = left.isTop() ? types.getTypes() : left.elements;
-		Set<Type> relems = right.isTop() ? types.getTypes() : right.elements;
+		Set<Type> lelems = left.isTop() ? types.getTypeSet() : left.elements;
+		Set<Type> relems = right.isTop() ? types.getTypeSet() : right.elements;
 		if (operator == ComparisonEq.INSTANCE || operator == ComparisonNe.INSTANCE) {
 			Set<Type> lfiltered = lelems.stream().filter(Type::isTypeTokenType).collect(Collectors.toSet());
 			Set<Type> rfiltered = relems.stream().filter(Type::isTypeTokenType).collect(Collectors.toSet());
@@ -281,21 +287,46 @@ public class InferredTypes extends BaseNonRelationalTypeDomain<InferredTypes> {
 
 	@Override
 	public InferredTypes lubAux(InferredTypes other) throws SemanticException {
+		if (sameCache(elements, other.elements))
+			return new InferredTypes(null, ((ExternalSet<Type>) elements).union((ExternalSet<Type>) other.elements));
 		Set<Type> lub = new HashSet<>(elements);
 		lub.addAll(other.elements);
 		return new InferredTypes(null, lub);
 	}
 
+	@Override
+	public InferredTypes glbAux(InferredTypes other) throws SemanticException {
+		Set<Type> glb;
+		if (sameCache(elements, other.elements))
+			glb = ((ExternalSet<Type>) elements).intersection((ExternalSet<Type>) other.elements);
+		else
+			glb = new HashSet<>(intersection(elements, other.elements));
+		return glb.isEmpty() ? BOTTOM : new InferredTypes(null, glb);
+	}
+
 	@Override
 	public boolean lessOrEqualAux(InferredTypes other) throws SemanticException {
+		if (sameCache(elements, other.elements))
+			return ((ExternalSet<Type>) other.elements).contains((ExternalSet<Type>) elements);
 		return other.elements.containsAll(elements);
 	}
 
+	private static boolean sameCache(Set<Type> first, Set<Type> second) {
+		return first instanceof ExternalSet
+				&& second instanceof ExternalSet
+				&& ((ExternalSet<Type>) first).getCache() == ((ExternalSet<Type>) second).getCache();
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((elements == null) ? 0 : elements.hashCode());
+		// same as Set.hashCode(), that ExternalSets do not implement
+		int elementsHash = 0;
+		if (elements != null)
+			for (Type t : elements)
+				elementsHash += t.hashCode();
+		result = prime * result + elementsHash;
 		result = prime * result + (isTop ? 1231 : 1237);
 		return result;
 	}
@@ -323,8 +354,8 @@ public class InferredTypes extends BaseNonRelationalTypeDomain<InferredTypes> {
 	public InferredTypes evalTypeCast(BinaryExpression cast, InferredTypes left, InferredTypes right,
 			ProgramPoint pp) {
 		TypeSystem types = pp.getProgram().getTypes();
-		Set<Type> lelems = left.isTop() ? types.getTypes() : left.elements;
-		Set<Type> relems = right.isTop() ? types.getTypes() : right.elements;
+		Set<Type> lelems = left.isTop() ? types.getTypeSet() : left.elements;
+		Set<Type> relems = right.isTop() ? types.getTypeSet() : right.elements;
 		Set<Type> inferred = cast.getOperator().typeInference(types, lelems, relems);
 		if (inferred.isEmpty())
 			return BOTTOM;
@@ -335,8 +366,8 @@ public class InferredTypes extends BaseNonRelationalTypeDomain<InferredTypes> {
 	public InferredTypes evalTypeConv(BinaryExpression conv, InferredTypes left, InferredTypes right,
 			ProgramPoint pp) {
 		TypeSystem types = pp.getProgram().getTypes();
-		Set<Type> lelems = left.isTop() ? types.getTypes() : left.elements;
-		Set<Type> relems = right.isTop() ? types.getTypes() : right.elements;
+		Set<Type> lelems = left.isTop() ? types.getTypeSet() : left.elements;
+		Set<Type> relems = right.isTop() ? types.getTypeSet() : right.elements;
 		Set<Type> inferred = conv.getOperator().typeInference(types, lelems, relems);
 		if (inferred.isEmpty())
 			return BOTTOM;
@@ -0,0 +1,537 @@
+package it.unive.lisa.interprocedural;
+
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.analysis.*;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.analysis.value.TypeDomain;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.logging.Counter;
+import it.unive.lisa.logging.IterationLogger;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.Parameter;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.call.CFGCall;
+import it.unive.lisa.program.cfg.statement.call.Call;
+import it.unive.lisa.program.cfg.statement.call.OpenCall;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.program.language.parameterassignment.ParameterAssigningStrategy;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A bottom-up, summary-based interprocedural analysis. The summary of a cfg
+ * relates the entry states of the fixpoints computed over it, where the formal
+ * parameters are bound to the actual ones of a call, to their exit states.
+ * Each relation is computed once, when a call with a new entry state is first
+ * analyzed, and then reused at every {@link CFGCall} with that entry state.
+ * Since callees are summarized before their callers, the fixpoint over a
+ * callee never analyzes again the cfgs it calls, that have been summarized
+ * already.<br>
+ * <br>
+ * The analysis works in three steps:
+ * <ol>
+ * <li>since the {@link it.unive.lisa.interprocedural.callgraph.CallGraph} is
+ * built while calls are resolved, all cfgs are first analyzed treating calls
+ * as {@link OpenCall}s, as it happens in {@link ModularWorstCaseAnalysis}, to
+ * discover all call edges;</li>
+ * <li>the strongly connected components of the call graph are computed and
+ * sorted in reverse topological order, so that callees come before their
+ * callers;</li>
+ * <li>components are processed in that order, analyzing each of their cfgs
+ * starting from a generic entry state where all its parameters are unknown.
+ * The exit states of such analyses are the generic summaries of the cfgs,
+ * that are used for the calls between members of the same recursive
+ * component: these are joined (and widened after
+ * {@link FixpointConfiguration#wideningThreshold} rounds) until they do not
+ * change anymore.</li>
+ * </ol>
+ * When a call targets a cfg of another component, the actual parameters are
+ * assigned to the formal ones as in {@link ContextBasedAnalysis}, and the
+ * resulting entry state is restricted to what the callee can access, removing
+ * the variables of the callers (and, with a
+ * {@link it.unive.lisa.analysis.heap.pointbased.PointBasedHeap}, the
+ * allocation sites that are not reachable from the formal parameters) if the
+ * value and type states are {@link it.unive.lisa.analysis.nonrelational.Environment}s.
+ * The exit state related to such entry state, that holds the value returned by
+ * the callee and its effects on the heap, then replaces the one of the caller,
+ * where the removed identifiers are restored through a least upper bound.
+ * Calls between members of the same recursive component instead join the
+ * generic summary of the callee with the state of the caller. Calls that have
+ * not been discovered during the first step are always treated as
+ * {@link OpenCall}s.<br>
+ * <br>
+ * Components that do not depend on each other are processed in parallel
+ * whenever {@link FixpointConfiguration#parallelism} is greater than
+ * {@code 1}. Since each component only reads the summaries of the components
+ * it depends on, and since the relation computed for an entry state only
+ * depends on such state, results do not depend on the scheduling, and
+ * exceptions are reported following the order of the components.
+ * {@link #getAnalysisResultsOf(CFG)} yields the results of the analysis of
+ * each cfg from its generic entry state, that hold for any of its calls.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ * 
+ * @param <A> the abstract state of the analysis
+ * @param <H> the heap domain
+ * @param <V> the value domain
+ * @param <T> the type domain
+ */
+public class BottomUpAnalysis<A extends AbstractState<A, H, V, T>,
+		H extends HeapDomain<H>,
+		V extends ValueDomain<V>,
+		T extends TypeDomain<T>> extends CallGraphBasedAnalysis<A, H, V, T> {
+
+	private static final Logger LOG = LogManager.getLogger(BottomUpAnalysis.class);
+
+	/**
+	 * The results of the last analysis of each cfg.
+	 */
+	private final Map<CFG, CFGWithAnalysisResults<A, H, V, T>> results;
+
+	/**
+	 * The generic summaries of the cfgs, that is, the approximation of their
+	 * exit states starting from a generic entry state. This is {@code null}
+	 * while call edges are being discovered.
+	 */
+	private Map<CFG, AnalysisState<A, H, V, T>> summaries;
+
+	/**
+	 * For each cfg, the exit states of the fixpoints computed over it, indexed
+	 * by their entry states.
+	 */
+	private final Map<CFG, Map<AnalysisState<A, H, V, T>, AnalysisState<A, H, V, T>>> relations;
+
+	/**
+	 * The cfgs called by each cfg, as discovered before computing summaries.
+	 */
+	private Map<CFG, Collection<CFG>> callees;
+
+	/**
+	 * The index of the strongly connected component of each cfg.
+	 */
+	private Map<CFG, Integer> components;
+
+	private Class<? extends WorkingSet<Statement>> fixpointWorkingSet;
+
+	private FixpointConfiguration conf;
+
+	/**
+	 * Builds the interprocedural analysis.
+	 */
+	public BottomUpAnalysis() {
+		this.results = new ConcurrentHashMap<>();
+		this.relations = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public void fixpoint(
+			AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
+			throws FixpointException {
+		results.clear();
+		relations.clear();
+		summaries = null;
+		components = null;
+		callees = null;
+		this.fixpointWorkingSet = fixpointWorkingSet;
+		this.conf = conf;
+
+		for (CFG cfg : IterationLogger.iterate(LOG, app.getAllCFGs(), "Discovering call edges", "cfgs"))
+			analyze(cfg, entryState, fixpointWorkingSet, conf);
+
+		List<List<CFG>> sccs = computeComponents();
+		components = new HashMap<>();
+		for (int i = 0; i < sccs.size(); i++)
+			for (CFG cfg : sccs.get(i))
+				components.put(cfg, i);
+
+		// the call graph is not accessed while computing summaries, since
+		// calls might be resolved concurrently
+		callees = new HashMap<>();
+		for (CFG cfg : app.getAllCFGs())
+			callees.put(cfg, cfgCallees(cfg));
+		List<Set<Integer>> dependencies = new ArrayList<>(sccs.size());
+		boolean[] recursive = new boolean[sccs.size()];
+		for (int i = 0; i < sccs.size(); i++) {
+			Set<Integer> deps = new HashSet<>();
+			for (CFG cfg : sccs.get(i))
+				for (CFG callee : callees.get(cfg))
+					deps.add(components.get(callee));
+			recursive[i] = sccs.get(i).size() > 1 || deps.contains(i);
+			deps.remove(i);
+			dependencies.add(deps);
+		}
+
+		summaries = new ConcurrentHashMap<>();
+		results.clear();
+
+		Counter counter = new Counter(LOG, Level.INFO, "Computing summaries", "components", sccs.size(), 0.025);
+		counter.on();
+		try {
+			if (conf.parallelism <= 1)
+				for (int i = 0; i < sccs.size(); i++) {
+					summarize(sccs.get(i), recursive[i], entryState, fixpointWorkingSet, conf);
+					counter.count();
+				}
+			else
+				summarizeInParallel(sccs, dependencies, recursive, entryState, fixpointWorkingSet, conf, counter);
+		} finally {
+			counter.off();
+		}
+	}
+
+	private void summarizeInParallel(
+			List<List<CFG>> sccs,
+			List<Set<Integer>> dependencies,
+			boolean[] recursive,
+			AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf,
+			Counter counter)
+			throws FixpointException {
+		ForkJoinPool pool = new ForkJoinPool(conf.parallelism);
+		try {
+			List<CompletableFuture<Void>> tasks = new ArrayList<>(sccs.size());
+			for (int i = 0; i < sccs.size(); i++) {
+				// components are sorted in reverse topological order, so
+				// the tasks of the callees have already been created
+				CompletableFuture<?>[] waitFor = dependencies.get(i).stream().map(tasks::get)
+						.toArray(CompletableFuture<?>[]::new);
+				List<CFG> scc = sccs.get(i);
+				boolean rec = recursive[i];
+				tasks.add(CompletableFuture.allOf(waitFor).thenRunAsync(() -> {
+					try {
+						summarize(scc, rec, entryState, fixpointWorkingSet, conf);
+						counter.count();
+					} catch (FixpointException e) {
+						throw new CompletionException(e);
+					}
+				}, pool));
+			}
+
+			for (CompletableFuture<Void> task : tasks)
+				try {
+					task.join();
+				} catch (CompletionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof FixpointException)
+						throw (FixpointException) cause;
+					if (cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					if (cause instanceof Error)
+						throw (Error) cause;
+					throw new FixpointException("Error while computing summaries", cause);
+				}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private void summarize(
+			List<CFG> scc,
+			boolean recursive,
+			AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
+			throws FixpointException {
+		int round = 0;
+		boolean changed;
+		do {
+			changed = false;
+			for (CFG cfg : scc) {
+				if (round > 0 && conf.metrics != null)
+					conf.metrics.reanalysis(cfg.getDescriptor().getFullSignature());
+				CFGWithAnalysisResults<A, H, V, T> result = analyze(cfg, entryState, fixpointWorkingSet, conf);
+				AnalysisState<A, H, V, T> previous = summaries.get(cfg);
+				try {
+					AnalysisState<A, H, V, T> exit = result.getExitState();
+					if (previous == null) {
+						summaries.put(cfg, exit);
+						changed |= recursive;
+					} else if (!exit.lessOrEqual(previous)) {
+						summaries.put(cfg, round < conf.wideningThreshold ? previous.lub(exit)
+								: previous.widening(exit));
+						changed = true;
+					}
+				} catch (SemanticException e) {
+					throw new FixpointException("Error while updating the summary of " + cfg, e);
+				}
+			}
+			round++;
+		} while (changed);
+	}
+
+	private CFGWithAnalysisResults<A, H, V, T> analyze(
+			CFG cfg,
+			AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
+			throws FixpointException {
+		try {
+			AnalysisState<A, H, V, T> prepared = prepareEntryStateOfEntryPoint(entryState, cfg);
+			CFGWithAnalysisResults<A, H, V, T> result = cfg.fixpoint(prepared, this,
+					WorkingSet.of(fixpointWorkingSet), conf);
+			results.put(cfg, result);
+			return result;
+		} catch (SemanticException | AnalysisSetupException e) {
+			throw new FixpointException("Error while creating the entrystate for " + cfg, e);
+		}
+	}
+
+	private Collection<CFG> cfgCallees(CFG cfg) {
+		Collection<CFG> callees = new LinkedHashSet<>();
+		for (CodeMember callee : callgraph.getCallees(cfg))
+			if (callee instanceof CFG)
+				callees.add((CFG) callee);
+		return callees;
+	}
+
+	/**
+	 * Computes the strongly connected components of the call graph restricted
+	 * to cfgs, through an iterative version of Tarjan's algorithm. Components
+	 * are yielded in reverse topological order, that is, each component comes
+	 * after all the ones containing its callees.
+	 * 
+	 * @return the strongly connected components
+	 */
+	private List<List<CFG>> computeComponents() {
+		Map<CFG, Integer> index = new HashMap<>();
+		Map<CFG, Integer> lowlink = new HashMap<>();
+		Deque<CFG> stack = new ArrayDeque<>();
+		Set<CFG> onStack = new HashSet<>();
+		Deque<Frame> calls = new ArrayDeque<>();
+		List<List<CFG>> sccs = new ArrayList<>();
+
+		for (CFG root : app.getAllCFGs()) {
+			if (index.containsKey(root))
+				continue;
+
+			visit(root, index, lowlink, stack, onStack, calls);
+			while (!calls.isEmpty()) {
+				Frame frame = calls.peek();
+				if (frame.callees.hasNext()) {
+					CFG next = frame.callees.next();
+					if (!index.containsKey(next))
+						visit(next, index, lowlink, stack, onStack, calls);
+					else if (onStack.contains(next))
+						lowlink.put(frame.cfg, Math.min(lowlink.get(frame.cfg), index.get(next)));
+					continue;
+				}
+
+				calls.pop();
+				CFG cfg = frame.cfg;
+				if (!calls.isEmpty()) {
+					CFG caller = calls.peek().cfg;
+					lowlink.put(caller, Math.min(lowlink.get(caller), lowlink.get(cfg)));
+				}
+
+				if (lowlink.get(cfg).equals(index.get(cfg))) {
+					List<CFG> scc = new ArrayList<>();
+					CFG member;
+					do {
+						member = stack.pop();
+						onStack.remove(member);
+						scc.add(member);
+					} while (member != cfg);
+					sccs.add(scc);
+				}
+			}
+		}
+
+		return sccs;
+	}
+
+	private void visit(CFG cfg, Map<CFG, Integer> index, Map<CFG, Integer> lowlink, Deque<CFG> stack,
+			Set<CFG> onStack, Deque<Frame> calls) {
+		int idx = index.size();
+		index.put(cfg, idx);
+		lowlink.put(cfg, idx);
+		stack.push(cfg);
+		onStack.add(cfg);
+		calls.push(new Frame(cfg, cfgCallees(cfg).iterator()));
+	}
+
+	private static final class Frame {
+		private final CFG cfg;
+		private final Iterator<CFG> callees;
+
+		private Frame(CFG cfg, Iterator<CFG> callees) {
+			this.cfg = cfg;
+			this.callees = callees;
+		}
+	}
+
+	@Override
+	public Collection<CFGWithAnalysisResults<A, H, V, T>> getAnalysisResultsOf(CFG cfg) {
+		CFGWithAnalysisResults<A, H, V, T> result = results.get(cfg);
+		return result == null ? Collections.emptySet() : Collections.singleton(result);
+	}
+
+	@Override
+	public Call resolve(UnresolvedCall call, Set<Type>[] types, SymbolAliasing aliasing)
+			throws CallResolutionException {
+		// the call graph is not thread-safe
+		synchronized (callgraph) {
+			return super.resolve(call, types, aliasing);
+		}
+	}
+
+	@Override
+	public AnalysisState<A, H, V, T> getAbstractResultOf(
+			CFGCall call,
+			AnalysisState<A, H, V, T> entryState,
+			ExpressionSet<SymbolicExpression>[] parameters,
+			StatementStore<A, H, V, T> expressions)
+			throws SemanticException {
+		OpenCall open = new OpenCall(call.getCFG(), call.getLocation(), call.getCallType(), call.getQualifier(),
+				call.getTargetName(), call.getStaticType(), call.getParameters());
+		if (summaries == null) {
+			// we are still discovering call edges
+			synchronized (callgraph) {
+				callgraph.registerCall(call);
+			}
+			return getAbstractResultOf(open, entryState, parameters, expressions);
+		}
+
+		ScopeToken scope = new ScopeToken(call);
+		Identifier meta = (Identifier) call.getMetaVariable().pushScope(scope);
+		CFG caller = call.getCFG();
+		AnalysisState<A, H, V, T> result = entryState.bottom();
+		for (CFG cfg : call.getTargetedCFGs()) {
+			if (!callees.getOrDefault(caller, Collections.emptySet()).contains(cfg)) {
+				// the call edge has not been discovered: the summary of the
+				// callee might not have been computed yet, so we always fall
+				// back to the worst case
+				result = result.lub(getAbstractResultOf(open, entryState, parameters, expressions));
+				continue;
+			}
+
+			if (components.get(cfg).equals(components.get(caller))) {
+				result = result.lub(applyGenericSummary(call, cfg, scope, meta, entryState));
+				continue;
+			}
+
+			// prepare the state for the call: hide the visible variables
+			AnalysisState<A, H, V, T> callState = entryState.pushScope(scope);
+
+			Parameter[] formals = cfg.getDescriptor().getFormals();
+			@SuppressWarnings("unchecked")
+			ExpressionSet<SymbolicExpression>[] actuals = new ExpressionSet[parameters.length];
+			for (int i = 0; i < parameters.length; i++)
+				actuals[i] = parameters[i].pushScope(scope);
+
+			ParameterAssigningStrategy strategy = call.getProgram().getFeatures().getAssigningStrategy();
+			Pair<AnalysisState<A, H, V, T>,
+					ExpressionSet<SymbolicExpression>[]> prepared = strategy.prepare(call, callState,
+							this, expressions, formals, actuals);
+
+			Pair<AnalysisState<A, H, V, T>, AnalysisState<A, H, V, T>> split = splitCallerFrames(prepared.getLeft());
+			AnalysisState<A, H, V, T> calleeEntry = split.getLeft();
+			AnalysisState<A, H, V, T> callerFrames = split.getRight();
+
+			AnalysisState<A, H, V, T> exitState = relate(cfg, calleeEntry);
+			if (callerFrames != null && !exitState.isBottom()) {
+				// restore the variables of the callers, keeping the values
+				// returned by the callee
+				AnalysisState<A, H, V, T> restored = exitState.lub(callerFrames);
+				exitState = new AnalysisState<>(restored.getState(), exitState.getComputedExpressions(),
+						restored.getAliasing());
+			}
+
+			// store the return value of the call inside the meta variable
+			AnalysisState<A, H, V, T> tmp = callState.bottom();
+			for (SymbolicExpression ret : exitState.getComputedExpressions())
+				tmp = tmp.lub(exitState.assign(meta, ret, call));
+
+			result = result.lub(tmp.popScope(scope));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Yields the exit state of the fixpoint over {@code cfg} starting from
+	 * {@code calleeEntry}, computing it if no call with the same entry state
+	 * has been analyzed yet.
+	 * 
+	 * @param cfg         the callee
+	 * @param calleeEntry the entry state of the callee
+	 * 
+	 * @return the exit state of the callee
+	 * 
+	 * @throws SemanticException if the fixpoint cannot be computed
+	 */
+	private AnalysisState<A, H, V, T> relate(CFG cfg, AnalysisState<A, H, V, T> calleeEntry)
+			throws SemanticException {
+		Map<AnalysisState<A, H, V, T>, AnalysisState<A, H, V, T>> relation = relations.computeIfAbsent(cfg,
+				k -> new ConcurrentHashMap<>());
+		AnalysisState<A, H, V, T> exit = relation.get(calleeEntry);
+		if (exit != null)
+			return exit;
+
+		// concurrent threads might compute the same relation more than
+		// once, but they will all yield the same exit state
+		try {
+			exit = cfg.fixpoint(calleeEntry, this, WorkingSet.of(fixpointWorkingSet), conf).getExitState();
+		} catch (FixpointException | AnalysisSetupException e) {
+			throw new SemanticException("Exception during the interprocedural analysis", e);
+		}
+		AnalysisState<A, H, V, T> previous = relation.putIfAbsent(calleeEntry, exit);
+		return previous == null ? exit : previous;
+	}
+
+	/**
+	 * Applies the generic summary of {@code cfg} to a call between members of
+	 * the same recursive component, joining the value returned by the callee
+	 * and the heap locations it reaches with the state of the caller.
+	 * 
+	 * @param call       the call
+	 * @param cfg        the callee
+	 * @param scope      the scope of the call
+	 * @param meta       the meta variable of the call, inside its scope
+	 * @param entryState the state of the caller before the call
+	 * 
+	 * @return the state after the call
+	 * 
+	 * @throws SemanticException if something goes wrong during the application
+	 */
+	private AnalysisState<A, H, V, T> applyGenericSummary(CFGCall call, CFG cfg, ScopeToken scope,
+			Identifier meta, AnalysisState<A, H, V, T> entryState) throws SemanticException {
+		AnalysisState<A, H, V, T> summary = summaries.get(cfg);
+		if (summary == null)
+			// this is the first round of the component, and the callee has
+			// no summary yet
+			return entryState.bottom();
+
+		// store the return value of the call inside the meta variable
+		AnalysisState<A, H, V, T> returned = summary.bottom();
+		for (SymbolicExpression ret : summary.getComputedExpressions())
+			returned = returned.lub(summary.assign(meta, ret, call));
+		returned = returned.popScope(scope);
+		if (returned.isBottom())
+			return returned;
+
+		// the local variables of the callee have been removed: we join
+		// what is left with the state of the caller
+		AnalysisState<A, H, V, T> joined = entryState.lub(returned);
+		return new AnalysisState<>(joined.getState(), returned.getComputedExpressions(), joined.getAliasing());
+	}
+}
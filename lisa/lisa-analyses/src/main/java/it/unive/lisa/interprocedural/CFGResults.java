@@ -10,12 +10,15 @@ import it.unive.lisa.analysis.value.ValueDomain;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * A {@link FunctionalLattice} from {@link ContextSensitivityToken}s to
  * {@link CFGWithAnalysisResults}s. This class is meant to store fixpoint
  * results on each token generated during the interprocedural analysis.
+ * Results can be stored concurrently: conflicting results for the same token
+ * are joined.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -76,7 +79,7 @@ public class CFGResults<A extends AbstractState<A, H, V, T>,
 	 * 
 	 * @throws SemanticException if something goes wrong during the update
 	 */
-	public Pair<Boolean, CFGWithAnalysisResults<A, H, V, T>> putResult(ContextSensitivityToken token,
+	public synchronized Pair<Boolean, CFGWithAnalysisResults<A, H, V, T>> putResult(ContextSensitivityToken token,
 			CFGWithAnalysisResults<A, H, V, T> result)
 			throws SemanticException {
 		if (function == null) {
@@ -120,7 +123,7 @@ public class CFGResults<A extends AbstractState<A, H, V, T>,
 	 * 
 	 * @return {@code true} if that condition holds
 	 */
-	public boolean contains(ContextSensitivityToken token) {
+	public synchronized boolean contains(ContextSensitivityToken token) {
 		return function != null && function.containsKey(token);
 	}
 
@@ -130,7 +133,7 @@ public class CFGResults<A extends AbstractState<A, H, V, T>,
 	 * 
 	 * @return the results
 	 */
-	public Collection<CFGWithAnalysisResults<A, H, V, T>> getAll() {
+	public synchronized Collection<CFGWithAnalysisResults<A, H, V, T>> getAll() {
 		return function == null ? Collections.emptySet() : function.values();
 	}
 
@@ -144,6 +147,15 @@ public class CFGResults<A extends AbstractState<A, H, V, T>,
 		return new CFGResults<>(lattice.bottom());
 	}
 
+	@Override
+	public Map<ContextSensitivityToken, CFGWithAnalysisResults<A, H, V, T>> mkNewFunction(
+			Map<ContextSensitivityToken, CFGWithAnalysisResults<A, H, V, T>> other, boolean preserveNull) {
+		// results can be stored and read by concurrent fixpoints
+		if (other == null)
+			return preserveNull ? null : new ConcurrentHashMap<>();
+		return new ConcurrentHashMap<>(other);
+	}
+
 	@Override
 	public CFGResults<A, H, V, T> mk(CFGWithAnalysisResults<A, H, V, T> lattice,
 			Map<ContextSensitivityToken, CFGWithAnalysisResults<A, H, V, T>> function) {
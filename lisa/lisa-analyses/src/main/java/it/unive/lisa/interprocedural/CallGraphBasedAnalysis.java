@@ -2,10 +2,15 @@ package it.unive.lisa.interprocedural;
 
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.StatementStore;
 import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.heap.pointbased.AllocationSite;
+import it.unive.lisa.analysis.heap.pointbased.AllocationSites;
+import it.unive.lisa.analysis.heap.pointbased.PointBasedHeap;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.Environment;
 import it.unive.lisa.analysis.symbols.SymbolAliasing;
 import it.unive.lisa.analysis.value.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
@@ -18,10 +23,20 @@ import it.unive.lisa.program.cfg.statement.call.Call;
 import it.unive.lisa.program.cfg.statement.call.OpenCall;
 import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
 import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.OutOfScopeIdentifier;
 import it.unive.lisa.symbolic.value.PushAny;
 import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.type.Type;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
+import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * An interprocedural analysis based on a call graph.
@@ -99,4 +114,107 @@ public abstract class CallGraphBasedAnalysis<A extends AbstractState<A, H, V, T>
 			throws SemanticException {
 		return policy.apply(call, entryState, parameters);
 	}
+
+	/**
+	 * Yields whether or not the variables of the callers can be removed from
+	 * the entry state of a callee and restored in its exit state through a
+	 * least upper bound, without losing precision. This holds if the value
+	 * and type states of {@code state} are {@link Environment}s, since the
+	 * least upper bound of two environments defined on disjoint sets of
+	 * variables holds exactly the mappings of both.
+	 * 
+	 * @param state the state to inspect
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	protected static boolean tracksVariablesIndependently(AbstractState<?, ?, ?, ?> state) {
+		return state.getValueState() instanceof Environment && state.getTypeState() instanceof Environment;
+	}
+
+	/**
+	 * Yields the identifiers of {@code state}, that is the entry state of a
+	 * callee, that the callee cannot access. These are the variables of the
+	 * callers (that are {@link OutOfScopeIdentifier}s) and, if the heap is a
+	 * {@link PointBasedHeap}, the allocation sites that are not reachable from
+	 * the variables of the callee by following its points-to information. With
+	 * other heap domains, the whole heap is considered reachable.
+	 * 
+	 * @param state the entry state of the callee
+	 * 
+	 * @return a predicate holding on the identifiers to hide from the callee
+	 */
+	private static Predicate<Identifier> hiddenFromCallee(AbstractState<?, ?, ?, ?> state) {
+		Predicate<Identifier> frames = OutOfScopeIdentifier.class::isInstance;
+		PointBasedHeap heap = state.getDomainInstance(PointBasedHeap.class);
+		if (heap == null || heap.isTop() || heap.isBottom())
+			return frames;
+
+		Map<String, Set<String>> pointsTo = new HashMap<>();
+		Deque<String> ws = new ArrayDeque<>();
+		Set<String> reachable = new HashSet<>();
+		for (Identifier id : heap.heapEnv.getKeys()) {
+			AllocationSites sites = heap.heapEnv.getState(id);
+			if (sites.isTop())
+				// the heap might be reached from anywhere
+				return frames;
+			if (id instanceof AllocationSite) {
+				Set<String> targets = pointsTo.computeIfAbsent(((AllocationSite) id).getLocationName(),
+						k -> new HashSet<>());
+				sites.forEach(site -> targets.add(site.getLocationName()));
+			} else if (!(id instanceof OutOfScopeIdentifier))
+				for (AllocationSite site : sites)
+					if (reachable.add(site.getLocationName()))
+						ws.add(site.getLocationName());
+		}
+
+		while (!ws.isEmpty())
+			for (String target : pointsTo.getOrDefault(ws.pop(), Collections.emptySet()))
+				if (reachable.add(target))
+					ws.add(target);
+
+		return frames.or(id -> id instanceof AllocationSite
+				&& !reachable.contains(((AllocationSite) id).getLocationName()));
+	}
+
+	/**
+	 * Splits the entry state of a callee into the part that the callee can
+	 * access and the one it cannot, that is, the variables of the callers and,
+	 * with a {@link PointBasedHeap}, the allocation sites that are not
+	 * reachable from the variables of the callee. The latter can be restored in
+	 * the exit state of the callee through a least upper bound. The state is
+	 * not split if {@link #tracksVariablesIndependently(AbstractState)} does
+	 * not hold, or if some of its domains would be left without mappings, since
+	 * such domains are the top element and the least upper bound would lose
+	 * the hidden identifiers.
+	 * 
+	 * @param calleeEntry the entry state of the callee
+	 * 
+	 * @return the pair of the part of {@code calleeEntry} that the callee can
+	 *             access and of the one it cannot, where the latter is
+	 *             {@code null} if the state has not been split
+	 * 
+	 * @throws SemanticException if something goes wrong while removing the
+	 *                               identifiers
+	 */
+	protected Pair<AnalysisState<A, H, V, T>, AnalysisState<A, H, V, T>> splitCallerFrames(
+			AnalysisState<A, H, V, T> calleeEntry)
+			throws SemanticException {
+		A state = calleeEntry.getState();
+		if (!tracksVariablesIndependently(state))
+			return Pair.of(calleeEntry, null);
+
+		Predicate<Identifier> hidden = hiddenFromCallee(state);
+		AnalysisState<A, H, V, T> visible = calleeEntry.forgetIdentifiersIf(hidden);
+		A restricted = visible.getState();
+		if (becomesTop(state.getHeapState(), restricted.getHeapState())
+				|| becomesTop(state.getValueState(), restricted.getValueState())
+				|| becomesTop(state.getTypeState(), restricted.getTypeState()))
+			return Pair.of(calleeEntry, null);
+
+		return Pair.of(visible, calleeEntry.forgetIdentifiersIf(hidden.negate()));
+	}
+
+	private static boolean becomesTop(Lattice<?> before, Lattice<?> after) {
+		return after.isTop() && !before.isTop();
+	}
 }
@@ -3,33 +3,85 @@ package it.unive.lisa.interprocedural;
 import it.unive.lisa.AnalysisExecutionException;
 import it.unive.lisa.AnalysisSetupException;
 import it.unive.lisa.DefaultParameters;
-import it.unive.lisa.LiSAConfiguration.DescendingPhaseType;
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.LiSAConfiguration.ResultRetentionPolicy;
 import it.unive.lisa.analysis.*;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.Environment;
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
 import it.unive.lisa.analysis.value.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.logging.Counter;
 import it.unive.lisa.logging.IterationLogger;
 import it.unive.lisa.logging.TimerLogger;
+import it.unive.lisa.program.Application;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.Parameter;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.call.CFGCall;
+import it.unive.lisa.program.cfg.statement.call.Call;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
 import it.unive.lisa.program.language.parameterassignment.ParameterAssigningStrategy;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.OutOfScopeIdentifier;
+import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
 import it.unive.lisa.util.collections.workset.VisitOnceWorkingSet;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * A context sensitive interprocedural analysis. The context sensitivity is
- * tuned by the kind of {@link ContextSensitivityToken} used.
+ * tuned by the kind of {@link ContextSensitivityToken} used.<br>
+ * <br>
+ * Optionally, the analysis can use a {@link SummaryCache} to reuse the results
+ * of fixpoints over a callee across different tokens. When the cache is
+ * enabled, the entry state of each callee is restricted to what the callee
+ * can access, that is, the variables of the callers (that are
+ * {@link OutOfScopeIdentifier}s inside the callee) are removed from it,
+ * together with the allocation sites that are not reachable from the formal
+ * parameters when the heap is a {@link PointBasedHeap} (with other heap
+ * domains, the heap is kept entirely). Cached results are thus shared among
+ * calls that only differ in the parts of the caller state that the callee
+ * cannot access. The removed identifiers are then restored in the exit state
+ * of the callee through a least upper bound, that is exact as long as the
+ * variables of the callers and the ones of the callee are tracked
+ * independently. Since this does not hold for relational domains, the cache
+ * is used only if both the value and the type states are
+ * {@link Environment}s. Note that, when a result is taken from the cache, only
+ * the result of the callee is stored under the new token: the results of the
+ * cfgs it calls are not copied under the tokens extending the new one, and
+ * they can only be found under the ones extending the token the cached result
+ * has been computed for.<br>
+ * <br>
+ * By default, whenever the result of a cfg grows, all its transitive callers
+ * are analyzed again from scratch in a new iteration over the entrypoints.
+ * Optionally, the analysis can instead track which results consumed which
+ * others, re-analyzing only the callers (and the tokens) that actually used a
+ * result that has grown. Each such caller is analyzed again starting from its
+ * previous result, until no result changes anymore. Since previous results
+ * are never discarded, this might yield less precise results than analyzing
+ * callers from scratch.<br>
+ * <br>
+ * When {@link FixpointConfiguration#retention} is
+ * {@link ResultRetentionPolicy#COMPACT}, only the results of the entrypoints
+ * retain the states of all their statements and expressions, while the ones
+ * of the callees are {@link CFGWithAnalysisResults#compact() compacted}. Such
+ * states are recomputed by {@link #expand(CFGWithAnalysisResults)}, by
+ * analyzing the callee again under the same token and entry state, without
+ * modifying the results, the call graph or the metrics of the analysis.
  * 
  * @param <A> the abstract state of the analysis
  * @param <H> the heap domain
@@ -52,17 +104,54 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 	 */
 	private FixpointResults<A, H, V, T> results;
 
-	private ContextSensitivityToken token;
+	/**
+	 * The token of the entrypoints
+	 */
+	private final ContextSensitivityToken empty;
+
+	/**
+	 * The token of the call chain under analysis. Each entrypoint is analyzed
+	 * by a single thread, that owns its own token.
+	 */
+	private final ThreadLocal<ContextSensitivityToken> token;
+
+	/**
+	 * Whether or not the current thread is recomputing a compacted result
+	 * through {@link #expand(CFGWithAnalysisResults)}. Such computations only
+	 * read the results of the analysis, without modifying its state.
+	 */
+	private final ThreadLocal<Boolean> expanding;
 
 	private final Collection<CFG> fixpointTriggers;
 
 	private Class<? extends WorkingSet<Statement>> fixpointWorkingSet;
 
-	private int wideningThreshold;
+	private FixpointConfiguration conf;
+
+	private final int summaryCacheSize;
+
+	private SummaryCache<A, H, V, T> summaries;
+
+	private final boolean trackDependencies;
+
+	/**
+	 * For each cfg and token, the cfgs and tokens whose results have been
+	 * computed using its result
+	 */
+	private final Map<Pair<CFG, ContextSensitivityToken>, Set<Pair<CFG, ContextSensitivityToken>>> dependents;
+
+	/**
+	 * For each cfg, the tokens whose result has been taken from the summary
+	 * cache
+	 */
+	private final Map<CFG, Set<ContextSensitivityToken>> servedFromCache;
 
-	private DescendingPhaseType descendingPhase;
+	/**
+	 * The cfgs and tokens whose result needs to be computed again
+	 */
+	private final Deque<Pair<CFG, ContextSensitivityToken>> dirty;
 
-	private int descendingGlbThreshold;
+	private final Set<Pair<CFG, ContextSensitivityToken>> pending;
 
 	/**
 	 * Builds the analysis, using {@link SingleScopeToken}s.
@@ -78,30 +167,107 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 	 *                  context sensitivity
 	 */
 	public ContextBasedAnalysis(ContextSensitivityToken token) {
-		this.token = token.empty();
-		fixpointTriggers = new HashSet<>();
+		this(token, 0);
+	}
+
+	/**
+	 * Builds the analysis, caching the results of fixpoints over callees in a
+	 * {@link SummaryCache}.
+	 * 
+	 * @param token            an instance of the tokens to be used to
+	 *                             partition w.r.t. context sensitivity
+	 * @param summaryCacheSize the maximum number of results held by the
+	 *                             cache, or {@code 0} to disable caching
+	 * 
+	 * @throws IllegalArgumentException if {@code summaryCacheSize} is negative
+	 */
+	public ContextBasedAnalysis(ContextSensitivityToken token, int summaryCacheSize) {
+		this(token, summaryCacheSize, false);
 	}
 
+	/**
+	 * Builds the analysis, caching the results of fixpoints over callees in a
+	 * {@link SummaryCache} and optionally tracking the dependencies between
+	 * results. When dependencies are tracked, only the callers that consumed a
+	 * result that has grown are analyzed again, starting from their previous
+	 * results.
+	 * 
+	 * @param token             an instance of the tokens to be used to
+	 *                              partition w.r.t. context sensitivity
+	 * @param summaryCacheSize  the maximum number of results held by the
+	 *                              cache, or {@code 0} to disable caching
+	 * @param trackDependencies whether or not dependencies between results
+	 *                              should be tracked
+	 * 
+	 * @throws IllegalArgumentException if {@code summaryCacheSize} is negative
+	 */
+	public ContextBasedAnalysis(ContextSensitivityToken token, int summaryCacheSize, boolean trackDependencies) {
+		if (summaryCacheSize < 0)
+			throw new IllegalArgumentException("The size of the summary cache cannot be negative: " + summaryCacheSize);
+		this.empty = token.empty();
+		this.token = ThreadLocal.withInitial(() -> empty);
+		this.expanding = ThreadLocal.withInitial(() -> false);
+		this.summaryCacheSize = summaryCacheSize;
+		this.trackDependencies = trackDependencies;
+		fixpointTriggers = ConcurrentHashMap.newKeySet();
+		dependents = new HashMap<>();
+		servedFromCache = new HashMap<>();
+		dirty = new ArrayDeque<>();
+		pending = new HashSet<>();
+	}
+
+	/**
+	 * Yields the {@link SummaryCache} used during the last fixpoint, to
+	 * inspect its hit and miss counters.
+	 * 
+	 * @return the cache, or {@code null} if caching is disabled, if it cannot
+	 *             be used with the domains of the last fixpoint, or if no
+	 *             fixpoint has been computed yet
+	 */
+	public SummaryCache<A, H, V, T> getSummaryCache() {
+		return summaries;
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * Entrypoints are analyzed in parallel on a {@link ForkJoinPool} whenever
+	 * {@link FixpointConfiguration#parallelism} is greater than {@code 1}.
+	 * Results computed concurrently for the same cfg and token are joined, and
+	 * if more than one entrypoint fails, the exception raised by the first
+	 * failing one in the order of {@link Application#getEntryPoints()} is the
+	 * one being propagated.
+	 */
 	@Override
 	public void fixpoint(
 			AnalysisState<A, H, V, T> entryState,
 			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
-			int wideningThreshold,
-			DescendingPhaseType descendingPhase,
-			int descendingGlbThreshold)
+			FixpointConfiguration conf)
 			throws FixpointException {
 		this.results = null;
+		if (summaryCacheSize == 0)
+			this.summaries = null;
+		else if (tracksVariablesIndependently(entryState.getState()))
+			this.summaries = new SummaryCache<>(summaryCacheSize);
+		else {
+			LOG.warn("Disabling the summary cache since it cannot be used with relational domains");
+			this.summaries = null;
+		}
+		this.dependents.clear();
+		this.servedFromCache.clear();
+		this.dirty.clear();
+		this.pending.clear();
 		this.fixpointWorkingSet = fixpointWorkingSet;
-		this.wideningThreshold = wideningThreshold;
-		this.descendingPhase = descendingPhase;
-		this.descendingGlbThreshold = descendingGlbThreshold;
+		this.conf = conf;
 
 		if (app.getEntryPoints().isEmpty())
 			throw new NoEntryPointException();
 
 		TimerLogger.execAction(LOG, "Computing fixpoint over the whole program",
-				() -> this.fixpointAux(entryState, fixpointWorkingSet, wideningThreshold,
-						descendingPhase, descendingGlbThreshold));
+				() -> this.fixpointAux(entryState, fixpointWorkingSet, conf));
+
+		if (summaries != null)
+			LOG.info("Summary cache: {}", summaries);
 	}
 
 	private static String ordinal(int i) {
@@ -120,28 +286,23 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 
 	private void fixpointAux(AnalysisState<A, H, V, T> entryState,
 			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
-			int wideningThreshold,
-			DescendingPhaseType descendingPhase,
-			int descendingGlbThreshold)
+			FixpointConfiguration conf)
 			throws AnalysisExecutionException {
 		int iter = 0;
 		do {
 			LOG.info("Performing {} fixpoint iteration", ordinal(iter + 1));
 			fixpointTriggers.clear();
-			for (CFG cfg : IterationLogger.iterate(LOG, app.getEntryPoints(), "Processing entrypoints", "entries"))
-				try {
-					CFGResults<A, H, V, T> value = new CFGResults<>(new CFGWithAnalysisResults<>(cfg, entryState));
-					AnalysisState<A, H, V, T> entryStateCFG = prepareEntryStateOfEntryPoint(entryState, cfg);
-					if (results == null)
-						this.results = new FixpointResults<>(value.top());
-					results.putResult(cfg, token.empty(),
-							cfg.fixpoint(entryStateCFG, this, WorkingSet.of(fixpointWorkingSet), wideningThreshold,
-									descendingPhase, descendingGlbThreshold));
-				} catch (SemanticException | AnalysisSetupException e) {
-					throw new AnalysisExecutionException("Error while creating the entrystate for " + cfg, e);
-				} catch (FixpointException e) {
-					throw new AnalysisExecutionException("Error while computing fixpoint for entrypoint " + cfg, e);
-				}
+			if (results == null) {
+				CFG first = app.getEntryPoints().iterator().next();
+				CFGResults<A, H, V, T> value = new CFGResults<>(new CFGWithAnalysisResults<>(first, entryState));
+				this.results = new FixpointResults<>(value.top());
+			}
+
+			if (conf.parallelism <= 1)
+				for (CFG cfg : IterationLogger.iterate(LOG, app.getEntryPoints(), "Processing entrypoints", "entries"))
+					analyzeEntryPoint(cfg, entryState);
+			else
+				analyzeEntryPointsInParallel(entryState);
 
 			// starting from the callers of the cfgs that needed a lub,
 			// find out the complete set of cfgs that might need to be
@@ -154,9 +315,147 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 						.forEach(ws::push);
 
 			ws.getSeen().forEach(results::forget);
+			if (summaries != null) {
+				Set<CFG> stale = new HashSet<>(ws.getSeen());
+				stale.addAll(fixpointTriggers);
+				summaries.invalidate(stale);
+			}
+			if (conf.metrics != null)
+				ws.getSeen().forEach(cfg -> conf.metrics.reanalysis(cfg.getDescriptor().getFullSignature()));
 
 			iter++;
 		} while (!fixpointTriggers.isEmpty());
+
+		if (trackDependencies)
+			reanalyzeDependents();
+	}
+
+	private void analyzeEntryPoint(CFG cfg, AnalysisState<A, H, V, T> entryState)
+			throws AnalysisExecutionException {
+		token.set(empty);
+		try {
+			AnalysisState<A, H, V, T> entryStateCFG = prepareEntryStateOfEntryPoint(entryState, cfg);
+			Pair<Boolean, CFGWithAnalysisResults<A, H, V, T>> res = results.putResult(cfg, empty,
+					cfg.fixpoint(entryStateCFG, this, WorkingSet.of(fixpointWorkingSet),
+							conf.inContext(empty.toString())));
+			if (trackDependencies && Boolean.TRUE.equals(res.getLeft()))
+				resultChanged(cfg, empty);
+		} catch (SemanticException | AnalysisSetupException e) {
+			throw new AnalysisExecutionException("Error while creating the entrystate for " + cfg, e);
+		} catch (FixpointException e) {
+			throw new AnalysisExecutionException("Error while computing fixpoint for entrypoint " + cfg, e);
+		}
+	}
+
+	private void analyzeEntryPointsInParallel(AnalysisState<A, H, V, T> entryState)
+			throws AnalysisExecutionException {
+		List<CFG> entrypoints = new ArrayList<>(app.getEntryPoints());
+		Counter counter = new Counter(LOG, Level.INFO, "Processing entrypoints", "entries", entrypoints.size(),
+				0.025);
+		ForkJoinPool pool = new ForkJoinPool(conf.parallelism);
+		counter.on();
+		try {
+			List<ForkJoinTask<?>> tasks = new ArrayList<>(entrypoints.size());
+			for (CFG cfg : entrypoints)
+				tasks.add(pool.submit(() -> {
+					analyzeEntryPoint(cfg, entryState);
+					counter.count();
+				}));
+
+			for (int i = 0; i < entrypoints.size(); i++)
+				try {
+					tasks.get(i).get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					if (cause instanceof Error)
+						throw (Error) cause;
+					throw new AnalysisExecutionException(
+							"Error while computing fixpoint for entrypoint " + entrypoints.get(i), cause);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new AnalysisExecutionException(
+							"Interrupted while computing fixpoint for entrypoint " + entrypoints.get(i), e);
+				}
+		} finally {
+			pool.shutdownNow();
+			counter.off();
+		}
+	}
+
+	private void reanalyzeDependents() throws AnalysisExecutionException {
+		int reanalyses = 0;
+		while (!dirty.isEmpty()) {
+			Pair<CFG, ContextSensitivityToken> next = dirty.poll();
+			pending.remove(next);
+			CFG cfg = next.getLeft();
+			ContextSensitivityToken tok = next.getRight();
+			CFGWithAnalysisResults<A, H, V, T> previous = results.getState(cfg).getState(tok);
+			ContextSensitivityToken current = token.get();
+			token.set(tok);
+			try {
+				CFGWithAnalysisResults<A, H, V, T> fixpointResult = cfg.fixpoint(previous.getEntryState(), this,
+						WorkingSet.of(fixpointWorkingSet), conf.inContext(tok.toString()), previous);
+				fixpointResult.setId(previous.getId());
+				fixpointResult = retain(fixpointResult, tok);
+				if (Boolean.TRUE.equals(results.putResult(cfg, tok, fixpointResult).getLeft()))
+					resultChanged(cfg, tok);
+			} catch (SemanticException | AnalysisSetupException e) {
+				throw new AnalysisExecutionException("Error while re-analyzing " + cfg, e);
+			} catch (FixpointException e) {
+				throw new AnalysisExecutionException("Error while computing fixpoint for " + cfg, e);
+			} finally {
+				token.set(current);
+			}
+
+			if (conf.metrics != null)
+				conf.metrics.reanalysis(cfg.getDescriptor().getFullSignature());
+			reanalyses++;
+		}
+
+		LOG.info("Re-analyzed {} results after changes in their dependencies", reanalyses);
+	}
+
+	/**
+	 * Reacts to the growth of the result of {@code cfg} under {@code tok}. If
+	 * dependencies are tracked, the results computed using it are scheduled
+	 * for re-analysis. Otherwise, {@code cfg} is recorded as a trigger for
+	 * another iteration over the entrypoints.
+	 * 
+	 * @param cfg the cfg whose result has grown
+	 * @param tok the token of the result that has grown
+	 */
+	private void resultChanged(CFG cfg, ContextSensitivityToken tok) {
+		if (!trackDependencies) {
+			fixpointTriggers.add(cfg);
+			return;
+		}
+
+		Set<CFG> stale = new HashSet<>();
+		synchronized (dependents) {
+			Set<Pair<CFG, ContextSensitivityToken>> deps = dependents.get(Pair.of(cfg, tok));
+			if (deps == null)
+				return;
+
+			for (Pair<CFG, ContextSensitivityToken> dep : deps) {
+				markDirty(dep);
+				// results taken from the cache might have been computed using
+				// the one that changed
+				Set<ContextSensitivityToken> cached = servedFromCache.remove(dep.getLeft());
+				if (cached != null)
+					cached.forEach(t -> markDirty(Pair.of(dep.getLeft(), t)));
+				stale.add(dep.getLeft());
+			}
+		}
+
+		if (summaries != null)
+			summaries.invalidate(stale);
+	}
+
+	private void markDirty(Pair<CFG, ContextSensitivityToken> dep) {
+		if (pending.add(dep))
+			dirty.add(dep);
 	}
 
 	@Override
@@ -167,14 +466,73 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 			return Collections.emptySet();
 	}
 
+	/**
+	 * Yields the result that should be stored for a fixpoint over a cfg
+	 * computed under the given token, according to
+	 * {@link FixpointConfiguration#retention}.
+	 * 
+	 * @param result the result of the fixpoint
+	 * @param tok    the token under which the fixpoint has been computed
+	 * 
+	 * @return the result to store
+	 */
+	private CFGWithAnalysisResults<A, H, V, T> retain(CFGWithAnalysisResults<A, H, V, T> result,
+			ContextSensitivityToken tok) {
+		if (conf.retention == ResultRetentionPolicy.COMPACT && !tok.equals(empty))
+			return result.compact();
+		return result;
+	}
+
+	@Override
+	public CFGWithAnalysisResults<A, H, V, T> expand(CFGWithAnalysisResults<A, H, V, T> result)
+			throws SemanticException {
+		if (result.isComplete() || result.getNodesCount() == 0)
+			return result;
+
+		// results share the nodes of the original cfg
+		CFG cfg = result.getNodes().iterator().next().getCFG();
+		ContextSensitivityToken tok = null;
+		for (Map.Entry<ContextSensitivityToken, CFGWithAnalysisResults<A, H, V, T>> entry : results.getState(cfg))
+			if (entry.getValue() == result) {
+				tok = entry.getKey();
+				break;
+			}
+		if (tok == null)
+			throw new SemanticException("The results of " + cfg + " have not been produced by this analysis");
+
+		ContextSensitivityToken current = token.get();
+		token.set(tok);
+		expanding.set(true);
+		try {
+			CFGWithAnalysisResults<A, H, V, T> expanded = cfg.fixpoint(result.getEntryState(), this,
+					WorkingSet.of(fixpointWorkingSet), conf.withoutMetrics());
+			expanded.setId(result.getId());
+			return expanded;
+		} catch (FixpointException | AnalysisSetupException e) {
+			throw new SemanticException("Exception while recomputing the results of " + cfg, e);
+		} finally {
+			expanding.set(false);
+			token.set(current);
+		}
+	}
+
+	@Override
+	public Call resolve(UnresolvedCall call, Set<Type>[] types, SymbolAliasing aliasing)
+			throws CallResolutionException {
+		// the call graph is not thread-safe
+		synchronized (callgraph) {
+			return super.resolve(call, types, aliasing);
+		}
+	}
+
 	private Pair<AnalysisState<A, H, V, T>, AnalysisState<A, H, V, T>> getEntryAndExit(CFG cfg)
 			throws SemanticException {
 		if (!results.contains(cfg))
 			return null;
 		CFGResults<A, H, V, T> cfgresult = results.getState(cfg);
-		if (!cfgresult.contains(token))
+		if (!cfgresult.contains(token.get()))
 			return null;
-		CFGWithAnalysisResults<A, H, V, T> analysisresult = cfgresult.getState(token);
+		CFGWithAnalysisResults<A, H, V, T> analysisresult = cfgresult.getState(token.get());
 		return Pair.of(analysisresult.getEntryState(), analysisresult.getExitState());
 	}
 
@@ -186,11 +544,19 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 			StatementStore<A, H, V, T> expressions)
 			throws SemanticException {
 		ScopeToken scope = new ScopeToken(call);
-		token = token.pushToken(scope);
+		boolean expansion = expanding.get();
+		ContextSensitivityToken current = token.get();
+		Pair<CFG, ContextSensitivityToken> caller = Pair.of(call.getCFG(), current);
+		ContextSensitivityToken callee = current.pushToken(scope);
+		token.set(callee);
 		AnalysisState<A, H, V, T> result = entryState.bottom();
 
 		for (CFG cfg : call.getTargetedCFGs()) {
 			Pair<AnalysisState<A, H, V, T>, AnalysisState<A, H, V, T>> states = getEntryAndExit(cfg);
+			if (trackDependencies && !expansion)
+				synchronized (dependents) {
+					dependents.computeIfAbsent(Pair.of(cfg, callee), k -> new HashSet<>()).add(caller);
+				}
 
 			// prepare the state for the call: hide the visible variables
 			AnalysisState<A, H, V, T> callState = entryState.pushScope(scope);
@@ -207,8 +573,16 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 					ExpressionSet<SymbolicExpression>[]> prepared = strategy.prepare(call, callState,
 							this, expressions, formals, actuals);
 
+			AnalysisState<A, H, V, T> calleeEntry = prepared.getLeft();
+			AnalysisState<A, H, V, T> callerFrames = null;
+			if (summaries != null) {
+				Pair<AnalysisState<A, H, V, T>, AnalysisState<A, H, V, T>> split = splitCallerFrames(calleeEntry);
+				calleeEntry = split.getLeft();
+				callerFrames = split.getRight();
+			}
+
 			AnalysisState<A, H, V, T> exitState;
-			if (states != null && prepared.getLeft().lessOrEqual(states.getLeft()))
+			if (states != null && calleeEntry.lessOrEqual(states.getLeft()))
 				// no need to compute the fixpoint: we already have an
 				// approximation
 				exitState = states.getRight();
@@ -216,7 +590,13 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 				// compute the result
 				CFGWithAnalysisResults<A, H, V, T> fixpointResult = null;
 				try {
-					fixpointResult = computeFixpoint(cfg, token, prepared.getLeft());
+					if (expansion)
+						// the result is only needed to recompute the one
+						// being expanded, and it must not be stored
+						fixpointResult = cfg.fixpoint(calleeEntry, this, WorkingSet.of(fixpointWorkingSet),
+								conf.withoutMetrics());
+					else
+						fixpointResult = computeFixpoint(cfg, callee, calleeEntry);
 				} catch (FixpointException | AnalysisSetupException e) {
 					throw new SemanticException("Exception during the interprocedural analysis", e);
 				}
@@ -224,6 +604,14 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 				exitState = fixpointResult.getExitState();
 			}
 
+			if (callerFrames != null && !exitState.isBottom()) {
+				// restore the variables of the callers, keeping the values
+				// returned by the callee
+				AnalysisState<A, H, V, T> restored = exitState.lub(callerFrames);
+				exitState = new AnalysisState<>(restored.getState(), exitState.getComputedExpressions(),
+						restored.getAliasing());
+			}
+
 			// store the return value of the call inside the meta variable
 			AnalysisState<A, H, V, T> tmp = callState.bottom();
 			Identifier meta = (Identifier) call.getMetaVariable().pushScope(scope);
@@ -234,9 +622,13 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 			result = result.lub(tmp.popScope(scope));
 		}
 
-		token = token.popToken();
+		token.set(token.get().popToken());
 
-		callgraph.registerCall(call);
+		if (!expansion)
+			// the call graph is not thread-safe
+			synchronized (callgraph) {
+				callgraph.registerCall(call);
+			}
 
 		return result;
 	}
@@ -244,12 +636,26 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V, T>,
 	private CFGWithAnalysisResults<A, H, V, T> computeFixpoint(CFG cfg, ContextSensitivityToken localToken,
 			AnalysisState<A, H, V, T> computedEntryState)
 			throws FixpointException, SemanticException, AnalysisSetupException {
-		CFGWithAnalysisResults<A, H, V, T> fixpointResult = cfg.fixpoint(computedEntryState, this,
-				WorkingSet.of(fixpointWorkingSet), wideningThreshold, descendingPhase, descendingGlbThreshold);
-		fixpointResult.setId(localToken.toString());
+		String id = localToken.toString();
+		CFGWithAnalysisResults<A, H, V, T> fixpointResult = summaries == null ? null
+				: summaries.get(cfg, computedEntryState);
+		if (fixpointResult != null) {
+			fixpointResult = fixpointResult.withId(id);
+			if (trackDependencies)
+				synchronized (dependents) {
+					servedFromCache.computeIfAbsent(cfg, k -> new HashSet<>()).add(localToken);
+				}
+		} else {
+			fixpointResult = cfg.fixpoint(computedEntryState, this, WorkingSet.of(fixpointWorkingSet),
+					conf.inContext(id));
+			fixpointResult.setId(id);
+			fixpointResult = retain(fixpointResult, localToken);
+			if (summaries != null)
+				summaries.put(cfg, computedEntryState, fixpointResult);
+		}
 		Pair<Boolean, CFGWithAnalysisResults<A, H, V, T>> res = results.putResult(cfg, localToken, fixpointResult);
 		if (Boolean.TRUE.equals(res.getLeft()))
-			fixpointTriggers.add(cfg);
+			resultChanged(cfg, localToken);
 		return res.getRight();
 	}
 }
@@ -9,12 +9,15 @@ import it.unive.lisa.analysis.value.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.program.cfg.CFG;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * A {@link FunctionalLattice} from {@link CFG}s to {@link CFGResults}s. This
  * class is meant to store all fixpoint results on all token generated during
- * the interprocedural analysis for each cfg under analysis.
+ * the interprocedural analysis for each cfg under analysis. Results can be
+ * stored concurrently: conflicting results for the same cfg and token are
+ * joined.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -66,9 +69,12 @@ public class FixpointResults<A extends AbstractState<A, H, V, T>,
 	public Pair<Boolean, CFGWithAnalysisResults<A, H, V, T>> putResult(CFG cfg, ContextSensitivityToken token,
 			CFGWithAnalysisResults<A, H, V, T> result)
 			throws SemanticException {
-		if (function == null)
-			function = mkNewFunction(null, false);
-		CFGResults<A, H, V, T> res = function.computeIfAbsent(cfg, c -> new CFGResults<>(result.top()));
+		CFGResults<A, H, V, T> res;
+		synchronized (this) {
+			if (function == null)
+				function = mkNewFunction(null, false);
+			res = function.computeIfAbsent(cfg, c -> new CFGResults<>(result.top()));
+		}
 		return res.putResult(token, result);
 	}
 
@@ -79,7 +85,7 @@ public class FixpointResults<A extends AbstractState<A, H, V, T>,
 	 * 
 	 * @return {@code true} if that condition holds
 	 */
-	public boolean contains(CFG cfg) {
+	public synchronized boolean contains(CFG cfg) {
 		return function != null && function.containsKey(cfg);
 	}
 
@@ -98,7 +104,7 @@ public class FixpointResults<A extends AbstractState<A, H, V, T>,
 	 * 
 	 * @param cfg the cfg to forget
 	 */
-	public void forget(CFG cfg) {
+	public synchronized void forget(CFG cfg) {
 		if (function == null)
 			return;
 		function.remove(cfg);
@@ -106,6 +112,15 @@ public class FixpointResults<A extends AbstractState<A, H, V, T>,
 			function = null;
 	}
 
+	@Override
+	public Map<CFG, CFGResults<A, H, V, T>> mkNewFunction(
+			Map<CFG, CFGResults<A, H, V, T>> other, boolean preserveNull) {
+		// results can be stored and read by concurrent fixpoints
+		if (other == null)
+			return preserveNull ? null : new ConcurrentHashMap<>();
+		return new ConcurrentHashMap<>(other);
+	}
+
 	@Override
 	public FixpointResults<A, H, V, T> mk(CFGResults<A, H, V, T> lattice,
 			Map<CFG, CFGResults<A, H, V, T>> function) {
@@ -0,0 +1,138 @@
+package it.unive.lisa.interprocedural;
+
+import it.unive.lisa.analysis.ScopeToken;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link ContextSensitivityToken} representing a call string, that is, a
+ * sequence of {@link ScopeToken}s, as a node of a trie. Each token holds a
+ * pointer to the token it has been pushed onto, so that
+ * {@link #popToken()} does not need to copy anything, and remembers the
+ * token yielded by each {@link #pushToken(ScopeToken)} invoked on it, so that
+ * pushing the same {@link ScopeToken} twice yields the very same object.
+ * Tokens are thus interned: all the tokens representing the same call string
+ * that originate from the same {@link #empty()} token are the same object, and
+ * can be compared and hashed by identity.<br>
+ * <br>
+ * Tokens obtained from different {@link #empty()} tokens (that is, from
+ * different tries) are never equal, so a single trie must be used during an
+ * analysis. Tokens can be shared among threads.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public abstract class InternedCallStringToken implements ContextSensitivityToken {
+
+	/**
+	 * The empty token of the trie this token belongs to
+	 */
+	private final InternedCallStringToken root;
+
+	/**
+	 * The token this one has been pushed onto, {@code null} for the empty token
+	 */
+	private final InternedCallStringToken parent;
+
+	/**
+	 * The last {@link ScopeToken} of the call string, {@code null} for the
+	 * empty token
+	 */
+	private final ScopeToken scope;
+
+	/**
+	 * The length of the call string
+	 */
+	private final int length;
+
+	/**
+	 * The tokens yielded by {@link #pushToken(ScopeToken)}
+	 */
+	private final Map<ScopeToken, InternedCallStringToken> successors = new ConcurrentHashMap<>();
+
+	/**
+	 * Builds the empty token of a new trie.
+	 */
+	protected InternedCallStringToken() {
+		this.root = this;
+		this.parent = null;
+		this.scope = null;
+		this.length = 0;
+	}
+
+	/**
+	 * Builds the token obtained by appending {@code scope} to the call string
+	 * of {@code parent}.
+	 * 
+	 * @param parent the token that is being extended
+	 * @param scope  the {@link ScopeToken} appended to the call string
+	 */
+	protected InternedCallStringToken(InternedCallStringToken parent, ScopeToken scope) {
+		this.root = parent.root;
+		this.parent = parent;
+		this.scope = scope;
+		this.length = parent.length + 1;
+	}
+
+	/**
+	 * Computes the token resulting from pushing {@code scope} onto this one.
+	 * This is invoked at most once for each {@link ScopeToken}, and its result
+	 * is returned by all subsequent calls to {@link #pushToken(ScopeToken)}
+	 * with the same argument. To preserve interning, new tokens must be created
+	 * only as direct extensions of this one (that is, having this token as
+	 * parent), while any other call string must be reached through
+	 * {@link #pushToken(ScopeToken)} starting from existing tokens.
+	 * 
+	 * @param scope the {@link ScopeToken} being pushed
+	 * 
+	 * @return the resulting token
+	 */
+	protected abstract InternedCallStringToken successor(ScopeToken scope);
+
+	/**
+	 * Yields the length of the call string represented by this token.
+	 * 
+	 * @return the length
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Yields the call string represented by this token, from the outermost
+	 * {@link ScopeToken} to the innermost one.
+	 * 
+	 * @return the call string
+	 */
+	public List<ScopeToken> getCallString() {
+		LinkedList<ScopeToken> string = new LinkedList<>();
+		for (InternedCallStringToken t = this; t.parent != null; t = t.parent)
+			string.addFirst(t.scope);
+		return Collections.unmodifiableList(string);
+	}
+
+	@Override
+	public InternedCallStringToken empty() {
+		return root;
+	}
+
+	@Override
+	public InternedCallStringToken pushToken(ScopeToken c) {
+		InternedCallStringToken result = successors.get(c);
+		if (result != null)
+			return result;
+		return successors.computeIfAbsent(c, this::successor);
+	}
+
+	@Override
+	public InternedCallStringToken popToken() {
+		return parent == null ? this : parent;
+	}
+
+	@Override
+	public String toString() {
+		return String.valueOf(getCallString());
+	}
+}
@@ -0,0 +1,88 @@
+package it.unive.lisa.interprocedural;
+
+import it.unive.lisa.analysis.ScopeToken;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link InternedCallStringToken} representing an entire call chain up
+ * until a recursion, behaving as a {@link RecursionFreeToken}. Each
+ * {@link ScopeToken} is assigned an index the first time it is pushed in the
+ * trie, and each token stores the indexes of the ones in its call string in a
+ * {@link BitSet}, so that recursions are detected without scanning the call
+ * string.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class InternedRecursionFreeToken extends InternedCallStringToken {
+
+	/**
+	 * The indexes of the {@link ScopeToken}s, shared by the whole trie
+	 */
+	private final ScopeIndex index;
+
+	/**
+	 * The indexes of the {@link ScopeToken}s in the call string
+	 */
+	private final BitSet members;
+
+	private InternedRecursionFreeToken() {
+		super();
+		this.index = new ScopeIndex();
+		this.members = new BitSet();
+	}
+
+	private InternedRecursionFreeToken(InternedRecursionFreeToken parent, ScopeToken scope) {
+		super(parent, scope);
+		this.index = parent.index;
+		this.members = (BitSet) parent.members.clone();
+		this.members.set(index.indexOf(scope));
+	}
+
+	/**
+	 * Yields {@code true} if the given {@link ScopeToken} is part of the call
+	 * string represented by this token.
+	 * 
+	 * @param scope the scope token
+	 * 
+	 * @return whether or not {@code scope} is in the call string
+	 */
+	public boolean contains(ScopeToken scope) {
+		Integer idx = index.indexes.get(scope);
+		return idx != null && members.get(idx);
+	}
+
+	@Override
+	protected InternedCallStringToken successor(ScopeToken scope) {
+		if (contains(scope))
+			return this;
+		return new InternedRecursionFreeToken(this, scope);
+	}
+
+	/**
+	 * Return an empty token, that is the root of a new trie.
+	 * 
+	 * @return an empty token
+	 */
+	public static InternedRecursionFreeToken getSingleton() {
+		return new InternedRecursionFreeToken();
+	}
+
+	/**
+	 * An index assigning consecutive integers to {@link ScopeToken}s.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	private static final class ScopeIndex {
+
+		private final Map<ScopeToken, Integer> indexes = new ConcurrentHashMap<>();
+
+		private final AtomicInteger next = new AtomicInteger();
+
+		private int indexOf(ScopeToken scope) {
+			return indexes.computeIfAbsent(scope, s -> next.getAndIncrement());
+		}
+	}
+}
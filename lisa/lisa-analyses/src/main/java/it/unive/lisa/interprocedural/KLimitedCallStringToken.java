@@ -0,0 +1,80 @@
+package it.unive.lisa.interprocedural;
+
+import it.unive.lisa.analysis.ScopeToken;
+import java.util.List;
+
+/**
+ * An {@link InternedCallStringToken} representing the last {@code k}
+ * {@link ScopeToken}s of the call chain. Pushing a {@link ScopeToken} onto a
+ * token whose call string already has length {@code k} drops the outermost
+ * one: the resulting token is computed only the first time, and then reused as
+ * any other pushed token. Popping such a token yields the call string without
+ * its innermost {@link ScopeToken}, that is, the outermost one is not
+ * restored.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class KLimitedCallStringToken extends InternedCallStringToken {
+
+	/**
+	 * The default maximum length of call strings, used by
+	 * {@link #getSingleton()}.
+	 */
+	public static final int DEFAULT_K = 2;
+
+	/**
+	 * The maximum length of call strings
+	 */
+	private final int k;
+
+	/**
+	 * Builds the empty token of a new trie, whose call strings have length at
+	 * most {@code k}.
+	 * 
+	 * @param k the maximum length of call strings
+	 * 
+	 * @throws IllegalArgumentException if {@code k} is not positive
+	 */
+	public KLimitedCallStringToken(int k) {
+		super();
+		if (k < 1)
+			throw new IllegalArgumentException("The maximum length of call strings must be positive: " + k);
+		this.k = k;
+	}
+
+	private KLimitedCallStringToken(KLimitedCallStringToken parent, ScopeToken scope) {
+		super(parent, scope);
+		this.k = parent.k;
+	}
+
+	/**
+	 * Yields the maximum length of the call strings represented by this token.
+	 * 
+	 * @return the maximum length
+	 */
+	public int getK() {
+		return k;
+	}
+
+	@Override
+	protected InternedCallStringToken successor(ScopeToken scope) {
+		if (length() < k)
+			return new KLimitedCallStringToken(this, scope);
+
+		List<ScopeToken> string = getCallString();
+		InternedCallStringToken result = empty();
+		for (ScopeToken s : string.subList(1, string.size()))
+			result = result.pushToken(s);
+		return result.pushToken(scope);
+	}
+
+	/**
+	 * Return an empty token, that is the root of a new trie, whose call
+	 * strings have length at most {@link #DEFAULT_K}.
+	 * 
+	 * @return an empty token
+	 */
+	public static KLimitedCallStringToken getSingleton() {
+		return new KLimitedCallStringToken(DEFAULT_K);
+	}
+}
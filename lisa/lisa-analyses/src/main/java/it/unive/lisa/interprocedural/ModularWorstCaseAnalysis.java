@@ -2,7 +2,7 @@ package it.unive.lisa.interprocedural;
 
 import it.unive.lisa.AnalysisSetupException;
 import it.unive.lisa.FallbackImplementation;
-import it.unive.lisa.LiSAConfiguration.DescendingPhaseType;
+import it.unive.lisa.FixpointConfiguration;
 import it.unive.lisa.analysis.*;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
@@ -11,6 +11,7 @@ import it.unive.lisa.analysis.value.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.logging.Counter;
 import it.unive.lisa.logging.IterationLogger;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.cfg.CFG;
@@ -28,6 +29,10 @@ import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -47,6 +52,8 @@ public class ModularWorstCaseAnalysis<A extends AbstractState<A, H, V, T>,
 
 	private static final Logger LOG = LogManager.getLogger(ModularWorstCaseAnalysis.class);
 
+	private static final String FIXPOINT_MESSAGE = "Computing fixpoint over the whole program";
+
 	/**
 	 * The application.
 	 */
@@ -72,31 +79,83 @@ public class ModularWorstCaseAnalysis<A extends AbstractState<A, H, V, T>,
 		this.results = new ConcurrentHashMap<>();
 	}
 
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * Since each cfg is analyzed independently, fixpoints are computed in
+	 * parallel on a {@link ForkJoinPool} whenever
+	 * {@link FixpointConfiguration#parallelism} is greater than {@code 1}. In
+	 * that case, results are still stored following the order of
+	 * {@link Application#getAllCFGs()}, and if more than one fixpoint fails,
+	 * the exception raised by the first failing cfg in that order is the one
+	 * being propagated, as it happens with sequential executions.
+	 */
 	@Override
 	public void fixpoint(AnalysisState<A, H, V, T> entryState,
 			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
-			int wideningThreshold,
-			DescendingPhaseType descendingPhase,
-			int descendingGlbThreshold)
+			FixpointConfiguration conf)
 			throws FixpointException {
-		for (CFG cfg : IterationLogger.iterate(LOG, app.getAllCFGs(), "Computing fixpoint over the whole program",
-				"cfgs"))
-			try {
-				AnalysisState<A, H, V, T> prepared = entryState;
-
-				for (Parameter arg : cfg.getDescriptor().getFormals()) {
-					Variable id = new Variable(arg.getStaticType(), arg.getName(), arg.getAnnotations(),
-							arg.getLocation());
-					prepared = prepared.assign(id, new PushAny(arg.getStaticType(), arg.getLocation()),
-							cfg.getGenericProgramPoint());
+		if (conf.parallelism <= 1) {
+			for (CFG cfg : IterationLogger.iterate(LOG, app.getAllCFGs(), FIXPOINT_MESSAGE, "cfgs"))
+				results.put(cfg, Optional.of(analyze(cfg, entryState, fixpointWorkingSet, conf)));
+			return;
+		}
+
+		List<CFG> cfgs = new ArrayList<>(app.getAllCFGs());
+		Counter counter = new Counter(LOG, Level.INFO, FIXPOINT_MESSAGE, "cfgs", cfgs.size(), 0.025);
+		ForkJoinPool pool = new ForkJoinPool(conf.parallelism);
+		counter.on();
+		try {
+			List<ForkJoinTask<CFGWithAnalysisResults<A, H, V, T>>> tasks = new ArrayList<>(cfgs.size());
+			for (CFG cfg : cfgs)
+				tasks.add(pool.submit(() -> {
+					CFGWithAnalysisResults<A, H, V, T> result = analyze(cfg, entryState, fixpointWorkingSet, conf);
+					counter.count();
+					return result;
+				}));
+
+			for (int i = 0; i < cfgs.size(); i++)
+				try {
+					results.put(cfgs.get(i), Optional.of(tasks.get(i).get()));
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof FixpointException)
+						throw (FixpointException) cause;
+					if (cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					if (cause instanceof Error)
+						throw (Error) cause;
+					throw new FixpointException("Error while computing the fixpoint of " + cfgs.get(i), cause);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new FixpointException("Interrupted while computing the fixpoint of " + cfgs.get(i), e);
 				}
+		} finally {
+			pool.shutdownNow();
+			counter.off();
+		}
+	}
 
-				results.put(cfg, Optional
-						.of(cfg.fixpoint(prepared, this, WorkingSet.of(fixpointWorkingSet),
-								wideningThreshold, descendingPhase, descendingGlbThreshold)));
-			} catch (SemanticException | AnalysisSetupException e) {
-				throw new FixpointException("Error while creating the entrystate for " + cfg, e);
+	private CFGWithAnalysisResults<A, H, V, T> analyze(
+			CFG cfg,
+			AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
+			throws FixpointException {
+		try {
+			AnalysisState<A, H, V, T> prepared = entryState;
+
+			for (Parameter arg : cfg.getDescriptor().getFormals()) {
+				Variable id = new Variable(arg.getStaticType(), arg.getName(), arg.getAnnotations(),
+						arg.getLocation());
+				prepared = prepared.assign(id, new PushAny(arg.getStaticType(), arg.getLocation()),
+						cfg.getGenericProgramPoint());
 			}
+
+			return cfg.fixpoint(prepared, this, WorkingSet.of(fixpointWorkingSet), conf);
+		} catch (SemanticException | AnalysisSetupException e) {
+			throw new FixpointException("Error while creating the entrystate for " + cfg, e);
+		}
 	}
 
 	@Override
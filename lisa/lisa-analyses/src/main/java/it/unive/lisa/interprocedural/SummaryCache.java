@@ -0,0 +1,215 @@
+package it.unive.lisa.interprocedural;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.value.TypeDomain;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.program.cfg.CFG;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of the results of the fixpoints computed over {@link CFG}s,
+ * indexed by the cfg and by the entry state used to compute the fixpoint.
+ * Since the entry state fully determines the result, a cached result can be
+ * reused regardless of the {@link ContextSensitivityToken} under which it has
+ * been computed. To share results among calls that only differ in parts of
+ * the state that the callee cannot access, such parts should be removed from
+ * the entry state before using it with the cache, as
+ * {@link ContextBasedAnalysis} does. The cache holds at most a fixed number
+ * of results, evicting the least recently used one when a new result would
+ * exceed that number. Instances of this class can be shared among threads.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ * 
+ * @param <A> the type of {@link AbstractState} contained into the analysis
+ *                state
+ * @param <H> the type of {@link HeapDomain} contained into the computed
+ *                abstract state
+ * @param <V> the type of {@link ValueDomain} contained into the computed
+ *                abstract state
+ * @param <T> the type of {@link TypeDomain} contained into the computed
+ *                abstract state
+ */
+public class SummaryCache<A extends AbstractState<A, H, V, T>,
+		H extends HeapDomain<H>,
+		V extends ValueDomain<V>,
+		T extends TypeDomain<T>> {
+
+	private final int maxSize;
+
+	private final Map<Key<A, H, V, T>, CFGWithAnalysisResults<A, H, V, T>> entries;
+
+	private long hits;
+
+	private long misses;
+
+	private long evictions;
+
+	/**
+	 * Builds an empty cache.
+	 * 
+	 * @param maxSize the maximum number of results held by the cache
+	 * 
+	 * @throws IllegalArgumentException if {@code maxSize} is not positive
+	 */
+	public SummaryCache(int maxSize) {
+		if (maxSize < 1)
+			throw new IllegalArgumentException("The size of the summary cache must be positive: " + maxSize);
+		this.maxSize = maxSize;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<Key<A, H, V, T>, CFGWithAnalysisResults<A, H, V, T>> eldest) {
+				if (size() <= SummaryCache.this.maxSize)
+					return false;
+				evictions++;
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Yields the result of the fixpoint over {@code cfg} computed starting
+	 * from {@code entryState}, if it is in the cache.
+	 * 
+	 * @param cfg        the cfg
+	 * @param entryState the entry state of the fixpoint
+	 * 
+	 * @return the cached result, or {@code null} if no result is cached
+	 */
+	public synchronized CFGWithAnalysisResults<A, H, V, T> get(CFG cfg, AnalysisState<A, H, V, T> entryState) {
+		CFGWithAnalysisResults<A, H, V, T> result = entries.get(new Key<>(cfg, entryState));
+		if (result == null)
+			misses++;
+		else
+			hits++;
+		return result;
+	}
+
+	/**
+	 * Stores the result of the fixpoint over {@code cfg} computed starting
+	 * from {@code entryState}, possibly evicting the least recently used
+	 * result.
+	 * 
+	 * @param cfg        the cfg
+	 * @param entryState the entry state of the fixpoint
+	 * @param result     the result of the fixpoint
+	 */
+	public synchronized void put(CFG cfg, AnalysisState<A, H, V, T> entryState,
+			CFGWithAnalysisResults<A, H, V, T> result) {
+		entries.put(new Key<>(cfg, entryState), result);
+	}
+
+	/**
+	 * Removes all the results computed over the given cfgs from the cache.
+	 * This is meant to be used when such results are no longer valid, e.g.,
+	 * since the results of the cfgs they call have changed.
+	 * 
+	 * @param cfgs the cfgs whose results should be removed
+	 */
+	public synchronized void invalidate(Collection<CFG> cfgs) {
+		if (!cfgs.isEmpty())
+			entries.keySet().removeIf(key -> cfgs.contains(key.cfg));
+	}
+
+	/**
+	 * Yields the number of results currently held by the cache.
+	 * 
+	 * @return the number of results
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Yields the maximum number of results held by the cache.
+	 * 
+	 * @return the maximum number of results
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Yields the number of lookups that found a result in the cache.
+	 * 
+	 * @return the number of hits
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Yields the number of lookups that did not find a result in the cache.
+	 * 
+	 * @return the number of misses
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Yields the number of results that have been evicted from the cache to
+	 * make room for new ones.
+	 * 
+	 * @return the number of evictions
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return entries.size() + "/" + maxSize + " summaries (" + hits + " hits, " + misses + " misses, " + evictions
+				+ " evictions)";
+	}
+
+	/**
+	 * The key of a cached result, pairing a cfg with the entry state its
+	 * result has been computed from.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 * 
+	 * @param <A> the type of {@link AbstractState} of the entry state
+	 * @param <H> the type of {@link HeapDomain} of the entry state
+	 * @param <V> the type of {@link ValueDomain} of the entry state
+	 * @param <T> the type of {@link TypeDomain} of the entry state
+	 */
+	public static final class Key<A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> {
+
+		private final CFG cfg;
+
+		private final AnalysisState<A, H, V, T> entryState;
+
+		private Key(CFG cfg, AnalysisState<A, H, V, T> entryState) {
+			this.cfg = cfg;
+			this.entryState = entryState;
+		}
+
+		@Override
+		public int hashCode() {
+			// cfgs are unique instances
+			return 31 * System.identityHashCode(cfg) + entryState.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key<?, ?, ?, ?> other = (Key<?, ?, ?, ?>) obj;
+			return cfg == other.cfg && entryState.equals(other.entryState);
+		}
+	}
+}
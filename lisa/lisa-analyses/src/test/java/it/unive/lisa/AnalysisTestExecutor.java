@@ -231,7 +231,7 @@ public abstract class AnalysisTestExecutor {
 
 	private void regen(Path expectedPath, Path actualPath, File expFile, File actFile, Accumulator acc)
 			throws IOException {
-		boolean updateReport = acc.changedWarnings || acc.changedConf || acc.changedInfos
+		boolean updateReport = acc.changedWarnings || acc.changedConf || acc.changedInfos || acc.changedMetrics
 				|| !acc.addedFilePaths.isEmpty() || !acc.removedFilePaths.isEmpty()
 				|| !acc.changedFileName.isEmpty();
 		if (updateReport) {
@@ -298,6 +298,7 @@ public abstract class AnalysisTestExecutor {
 		private boolean changedInfos = false;
 		private boolean changedConf = false;
 		private boolean changedWarnings = false;
+		private boolean changedMetrics = false;
 
 		private final Path exp;
 
@@ -322,6 +323,9 @@ public abstract class AnalysisTestExecutor {
 				case CONFIGURATION:
 					changedConf = true;
 					break;
+				case METRICS:
+					changedMetrics = true;
+					break;
 				default:
 					break;
 				}
@@ -340,6 +344,9 @@ public abstract class AnalysisTestExecutor {
 				case CONFIGURATION:
 					changedConf = true;
 					break;
+				case METRICS:
+					changedMetrics = true;
+					break;
 				default:
 					break;
 				}
@@ -366,6 +373,11 @@ public abstract class AnalysisTestExecutor {
 		public void configurationDiff(String key, String first, String second) {
 			changedConf = true;
 		}
+
+		@Override
+		public void metricsDiff(String graph, String key, String first, String second) {
+			changedMetrics = true;
+		}
 	}
 
 	private String getCaller() {
@@ -7,6 +7,8 @@ import it.unive.lisa.analysis.CFGWithAnalysisResults;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.ScopeToken;
 import it.unive.lisa.analysis.SemanticDomain;
+import it.unive.lisa.analysis.dataflow.BitVectorDefiniteForwardDataflowDomain;
+import it.unive.lisa.analysis.dataflow.BitVectorPossibleForwardDataflowDomain;
 import it.unive.lisa.analysis.dataflow.DataflowElement;
 import it.unive.lisa.analysis.heap.HeapSemanticOperation.HeapReplacement;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
@@ -30,8 +32,11 @@ import it.unive.lisa.interprocedural.CFGResults;
 import it.unive.lisa.interprocedural.ContextInsensitiveToken;
 import it.unive.lisa.interprocedural.ContextSensitivityToken;
 import it.unive.lisa.interprocedural.FixpointResults;
+import it.unive.lisa.interprocedural.InternedCallStringToken;
+import it.unive.lisa.interprocedural.SummaryCache;
 import it.unive.lisa.interprocedural.callgraph.CallGraphEdge;
 import it.unive.lisa.interprocedural.callgraph.CallGraphNode;
+import it.unive.lisa.logging.FixpointMetrics;
 import it.unive.lisa.outputs.json.JsonReport;
 import it.unive.lisa.outputs.json.JsonReport.JsonWarning;
 import it.unive.lisa.outputs.serializableGraph.*;
@@ -51,8 +56,18 @@ import it.unive.lisa.program.cfg.statement.call.Call.CallType;
 import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
 import it.unive.lisa.program.type.Int32Type;
 import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.heap.AccessChild;
+import it.unive.lisa.symbolic.heap.HeapDereference;
+import it.unive.lisa.symbolic.heap.HeapReference;
+import it.unive.lisa.symbolic.value.BinaryExpression;
 import it.unive.lisa.symbolic.value.HeapLocation;
 import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.TernaryExpression;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.symbolic.value.operator.binary.Numeric32BitAdd;
+import it.unive.lisa.symbolic.value.operator.ternary.StringReplace;
+import it.unive.lisa.symbolic.value.operator.unary.NumericNegation;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.type.TypeTokenType;
 import it.unive.lisa.type.Untyped;
@@ -63,6 +78,7 @@ import it.unive.lisa.util.collections.externalSet.UniversalExternalSet;
 import it.unive.lisa.util.collections.workset.*;
 import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix;
 import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix.NodeEdges;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
 import it.unive.lisa.util.datastructures.graph.code.NodeList;
 import it.unive.lisa.util.numeric.IntInterval;
 import it.unive.lisa.util.numeric.MathNumber;
@@ -116,6 +132,16 @@ public class EqualityContractVerificationTest {
 	private static final Set<Type> s1 = Collections.singleton(Untyped.INSTANCE);
 	private static final Set<Type> s2 = Collections.singleton(Int32Type.INSTANCE);
 
+	private static final Variable var = new Variable(Untyped.INSTANCE, "x", loc);
+	private static final Map<Class<?>, SymbolicExpression> cachedHashExamples = Map.of(
+			UnaryExpression.class, new UnaryExpression(Untyped.INSTANCE, var, NumericNegation.INSTANCE, loc),
+			BinaryExpression.class, new BinaryExpression(Untyped.INSTANCE, var, var, Numeric32BitAdd.INSTANCE, loc),
+			TernaryExpression.class,
+			new TernaryExpression(Untyped.INSTANCE, var, var, var, StringReplace.INSTANCE, loc),
+			AccessChild.class, new AccessChild(Untyped.INSTANCE, var, var, loc),
+			HeapDereference.class, new HeapDereference(Untyped.INSTANCE, var, loc),
+			HeapReference.class, new HeapReference(Untyped.INSTANCE, var, loc));
+
 	private static final Collection<Class<?>> tested = new HashSet<>();
 	private static final StringGraph sg1 = new StringGraph(StringGraph.NodeType.OR,
 			List.of(new StringGraph("good"), new StringGraph("bad")), null);
@@ -123,11 +149,22 @@ public class EqualityContractVerificationTest {
 			List.of(new StringGraph("good"), new StringGraph("bad")), null);
 	private static final StringGraphDomain sgd1 = new StringGraphDomain(sg1);
 	private static final StringGraphDomain sgd2 = new StringGraphDomain(sg2);
+	private static final ExternalSetCache<String> cache1 = new ExternalSetCache<>();
+	private static final ExternalSetCache<String> cache2 = new ExternalSetCache<>();
+	private static final FixpointMetrics metrics1 = new FixpointMetrics();
+	private static final FixpointMetrics metrics2 = new FixpointMetrics();
+	private static final WeakTopologicalOrder<CFG, Statement, Edge> wto1 = new WeakTopologicalOrder<>(cfg1);
+	private static final WeakTopologicalOrder<CFG, Statement, Edge> wto2 = new WeakTopologicalOrder<>(cfg2);
 
 	@BeforeClass
 	public static void setup() {
 		adj1.addNode(new Ret(cfg1, loc));
+		for (int i = 0; i < 64; i++) {
+			cache1.mkSingletonSet("a" + i);
+			cache2.mkSingletonSet("b" + i);
+		}
 		g1.addNode("a");
+		metrics2.reanalysis("foo");
 	}
 
 	private static Reflections mkReflections() {
@@ -205,7 +242,9 @@ public class EqualityContractVerificationTest {
 				.withPrefabValues(Set.class, s1, s2)
 				.withPrefabValues(org.graphstream.graph.Graph.class, g1, g2)
 				.withPrefabValues(StringGraph.class, sg1, sg2)
-				.withPrefabValues(StringGraphDomain.class, sgd1, sgd2);
+				.withPrefabValues(StringGraphDomain.class, sgd1, sgd2)
+				.withPrefabValues(FixpointMetrics.class, metrics1, metrics2)
+				.withPrefabValues(WeakTopologicalOrder.class, wto1, wto2);
 
 		if (getClass)
 			verifier = verifier.usingGetClass();
@@ -234,13 +273,19 @@ public class EqualityContractVerificationTest {
 		// caring about fields
 		verify(ExternalSetCache.class, Warning.INHERITED_DIRECTLY_FROM_OBJECT, Warning.ALL_FIELDS_SHOULD_BE_USED);
 		// suppress nullity: the cache will never be null
-		verify(BitExternalSet.class, false, Warning.NULL_FIELDS, Warning.NONFINAL_FIELDS);
-		verify(UniversalExternalSet.class, false, Warning.NULL_FIELDS);
+		// caches must actually contain elements
+		verify(BitExternalSet.class, false,
+				verifier -> verifier.withPrefabValues(ExternalSetCache.class, cache1, cache2),
+				Warning.NULL_FIELDS, Warning.NONFINAL_FIELDS);
+		verify(UniversalExternalSet.class, false,
+				verifier -> verifier.withPrefabValues(ExternalSetCache.class, cache1, cache2),
+				Warning.NULL_FIELDS);
 
 		verify(AdjacencyMatrix.class);
 		verify(NodeEdges.class);
 		verify(NodeList.class,
-				verifier -> verifier.withIgnoredFields("nextOffset", "sequentialSingleton", "computeOffsets"));
+				verifier -> verifier.withIgnoredFields("nextOffset", "sequentialSingleton", "computeOffsets", "indexes",
+						"adjacency"));
 		verify(it.unive.lisa.util.datastructures.graph.code.NodeList.NodeEdges.class);
 
 		verify(ConcurrentFIFOWorkingSet.class);
@@ -290,12 +335,24 @@ public class EqualityContractVerificationTest {
 			else if (Identifier.class.isAssignableFrom(expr))
 				// identifiers use only their name for equality
 				verify(expr, verifier -> verifier.withOnlyTheseFields("name"));
+			else if (cachedHashExamples.containsKey(expr))
+				// compound expressions cache their hash code
+				verifyCachedHashCode(expr, cachedHashExamples.get(expr));
 			else
 				// location is excluded on purpose: it only brings syntactic
 				// information
 				verify(expr, verifier -> verifier.withIgnoredFields("location", "types"));
 	}
 
+	private static <T extends SymbolicExpression> void verifyCachedHashCode(Class<T> clazz,
+			SymbolicExpression example) {
+		T cast = clazz.cast(example);
+		// the example must have its hash code already cached
+		cast.hashCode();
+		verify(clazz, verifier -> verifier.withIgnoredFields("location", "types")
+				.withCachedHashCode("hash", "computeHashCode", cast));
+	}
+
 	@Test
 	public void testStatements() {
 		// suppress nullity: the verifier will try to pass in a code location
@@ -374,6 +431,10 @@ public class EqualityContractVerificationTest {
 				verify(subject, Warning.NONFINAL_FIELDS);
 			else if (subject == StaticTypes.class)
 				verify(subject, verifier -> verifier.withIgnoredFields("types"));
+			else if (subject == BitVectorPossibleForwardDataflowDomain.class
+					|| subject == BitVectorDefiniteForwardDataflowDomain.class)
+				// the index only assigns positions to the elements
+				verify(subject, verifier -> verifier.withIgnoredFields("index"));
 			else if (subject != CFGWithAnalysisResults.class)
 				// we test the cfg separately
 				verify(subject);
@@ -406,11 +467,14 @@ public class EqualityContractVerificationTest {
 		verify(CallGraphNode.class, verifier -> verifier.withIgnoredFields("graph"));
 		verify(CFGResults.class, Warning.NONFINAL_FIELDS);
 		verify(FixpointResults.class, Warning.NONFINAL_FIELDS);
+		// cfgs are compared by identity
+		verify(SummaryCache.Key.class, false, Warning.REFERENCE_EQUALITY, Warning.NULL_FIELDS);
 		Reflections scanner = mkReflections();
 		for (Class<? extends ContextSensitivityToken> token : scanner.getSubTypesOf(ContextSensitivityToken.class))
 			if (token == ContextInsensitiveToken.class)
 				verify(token, Warning.INHERITED_DIRECTLY_FROM_OBJECT);
-			else
+			else if (!InternedCallStringToken.class.isAssignableFrom(token))
+				// interned tokens are compared by identity
 				verify(token);
 	}
 
@@ -419,8 +483,9 @@ public class EqualityContractVerificationTest {
 		verify(Global.class);
 		// the default value does not impact the definition of the formal
 		verify(Parameter.class, verifier -> verifier.withIgnoredFields("defaultValue"));
-		// 'overridable' is mutable
-		verify(CodeMemberDescriptor.class, Warning.NONFINAL_FIELDS);
+		// 'overridable' is mutable, while 'scopeEnds' is just a cache
+		verify(CodeMemberDescriptor.class, verifier -> verifier.withIgnoredFields("scopeEnds"),
+				Warning.NONFINAL_FIELDS);
 		// scope bounds are mutable
 		verify(VariableTableEntry.class, Warning.NONFINAL_FIELDS);
 		Reflections scanner = mkReflections();
@@ -442,8 +507,9 @@ public class EqualityContractVerificationTest {
 
 	@Test
 	public void testOutputs() {
-		verify(JsonReport.class);
-		verify(LiSARunInfo.class);
+		// fixpoint metrics vary between runs, and are not part of equality
+		verify(JsonReport.class, verifier -> verifier.withIgnoredFields("metrics"));
+		verify(LiSARunInfo.class, verifier -> verifier.withIgnoredFields("fixpointMetrics"));
 		verify(LiSAReport.class);
 
 		verify(SerializableGraph.class);
@@ -15,6 +15,8 @@ import it.unive.lisa.symbolic.value.HeapLocation;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.type.Untyped;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import org.junit.Test;
 
@@ -42,6 +44,19 @@ public class EnvironmentTest {
 		assertEquals(Set.of(heapA, heapB), env.lubKeys(Set.of(heapA), Set.of(heapB)));
 	}
 
+	@Test
+	public void testLubKeysIndependentOfIterationOrder() throws SemanticException {
+		Set<Identifier> strongFirst = new LinkedHashSet<>(List.of(heapA, heapAweak));
+		Set<Identifier> weakFirst = new LinkedHashSet<>(List.of(heapAweak, heapA));
+		Set<Identifier> expected = Set.of(heapA, heapAweak);
+		assertEquals(expected, env.lubKeys(strongFirst, strongFirst));
+		assertEquals(expected, env.lubKeys(strongFirst, weakFirst));
+		assertEquals(expected, env.lubKeys(weakFirst, strongFirst));
+		assertEquals(expected, env.lubKeys(weakFirst, weakFirst));
+		assertEquals(expected, env.lubKeys(weakFirst, Set.of(heapA)));
+		assertEquals(Set.of(heapAweak), env.lubKeys(weakFirst, Set.of(heapAweak)));
+	}
+
 	@Test
 	public void testForgetIdentifier() throws SemanticException {
 		ValueEnvironment<Sign> tmp = env.top();
@@ -1,5 +1,6 @@
 package it.unive.lisa.analysis.string.fsa;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collections;
@@ -79,4 +80,56 @@ public class IsContainedTest {
 		assertTrue(a2.isContained(a));
 		assertTrue(!a.isContained(a2));
 	}
+
+	@Test
+	public void cyclesAndEpsilons() {
+		SortedSet<State> states = new TreeSet<>();
+		State[] st = new State[3];
+		SortedSet<State> states2 = new TreeSet<>();
+		State[] st2 = new State[1];
+		SortedSet<Transition> delta = new TreeSet<>();
+		SortedSet<Transition> delta2 = new TreeSet<>();
+		st[0] = new State(true, true);
+		st[1] = new State(false, false);
+		st[2] = new State(false, false);
+		Collections.addAll(states, st);
+
+		st2[0] = new State(true, true);
+		Collections.addAll(states2, st2);
+
+		delta.add(new Transition(st[0], st[1], "a"));
+		delta.add(new Transition(st[1], st[2], "b"));
+		delta.add(new Transition(st[2], st[0], ""));
+
+		delta2.add(new Transition(st2[0], st2[0], "a"));
+		delta2.add(new Transition(st2[0], st2[0], "b"));
+
+		// (ab)*
+		Automaton a = new Automaton(states, delta);
+
+		// (a|b)*
+		Automaton a2 = new Automaton(states2, delta2);
+
+		assertTrue(a.isContained(a2));
+		assertFalse(a2.isContained(a));
+		assertFalse(a.isContained(new Automaton("ab")));
+		assertTrue(new Automaton("abab").isContained(a));
+		assertFalse(new Automaton("abc").isContained(a2));
+	}
+
+	@Test
+	public void manyStrings() {
+		Automaton a = new Automaton("s0");
+		Automaton a2 = new Automaton("s0");
+		for (int i = 1; i < 200; i++) {
+			a = a.union(new Automaton("s" + i));
+			if (i != 150)
+				a2 = a2.union(new Automaton("s" + i));
+		}
+
+		assertTrue(a2.isContained(a));
+		assertFalse(a.isContained(a2));
+		assertTrue(a.isContained(a.minimize()));
+		assertTrue(a.minimize().isContained(a));
+	}
 }
@@ -1,6 +1,7 @@
 package it.unive.lisa.analysis.string.fsa;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collections;
@@ -97,4 +98,40 @@ public class MinimizeTest {
 
 		assertEquals(a, a.minimize());
 	}
+
+	@Test
+	public void emptyLanguage() {
+		SortedSet<State> states = new TreeSet<>();
+		SortedSet<Transition> delta = new TreeSet<>();
+		State[] st = new State[3];
+		st[0] = new State(true, false);
+		st[1] = new State(false, false);
+		st[2] = new State(false, true);
+		Collections.addAll(states, st);
+
+		delta.add(new Transition(st[0], st[1], "a"));
+		delta.add(new Transition(st[1], st[0], "b"));
+
+		// no final state is reachable
+		Automaton a = new Automaton(states, delta);
+
+		Automaton min = a.minimize();
+		assertTrue(min.acceptsEmptyLanguage());
+		assertEquals("", min.toRegex());
+	}
+
+	@Test
+	public void manyStrings() {
+		Automaton a = new Automaton("s0");
+		for (int i = 1; i < 300; i++)
+			a = a.union(new Automaton("s" + i));
+
+		Automaton min = a.minimize();
+		for (int i = 0; i < 300; i++)
+			assertTrue(min.validateString("s" + i));
+		assertFalse(min.validateString("s"));
+		assertFalse(min.validateString("s300"));
+		assertFalse(min.validateString("s01"));
+		assertEquals(min, min.minimize());
+	}
 }
@@ -0,0 +1,46 @@
+package it.unive.lisa.analysis.string.stringgraph;
+
+import org.junit.Test;
+
+import static it.unive.lisa.analysis.string.stringgraph.StringGraph.checkPartialOrder;
+import static org.junit.Assert.*;
+
+public class PartialOrderTest {
+
+    @Test
+    public void whenSameStringIsRepresented_thenChecksGraphsAreStructurallyEqual() {
+        StringGraph first = new StringGraph("hello");
+        StringGraph second = new StringGraph("hello");
+        StringGraph third = new StringGraph("hallo");
+
+        assertNotEquals(first, second);
+        assertTrue(first.structurallyEquals(second));
+        assertEquals(first.structuralHash(), second.structuralHash());
+        assertFalse(first.structurallyEquals(third));
+    }
+
+    @Test
+    public void whenGraphChanges_thenChecksPartialOrderIsRecomputed() {
+        StringGraph first = new StringGraph("ab");
+        StringGraph second = new StringGraph(StringGraph.NodeType.OR);
+        second.addSon(new StringGraph("c"));
+
+        assertFalse(checkPartialOrder(first, second));
+        // cached result
+        assertFalse(checkPartialOrder(first, second));
+
+        second.addSon(new StringGraph("cd"));
+        assertTrue(checkPartialOrder(first, second));
+    }
+
+    @Test
+    public void whenStructurallyEqualGraphsAreJoined_thenChecksGraphDoesNotGrow() {
+        StringGraphDomain first = new StringGraphDomain(new StringGraph("hello"));
+        StringGraphDomain second = new StringGraphDomain(new StringGraph("hello"));
+
+        StringGraphDomain lub = first.lubAux(second);
+        assertSame(first, lub);
+        assertTrue(lub.lessOrEqualAux(second));
+        assertTrue(second.lessOrEqualAux(lub));
+    }
+}
@@ -462,4 +462,29 @@ public class InferredTypesTest {
 		satisfies(TypeCheck.INSTANCE, bool, right, Satisfiability.NOT_SATISFIED);
 		satisfies(TypeCheck.INSTANCE, bool_or_string, right, Satisfiability.UNKNOWN);
 	}
+
+	@Test
+	public void testLattice() throws SemanticException {
+		assertEquals(bool_or_string, bool.lub(string));
+		assertEquals(bool, bool_or_string.glb(bool));
+		assertTrue(bool_or_string.glb(numeric).isBottom());
+		assertTrue(bool.lessOrEqual(bool_or_string));
+		assertFalse(bool_or_string.lessOrEqual(bool));
+		// equal sets of types must have equal hashes, regardless of how they
+		// are stored
+		InferredTypes plain = new InferredTypes(false, new HashSet<>(bool_or_string.getRuntimeTypes()));
+		assertEquals(bool_or_string, plain);
+		assertEquals(bool_or_string.hashCode(), plain.hashCode());
+	}
+
+	@Test
+	public void testAllTypes() {
+		TypeSystem ts = new IMPTypeSystem();
+		ts.registerType(BoolType.INSTANCE);
+		ts.registerType(StringType.INSTANCE);
+		assertTrue(new InferredTypes(ts, Set.of(BoolType.INSTANCE, StringType.INSTANCE)).isTop());
+		assertFalse(new InferredTypes(ts, BoolType.INSTANCE).isTop());
+		assertTrue(ts.isFullTypeSet(ts.getTypes()));
+		assertEquals(ts.getTypes(), ts.getTypeSet());
+	}
 }
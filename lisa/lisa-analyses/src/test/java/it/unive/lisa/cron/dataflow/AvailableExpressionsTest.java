@@ -7,6 +7,7 @@ import it.unive.lisa.AnalysisTestExecutor;
 import it.unive.lisa.LiSAConfiguration;
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.dataflow.AvailableExpressions;
+import it.unive.lisa.analysis.dataflow.BitVectorDefiniteForwardDataflowDomain;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.TypeDomain;
 import org.junit.Test;
@@ -23,4 +24,16 @@ public class AvailableExpressionsTest extends AnalysisTestExecutor {
 				getDefaultFor(TypeDomain.class));
 		perform("available-expressions", "available-expressions.imp", conf);
 	}
+
+	@Test
+	public void testAvailableExpressionsBitVector() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class,
+				getDefaultFor(HeapDomain.class),
+				new BitVectorDefiniteForwardDataflowDomain<>(new AvailableExpressions()),
+				getDefaultFor(TypeDomain.class));
+		// same results of the set-based domain
+		perform("available-expressions", "available-expressions.imp", conf);
+	}
 }
\ No newline at end of file
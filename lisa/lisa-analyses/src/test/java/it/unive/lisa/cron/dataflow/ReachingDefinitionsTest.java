@@ -6,6 +6,7 @@ import it.unive.lisa.AnalysisSetupException;
 import it.unive.lisa.AnalysisTestExecutor;
 import it.unive.lisa.LiSAConfiguration;
 import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.dataflow.BitVectorPossibleForwardDataflowDomain;
 import it.unive.lisa.analysis.dataflow.ReachingDefinitions;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.TypeDomain;
@@ -23,4 +24,16 @@ public class ReachingDefinitionsTest extends AnalysisTestExecutor {
 				getDefaultFor(TypeDomain.class));
 		perform("reaching-definitions", "reaching-definitions.imp", conf);
 	}
+
+	@Test
+	public void testReachingDefinitionsBitVector() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class,
+				getDefaultFor(HeapDomain.class),
+				new BitVectorPossibleForwardDataflowDomain<>(new ReachingDefinitions()),
+				getDefaultFor(TypeDomain.class));
+		// same results of the set-based domain
+		perform("reaching-definitions", "reaching-definitions.imp", conf);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package it.unive.lisa.cron.interprocedural;
+
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.AnalysisTestExecutor;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.heap.pointbased.PointBasedHeap;
+import it.unive.lisa.analysis.numeric.Sign;
+import it.unive.lisa.analysis.value.TypeDomain;
+import it.unive.lisa.interprocedural.BottomUpAnalysis;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import org.junit.Test;
+
+public class BottomUpAnalysisTest extends AnalysisTestExecutor {
+
+	@Test
+	public void testRTABottomUp() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class,
+				getDefaultFor(HeapDomain.class),
+				new Sign(),
+				getDefaultFor(TypeDomain.class));
+		conf.interproceduralAnalysis = new BottomUpAnalysis<>();
+		conf.callGraph = new RTACallGraph();
+		perform("interprocedural", "RTABottomUp", "programBottomUp.imp", conf);
+	}
+
+	@Test
+	public void testRTABottomUpParallel() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class,
+				getDefaultFor(HeapDomain.class),
+				new Sign(),
+				getDefaultFor(TypeDomain.class));
+		conf.interproceduralAnalysis = new BottomUpAnalysis<>();
+		conf.callGraph = new RTACallGraph();
+		conf.fixpointParallelism = 4;
+		perform("interprocedural", "RTABottomUpParallel", "programBottomUp.imp", conf);
+	}
+
+	@Test
+	public void testRTABottomUpArguments() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class,
+				new PointBasedHeap(),
+				new Sign(),
+				getDefaultFor(TypeDomain.class));
+		conf.interproceduralAnalysis = new BottomUpAnalysis<>();
+		conf.callGraph = new RTACallGraph();
+		perform("interprocedural", "RTABottomUpArguments", "programBottomUpArguments.imp", conf);
+	}
+}
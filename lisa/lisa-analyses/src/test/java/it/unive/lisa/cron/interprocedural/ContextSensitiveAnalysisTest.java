@@ -5,6 +5,7 @@ import static it.unive.lisa.LiSAFactory.getDefaultFor;
 import it.unive.lisa.AnalysisSetupException;
 import it.unive.lisa.AnalysisTestExecutor;
 import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.LiSAConfiguration.ResultRetentionPolicy;
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.heap.pointbased.PointBasedHeap;
@@ -70,6 +71,49 @@ public class ContextSensitiveAnalysisTest extends AnalysisTestExecutor {
 		perform("interprocedural", "RTAContextSensitive4", "programContextSensitive3.imp", conf);
 	}
 
+	@Test
+	public void testRTAContextSensitiveParallel() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class,
+				getDefaultFor(HeapDomain.class),
+				new Sign(),
+				getDefaultFor(TypeDomain.class));
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>(RecursionFreeToken.getSingleton());
+		conf.callGraph = new RTACallGraph();
+		conf.fixpointParallelism = 4;
+		perform("interprocedural", "RTAContextSensitiveParallel", "programContextSensitive3.imp", conf);
+	}
+
+	@Test
+	public void testRTAContextSensitiveCompact() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class,
+				getDefaultFor(HeapDomain.class),
+				new Sign(),
+				getDefaultFor(TypeDomain.class));
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>(RecursionFreeToken.getSingleton());
+		conf.callGraph = new RTACallGraph();
+		conf.resultRetention = ResultRetentionPolicy.COMPACT;
+		perform("interprocedural", "RTAContextSensitiveCompact", "programContextSensitive3.imp", conf);
+	}
+
+	@Test
+	public void testRTAContextSensitiveMetrics() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class,
+				getDefaultFor(HeapDomain.class),
+				new Sign(),
+				getDefaultFor(TypeDomain.class));
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>(RecursionFreeToken.getSingleton());
+		conf.callGraph = new RTACallGraph();
+		conf.fixpointMetrics = true;
+		conf.metricsOutput = true;
+		perform("interprocedural", "RTAContextSensitiveMetrics", "programContextSensitive3.imp", conf);
+	}
+
 	@Test
 	public void testRTAContextSensitive5() throws AnalysisSetupException {
 		LiSAConfiguration conf = new LiSAConfiguration();
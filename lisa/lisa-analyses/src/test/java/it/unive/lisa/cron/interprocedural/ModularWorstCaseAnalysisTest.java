@@ -41,4 +41,18 @@ public class ModularWorstCaseAnalysisTest extends AnalysisTestExecutor {
 		conf.callGraph = new RTACallGraph();
 		perform("interprocedural", "RTA", "program.imp", conf);
 	}
+
+	@Test
+	public void testParallelRTACallGraph() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = getDefaultFor(AbstractState.class,
+				getDefaultFor(HeapDomain.class),
+				new Sign(),
+				getDefaultFor(TypeDomain.class));
+		conf.interproceduralAnalysis = new ModularWorstCaseAnalysis<>();
+		conf.callGraph = new RTACallGraph();
+		conf.fixpointParallelism = 4;
+		perform("interprocedural", "RTAParallel", "program.imp", conf);
+	}
 }
@@ -3,6 +3,7 @@ package it.unive.lisa.cron.nonInterference;
 import it.unive.lisa.AnalysisSetupException;
 import it.unive.lisa.AnalysisTestExecutor;
 import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.LiSAConfiguration.ResultRetentionPolicy;
 import it.unive.lisa.analysis.CFGWithAnalysisResults;
 import it.unive.lisa.analysis.SimpleAbstractState;
 import it.unive.lisa.analysis.heap.MonolithicHeap;
@@ -66,6 +67,21 @@ public class NonInterferenceTest extends AnalysisTestExecutor {
 		perform("non-interference/interproc", "program.imp", conf);
 	}
 
+	@Test
+	public void testDeclassificationCompact() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.serializeResults = true;
+		conf.abstractState = new SimpleAbstractState<>(
+				new MonolithicHeap(),
+				new InferenceSystem<>(new NonInterference()),
+				new TypeEnvironment<>(new InferredTypes()));
+		conf.callGraph = new RTACallGraph();
+		conf.interproceduralAnalysis = new ContextBasedAnalysis<>(RecursionFreeToken.getSingleton());
+		conf.resultRetention = ResultRetentionPolicy.COMPACT;
+		conf.semanticChecks.add(new NICheck());
+		perform("non-interference/interproc", "compact", "program.imp", conf);
+	}
+
 	private static class NICheck
 			implements SemanticCheck<
 					SimpleAbstractState<MonolithicHeap, InferenceSystem<NonInterference>,
@@ -0,0 +1,115 @@
+package it.unive.lisa.interprocedural;
+
+import static org.junit.Assert.assertEquals;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.LiSAReport;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Sign;
+import it.unive.lisa.analysis.types.InferredTypes;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.Test;
+
+public class DependencyTrackingTest {
+
+	private static final String PROGRAM = "class tutorial {"
+			+ " main() { def i = 0; def a = 0; while (i < 10) { a = this.id(i); i = i + 1; } def b = this.wrap(a); }"
+			+ " wrap(x) { def r = this.id(x); return r; }"
+			+ " id(y) { return y; }"
+			+ "}";
+
+	private static final String MAIN = "untyped tutorial::main(tutorial*)";
+
+	private static final String WRAP = "untyped tutorial::wrap(tutorial*, untyped)";
+
+	@Test
+	public void testSameResults() throws ParsingException, AnalysisException {
+		for (ContextSensitivityToken token : new ContextSensitivityToken[] {
+				RecursionFreeToken.getSingleton(),
+				InternedRecursionFreeToken.getSingleton(),
+				new KLimitedCallStringToken(1) })
+			for (int cacheSize : new int[] { 0, 16 })
+				assertEquals(token + " with cache of size " + cacheSize, run(token, cacheSize, false),
+						run(token, cacheSize, true));
+	}
+
+	@Test
+	public void testOnlyDependentsAreReanalyzed() throws ParsingException, AnalysisException {
+		for (ContextSensitivityToken token : new ContextSensitivityToken[] {
+				RecursionFreeToken.getSingleton(),
+				InternedRecursionFreeToken.getSingleton(),
+				new KLimitedCallStringToken(1) })
+			for (int cacheSize : new int[] { 0, 16 }) {
+				String message = token + " with cache of size " + cacheSize;
+				// the result of id grows while the loop of main is analyzed,
+				// while wrap is only called once the loop has been stabilized
+				Map<String, String> reanalyses = reanalyses(token, cacheSize, true);
+				assertEquals(message, "1", reanalyses.get(MAIN));
+				assertEquals(message, "0", reanalyses.get(WRAP));
+
+				// without tracking, all the callers of id are analyzed again
+				reanalyses = reanalyses(token, cacheSize, false);
+				assertEquals(message, "1", reanalyses.get(MAIN));
+				assertEquals(message, "1", reanalyses.get(WRAP));
+			}
+	}
+
+	private static Map<String, String> reanalyses(ContextSensitivityToken token, int cacheSize, boolean track)
+			throws ParsingException, AnalysisException {
+		Program program = IMPFrontend.processText(PROGRAM);
+		LiSAConfiguration conf = mkConf(program, new ContextBasedAnalysis<>(token, cacheSize, track));
+		conf.fixpointMetrics = true;
+		LiSAReport report = new LiSA(conf).run(program);
+
+		Map<String, String> reanalyses = new TreeMap<>();
+		report.getInfo().getFixpointMetrics().toPropertyBags()
+				.forEach((graph, bag) -> reanalyses.put(graph, bag.get("reanalyses")));
+		return reanalyses;
+	}
+
+	private static LiSAConfiguration mkConf(Program program, ContextBasedAnalysis<
+			SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+			MonolithicHeap,
+			ValueEnvironment<Sign>,
+			TypeEnvironment<InferredTypes>> analysis) {
+		program.addEntryPoint(program.getAllCFGs().stream().filter(cfg -> cfg.getDescriptor().getName().equals("main"))
+				.findFirst().get());
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.abstractState = new SimpleAbstractState<>(
+				new MonolithicHeap(),
+				new ValueEnvironment<>(new Sign()),
+				new TypeEnvironment<>(new InferredTypes()));
+		conf.interproceduralAnalysis = analysis;
+		conf.callGraph = new RTACallGraph();
+		return conf;
+	}
+
+	private static Map<String, String> run(ContextSensitivityToken token, int cacheSize, boolean track)
+			throws ParsingException, AnalysisException {
+		Program program = IMPFrontend.processText(PROGRAM);
+		ContextBasedAnalysis<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> analysis = new ContextBasedAnalysis<>(token, cacheSize, track);
+		new LiSA(mkConf(program, analysis)).run(program);
+
+		Map<String, String> results = new TreeMap<>();
+		for (CFG cfg : program.getAllCFGs())
+			for (CFGWithAnalysisResults<?, ?, ?, ?> res : analysis.getAnalysisResultsOf(cfg))
+				results.put(cfg.getDescriptor().getName() + " " + res.getId(), res.getResults().toString());
+		return results;
+	}
+}
@@ -0,0 +1,100 @@
+package it.unive.lisa.interprocedural;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.program.CodeElement;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CodeLocation;
+import java.util.List;
+import org.junit.Test;
+
+public class InternedCallStringTokenTest {
+
+	private static ScopeToken scope(int line) {
+		return new ScopeToken(new FakeCall(line));
+	}
+
+	private static final ScopeToken a = scope(1), b = scope(2), c = scope(3);
+
+	@Test
+	public void testInterning() {
+		InternedRecursionFreeToken empty = InternedRecursionFreeToken.getSingleton();
+		ContextSensitivityToken ab = empty.pushToken(a).pushToken(b);
+		assertSame(ab, empty.pushToken(scope(1)).pushToken(scope(2)));
+		assertSame(empty, ab.empty());
+		assertSame(empty.pushToken(a), ab.popToken());
+		assertSame(empty, ab.popToken().popToken());
+		assertSame(empty, empty.popToken());
+		assertNotSame(ab, empty.pushToken(b).pushToken(a));
+		assertNotSame(ab, InternedRecursionFreeToken.getSingleton().pushToken(a).pushToken(b));
+	}
+
+	@Test
+	public void testRecursionFree() {
+		InternedRecursionFreeToken empty = InternedRecursionFreeToken.getSingleton();
+		RecursionFreeToken reference = RecursionFreeToken.getSingleton();
+		ContextSensitivityToken interned = empty;
+		ContextSensitivityToken plain = reference;
+		for (ScopeToken s : List.of(a, b, a, c, b, c)) {
+			interned = interned.pushToken(s);
+			plain = plain.pushToken(s);
+			assertEquals(plain.toString(), interned.toString());
+		}
+
+		InternedRecursionFreeToken abc = (InternedRecursionFreeToken) interned;
+		assertEquals(List.of(a, b, c), abc.getCallString());
+		assertTrue(abc.contains(b));
+		assertFalse(((InternedRecursionFreeToken) abc.popToken().popToken()).contains(b));
+		assertSame(abc, abc.pushToken(a));
+	}
+
+	@Test
+	public void testKLimited() {
+		KLimitedCallStringToken empty = new KLimitedCallStringToken(2);
+		InternedCallStringToken abc = empty.pushToken(a).pushToken(b).pushToken(c);
+		assertEquals(List.of(b, c), abc.getCallString());
+		assertSame(empty.pushToken(b).pushToken(c), abc);
+		assertSame(abc, empty.pushToken(c).pushToken(a).pushToken(b).pushToken(c));
+		assertSame(empty.pushToken(b), abc.popToken());
+		assertEquals(List.of(c, c), abc.pushToken(c).pushToken(c).getCallString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPositiveK() {
+		new KLimitedCallStringToken(0);
+	}
+
+	private static class FakeCall implements CodeElement {
+
+		private final CodeLocation location;
+
+		private FakeCall(int line) {
+			this.location = new SourceCodeLocation("fake", line, 0);
+		}
+
+		@Override
+		public CodeLocation getLocation() {
+			return location;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof FakeCall && location.equals(((FakeCall) obj).location);
+		}
+
+		@Override
+		public int hashCode() {
+			return location.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return location.toString();
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package it.unive.lisa.interprocedural;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.dataflow.AvailableExpressions;
+import it.unive.lisa.analysis.dataflow.DefiniteForwardDataflowDomain;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.heap.pointbased.PointBasedHeap;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Sign;
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.analysis.types.InferredTypes;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import java.util.Collections;
+import org.junit.Test;
+
+public class SummaryCacheTest {
+
+	private static final String PROGRAM = "class tutorial {"
+			+ " main() { def a = this.id(1); def b = this.wrap(1); def c = this.wrap(1); }"
+			+ " wrap(x) { def r = this.id(x); return r; }"
+			+ " id(y) { return y; }"
+			+ "}";
+
+	private static AnalysisState<
+			SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+			MonolithicHeap,
+			ValueEnvironment<Sign>,
+			TypeEnvironment<InferredTypes>> mkState(boolean top) {
+		AnalysisState<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> state = new AnalysisState<>(
+						new SimpleAbstractState<>(
+								new MonolithicHeap(),
+								new ValueEnvironment<>(new Sign()),
+								new TypeEnvironment<>(new InferredTypes())),
+						new ExpressionSet<>(), new SymbolAliasing());
+		return top ? state.top() : state;
+	}
+
+	@Test
+	public void testEviction() throws SemanticException, ParsingException {
+		Program program = IMPFrontend.processText("class tutorial { foo() { } bar() { } }");
+		CFG foo = find(program, "foo"), bar = find(program, "bar");
+		SummaryCache<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> cache = new SummaryCache<>(2);
+		CFGWithAnalysisResults<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> fooResult = new CFGWithAnalysisResults<>(foo, mkState(false)),
+				barResult = new CFGWithAnalysisResults<>(bar, mkState(false));
+
+		cache.put(foo, mkState(false), fooResult);
+		cache.put(bar, mkState(false), barResult);
+		assertSame(fooResult, cache.get(foo, mkState(false)));
+		assertNull(cache.get(foo, mkState(true)));
+		// bar is now the least recently used
+		cache.put(foo, mkState(true), fooResult);
+		assertNull(cache.get(bar, mkState(false)));
+		assertNotNull(cache.get(foo, mkState(false)));
+		assertEquals(2, cache.size());
+		assertEquals(2, cache.getHits());
+		assertEquals(2, cache.getMisses());
+		assertEquals(1, cache.getEvictions());
+
+		cache.invalidate(Collections.singleton(foo));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testReuseAcrossTokens() throws ParsingException, AnalysisException, SemanticException {
+		Program program = IMPFrontend.processText(PROGRAM);
+		ContextBasedAnalysis<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> cached = run(program, 16);
+		SummaryCache<?, ?, ?, ?> cache = cached.getSummaryCache();
+		// the call to id inside the first call to wrap and the second call to
+		// wrap reuse previous results
+		assertEquals(cache.toString(), 2, cache.getHits());
+		assertEquals(cache.toString(), 3, cache.getMisses());
+
+		Program other = IMPFrontend.processText(PROGRAM);
+		ContextBasedAnalysis<
+				SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> plain = run(other, 0);
+		assertNull(plain.getSummaryCache());
+		assertEquals(exitOfMain(plain, other).toString(), exitOfMain(cached, program).toString());
+	}
+
+	@Test
+	public void testCalleesOfCachedResultsAreNotStored() throws ParsingException, AnalysisException {
+		Program program = IMPFrontend.processText(PROGRAM);
+		ContextBasedAnalysis<?, ?, ?, ?> cached = run(program, 16);
+		Program other = IMPFrontend.processText(PROGRAM);
+		ContextBasedAnalysis<?, ?, ?, ?> plain = run(other, 0);
+
+		int wraps = plain.getAnalysisResultsOf(find(other, "wrap")).size();
+		int ids = plain.getAnalysisResultsOf(find(other, "id")).size();
+		// the second call to wrap reuses the result of the first one, but the
+		// call to id inside it is never analyzed under the new token
+		assertEquals(wraps, cached.getAnalysisResultsOf(find(program, "wrap")).size());
+		assertEquals(ids - 1, cached.getAnalysisResultsOf(find(program, "id")).size());
+	}
+
+	@Test
+	public void testUnreachableHeapIsNotPartOfTheKey()
+			throws ParsingException, AnalysisException, SemanticException {
+		String source = "class tutorial {"
+				+ " main() { def u = new int[1]; u[0] = 1; def a = this.id(1); def c = this.id(u);"
+				+ " u[0] = -1; def b = this.id(1); def d = this.id(u); }"
+				+ " id(y) { return y; }"
+				+ "}";
+		Program program = IMPFrontend.processText(source);
+		ContextBasedAnalysis<?, ?, ?, ?> cached = run(program, 16, new PointBasedHeap());
+		SummaryCache<?, ?, ?, ?> cache = cached.getSummaryCache();
+		// the array is reachable only from the second and the fourth call,
+		// so only the third one can reuse the result of the first one
+		assertEquals(cache.toString(), 1, cache.getHits());
+		assertEquals(cache.toString(), 3, cache.getMisses());
+
+		Program other = IMPFrontend.processText(source);
+		ContextBasedAnalysis<?, ?, ?, ?> plain = run(other, 0, new PointBasedHeap());
+		assertEquals(exitOfMain(plain, other).toString(), exitOfMain(cached, program).toString());
+	}
+
+	@Test
+	public void testCalleeWithEmptyHeap() throws ParsingException, AnalysisException, SemanticException {
+		String source = "class B { B() { } }"
+				+ " class tutorial {"
+				+ " main() { def x = 1; def p = new B(); def q = new B(); }"
+				+ "}";
+		Program program = IMPFrontend.processText(source);
+		ContextBasedAnalysis<?, ?, ?, ?> cached = run(program, 16, new PointBasedHeap());
+		Program other = IMPFrontend.processText(source);
+		ContextBasedAnalysis<?, ?, ?, ?> plain = run(other, 0, new PointBasedHeap());
+		// without the variables of main, the heap of the constructors would
+		// have no mappings, that is, it would be the top element
+		assertEquals(exitOfMain(plain, other).toString(), exitOfMain(cached, program).toString());
+	}
+
+	@Test
+	public void testDisabledWithRelationalDomains() throws ParsingException, AnalysisException {
+		Program program = IMPFrontend.processText(PROGRAM);
+		program.addEntryPoint(find(program, "main"));
+		ContextBasedAnalysis<
+				SimpleAbstractState<MonolithicHeap, DefiniteForwardDataflowDomain<AvailableExpressions>,
+						TypeEnvironment<InferredTypes>>,
+				MonolithicHeap,
+				DefiniteForwardDataflowDomain<AvailableExpressions>,
+				TypeEnvironment<InferredTypes>> analysis = new ContextBasedAnalysis<>(
+						InternedRecursionFreeToken.getSingleton(), 16);
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.abstractState = new SimpleAbstractState<>(
+				new MonolithicHeap(),
+				new DefiniteForwardDataflowDomain<>(new AvailableExpressions()),
+				new TypeEnvironment<>(new InferredTypes()));
+		conf.interproceduralAnalysis = analysis;
+		conf.callGraph = new RTACallGraph();
+		new LiSA(conf).run(program);
+		// the lub of available expressions is their intersection, so caller
+		// frames cannot be restored through it
+		assertNull(analysis.getSummaryCache());
+	}
+
+	private static ContextBasedAnalysis<
+			SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+			MonolithicHeap,
+			ValueEnvironment<Sign>,
+			TypeEnvironment<InferredTypes>> run(Program program, int cacheSize) throws AnalysisException {
+		return run(program, cacheSize, new MonolithicHeap());
+	}
+
+	private static <H extends HeapDomain<H>> ContextBasedAnalysis<
+			SimpleAbstractState<H, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+			H,
+			ValueEnvironment<Sign>,
+			TypeEnvironment<InferredTypes>> run(Program program, int cacheSize, H heap) throws AnalysisException {
+		program.addEntryPoint(find(program, "main"));
+		ContextBasedAnalysis<
+				SimpleAbstractState<H, ValueEnvironment<Sign>, TypeEnvironment<InferredTypes>>,
+				H,
+				ValueEnvironment<Sign>,
+				TypeEnvironment<InferredTypes>> analysis = new ContextBasedAnalysis<>(
+						InternedRecursionFreeToken.getSingleton(), cacheSize);
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.abstractState = new SimpleAbstractState<>(
+				heap,
+				new ValueEnvironment<>(new Sign()),
+				new TypeEnvironment<>(new InferredTypes()));
+		conf.interproceduralAnalysis = analysis;
+		conf.callGraph = new RTACallGraph();
+		new LiSA(conf).run(program);
+		return analysis;
+	}
+
+	private static AnalysisState<?, ?, ?, ?> exitOfMain(ContextBasedAnalysis<?, ?, ?, ?> analysis, Program program)
+			throws SemanticException {
+		return analysis.getAnalysisResultsOf(find(program, "main")).iterator().next().getExitState();
+	}
+
+	private static CFG find(Program program, String name) {
+		return program.getAllCFGs().stream().filter(cfg -> cfg.getDescriptor().getName().equals(name)).findFirst()
+				.get();
+	}
+}
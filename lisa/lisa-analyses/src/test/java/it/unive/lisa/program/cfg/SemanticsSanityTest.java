@@ -6,6 +6,8 @@ import it.unive.lisa.analysis.*;
 import it.unive.lisa.analysis.SemanticDomain.Satisfiability;
 import it.unive.lisa.analysis.combination.ValueCartesianProduct;
 import it.unive.lisa.analysis.dataflow.AvailableExpressions;
+import it.unive.lisa.analysis.dataflow.BitVectorDefiniteForwardDataflowDomain;
+import it.unive.lisa.analysis.dataflow.BitVectorPossibleForwardDataflowDomain;
 import it.unive.lisa.analysis.dataflow.DefiniteForwardDataflowDomain;
 import it.unive.lisa.analysis.dataflow.PossibleForwardDataflowDomain;
 import it.unive.lisa.analysis.dataflow.ReachingDefinitions;
@@ -314,9 +316,9 @@ public class SemanticsSanityTest {
 			return new InferredTypes();
 		if (root == InferenceSystem.class)
 			return new NonInterference();
-		if (root == PossibleForwardDataflowDomain.class)
+		if (root == PossibleForwardDataflowDomain.class || root == BitVectorPossibleForwardDataflowDomain.class)
 			return new ReachingDefinitions();
-		if (root == DefiniteForwardDataflowDomain.class)
+		if (root == DefiniteForwardDataflowDomain.class || root == BitVectorDefiniteForwardDataflowDomain.class)
 			return new AvailableExpressions();
 		if (root == AnalysisState.class)
 			if (param == AbstractState.class)
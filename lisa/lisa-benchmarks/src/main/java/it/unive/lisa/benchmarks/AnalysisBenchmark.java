@@ -0,0 +1,135 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.LiSAReport;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.heap.MonolithicHeap;
+import it.unive.lisa.analysis.nonrelational.value.TypeEnvironment;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.analysis.types.InferredTypes;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.ContextBasedAnalysis;
+import it.unive.lisa.interprocedural.ModularWorstCaseAnalysis;
+import it.unive.lisa.interprocedural.callgraph.RTACallGraph;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.util.file.FileManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end benchmarks running an interval analysis over the IMP testcases,
+ * and over synthetically scaled versions of them (see
+ * {@link BenchmarkPrograms#scale(String, int)}).
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AnalysisBenchmark {
+
+	/**
+	 * The testcase to analyze, relative to the testcases folder.
+	 */
+	@Param({ "interval/program.imp",
+			"interprocedural/programContextSensitive1.imp",
+			"heap/point-based-heap/field-sensitive/program.imp" })
+	public String program;
+
+	/**
+	 * The number of copies of the testcase that are analyzed together.
+	 */
+	@Param({ "1", "20" })
+	public int scale;
+
+	/**
+	 * The interprocedural analysis to use, either {@code modular} or
+	 * {@code context}.
+	 */
+	@Param({ "modular", "context" })
+	public String interprocedural;
+
+	private String source;
+
+	private Path workdir;
+
+	private Program parsed;
+
+	/**
+	 * Reads and scales the testcase.
+	 * 
+	 * @throws IOException if the testcase cannot be read, or if the working
+	 *                         directory cannot be created
+	 */
+	@Setup(Level.Trial)
+	public void read() throws IOException {
+		source = BenchmarkPrograms.scale(BenchmarkPrograms.read(program), scale);
+		workdir = Files.createTempDirectory("lisa-benchmarks");
+	}
+
+	/**
+	 * Parses the testcase. Since the analysis modifies the program it
+	 * analyzes (e.g., by simplifying its cfgs), a fresh copy is parsed before
+	 * each invocation.
+	 * 
+	 * @throws ParsingException if the testcase is not valid IMP code
+	 */
+	@Setup(Level.Invocation)
+	public void parse() throws ParsingException {
+		parsed = BenchmarkPrograms.parse(source);
+	}
+
+	/**
+	 * Deletes the working directory of the analyses.
+	 * 
+	 * @throws IOException if the directory cannot be deleted
+	 */
+	@TearDown(Level.Trial)
+	public void cleanup() throws IOException {
+		FileManager.forceDeleteFolder(workdir.toString());
+	}
+
+	/**
+	 * Runs the analysis.
+	 * 
+	 * @return the report of the analysis
+	 * 
+	 * @throws AnalysisException if the analysis fails
+	 */
+	@Benchmark
+	public LiSAReport analyze() throws AnalysisException {
+		LiSAConfiguration conf = new LiSAConfiguration();
+		conf.workdir = workdir.toString();
+		// components are instantiated explicitly since LiSAFactory cannot
+		// discover the default implementations when they are packaged in jars
+		conf.abstractState = new SimpleAbstractState<>(new MonolithicHeap(), new ValueEnvironment<>(new Interval()),
+				new TypeEnvironment<>(new InferredTypes()));
+		conf.callGraph = new RTACallGraph();
+		if ("context".equals(interprocedural))
+			conf.interproceduralAnalysis = new ContextBasedAnalysis<>();
+		else
+			conf.interproceduralAnalysis = new ModularWorstCaseAnalysis<>();
+		return new LiSA(conf).run(parsed);
+	}
+}
@@ -0,0 +1,121 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.string.fsa.Automaton;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the operations of {@link Automaton}, the finite state
+ * automata used by the string analyses.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AutomatonBenchmark {
+
+	/**
+	 * The number of strings accepted by each automaton.
+	 */
+	@Param({ "4", "16" })
+	public int strings;
+
+	/**
+	 * The parameter of the widening operator.
+	 */
+	@Param({ "3" })
+	public int widening;
+
+	private Automaton first, second;
+
+	private static Automaton mk(String prefix, int count) {
+		Automaton result = new Automaton(prefix + "0");
+		for (int i = 1; i < count; i++)
+			result = result.union(new Automaton(prefix + i));
+		return result;
+	}
+
+	/**
+	 * Builds two automata accepting partially overlapping languages.
+	 */
+	@Setup
+	public void setup() {
+		first = mk("abc", strings);
+		second = mk("abc", strings / 2).union(mk("xyz", strings / 2));
+	}
+
+	/**
+	 * Computes the union of the automata.
+	 * 
+	 * @return the union
+	 */
+	@Benchmark
+	public Automaton union() {
+		return first.union(second);
+	}
+
+	/**
+	 * Computes the concatenation of the automata.
+	 * 
+	 * @return the concatenation
+	 */
+	@Benchmark
+	public Automaton concat() {
+		return first.concat(second);
+	}
+
+	/**
+	 * Computes the intersection of the automata.
+	 * 
+	 * @return the intersection
+	 */
+	@Benchmark
+	public Automaton intersection() {
+		return first.intersection(second);
+	}
+
+	/**
+	 * Minimizes the concatenation of the automata.
+	 * 
+	 * @return the minimized automaton
+	 */
+	@Benchmark
+	public Automaton minimize() {
+		return first.concat(second).minimize();
+	}
+
+	/**
+	 * Checks the language inclusion between the automata.
+	 * 
+	 * @return whether the language of the first automaton is included in the
+	 *             one of the second
+	 */
+	@Benchmark
+	public boolean isContained() {
+		return first.isContained(second);
+	}
+
+	/**
+	 * Applies the widening operator to the union of the automata.
+	 * 
+	 * @return the widened automaton
+	 */
+	@Benchmark
+	public Automaton widening() {
+		return first.union(second).widening(widening);
+	}
+}
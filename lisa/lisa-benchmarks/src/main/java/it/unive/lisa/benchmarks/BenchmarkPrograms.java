@@ -0,0 +1,95 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utility methods for retrieving, scaling and parsing the IMP programs that
+ * are analyzed by the benchmarks.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class BenchmarkPrograms {
+
+	/**
+	 * The system property holding the path to the folder containing the IMP
+	 * testcases. If the property is not set, the {@code imp-testcases} folder
+	 * of {@code lisa-analyses} is searched relative to the working directory.
+	 */
+	public static final String TESTCASES_PROPERTY = "lisa.benchmarks.testcases";
+
+	private static final String DEFAULT_TESTCASES = "../lisa-analyses/imp-testcases";
+
+	private static final Pattern CLASS_DECLARATION = Pattern.compile("class\\s+(\\w+)");
+
+	private BenchmarkPrograms() {
+		// this class is just a static holder
+	}
+
+	/**
+	 * Reads the source code of an IMP testcase.
+	 * 
+	 * @param path the path of the testcase, relative to the testcases folder
+	 *                 (e.g., {@code interval/program.imp})
+	 * 
+	 * @return the source code of the testcase
+	 * 
+	 * @throws IOException if the file cannot be read
+	 */
+	public static String read(String path) throws IOException {
+		String root = System.getProperty(TESTCASES_PROPERTY, DEFAULT_TESTCASES);
+		return Files.readString(Paths.get(root, path));
+	}
+
+	/**
+	 * Synthetically scales the given IMP program, by concatenating
+	 * {@code copies} copies of it. Each copy renames all the classes defined in
+	 * the program (and all references to them) by appending the index of the
+	 * copy to their names, so that copies do not clash.
+	 * 
+	 * @param source the source code of the program
+	 * @param copies the number of copies to generate
+	 * 
+	 * @return the source code of the scaled program
+	 */
+	public static String scale(String source, int copies) {
+		if (copies <= 1)
+			return source;
+
+		Set<String> classes = new LinkedHashSet<>();
+		Matcher matcher = CLASS_DECLARATION.matcher(source);
+		while (matcher.find())
+			classes.add(matcher.group(1));
+
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < copies; i++) {
+			String copy = source;
+			for (String name : classes)
+				copy = copy.replaceAll("\\b" + Pattern.quote(name) + "\\b", name + "_" + i);
+			result.append(copy).append("\n");
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Parses the given IMP source code. All the code members of the program
+	 * are considered as entrypoints.
+	 * 
+	 * @param source the source code
+	 * 
+	 * @return the parsed program
+	 * 
+	 * @throws ParsingException if the source code is not valid IMP code
+	 */
+	public static Program parse(String source) throws ParsingException {
+		return IMPFrontend.processText(source, false);
+	}
+}
@@ -0,0 +1,148 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.callgraph.CHACallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.NaryExpression;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.type.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the resolution of calls performed by {@link CallGraph}s. The
+ * resolution happens over a synthetic IMP program made of hierarchies of
+ * classes whose methods call each other.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CallResolutionBenchmark {
+
+	/**
+	 * The number of classes in the program.
+	 */
+	@Param({ "10", "100" })
+	public int classes;
+
+	/**
+	 * The number of methods in each class.
+	 */
+	@Param({ "10" })
+	public int methods;
+
+	/**
+	 * The depth of each class hierarchy.
+	 */
+	@Param({ "5" })
+	public int depth;
+
+	private Application app;
+
+	private List<UnresolvedCall> calls;
+
+	private List<Set<Type>[]> types;
+
+	private String generate() {
+		StringBuilder source = new StringBuilder();
+		for (int c = 0; c < classes; c++) {
+			source.append("class C").append(c);
+			if (c % depth != 0)
+				source.append(" extends C").append(c - 1);
+			source.append(" {\n");
+			for (int m = 0; m < methods; m++) {
+				source.append("\tm").append(m).append("(x) {\n");
+				source.append("\t\tdef r = this.m").append((m + 1) % methods).append("(x);\n");
+				source.append("\t\treturn r;\n");
+				source.append("\t}\n");
+			}
+			source.append("}\n");
+		}
+		return source.toString();
+	}
+
+	private static void collect(Expression expression, List<UnresolvedCall> calls) {
+		if (expression instanceof UnresolvedCall)
+			calls.add((UnresolvedCall) expression);
+		if (expression instanceof NaryExpression)
+			for (Expression sub : ((NaryExpression) expression).getSubExpressions())
+				collect(sub, calls);
+	}
+
+	/**
+	 * Generates and parses the program, collecting all the calls to resolve
+	 * together with the types of their parameters.
+	 * 
+	 * @throws ParsingException           if the generated program is not valid
+	 *                                        IMP code
+	 * @throws ProgramValidationException if the generated program is not
+	 *                                        valid
+	 */
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() throws ParsingException, ProgramValidationException {
+		Program program = BenchmarkPrograms.parse(generate());
+		program.getFeatures().getProgramValidationLogic().validateAndFinalize(program);
+		app = new Application(program);
+
+		calls = new ArrayList<>();
+		for (CFG cfg : program.getAllCFGs())
+			for (Statement st : cfg.getNodes())
+				if (st instanceof Expression)
+					collect((Expression) st, calls);
+
+		types = new ArrayList<>(calls.size());
+		for (UnresolvedCall call : calls) {
+			Expression[] params = call.getParameters();
+			Set<Type>[] paramTypes = new Set[params.length];
+			for (int i = 0; i < params.length; i++)
+				paramTypes[i] = params[i].getStaticType().allInstances(program.getTypes());
+			types.add(paramTypes);
+		}
+	}
+
+	/**
+	 * Builds a {@link CHACallGraph} and resolves all the calls of the program.
+	 * 
+	 * @param bh the blackhole consuming the resolved calls
+	 * 
+	 * @throws CallGraphConstructionException if the call graph cannot be built
+	 * @throws CallResolutionException        if a call cannot be resolved
+	 */
+	@Benchmark
+	public void resolve(Blackhole bh) throws CallGraphConstructionException, CallResolutionException {
+		CHACallGraph cg = new CHACallGraph();
+		cg.init(app);
+		SymbolAliasing aliasing = new SymbolAliasing();
+		for (int i = 0; i < calls.size(); i++)
+			bh.consume(cg.resolve(calls.get(i), types.get(i), aliasing));
+	}
+}
@@ -0,0 +1,120 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link ExternalSet}s and their {@link ExternalSetCache}.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ExternalSetBenchmark {
+
+	/**
+	 * The number of distinct elements stored in the cache.
+	 */
+	@Param({ "64", "1024" })
+	public int universe;
+
+	private ExternalSetCache<Integer> cache;
+
+	private List<Integer> elements;
+
+	private ExternalSet<Integer> first, second;
+
+	private Integer probe;
+
+	/**
+	 * Populates the cache and builds two half-overlapping sets.
+	 */
+	@Setup
+	public void setup() {
+		cache = new ExternalSetCache<>();
+		elements = new ArrayList<>(universe);
+		for (int i = 0; i < universe; i++)
+			elements.add(i);
+
+		Random random = new Random(42);
+		List<Integer> left = new ArrayList<>(), right = new ArrayList<>();
+		for (Integer e : elements) {
+			if (random.nextBoolean())
+				left.add(e);
+			if (random.nextBoolean())
+				right.add(e);
+		}
+		first = cache.mkSet(left);
+		second = cache.mkSet(right);
+		probe = universe / 2;
+	}
+
+	/**
+	 * Computes the union of two sets.
+	 * 
+	 * @return the union
+	 */
+	@Benchmark
+	public ExternalSet<Integer> union() {
+		return first.union(second);
+	}
+
+	/**
+	 * Computes the intersection of two sets.
+	 * 
+	 * @return the intersection
+	 */
+	@Benchmark
+	public ExternalSet<Integer> intersection() {
+		return first.intersection(second);
+	}
+
+	/**
+	 * Checks the containment of one set into another.
+	 * 
+	 * @return whether the first set contains the second one
+	 */
+	@Benchmark
+	public boolean containsSet() {
+		return first.contains(second);
+	}
+
+	/**
+	 * Checks the membership of an element.
+	 * 
+	 * @return whether the first set contains the element
+	 */
+	@Benchmark
+	public boolean containsElement() {
+		return first.contains(probe);
+	}
+
+	/**
+	 * Builds a set containing all the elements of the cache.
+	 * 
+	 * @return the set
+	 */
+	@Benchmark
+	public ExternalSet<Integer> mkSet() {
+		return cache.mkSet(elements);
+	}
+}
@@ -0,0 +1,102 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for an {@link ExternalSetCache} shared among several threads, as
+ * it happens when analyses run in parallel. Each benchmark runs on
+ * {@link #THREADS} threads, that can be changed through the {@code -t} option
+ * of JMH.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(ExternalSetCacheBenchmark.THREADS)
+public class ExternalSetCacheBenchmark {
+
+	/**
+	 * The default number of threads.
+	 */
+	public static final int THREADS = 4;
+
+	/**
+	 * The number of elements in the cache before each iteration.
+	 */
+	@Param({ "1000" })
+	public int elements;
+
+	private ExternalSetCache<Integer> cache;
+
+	private ExternalSet<Integer> set;
+
+	private AtomicInteger next;
+
+	/**
+	 * Builds a fresh cache, containing {@link #elements} elements.
+	 */
+	@Setup(Level.Iteration)
+	public void setup() {
+		cache = new ExternalSetCache<>();
+		set = cache.mkEmptySet();
+		for (int i = 0; i < elements; i++)
+			if (i % 2 == 0)
+				set.add(i);
+			else
+				cache.mkSingletonSet(i);
+		next = new AtomicInteger(elements);
+	}
+
+	/**
+	 * Looks up elements that are already in the cache.
+	 * 
+	 * @return whether or not the element is in a set
+	 */
+	@Benchmark
+	public boolean lookup() {
+		return set.contains(ThreadLocalRandom.current().nextInt(elements));
+	}
+
+	/**
+	 * Iterates over a set, retrieving its elements from the cache.
+	 * 
+	 * @param bh the blackhole consuming the elements
+	 */
+	@Benchmark
+	public void iterate(Blackhole bh) {
+		for (Integer e : set)
+			bh.consume(e);
+	}
+
+	/**
+	 * Adds new elements to the cache.
+	 * 
+	 * @return a set containing the new element
+	 */
+	@Benchmark
+	public ExternalSet<Integer> insert() {
+		return cache.mkSingletonSet(next.getAndIncrement());
+	}
+}
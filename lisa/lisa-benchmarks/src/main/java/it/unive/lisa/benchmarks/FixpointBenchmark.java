@@ -0,0 +1,155 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.imp.IMPFeatures;
+import it.unive.lisa.imp.types.IMPTypeSystem;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMemberDescriptor;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.edge.SequentialEdge;
+import it.unive.lisa.program.cfg.statement.NoOp;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
+import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint;
+import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint.FixpointImplementation;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the {@link Fixpoint} algorithm, isolated from the cost of
+ * abstract domains. The fixpoint runs over a synthetic cfg made of a sequence
+ * of loops, computing a counter that saturates at {@link #HEIGHT}.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FixpointBenchmark {
+
+	/**
+	 * The height of the lattice used by the fixpoint.
+	 */
+	public static final int HEIGHT = 10;
+
+	/**
+	 * The number of nodes of the cfg.
+	 */
+	@Param({ "100", "1000", "10000" })
+	public int size;
+
+	/**
+	 * The number of nodes of each loop in the cfg.
+	 */
+	@Param({ "10" })
+	public int loop;
+
+	private CFG cfg;
+
+	private Statement entry;
+
+	private WeakTopologicalOrder<CFG, Statement, Edge> wto;
+
+	private static class Counter implements FixpointImplementation<Statement, Edge, Integer> {
+
+		@Override
+		public Integer semantics(Statement node, Integer entrystate) {
+			return Math.min(entrystate + 1, HEIGHT);
+		}
+
+		@Override
+		public Integer traverse(Edge edge, Integer entrystate) {
+			return entrystate;
+		}
+
+		@Override
+		public Integer union(Statement node, Integer left, Integer right) {
+			return Math.max(left, right);
+		}
+
+		@Override
+		public Integer operation(Statement node, Integer approx, Integer old) {
+			return Math.max(approx, old);
+		}
+
+		@Override
+		public boolean equality(Statement node, Integer approx, Integer old) {
+			return approx <= old;
+		}
+	}
+
+	/**
+	 * Builds the cfg and its weak topological order.
+	 */
+	@Setup
+	public void setup() {
+		Program program = new Program(new IMPFeatures(), new IMPTypeSystem());
+		cfg = new CFG(new CodeMemberDescriptor(new SourceCodeLocation("bench", 0, 0), program, false, "bench"));
+
+		Statement[] nodes = new Statement[size];
+		for (int i = 0; i < size; i++) {
+			nodes[i] = new NoOp(cfg, new SourceCodeLocation("bench", i, 0));
+			cfg.addNode(nodes[i], i == 0);
+		}
+		for (int i = 1; i < size; i++)
+			cfg.addEdge(new SequentialEdge(nodes[i - 1], nodes[i]));
+		for (int i = loop - 1; i < size; i += loop)
+			cfg.addEdge(new SequentialEdge(nodes[i], nodes[i - loop + 1]));
+
+		entry = nodes[0];
+		wto = new WeakTopologicalOrder<>(cfg, Set.of(entry));
+	}
+
+	/**
+	 * Runs the fixpoint using a FIFO worklist.
+	 * 
+	 * @return the result of the fixpoint
+	 * 
+	 * @throws FixpointException if the fixpoint fails
+	 */
+	@Benchmark
+	public Map<Statement, Integer> worklist() throws FixpointException {
+		return new Fixpoint<CFG, Statement, Edge, Integer>(cfg).fixpoint(Map.of(entry, 0), FIFOWorkingSet.mk(),
+				new Counter());
+	}
+
+	/**
+	 * Runs the fixpoint following the precomputed weak topological order.
+	 * 
+	 * @return the result of the fixpoint
+	 * 
+	 * @throws FixpointException if the fixpoint fails
+	 */
+	@Benchmark
+	public Map<Statement, Integer> wto() throws FixpointException {
+		return new Fixpoint<CFG, Statement, Edge, Integer>(cfg).fixpoint(Map.of(entry, 0), wto, new Counter());
+	}
+
+	/**
+	 * Computes the weak topological order of the cfg.
+	 * 
+	 * @return the weak topological order
+	 */
+	@Benchmark
+	public WeakTopologicalOrder<CFG, Statement, Edge> order() {
+		return new WeakTopologicalOrder<>(cfg, Set.of(entry));
+	}
+}
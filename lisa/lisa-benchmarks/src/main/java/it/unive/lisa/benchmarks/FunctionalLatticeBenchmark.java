@@ -0,0 +1,100 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.lattices.FunctionalLattice;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Untyped;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the lattice operations of {@link FunctionalLattice}s,
+ * instantiated as {@link ValueEnvironment}s of {@link Interval}s.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FunctionalLatticeBenchmark {
+
+	/**
+	 * The number of variables in each environment.
+	 */
+	@Param({ "10", "100", "1000" })
+	public int variables;
+
+	private ValueEnvironment<Interval> first, second;
+
+	/**
+	 * Builds two environments over the same variables, where the intervals of
+	 * the second one are shifted with respect to the ones of the first.
+	 */
+	@Setup
+	public void setup() {
+		Map<Identifier, Interval> left = new HashMap<>(), right = new HashMap<>();
+		for (int i = 0; i < variables; i++) {
+			Variable v = new Variable(Untyped.INSTANCE, "x" + i, SyntheticLocation.INSTANCE);
+			left.put(v, new Interval(0, i));
+			right.put(v, new Interval(1, i + 1));
+		}
+		first = new ValueEnvironment<>(new Interval(), left, new Interval());
+		second = new ValueEnvironment<>(new Interval(), right, new Interval());
+	}
+
+	/**
+	 * Computes the least upper bound of the environments.
+	 * 
+	 * @return the least upper bound
+	 * 
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> lub() throws SemanticException {
+		return first.lub(second);
+	}
+
+	/**
+	 * Computes the widening of the environments.
+	 * 
+	 * @return the widening
+	 * 
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> widening() throws SemanticException {
+		return first.widening(second);
+	}
+
+	/**
+	 * Checks the ordering between the environments.
+	 * 
+	 * @return whether the first environment is less or equal than the second
+	 *             one
+	 * 
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public boolean lessOrEqual() throws SemanticException {
+		return first.lessOrEqual(second);
+	}
+}
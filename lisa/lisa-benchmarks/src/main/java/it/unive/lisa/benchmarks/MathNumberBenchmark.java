@@ -0,0 +1,136 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.numeric.Interval;
+import it.unive.lisa.util.numeric.IntInterval;
+import it.unive.lisa.util.numeric.MathNumber;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the arithmetic of {@link MathNumber}s and of the intervals
+ * built on top of them. The {@code bigDecimal} benchmark performs the same
+ * operations directly on {@link BigDecimal}s, as {@link MathNumber} did before
+ * storing integral values as primitive {@code long}s, and acts as a baseline.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MathNumberBenchmark {
+
+	/**
+	 * The number of operands used by each benchmark.
+	 */
+	@Param({ "1000" })
+	public int operands;
+
+	/**
+	 * The magnitude of the operands.
+	 */
+	@Param({ "100", "1000000000" })
+	public int magnitude;
+
+	private MathNumber[] numbers;
+
+	private BigDecimal[] decimals;
+
+	private Interval[] intervals;
+
+	/**
+	 * Builds random operands.
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		numbers = new MathNumber[operands];
+		decimals = new BigDecimal[operands];
+		intervals = new Interval[operands];
+		for (int i = 0; i < operands; i++) {
+			int value = random.nextInt(2 * magnitude) - magnitude;
+			numbers[i] = new MathNumber(value);
+			decimals[i] = BigDecimal.valueOf(value);
+			intervals[i] = new Interval(value, value + random.nextInt(magnitude));
+		}
+	}
+
+	/**
+	 * Adds, multiplies and compares consecutive {@link MathNumber}s.
+	 * 
+	 * @param bh the blackhole consuming the results
+	 */
+	@Benchmark
+	public void mathNumber(Blackhole bh) {
+		for (int i = 1; i < operands; i++) {
+			MathNumber l = numbers[i - 1], r = numbers[i];
+			bh.consume(l.add(r));
+			bh.consume(l.multiply(r));
+			bh.consume(l.min(r));
+			bh.consume(l.compareTo(r));
+		}
+	}
+
+	/**
+	 * Adds, multiplies and compares consecutive {@link BigDecimal}s.
+	 * 
+	 * @param bh the blackhole consuming the results
+	 */
+	@Benchmark
+	public void bigDecimal(Blackhole bh) {
+		for (int i = 1; i < operands; i++) {
+			BigDecimal l = decimals[i - 1], r = decimals[i];
+			bh.consume(new MathNumber(l.add(r)));
+			bh.consume(new MathNumber(l.multiply(r)));
+			bh.consume(new MathNumber(l.min(r)));
+			bh.consume(l.compareTo(r));
+		}
+	}
+
+	/**
+	 * Sums and multiplies consecutive {@link IntInterval}s.
+	 * 
+	 * @param bh the blackhole consuming the results
+	 */
+	@Benchmark
+	public void intervalArithmetic(Blackhole bh) {
+		for (int i = 1; i < operands; i++) {
+			IntInterval l = intervals[i - 1].interval, r = intervals[i].interval;
+			bh.consume(l.plus(r));
+			bh.consume(l.mul(r));
+		}
+	}
+
+	/**
+	 * Computes lubs, widenings and orderings of consecutive {@link Interval}s.
+	 * 
+	 * @param bh the blackhole consuming the results
+	 * 
+	 * @throws SemanticException if a lattice operation fails
+	 */
+	@Benchmark
+	public void intervalLattice(Blackhole bh) throws SemanticException {
+		for (int i = 1; i < operands; i++) {
+			Interval l = intervals[i - 1], r = intervals[i];
+			bh.consume(l.lub(r));
+			bh.consume(l.widening(r));
+			bh.consume(l.lessOrEqual(r));
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package it.unive.lisa.benchmarks;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.string.stringgraph.StringGraph;
+import it.unive.lisa.analysis.string.stringgraph.StringGraphDomain;
+import it.unive.lisa.symbolic.value.operator.binary.StringConcat;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the operations of {@link StringGraphDomain}. Since string
+ * graphs are modified in place by some of the operations, each invocation
+ * builds its own operands, except for {@link #repeatedLessOrEqual()} that
+ * mimics the ordering checks performed by fixpoints on unchanged states.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StringGraphBenchmark {
+
+	/**
+	 * The length of the strings represented by the operands.
+	 */
+	@Param({ "4", "32" })
+	public int length;
+
+	private StringGraphDomain small, big;
+
+	/**
+	 * Builds the operands shared by all invocations of
+	 * {@link #repeatedLessOrEqual()}.
+	 * 
+	 * @throws SemanticException if the operation fails
+	 */
+	@Setup
+	public void setup() throws SemanticException {
+		small = mk('a');
+		big = mk('a').lub(mk('b'));
+	}
+
+	private StringGraphDomain mk(char c) {
+		return new StringGraphDomain(new StringGraph(String.valueOf(c).repeat(length)));
+	}
+
+	/**
+	 * Concatenates two string graphs, compacting and normalizing the result.
+	 * 
+	 * @return the concatenation
+	 */
+	@Benchmark
+	public StringGraphDomain concat() {
+		StringGraphDomain left = mk('a'), right = mk('b');
+		return left.evalBinaryExpression(StringConcat.INSTANCE, left, right, null);
+	}
+
+	/**
+	 * Computes the least upper bound of two string graphs.
+	 * 
+	 * @return the least upper bound
+	 * 
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public StringGraphDomain lub() throws SemanticException {
+		return mk('a').lub(mk('b'));
+	}
+
+	/**
+	 * Checks the ordering between two string graphs.
+	 * 
+	 * @return whether the first graph is less or equal than the second one
+	 * 
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public boolean lessOrEqual() throws SemanticException {
+		return mk('a').lessOrEqual(mk('a').lub(mk('b')));
+	}
+
+	/**
+	 * Checks the ordering between the same two string graphs.
+	 * 
+	 * @return whether the first graph is less or equal than the second one
+	 * 
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public boolean repeatedLessOrEqual() throws SemanticException {
+		return small.lessOrEqual(big);
+	}
+}
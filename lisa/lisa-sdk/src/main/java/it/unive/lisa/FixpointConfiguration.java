@@ -0,0 +1,198 @@
+package it.unive.lisa;
+
+import it.unive.lisa.LiSAConfiguration.DescendingPhaseType;
+import it.unive.lisa.LiSAConfiguration.FixpointIterationStrategy;
+import it.unive.lisa.LiSAConfiguration.ResultRetentionPolicy;
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.logging.FixpointMetrics;
+
+/**
+ * An immutable configuration holding the fixpoint-specific parameters of a
+ * {@link LiSAConfiguration}. Instances of this class are passed to the
+ * interprocedural analyses and to the fixpoints of each cfg, to avoid the
+ * propagation of all the configuration parameters one by one.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class FixpointConfiguration {
+
+	/**
+	 * The number of fixpoint iteration on a given node after which calls to
+	 * {@link Lattice#lub(Lattice)} gets replaced with
+	 * {@link Lattice#widening(Lattice)}.
+	 */
+	public final int wideningThreshold;
+
+	/**
+	 * The number of fixpoint iteration on a given node during the descending
+	 * phase after which calls to {@link Lattice#glb(Lattice)} do not do
+	 * anything.
+	 */
+	public final int descendingGlbThreshold;
+
+	/**
+	 * The type of descending phase that will be applied by the fixpoint
+	 * algorithm.
+	 */
+	public final DescendingPhaseType descendingPhaseType;
+
+	/**
+	 * The strategy used to decide the order in which nodes are processed by
+	 * the fixpoint algorithm.
+	 */
+	public final FixpointIterationStrategy iterationStrategy;
+
+	/**
+	 * The number of threads that can be used to compute independent fixpoints
+	 * in parallel. This is always strictly positive.
+	 */
+	public final int parallelism;
+
+	/**
+	 * The policy deciding which results of the fixpoints are retained.
+	 */
+	public final ResultRetentionPolicy retention;
+
+	/**
+	 * The {@link FixpointMetrics} collecting the metrics of the fixpoints
+	 * computed with this configuration, or {@code null} if metrics should not
+	 * be collected.
+	 */
+	public final FixpointMetrics metrics;
+
+	/**
+	 * The context in which fixpoints computed with this configuration take
+	 * place, used to group their {@link #metrics}. This is {@code null} unless
+	 * set through {@link #inContext(String)}.
+	 */
+	public final String context;
+
+	/**
+	 * Builds the configuration, copying the fixpoint-related parameters of the
+	 * given {@link LiSAConfiguration}. Metrics will not be collected.
+	 * 
+	 * @param parent the configuration to copy
+	 */
+	public FixpointConfiguration(LiSAConfiguration parent) {
+		this(parent, null);
+	}
+
+	/**
+	 * Builds the configuration, copying the fixpoint-related parameters of the
+	 * given {@link LiSAConfiguration}.
+	 * 
+	 * @param parent  the configuration to copy
+	 * @param metrics the {@link FixpointMetrics} where the metrics of the
+	 *                    fixpoints should be collected (can be {@code null})
+	 */
+	public FixpointConfiguration(LiSAConfiguration parent, FixpointMetrics metrics) {
+		this.wideningThreshold = parent.wideningThreshold;
+		this.descendingGlbThreshold = parent.descendingGlbThreshold;
+		this.descendingPhaseType = parent.descendingPhaseType;
+		this.iterationStrategy = parent.fixpointIterationStrategy;
+		this.parallelism = parent.fixpointParallelism < 1 ? Runtime.getRuntime().availableProcessors()
+				: parent.fixpointParallelism;
+		this.retention = parent.resultRetention;
+		this.metrics = metrics;
+		this.context = null;
+	}
+
+	/**
+	 * Builds a configuration using the default values of
+	 * {@link LiSAConfiguration} for all the parameters but the widening
+	 * threshold.
+	 * 
+	 * @param wideningThreshold the number of fixpoint iteration on a given node
+	 *                              after which calls to
+	 *                              {@link Lattice#lub(Lattice)} gets replaced
+	 *                              with {@link Lattice#widening(Lattice)}
+	 */
+	public FixpointConfiguration(int wideningThreshold) {
+		LiSAConfiguration defaults = new LiSAConfiguration();
+		this.wideningThreshold = wideningThreshold;
+		this.descendingGlbThreshold = defaults.descendingGlbThreshold;
+		this.descendingPhaseType = defaults.descendingPhaseType;
+		this.iterationStrategy = defaults.fixpointIterationStrategy;
+		this.parallelism = defaults.fixpointParallelism;
+		this.retention = defaults.resultRetention;
+		this.metrics = null;
+		this.context = null;
+	}
+
+	/**
+	 * Builds a configuration using the default values of
+	 * {@link LiSAConfiguration} for all the parameters but the ones of the
+	 * ascending and descending phases.
+	 * 
+	 * @param wideningThreshold      the number of fixpoint iteration on a given
+	 *                                   node after which calls to
+	 *                                   {@link Lattice#lub(Lattice)} gets
+	 *                                   replaced with
+	 *                                   {@link Lattice#widening(Lattice)}
+	 * @param descendingPhaseType    the type of descending phase algorithm
+	 *                                   that will be used during fixpoint
+	 *                                   calculation
+	 * @param descendingGlbThreshold the number of fixpoint iteration on a given
+	 *                                   node during descending phase after
+	 *                                   which calls to
+	 *                                   {@link Lattice#glb(Lattice)} does not
+	 *                                   do anything
+	 */
+	public FixpointConfiguration(int wideningThreshold, DescendingPhaseType descendingPhaseType,
+			int descendingGlbThreshold) {
+		LiSAConfiguration defaults = new LiSAConfiguration();
+		this.wideningThreshold = wideningThreshold;
+		this.descendingGlbThreshold = descendingGlbThreshold;
+		this.descendingPhaseType = descendingPhaseType;
+		this.iterationStrategy = defaults.fixpointIterationStrategy;
+		this.parallelism = defaults.fixpointParallelism;
+		this.retention = defaults.resultRetention;
+		this.metrics = null;
+		this.context = null;
+	}
+
+	private FixpointConfiguration(FixpointConfiguration other, FixpointMetrics metrics, String context) {
+		this.wideningThreshold = other.wideningThreshold;
+		this.descendingGlbThreshold = other.descendingGlbThreshold;
+		this.descendingPhaseType = other.descendingPhaseType;
+		this.iterationStrategy = other.iterationStrategy;
+		this.parallelism = other.parallelism;
+		this.retention = other.retention;
+		this.metrics = metrics;
+		this.context = context;
+	}
+
+	/**
+	 * Yields a copy of this configuration whose {@link #context} is the given
+	 * one. If metrics are not being collected, this configuration is returned
+	 * unchanged.
+	 * 
+	 * @param context the context
+	 * 
+	 * @return the configuration
+	 */
+	public FixpointConfiguration inContext(String context) {
+		return metrics == null ? this : new FixpointConfiguration(this, metrics, context);
+	}
+
+	/**
+	 * Yields a copy of this configuration that does not collect metrics. If
+	 * metrics are not being collected, this configuration is returned
+	 * unchanged.
+	 * 
+	 * @return the configuration
+	 */
+	public FixpointConfiguration withoutMetrics() {
+		return metrics == null ? this : new FixpointConfiguration(this, null, null);
+	}
+
+	@Override
+	public String toString() {
+		return "fixpoint configuration [wideningThreshold=" + wideningThreshold
+				+ ", descendingGlbThreshold=" + descendingGlbThreshold
+				+ ", descendingPhaseType=" + descendingPhaseType
+				+ ", iterationStrategy=" + iterationStrategy
+				+ ", parallelism=" + parallelism
+				+ ", retention=" + retention + "]";
+	}
+}
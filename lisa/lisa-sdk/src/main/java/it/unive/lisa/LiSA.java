@@ -5,6 +5,7 @@ import static it.unive.lisa.LiSAFactory.getDefaultFor;
 import it.unive.lisa.checks.warnings.Warning;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.logging.FixpointMetrics;
 import it.unive.lisa.logging.TimerLogger;
 import it.unive.lisa.outputs.json.JsonReport;
 import it.unive.lisa.program.Application;
@@ -85,7 +86,8 @@ public class LiSA {
 			throw new AnalysisExecutionException("Unable to create default interprocedural analysis", e);
 		}
 
-		LiSARunner runner = new LiSARunner(conf, interproc, callGraph, conf.abstractState);
+		FixpointMetrics metrics = conf.fixpointMetrics || conf.metricsOutput ? new FixpointMetrics() : null;
+		LiSARunner runner = new LiSARunner(conf, interproc, callGraph, conf.abstractState, metrics);
 		Application app = new Application(programs);
 		Collection<Warning> warnings;
 
@@ -95,7 +97,20 @@ public class LiSA {
 			throw new AnalysisException("LiSA has encountered an exception while executing the analysis", e);
 		}
 
-		LiSARunInfo stats = new LiSARunInfo(warnings, fileManager.createdFiles(), app, start, new DateTime());
+		if (metrics != null && conf.metricsOutput) {
+			LOG.info("Dumping fixpoint metrics to 'metrics.json'");
+			try {
+				fileManager.mkOutputFile("metrics.json", writer -> {
+					metrics.dump(writer);
+					LOG.info("Metrics file dumped to metrics.json");
+				});
+			} catch (IOException e) {
+				LOG.error("Unable to dump metrics file", e);
+			}
+		}
+
+		LiSARunInfo stats = new LiSARunInfo(warnings, fileManager.createdFiles(), app, start, new DateTime(),
+				metrics);
 		LOG.info("LiSA statistics:\n" + stats);
 
 		LiSAReport report = new LiSAReport(conf, stats, warnings, fileManager.createdFiles());
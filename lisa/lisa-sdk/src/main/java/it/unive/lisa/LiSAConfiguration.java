@@ -103,6 +103,62 @@ public class LiSAConfiguration {
 		NARROWING;
 	}
 
+	/**
+	 * The strategies that can be used to decide the order in which the nodes
+	 * of a graph are processed during a fixpoint computation.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static enum FixpointIterationStrategy {
+
+		/**
+		 * Nodes are processed in the order they are yielded by the
+		 * {@link WorkingSet} specified through {@link #fixpointWorkingSet}.
+		 * The successors of a node are added back to the working set each time
+		 * its result changes, and {@link Lattice#widening(Lattice)} can be
+		 * applied at every node.
+		 */
+		WORKING_SET,
+
+		/**
+		 * Nodes are processed following a weak topological ordering of the
+		 * graph (as defined by Bourdoncle), where loops are stabilized
+		 * recursively starting from the innermost ones, and components are
+		 * visited in topological order. Widening and narrowing are applied
+		 * only at the heads of the components, while all other nodes are
+		 * simply recomputed from their predecessors.
+		 * {@link #fixpointWorkingSet} is ignored when this strategy is used.
+		 */
+		WEAK_TOPOLOGICAL_ORDER;
+	}
+
+	/**
+	 * The policies that can be used to decide which results of the fixpoints
+	 * are retained once the analysis of a cfg terminates.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static enum ResultRetentionPolicy {
+
+		/**
+		 * The results computed for each statement are retained for all
+		 * fixpoints.
+		 */
+		FULL,
+
+		/**
+		 * The results computed for each statement are retained only for the
+		 * fixpoints over entrypoints. For all other fixpoints, only the entry
+		 * and exit states are retained, and the results for each statement are
+		 * recomputed when they are needed (e.g., by semantic checks or when
+		 * dumping the results). This reduces the memory needed by the
+		 * analysis, at the cost of recomputing some fixpoints once the
+		 * analysis terminates. Interprocedural analyses that do not support
+		 * this policy retain all results.
+		 */
+		COMPACT;
+	}
+
 	/**
 	 * The default number of fixpoint iteration on a given node after which
 	 * calls to {@link Lattice#lub(Lattice)} gets replaced with
@@ -203,6 +259,26 @@ public class LiSAConfiguration {
 	 */
 	public boolean jsonOutput;
 
+	/**
+	 * Whether or not metrics about the fixpoints executed during the analysis
+	 * (iterations on each node, time spent in each phase, working set sizes
+	 * and re-analyses) should be collected. Collected metrics are available
+	 * through {@link LiSARunInfo#getFixpointMetrics()}, and they are included
+	 * in the json report if {@link #jsonOutput} is set. Defaults to
+	 * {@code false}.
+	 */
+	public boolean fixpointMetrics;
+
+	/**
+	 * Sets whether or not a json file, named {@code metrics.json}, containing
+	 * all the metrics about the fixpoints executed during the analysis should
+	 * be created and dumped in the working directory at the end of the
+	 * analysis. Setting this field causes the collection of the metrics even
+	 * if {@link #fixpointMetrics} is not set. To customize where the file
+	 * should be generated, use {@link #workdir}. Defaults to {@code false}.
+	 */
+	public boolean metricsOutput;
+
 	/**
 	 * The working directory for this instance of LiSA, that is, the directory
 	 * files will be created, if any (log files excluded, use the logging
@@ -240,6 +316,26 @@ public class LiSAConfiguration {
 	 */
 	public Class<?> fixpointWorkingSet = FIFOWorkingSet.class;
 
+	/**
+	 * The {@link FixpointIterationStrategy} to be used in fixpoints. Defaults
+	 * to {@link FixpointIterationStrategy#WORKING_SET}.
+	 */
+	public FixpointIterationStrategy fixpointIterationStrategy = FixpointIterationStrategy.WORKING_SET;
+
+	/**
+	 * The number of threads that interprocedural analyses can use to compute
+	 * independent fixpoints in parallel. Defaults to {@code 1}, meaning that
+	 * fixpoints are computed sequentially. Values lower than {@code 1} cause
+	 * the usage of one thread for each available processor.
+	 */
+	public int fixpointParallelism = 1;
+
+	/**
+	 * The {@link ResultRetentionPolicy} deciding which results of the
+	 * fixpoints are retained. Defaults to {@link ResultRetentionPolicy#FULL}.
+	 */
+	public ResultRetentionPolicy resultRetention = ResultRetentionPolicy.FULL;
+
 	/**
 	 * The {@link OpenCallPolicy} to be used for computing the result of
 	 * {@link OpenCall}s. Defaults to {@link WorstCasePolicy}.
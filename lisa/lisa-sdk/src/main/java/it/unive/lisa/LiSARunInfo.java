@@ -3,6 +3,7 @@ package it.unive.lisa;
 import it.unive.lisa.checks.semantic.SemanticCheck;
 import it.unive.lisa.checks.syntactic.SyntacticCheck;
 import it.unive.lisa.checks.warnings.Warning;
+import it.unive.lisa.logging.FixpointMetrics;
 import it.unive.lisa.program.Application;
 import it.unive.lisa.program.Global;
 import it.unive.lisa.program.Program;
@@ -150,6 +151,14 @@ public class LiSARunInfo {
 	 */
 	public final String duration;
 
+	/**
+	 * The metrics of the fixpoints executed during the analysis. Since these
+	 * vary between runs, this is not a public field: it is not part of the
+	 * property bag of this object, and it is ignored by
+	 * {@link #equals(Object)}.
+	 */
+	private final FixpointMetrics fixpointMetrics;
+
 	/**
 	 * Builds the run info.
 	 * 
@@ -161,6 +170,23 @@ public class LiSARunInfo {
 	 */
 	public LiSARunInfo(Collection<Warning> warnings, Collection<String> files, Application app, DateTime start,
 			DateTime end) {
+		this(warnings, files, app, start, end, null);
+	}
+
+	/**
+	 * Builds the run info.
+	 * 
+	 * @param warnings        the warnings generated by the analysis
+	 * @param files           the files generated by the analysis
+	 * @param app             the {@link Application} under analysis
+	 * @param start           the start time
+	 * @param end             the end time
+	 * @param fixpointMetrics the metrics of the fixpoints executed during the
+	 *                            analysis (can be {@code null})
+	 */
+	public LiSARunInfo(Collection<Warning> warnings, Collection<String> files, Application app, DateTime start,
+			DateTime end, FixpointMetrics fixpointMetrics) {
+		this.fixpointMetrics = fixpointMetrics;
 		this.version = VersionInfo.VERSION;
 		this.warnings = warnings.size();
 		this.files = files.size();
@@ -184,6 +210,18 @@ public class LiSARunInfo {
 		this.expressions = counter.expressions;
 	}
 
+	/**
+	 * Yields the metrics of the fixpoints executed during the analysis, if
+	 * they have been collected.
+	 * 
+	 * @return the metrics, or {@code null} if
+	 *             {@link LiSAConfiguration#fixpointMetrics} and
+	 *             {@link LiSAConfiguration#metricsOutput} were both not set
+	 */
+	public FixpointMetrics getFixpointMetrics() {
+		return fixpointMetrics;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
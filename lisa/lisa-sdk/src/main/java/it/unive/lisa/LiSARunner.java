@@ -4,6 +4,7 @@ import it.unive.lisa.LiSAConfiguration.GraphType;
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.symbols.SymbolAliasing;
 import it.unive.lisa.analysis.value.TypeDomain;
@@ -17,6 +18,7 @@ import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.logging.FixpointMetrics;
 import it.unive.lisa.logging.IterationLogger;
 import it.unive.lisa.logging.TimerLogger;
 import it.unive.lisa.outputs.serializableGraph.SerializableGraph;
@@ -62,6 +64,8 @@ public class LiSARunner<A extends AbstractState<A, H, V, T>,
 
 	private static final String FIXPOINT_EXCEPTION_MESSAGE = "Exception during fixpoint computation";
 
+	private static final String EXPAND_EXCEPTION_MESSAGE = "Exception while recomputing the analysis results";
+
 	private static final Logger LOG = LogManager.getLogger(LiSARunner.class);
 
 	private final LiSAConfiguration conf;
@@ -72,6 +76,8 @@ public class LiSARunner<A extends AbstractState<A, H, V, T>,
 
 	private final A state;
 
+	private final FixpointMetrics metrics;
+
 	/**
 	 * Builds the runner.
 	 * 
@@ -79,12 +85,17 @@ public class LiSARunner<A extends AbstractState<A, H, V, T>,
 	 * @param interproc the interprocedural analysis to use
 	 * @param callGraph the call graph to use
 	 * @param state     the abstract state to use for the analysis
+	 * @param metrics   the {@link FixpointMetrics} where the metrics of the
+	 *                      fixpoints should be collected (can be
+	 *                      {@code null})
 	 */
-	LiSARunner(LiSAConfiguration conf, InterproceduralAnalysis<A, H, V, T> interproc, CallGraph callGraph, A state) {
+	LiSARunner(LiSAConfiguration conf, InterproceduralAnalysis<A, H, V, T> interproc, CallGraph callGraph, A state,
+			FixpointMetrics metrics) {
 		this.conf = conf;
 		this.interproc = interproc;
 		this.callGraph = callGraph;
 		this.state = state;
+		this.metrics = metrics;
 	}
 
 	/**
@@ -150,7 +161,8 @@ public class LiSARunner<A extends AbstractState<A, H, V, T>,
 				CheckToolWithAnalysisResults<A, H, V, T> tool2 = new CheckToolWithAnalysisResults<>(
 						tool,
 						results,
-						callGraph);
+						callGraph,
+						interproc);
 				tool = tool2;
 				ChecksExecutor.executeAll(tool2, app, semanticChecks);
 			} else
@@ -171,7 +183,7 @@ public class LiSARunner<A extends AbstractState<A, H, V, T>,
 						interproc.fixpoint(
 								new AnalysisState<>(state, new Skip(SyntheticLocation.INSTANCE), new SymbolAliasing()),
 								(Class<? extends WorkingSet<Statement>>) conf.fixpointWorkingSet,
-								conf.wideningThreshold, conf.descendingPhaseType, conf.descendingGlbThreshold);
+								new FixpointConfiguration(conf, metrics));
 					} catch (FixpointException e) {
 						LOG.fatal(FIXPOINT_EXCEPTION_MESSAGE, e);
 						throw new AnalysisExecutionException(FIXPOINT_EXCEPTION_MESSAGE, e);
@@ -183,7 +195,15 @@ public class LiSARunner<A extends AbstractState<A, H, V, T>,
 			int nfiles = fileManager.createdFiles().size();
 
 			for (CFG cfg : IterationLogger.iterate(LOG, allCFGs, "Dumping analysis results", "cfgs"))
-				for (CFGWithAnalysisResults<A, H, V, T> result : interproc.getAnalysisResultsOf(cfg)) {
+				for (CFGWithAnalysisResults<A, H, V, T> stored : interproc.getAnalysisResultsOf(cfg)) {
+					CFGWithAnalysisResults<A, H, V, T> result;
+					try {
+						result = interproc.expand(stored);
+					} catch (SemanticException e) {
+						LOG.fatal(EXPAND_EXCEPTION_MESSAGE, e);
+						throw new AnalysisExecutionException(EXPAND_EXCEPTION_MESSAGE, e);
+					}
+
 					SerializableGraph graph = result.toSerializableGraph(
 							st -> result.getAnalysisStateAfter(st).representation().toSerializableValue());
 					String filename = cfg.getDescriptor().getFullSignatureWithParNames();
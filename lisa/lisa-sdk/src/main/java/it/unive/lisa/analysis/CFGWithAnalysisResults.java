@@ -56,6 +56,12 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 	 */
 	private String id;
 
+	/**
+	 * Whether or not this graph holds the results of all of its statements and
+	 * expressions
+	 */
+	private boolean complete = true;
+
 	/**
 	 * Builds the control flow graph, storing the given mapping between nodes
 	 * and fixpoint computation results.
@@ -125,6 +131,64 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 		this.id = id;
 	}
 
+	/**
+	 * Yields a copy of this graph identified by the given string. The copy
+	 * shares the structure and the results of this graph, that must thus not
+	 * be modified afterwards.
+	 * 
+	 * @param id the identifier of the copy (might be {@code null})
+	 * 
+	 * @return the copy
+	 */
+	public CFGWithAnalysisResults<A, H, V, T> withId(String id) {
+		CFGWithAnalysisResults<A, H, V, T> copy = new CFGWithAnalysisResults<>(this, entryStates, results);
+		copy.setId(id);
+		copy.complete = complete;
+		return copy;
+	}
+
+	/**
+	 * Yields a copy of this graph, with the same identifier, that only retains
+	 * the entry states and the results computed after the normal exitpoints,
+	 * that is, what is needed by {@link #getEntryState()} and
+	 * {@link #getExitState()}. The copy shares the structure of this graph.
+	 * 
+	 * @return the compacted copy
+	 */
+	public CFGWithAnalysisResults<A, H, V, T> compact() {
+		Map<Statement, AnalysisState<A, H, V, T>> full = getResults();
+		StatementStore<A, H, V, T> exits = new StatementStore<>(entryStates.lattice);
+		for (Statement exit : getNormalExitpoints())
+			if (full.containsKey(exit))
+				exits.put(exit, full.get(exit));
+		CFGWithAnalysisResults<A, H, V, T> copy = new CFGWithAnalysisResults<>(this, entryStates, exits);
+		copy.setId(id);
+		copy.complete = false;
+		return copy;
+	}
+
+	/**
+	 * Yields {@code true} if this graph retains the results of all of its
+	 * statements and expressions, that is, if it has not been produced by
+	 * {@link #compact()}.
+	 * 
+	 * @return whether or not this graph holds all the results
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * Yields the results computed after each statement and expression of this
+	 * graph.
+	 * 
+	 * @return an unmodifiable view of the results
+	 */
+	public Map<Statement, AnalysisState<A, H, V, T>> getResults() {
+		Map<Statement, AnalysisState<A, H, V, T>> map = results.getMap();
+		return map == null ? Collections.emptyMap() : Collections.unmodifiableMap(map);
+	}
+
 	/**
 	 * Yields the computed result before a given statement (entry state).
 	 *
@@ -201,8 +265,10 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 		if (!getDescriptor().equals(other.getDescriptor()))
 			throw new SemanticException(CANNOT_LUB_ERROR);
 
-		return new CFGWithAnalysisResults<>(this, entryStates.lub(other.entryStates),
-				results.lub(other.results));
+		CFGWithAnalysisResults<A, H, V, T> join = new CFGWithAnalysisResults<>(this,
+				entryStates.lub(other.entryStates), results.lub(other.results));
+		join.complete = complete && other.complete;
+		return join;
 	}
 
 	@Override
@@ -213,6 +279,7 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 		CFGWithAnalysisResults<A, H, V, T> lub = new CFGWithAnalysisResults<>(this, entryStates.lub(other.entryStates),
 				results.lub(other.results));
 		lub.setId(joinIDs(other));
+		lub.complete = complete && other.complete;
 		return lub;
 	}
 
@@ -224,6 +291,7 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 		CFGWithAnalysisResults<A, H, V, T> glb = new CFGWithAnalysisResults<>(this, entryStates.glb(other.entryStates),
 				results.glb(other.results));
 		glb.setId(joinIDs(other));
+		glb.complete = complete && other.complete;
 		return glb;
 	}
 
@@ -238,6 +306,7 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 				entryStates.widening(other.entryStates),
 				results.widening(other.results));
 		widen.setId(joinIDs(other));
+		widen.complete = complete && other.complete;
 		return widen;
 	}
 
@@ -0,0 +1,89 @@
+package it.unive.lisa.analysis.dataflow;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A {@link DefiniteForwardDataflowDomain} that stores its elements as bit
+ * vectors, where joins are intersections and meets are unions of words. This
+ * is the definite counterpart of {@link BitVectorPossibleForwardDataflowDomain},
+ * and it can be used in place of {@link DefiniteForwardDataflowDomain} with any
+ * {@link DataflowElement} built for it.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ * 
+ * @param <E> the type of {@link DataflowElement} contained in this domain
+ */
+public class BitVectorDefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteForwardDataflowDomain<E>, E>>
+		extends DefiniteForwardDataflowDomain<E> {
+
+	private final DataflowElementIndex<E> index;
+
+	/**
+	 * Builds an empty domain.
+	 * 
+	 * @param domain a singleton instance to be used during semantic operations
+	 *                   to perform <i>kill</i> and <i>gen</i> operations
+	 */
+	public BitVectorDefiniteForwardDataflowDomain(E domain) {
+		this(domain, new DataflowElementIndex<>(), Collections.emptySet(), true, false);
+	}
+
+	private BitVectorDefiniteForwardDataflowDomain(E domain, DataflowElementIndex<E> index, Set<E> elements,
+			boolean isTop, boolean isBottom) {
+		super(domain, index.mkSet(elements), isTop, isBottom);
+		this.index = index;
+	}
+
+	private ExternalSet<E> bits() {
+		return (ExternalSet<E>) getDataflowElements();
+	}
+
+	@Override
+	public DefiniteForwardDataflowDomain<E> mk(E domain, Set<E> elements, boolean isTop, boolean isBottom) {
+		return new BitVectorDefiniteForwardDataflowDomain<>(domain, index, elements, isTop, isBottom);
+	}
+
+	@Override
+	protected DefiniteForwardDataflowDomain<E> update(Collection<E> killed, Collection<E> generated) {
+		return mk(domain, index.update(bits(), killed, generated), false, false);
+	}
+
+	@Override
+	public DefiniteForwardDataflowDomain<E> forgetIdentifier(Identifier id) throws SemanticException {
+		if (isTop())
+			return this;
+
+		ExternalSet<E> updated = index.forget(bits(), id);
+		return updated == bits() ? this : mk(domain, updated, false, false);
+	}
+
+	@Override
+	public DefiniteForwardDataflowDomain<E> forgetIdentifiersIf(Predicate<Identifier> test) throws SemanticException {
+		if (isTop())
+			return this;
+
+		ExternalSet<E> updated = index.forget(bits(), test);
+		return updated == bits() ? this : mk(domain, updated, false, false);
+	}
+
+	@Override
+	public DefiniteForwardDataflowDomain<E> lubAux(DefiniteForwardDataflowDomain<E> other) throws SemanticException {
+		return mk(domain, bits().intersection(index.mkSet(other.getDataflowElements())), false, false);
+	}
+
+	@Override
+	public boolean lessOrEqualAux(DefiniteForwardDataflowDomain<E> other) throws SemanticException {
+		return bits().contains(index.mkSet(other.getDataflowElements()));
+	}
+
+	@Override
+	public DefiniteForwardDataflowDomain<E> glbAux(DefiniteForwardDataflowDomain<E> other) throws SemanticException {
+		return mk(domain, bits().union(index.mkSet(other.getDataflowElements())), false, false);
+	}
+}
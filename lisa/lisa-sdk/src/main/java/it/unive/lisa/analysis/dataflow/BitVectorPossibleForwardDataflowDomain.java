@@ -0,0 +1,95 @@
+package it.unive.lisa.analysis.dataflow;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A {@link PossibleForwardDataflowDomain} that stores its elements as bit
+ * vectors. Each {@link DataflowElement} is assigned a position the first time
+ * it is generated, and all the instances originating from the same one share
+ * such positions. The <i>kill</i> and <i>gen</i> sets of each statement are
+ * turned into masks, and joins, meets and the ordering checks performed by
+ * fixpoints become word-wise operations. Forgetting identifiers relies on a
+ * precomputed index from each identifier to the mask of the elements that
+ * involve it.<br>
+ * <br>
+ * This domain can be used in place of {@link PossibleForwardDataflowDomain}
+ * with any {@link DataflowElement} built for it.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ * 
+ * @param <E> the type of {@link DataflowElement} contained in this domain
+ */
+public class BitVectorPossibleForwardDataflowDomain<E extends DataflowElement<PossibleForwardDataflowDomain<E>, E>>
+		extends PossibleForwardDataflowDomain<E> {
+
+	private final DataflowElementIndex<E> index;
+
+	/**
+	 * Builds an empty domain.
+	 * 
+	 * @param domain a singleton instance to be used during semantic operations
+	 *                   to perform <i>kill</i> and <i>gen</i> operations
+	 */
+	public BitVectorPossibleForwardDataflowDomain(E domain) {
+		this(domain, new DataflowElementIndex<>(), Collections.emptySet(), true, false);
+	}
+
+	private BitVectorPossibleForwardDataflowDomain(E domain, DataflowElementIndex<E> index, Set<E> elements,
+			boolean isTop, boolean isBottom) {
+		super(domain, index.mkSet(elements), isTop, isBottom);
+		this.index = index;
+	}
+
+	private ExternalSet<E> bits() {
+		return (ExternalSet<E>) getDataflowElements();
+	}
+
+	@Override
+	public PossibleForwardDataflowDomain<E> mk(E domain, Set<E> elements, boolean isTop, boolean isBottom) {
+		return new BitVectorPossibleForwardDataflowDomain<>(domain, index, elements, isTop, isBottom);
+	}
+
+	@Override
+	protected PossibleForwardDataflowDomain<E> update(Collection<E> killed, Collection<E> generated) {
+		return mk(domain, index.update(bits(), killed, generated), false, false);
+	}
+
+	@Override
+	public PossibleForwardDataflowDomain<E> forgetIdentifier(Identifier id) throws SemanticException {
+		if (isTop())
+			return this;
+
+		ExternalSet<E> updated = index.forget(bits(), id);
+		return updated == bits() ? this : mk(domain, updated, false, false);
+	}
+
+	@Override
+	public PossibleForwardDataflowDomain<E> forgetIdentifiersIf(Predicate<Identifier> test) throws SemanticException {
+		if (isTop())
+			return this;
+
+		ExternalSet<E> updated = index.forget(bits(), test);
+		return updated == bits() ? this : mk(domain, updated, false, false);
+	}
+
+	@Override
+	public PossibleForwardDataflowDomain<E> lubAux(PossibleForwardDataflowDomain<E> other) throws SemanticException {
+		return mk(domain, bits().union(index.mkSet(other.getDataflowElements())), false, false);
+	}
+
+	@Override
+	public boolean lessOrEqualAux(PossibleForwardDataflowDomain<E> other) throws SemanticException {
+		return index.mkSet(other.getDataflowElements()).contains(bits());
+	}
+
+	@Override
+	public PossibleForwardDataflowDomain<E> glbAux(PossibleForwardDataflowDomain<E> other) throws SemanticException {
+		return mk(domain, bits().intersection(index.mkSet(other.getDataflowElements())), false, false);
+	}
+}
@@ -105,11 +105,30 @@ public abstract class DataflowDomain<D extends DataflowDomain<D, E>, E extends D
 		if (guard.getAsBoolean())
 			return (D) this;
 
+		Collection<E> killed = kill.get();
+		return update(killed, gen.get());
+	}
+
+	/**
+	 * Yields a new instance of this domain where the given <i>killed</i>
+	 * elements have been removed and the given <i>generated</i> ones have been
+	 * added. This method is invoked by
+	 * {@link #assign(Identifier, ValueExpression, ProgramPoint)} and
+	 * {@link #smallStepSemantics(ValueExpression, ProgramPoint)} after checking
+	 * that the domain can process the expression, and can be overridden by
+	 * domains that store their elements differently.
+	 * 
+	 * @param killed    the elements to remove
+	 * @param generated the elements to add
+	 * 
+	 * @return the updated domain
+	 */
+	protected D update(Collection<E> killed, Collection<E> generated) {
 		Set<E> updated = new HashSet<>(getDataflowElements());
-		for (E killed : kill.get())
-			updated.remove(killed);
-		for (E generated : gen.get())
-			updated.add(generated);
+		for (E e : killed)
+			updated.remove(e);
+		for (E e : generated)
+			updated.add(e);
 
 		return mk(domain, updated, false, false);
 	}
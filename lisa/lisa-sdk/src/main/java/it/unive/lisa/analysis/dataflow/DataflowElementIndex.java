@@ -0,0 +1,141 @@
+package it.unive.lisa.analysis.dataflow;
+
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * An index of the {@link DataflowElement}s produced during an analysis, that
+ * assigns to each element a position inside the bit vectors used by
+ * {@link BitVectorPossibleForwardDataflowDomain} and
+ * {@link BitVectorDefiniteForwardDataflowDomain}. Besides the
+ * {@link ExternalSetCache} backing such bit vectors, the index maps each
+ * {@link Identifier} to the mask of the elements that involve it (according
+ * to {@link DataflowElement#getInvolvedIdentifiers()}), so that identifiers
+ * can be forgotten without inspecting the elements. The index is shared by
+ * all the domain instances originating from the same one.<br>
+ * <br>
+ * Since the index is shared by fixpoints running in parallel, it does not
+ * use locks: the {@link ExternalSetCache} is itself lock-free, and the masks
+ * of the identifiers are kept in a {@link ConcurrentHashMap} and never
+ * modified once stored, as they get replaced with bigger ones whenever new
+ * elements involving an identifier are indexed. An element is marked as
+ * known only after its identifiers have been registered, so that a thread
+ * never stores in a bit vector an element that some identifier's mask does
+ * not cover yet.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ * 
+ * @param <E> the type of {@link DataflowElement}s indexed
+ */
+final class DataflowElementIndex<E extends DataflowElement<?, E>> {
+
+	/**
+	 * The cache assigning a position to each element
+	 */
+	private final ExternalSetCache<E> cache = new ExternalSetCache<>();
+
+	/**
+	 * The elements involving each identifier
+	 */
+	private final Map<Identifier, ExternalSet<E>> involving = new ConcurrentHashMap<>();
+
+	/**
+	 * The elements whose identifiers have been registered in
+	 * {@link #involving}
+	 */
+	private final Set<E> known = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Yields a bit vector containing the given elements, indexing the ones
+	 * that have never been seen before. If {@code elements} is already a bit
+	 * vector of this index, it is returned as-is.
+	 * 
+	 * @param elements the elements
+	 * 
+	 * @return the bit vector
+	 */
+	ExternalSet<E> mkSet(Collection<E> elements) {
+		if (elements instanceof ExternalSet && ((ExternalSet<E>) elements).getCache() == cache)
+			return (ExternalSet<E>) elements;
+
+		ExternalSet<E> result = cache.mkEmptySet();
+		for (E e : elements) {
+			if (!known.contains(e)) {
+				// threads racing on the same element register the same
+				// bit, and merging is idempotent
+				ExternalSet<E> single = cache.mkSingletonSet(e);
+				for (Identifier id : e.getInvolvedIdentifiers())
+					involving.merge(id, single, ExternalSet::union);
+				known.add(e);
+			}
+			result.add(e);
+		}
+		return result;
+	}
+
+	/**
+	 * Applies the <i>kill</i> and <i>gen</i> sets of a statement to the given
+	 * bit vector, yielding {@code (elements \ killed) U generated}.
+	 * 
+	 * @param elements  the bit vector to update, that is not modified
+	 * @param killed    the killed elements
+	 * @param generated the generated elements
+	 * 
+	 * @return the updated bit vector
+	 */
+	ExternalSet<E> update(ExternalSet<E> elements, Collection<E> killed, Collection<E> generated) {
+		ExternalSet<E> result = elements;
+		if (killed == elements)
+			// difference() yields the receiver when given itself
+			result = cache.mkEmptySet();
+		else if (!killed.isEmpty())
+			result = result.difference(mkSet(killed));
+		if (!generated.isEmpty())
+			result = result.union(mkSet(generated));
+		return result;
+	}
+
+	/**
+	 * Removes from the given bit vector all the elements involving the given
+	 * identifier.
+	 * 
+	 * @param elements the bit vector, that is not modified
+	 * @param id       the identifier to forget
+	 * 
+	 * @return the updated bit vector, or {@code elements} itself if no element
+	 *             had to be removed
+	 */
+	ExternalSet<E> forget(ExternalSet<E> elements, Identifier id) {
+		ExternalSet<E> mask = involving.get(id);
+		if (mask == null || !elements.intersects(mask))
+			return elements;
+		return elements.difference(mask);
+	}
+
+	/**
+	 * Removes from the given bit vector all the elements involving at least
+	 * one identifier satisfying the given test.
+	 * 
+	 * @param elements the bit vector, that is not modified
+	 * @param test     the test identifying the identifiers to forget
+	 * 
+	 * @return the updated bit vector, or {@code elements} itself if no element
+	 *             had to be removed
+	 */
+	ExternalSet<E> forget(ExternalSet<E> elements, Predicate<Identifier> test) {
+		ExternalSet<E> mask = cache.mkEmptySet();
+		for (Entry<Identifier, ExternalSet<E>> entry : involving.entrySet())
+			if (test.test(entry.getKey()))
+				mask.addAll(entry.getValue());
+		if (!elements.intersects(mask))
+			return elements;
+		return elements.difference(mask);
+	}
+}
@@ -28,7 +28,17 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 		super(domain, new HashSet<>(), true, false);
 	}
 
-	private PossibleForwardDataflowDomain(E domain, Set<E> elements, boolean isTop, boolean isBottom) {
+	/**
+	 * Builds the domain.
+	 * 
+	 * @param domain   a singleton instance to be used during semantic
+	 *                     operations to perform <i>kill</i> and <i>gen</i>
+	 *                     operations
+	 * @param elements the set of elements contained in this domain
+	 * @param isTop    whether or not this domain is the top of the lattice
+	 * @param isBottom whether or not this domain is the bottom of the lattice
+	 */
+	protected PossibleForwardDataflowDomain(E domain, Set<E> elements, boolean isTop, boolean isBottom) {
 		super(domain, elements, isTop, isBottom);
 	}
 
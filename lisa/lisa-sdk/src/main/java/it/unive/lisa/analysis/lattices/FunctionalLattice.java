@@ -3,6 +3,7 @@ package it.unive.lisa.analysis.lattices;
 import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.util.collections.PersistentHashMap;
 import java.util.*;
 import java.util.Map.Entry;
 
@@ -52,7 +53,10 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	/**
 	 * Creates a new instance of the underlying function. The purpose of this
 	 * method is to provide a common function implementation to every subclass
-	 * that does not have implementation-specific requirements.
+	 * that does not have implementation-specific requirements. By default,
+	 * functions are {@link PersistentHashMap}s: copying an existing function is
+	 * a constant-time operation, and the copy shares its structure with the
+	 * original one until either of them is modified.
 	 * 
 	 * @param other        an optional function to copy, can be {@code null}
 	 * @param preserveNull whether a null {@code other} should cause a
@@ -62,8 +66,8 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	 */
 	public Map<K, V> mkNewFunction(Map<K, V> other, boolean preserveNull) {
 		if (other == null)
-			return preserveNull ? null : new HashMap<>();
-		return new HashMap<>(other);
+			return preserveNull ? null : new PersistentHashMap<>();
+		return new PersistentHashMap<>(other);
 	}
 
 	/**
@@ -105,12 +109,8 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	 */
 	public F putState(K key, V state) {
 		// we are only adding elements here, so it is fine to not preserve null
-		Map<K, V> result = mkNewFunction(null, false);
-
+		Map<K, V> result = mkNewFunction(function, false);
 		result.put(key, state);
-		for (K k : getKeys())
-			if (!k.equals(key))
-				result.put(k, getState(k));
 		return mk(lattice, result);
 	}
 
@@ -148,7 +148,12 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	}
 
 	/**
-	 * Interface for the lift of lattice elements.
+	 * Interface for the lift of lattice elements. Lifts are expected to be
+	 * idempotent, that is, lifting an element with itself must yield the
+	 * element itself:
+	 * {@link FunctionalLattice#functionalLift(FunctionalLattice, KeyFunctionalLift, FunctionalLift)}
+	 * relies on this to avoid lifting values that are shared by the two
+	 * functions.
 	 * 
 	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
 	 *
@@ -196,7 +201,12 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	}
 
 	/**
-	 * Yields the functional lift between {@code this} and {@code other}.
+	 * Yields the functional lift between {@code this} and {@code other}. If
+	 * both functions are {@link PersistentHashMap}s, bindings that are shared
+	 * by the two functions (that is, the ones contained in common subtrees, or
+	 * that map the same key object to the same value object) are copied in the
+	 * result without invoking {@code valueLifter} on them, as long as their
+	 * key is part of the lifted keys.
 	 * 
 	 * @param other       the other functional lattice
 	 * @param keyLifter   the key lifter
@@ -207,16 +217,37 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	 * @throws SemanticException if something goes wrong while lifting the
 	 *                               lattice elements
 	 */
+	@SuppressWarnings("unchecked")
 	public F functionalLift(F other, KeyFunctionalLift<K> keyLifter, FunctionalLift<V> valueLifter)
 			throws SemanticException {
-		Map<K, V> function = mkNewFunction(null, false);
 		Set<K> keys = keyLifter.keyLift(this.getKeys(), other.getKeys());
+		Map<K, V> function;
+		Set<K> shared;
+		if (this.function instanceof PersistentHashMap && other.function instanceof PersistentHashMap) {
+			// we start from a copy of this function, keeping only the
+			// bindings that also appear in other and that are lifted to
+			// themselves, and we lift the remaining keys
+			PersistentHashMap<K, V> mine = (PersistentHashMap<K, V>) this.function;
+			Set<K> different = new HashSet<>(mine.differentKeys((PersistentHashMap<K, V>) other.function));
+			function = mkNewFunction(mine, false);
+			shared = new HashSet<>();
+			for (K key : mine.keySet())
+				if (keys.contains(key) && !different.contains(key))
+					shared.add(key);
+				else
+					function.remove(key);
+		} else {
+			function = mkNewFunction(null, false);
+			shared = Collections.emptySet();
+		}
+
 		for (K key : keys)
-			try {
-				function.put(key, valueLifter.lift(getState(key), other.getState(key)));
-			} catch (SemanticException e) {
-				throw new SemanticException("Exception during functional lifting of key '" + key + "'", e);
-			}
+			if (!shared.contains(key))
+				try {
+					function.put(key, valueLifter.lift(getState(key), other.getState(key)));
+				} catch (SemanticException e) {
+					throw new SemanticException("Exception during functional lifting of key '" + key + "'", e);
+				}
 		return mk(lattice.lub(other.lattice), function);
 	}
 
@@ -254,8 +285,14 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public boolean lessOrEqualAux(F other) throws SemanticException {
-		for (K key : function.keySet())
+		Collection<K> keys = function.keySet();
+		if (function instanceof PersistentHashMap && other.function instanceof PersistentHashMap)
+			// shared bindings are trivially in relation
+			keys = ((PersistentHashMap<K, V>) function).differentKeys((PersistentHashMap<K, V>) other.function);
+
+		for (K key : keys)
 			if (getState(key) != null && (!getState(key).lessOrEqual(other.getState(key))))
 				return false;
 
@@ -305,7 +342,7 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 		if (function == null) {
 			if (other.function != null)
 				return false;
-		} else if (!function.equals(other.function))
+		} else if (!sameMappings(function, other.function))
 			return false;
 		if (lattice == null) {
 			if (other.lattice != null)
@@ -315,6 +352,22 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 		return true;
 	}
 
+	@SuppressWarnings("unchecked")
+	private static boolean sameMappings(Map<?, ?> first, Map<?, ?> second) {
+		if (!(first instanceof PersistentHashMap) || !(second instanceof PersistentHashMap))
+			return first.equals(second);
+
+		if (first.size() != second.size())
+			return false;
+
+		PersistentHashMap<Object, Object> f = (PersistentHashMap<Object, Object>) first;
+		PersistentHashMap<Object, Object> s = (PersistentHashMap<Object, Object>) second;
+		for (Object key : f.differentKeys(s))
+			if (!s.containsKey(key) || !Objects.equals(f.get(key), s.get(key)))
+				return false;
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		if (isTop())
@@ -12,8 +12,10 @@ import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.util.collections.CollectionsDiffBuilder;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
@@ -276,11 +278,21 @@ public abstract class Environment<M extends Environment<M, E, T, V>,
 		return new MapRepresentation(function, StringRepresentation::new, NonRelationalElement::representation);
 	}
 
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * Identifiers are paired by name. If more identifiers share the same name
+	 * (e.g., the weak and strong versions of a heap location), they are paired
+	 * strong ones first, so that the result does not depend on the iteration
+	 * order of the given sets.
+	 */
 	@Override
 	public Set<Identifier> lubKeys(Set<Identifier> k1, Set<Identifier> k2) throws SemanticException {
 		Set<Identifier> keys = new HashSet<>();
-		CollectionsDiffBuilder<Identifier> builder = new CollectionsDiffBuilder<>(Identifier.class, k1,
-				k2);
+		CollectionsDiffBuilder<Identifier> builder = new CollectionsDiffBuilder<>(Identifier.class, sorted(k1),
+				sorted(k2));
+		// the sort performed by the builder is stable: identifiers with the
+		// same name keep the order given by sorted()
 		builder.compute(Comparator.comparing(Identifier::getName));
 		keys.addAll(builder.getOnlyFirst());
 		keys.addAll(builder.getOnlySecond());
@@ -292,4 +304,12 @@ public abstract class Environment<M extends Environment<M, E, T, V>,
 			}
 		return keys;
 	}
+
+	private static List<Identifier> sorted(Set<Identifier> ids) {
+		List<Identifier> result = new ArrayList<>(ids);
+		result.sort(Comparator.comparing(Identifier::getName)
+				.thenComparing(Identifier::isWeak)
+				.thenComparing(id -> id.getClass().getName()));
+		return result;
+	}
 }
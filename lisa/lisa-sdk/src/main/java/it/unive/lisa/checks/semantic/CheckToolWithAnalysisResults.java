@@ -1,12 +1,15 @@
 package it.unive.lisa.checks.semantic;
 
+import it.unive.lisa.AnalysisExecutionException;
 import it.unive.lisa.LiSAConfiguration;
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.checks.syntactic.CheckTool;
+import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
 import it.unive.lisa.program.cfg.CFG;
@@ -14,6 +17,7 @@ import it.unive.lisa.program.cfg.CodeMember;
 import it.unive.lisa.program.cfg.statement.call.Call;
 import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
 import it.unive.lisa.util.file.FileManager;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
 
@@ -37,6 +41,18 @@ public class CheckToolWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 
 	private final CallGraph callgraph;
 
+	private final InterproceduralAnalysis<A, H, V, T> interproc;
+
+	/**
+	 * The cfg whose results have been expanded last
+	 */
+	private CFG expandedCfg;
+
+	/**
+	 * The expanded results of {@link #expandedCfg}
+	 */
+	private Collection<CFGWithAnalysisResults<A, H, V, T>> expanded;
+
 	/**
 	 * Builds the tool, storing the given results.
 	 * 
@@ -52,6 +68,7 @@ public class CheckToolWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 		super(configuration, fileManager);
 		this.results = results;
 		this.callgraph = callgraph;
+		this.interproc = null;
 	}
 
 	/**
@@ -64,9 +81,31 @@ public class CheckToolWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 	public CheckToolWithAnalysisResults(CheckTool other,
 			Map<CFG, Collection<CFGWithAnalysisResults<A, H, V, T>>> results,
 			CallGraph callgraph) {
+		this(other, results, callgraph, null);
+	}
+
+	/**
+	 * Builds the tool, copying the given tool and storing the given results.
+	 * Results that do not hold the states of all statements and expressions
+	 * (see {@link LiSAConfiguration.ResultRetentionPolicy}) are expanded
+	 * through {@code interproc} when they are requested. Only the expanded
+	 * results of the last requested cfg are kept, so that checks visiting a
+	 * cfg expand it once while not holding the complete results of all cfgs.
+	 * 
+	 * @param other     the tool to copy
+	 * @param results   the results to store
+	 * @param callgraph the callgraph that has been built during the analysis
+	 * @param interproc the interprocedural analysis that produced the results
+	 *                      (might be {@code null})
+	 */
+	public CheckToolWithAnalysisResults(CheckTool other,
+			Map<CFG, Collection<CFGWithAnalysisResults<A, H, V, T>>> results,
+			CallGraph callgraph,
+			InterproceduralAnalysis<A, H, V, T> interproc) {
 		super(other);
 		this.results = results;
 		this.callgraph = callgraph;
+		this.interproc = interproc;
 	}
 
 	/**
@@ -76,9 +115,32 @@ public class CheckToolWithAnalysisResults<A extends AbstractState<A, H, V, T>,
 	 * @param cfg the cfg whose results are to be retrieved
 	 * 
 	 * @return the results on the given cfg
+	 * 
+	 * @throws AnalysisExecutionException if the results need to be
+	 *                                        recomputed and the computation
+	 *                                        fails
 	 */
 	public Collection<CFGWithAnalysisResults<A, H, V, T>> getResultOf(CFG cfg) {
-		return results.get(cfg);
+		Collection<CFGWithAnalysisResults<A, H, V, T>> stored = results.get(cfg);
+		if (interproc == null || stored == null || stored.stream().allMatch(CFGWithAnalysisResults::isComplete))
+			return stored;
+
+		if (cfg == expandedCfg)
+			return expanded;
+
+		// the previous results are released before computing the new ones
+		expandedCfg = null;
+		expanded = null;
+		Collection<CFGWithAnalysisResults<A, H, V, T>> res = new ArrayList<>(stored.size());
+		for (CFGWithAnalysisResults<A, H, V, T> result : stored)
+			try {
+				res.add(interproc.expand(result));
+			} catch (SemanticException e) {
+				throw new AnalysisExecutionException("Unable to recompute the results of " + cfg, e);
+			}
+		expandedCfg = cfg;
+		expanded = res;
+		return res;
 	}
 
 	/**
@@ -1,5 +1,7 @@
 package it.unive.lisa.interprocedural;
 
+import it.unive.lisa.FixpointConfiguration;
+import it.unive.lisa.LiSAConfiguration;
 import it.unive.lisa.LiSAConfiguration.DescendingPhaseType;
 import it.unive.lisa.analysis.*;
 import it.unive.lisa.analysis.heap.HeapDomain;
@@ -59,10 +61,33 @@ public interface InterproceduralAnalysis<A extends AbstractState<A, H, V, T>,
 	 * Computes a fixpoint over the whole control flow graph, producing a
 	 * {@link CFGWithAnalysisResults} for each {@link CFG} contained in this
 	 * analysis. Each result is computed with
-	 * {@link CFG#fixpoint(AnalysisState, InterproceduralAnalysis, WorkingSet, int)}
+	 * {@link CFG#fixpoint(AnalysisState, InterproceduralAnalysis, WorkingSet, FixpointConfiguration)}
 	 * or one of its overloads. Results of individual cfgs are then available
 	 * through {@link #getAnalysisResultsOf(CFG)}.
 	 * 
+	 * @param entryState         the entry state for the {@link CFG}s that are
+	 *                               the entrypoints of the computation
+	 * @param fixpointWorkingSet the concrete class of {@link WorkingSet} to be
+	 *                               used in fixpoints.
+	 * @param conf               the {@link FixpointConfiguration} containing
+	 *                               the parameters tuning fixpoint behavior
+	 * 
+	 * @throws FixpointException if something goes wrong while evaluating the
+	 *                               fixpoint
+	 */
+	void fixpoint(AnalysisState<A, H, V, T> entryState,
+			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
+			FixpointConfiguration conf)
+			throws FixpointException;
+
+	/**
+	 * Computes a fixpoint over the whole control flow graph, producing a
+	 * {@link CFGWithAnalysisResults} for each {@link CFG} contained in this
+	 * analysis. This is equivalent to
+	 * {@link #fixpoint(AnalysisState, Class, FixpointConfiguration)}, using a
+	 * {@link FixpointConfiguration} built from the given parameters and the
+	 * default values of {@link LiSAConfiguration} for all the other ones.
+	 * 
 	 * @param entryState             the entry state for the {@link CFG}s that
 	 *                                   are the entrypoints of the computation
 	 * @param fixpointWorkingSet     the concrete class of {@link WorkingSet} to
@@ -84,10 +109,13 @@ public interface InterproceduralAnalysis<A extends AbstractState<A, H, V, T>,
 	 * @throws FixpointException if something goes wrong while evaluating the
 	 *                               fixpoint
 	 */
-	void fixpoint(AnalysisState<A, H, V, T> entryState,
+	default void fixpoint(AnalysisState<A, H, V, T> entryState,
 			Class<? extends WorkingSet<Statement>> fixpointWorkingSet,
 			int wideningThreshold, DescendingPhaseType descendingPhase, int descendingGlbThreshold)
-			throws FixpointException;
+			throws FixpointException {
+		fixpoint(entryState, fixpointWorkingSet,
+				new FixpointConfiguration(wideningThreshold, descendingPhase, descendingGlbThreshold));
+	}
 
 	/**
 	 * Yields the results of the given analysis, identified by its class, on the
@@ -101,6 +129,25 @@ public interface InterproceduralAnalysis<A extends AbstractState<A, H, V, T>,
 	 */
 	Collection<CFGWithAnalysisResults<A, H, V, T>> getAnalysisResultsOf(CFG cfg);
 
+	/**
+	 * Yields a version of the given result, as returned by
+	 * {@link #getAnalysisResultsOf(CFG)}, that holds the results of all the
+	 * statements and expressions of its cfg. Analyses that store only part of
+	 * their results (see {@link LiSAConfiguration.ResultRetentionPolicy})
+	 * recompute the missing ones, while the default implementation returns
+	 * {@code result} unchanged.
+	 * 
+	 * @param result the result to expand
+	 * 
+	 * @return the expanded result
+	 * 
+	 * @throws SemanticException if something goes wrong during the computation
+	 */
+	default CFGWithAnalysisResults<A, H, V, T> expand(CFGWithAnalysisResults<A, H, V, T> result)
+			throws SemanticException {
+		return result;
+	}
+
 	/**
 	 * Computes an analysis state that abstracts the execution of the possible
 	 * targets considering that they were given {@code parameters} as actual
@@ -40,9 +40,40 @@ public abstract class BaseCallGraph extends BaseGraph<BaseCallGraph, CallGraphNo
 
 	private final Map<UnresolvedCall, Call> resolvedCache = new IdentityHashMap<>();
 
+	/**
+	 * The non-instance code members of the application, indexed by name.
+	 */
+	private final Map<String, Collection<CodeMember>> membersByName = new HashMap<>();
+
+	/**
+	 * The non-instance code members of the application, indexed by the name
+	 * of their unit and then by their name.
+	 */
+	private final Map<String, Map<String, Collection<CodeMember>>> membersByQualifiedName = new HashMap<>();
+
+	/**
+	 * The instance code members defined in each unit (without traversing the
+	 * hierarchy), indexed by name. This is lazily populated the first time a
+	 * unit is inspected.
+	 */
+	private final Map<CompilationUnit,
+			Map<String, Collection<CodeMember>>> instanceMembersByName = new IdentityHashMap<>();
+
 	@Override
 	public void init(Application app) throws CallGraphConstructionException {
 		this.app = app;
+
+		membersByName.clear();
+		membersByQualifiedName.clear();
+		instanceMembersByName.clear();
+		for (CodeMember cm : app.getAllCodeCodeMembers()) {
+			CodeMemberDescriptor descr = cm.getDescriptor();
+			if (descr.isInstance())
+				continue;
+			membersByName.computeIfAbsent(descr.getName(), n -> new LinkedList<>()).add(cm);
+			membersByQualifiedName.computeIfAbsent(descr.getUnit().getName(), q -> new HashMap<>())
+					.computeIfAbsent(descr.getName(), n -> new LinkedList<>()).add(cm);
+		}
 	}
 
 	@Override
@@ -284,10 +315,89 @@ public abstract class BaseCallGraph extends BaseGraph<BaseCallGraph, CallGraphNo
 	public void resolveNonInstance(UnresolvedCall call, Set<Type>[] types, Collection<CFG> targets,
 			Collection<NativeCFG> natives, SymbolAliasing aliasing)
 			throws CallResolutionException {
-		for (CodeMember cm : app.getAllCodeCodeMembers())
+		if (aliasing.isTop()) {
+			// any member might be aliased to the target of the call
+			for (CodeMember cm : app.getAllCodeCodeMembers())
+				checkMember(call, types, targets, natives, aliasing, cm, false);
+			return;
+		}
+
+		Set<String> names = candidateNames(call, aliasing);
+		Set<CodeMember> candidates = new HashSet<>();
+		if (StringUtils.isBlank(call.getQualifier()))
+			for (String name : names)
+				candidates.addAll(membersByName.getOrDefault(name, Collections.emptyList()));
+		else
+			for (String qualifier : candidateQualifiers(call, aliasing)) {
+				Map<String, Collection<CodeMember>> members = membersByQualifiedName.get(qualifier);
+				if (members != null)
+					for (String name : names)
+						candidates.addAll(members.getOrDefault(name, Collections.emptyList()));
+			}
+
+		for (CodeMember cm : candidates)
 			checkMember(call, types, targets, natives, aliasing, cm, false);
 	}
 
+	/**
+	 * Yields the names that code members must have to be possible targets of
+	 * the given call: these are the target name of the call, together with the
+	 * names of all members that are aliased (through {@link NameSymbol}s or
+	 * {@link QualifiedNameSymbol}s) to that name.
+	 * 
+	 * @param call     the call to resolve
+	 * @param aliasing the symbol aliasing information
+	 * 
+	 * @return the candidate names
+	 */
+	private static Set<String> candidateNames(UnresolvedCall call, SymbolAliasing aliasing) {
+		String target = call.getTargetName();
+		Set<String> names = new HashSet<>();
+		names.add(target);
+		for (Map.Entry<Symbol, Aliases> entry : aliasing) {
+			Symbol key = entry.getKey();
+			if (key instanceof NameSymbol) {
+				for (NameSymbol alias : entry.getValue().castElements(NameSymbol.class))
+					if (alias.getName().equals(target))
+						names.add(((NameSymbol) key).getName());
+			} else if (key instanceof QualifiedNameSymbol)
+				for (QualifiedNameSymbol alias : entry.getValue().castElements(QualifiedNameSymbol.class))
+					if (alias.getName().equals(target))
+						names.add(((QualifiedNameSymbol) key).getName());
+		}
+		return names;
+	}
+
+	/**
+	 * Yields the names that the units defining code members must have to be
+	 * possible targets of the given call, whose qualifier is assumed to be not
+	 * blank: these are the qualifier of the call, together with the names of
+	 * all units that are aliased (through {@link QualifierSymbol}s or
+	 * {@link QualifiedNameSymbol}s) to that qualifier.
+	 * 
+	 * @param call     the call to resolve
+	 * @param aliasing the symbol aliasing information
+	 * 
+	 * @return the candidate qualifiers
+	 */
+	private static Set<String> candidateQualifiers(UnresolvedCall call, SymbolAliasing aliasing) {
+		String target = call.getQualifier();
+		Set<String> qualifiers = new HashSet<>();
+		qualifiers.add(target);
+		for (Map.Entry<Symbol, Aliases> entry : aliasing) {
+			Symbol key = entry.getKey();
+			if (key instanceof QualifierSymbol) {
+				for (QualifierSymbol alias : entry.getValue().castElements(QualifierSymbol.class))
+					if (alias.getQualifier().equals(target))
+						qualifiers.add(((QualifierSymbol) key).getQualifier());
+			} else if (key instanceof QualifiedNameSymbol)
+				for (QualifiedNameSymbol alias : entry.getValue().castElements(QualifiedNameSymbol.class))
+					if (alias.getQualifier().equals(target))
+						qualifiers.add(((QualifiedNameSymbol) key).getQualifier());
+		}
+		return qualifiers;
+	}
+
 	/**
 	 * Resolves the given call as an instance call.
 	 * 
@@ -311,6 +421,7 @@ public abstract class BaseCallGraph extends BaseGraph<BaseCallGraph, CallGraphNo
 			throw new CallResolutionException(
 					"An instance call should have at least one parameter to be used as the receiver of the call");
 		Expression receiver = call.getParameters()[0];
+		Set<String> names = aliasing.isTop() ? null : candidateNames(call, aliasing);
 		for (Type recType : getPossibleTypesOfReceiver(receiver, types[0])) {
 			CompilationUnit unit;
 			if (recType.isUnitType())
@@ -325,11 +436,26 @@ public abstract class BaseCallGraph extends BaseGraph<BaseCallGraph, CallGraphNo
 			for (CompilationUnit cu : strategy.traverse(call, unit))
 				if (seen.add(cu))
 					// we inspect only the ones of the current unit
-					for (CodeMember cm : cu.getInstanceCodeMembers(false))
-						checkMember(call, types, targets, natives, aliasing, cm, true);
+					if (names == null)
+						for (CodeMember cm : cu.getInstanceCodeMembers(false))
+							checkMember(call, types, targets, natives, aliasing, cm, true);
+					else {
+						Map<String, Collection<CodeMember>> members = instanceMembersByName.computeIfAbsent(cu,
+								BaseCallGraph::indexInstanceMembers);
+						for (String name : names)
+							for (CodeMember cm : members.getOrDefault(name, Collections.emptyList()))
+								checkMember(call, types, targets, natives, aliasing, cm, true);
+					}
 		}
 	}
 
+	private static Map<String, Collection<CodeMember>> indexInstanceMembers(CompilationUnit unit) {
+		Map<String, Collection<CodeMember>> index = new HashMap<>();
+		for (CodeMember cm : unit.getInstanceCodeMembers(false))
+			index.computeIfAbsent(cm.getDescriptor().getName(), n -> new LinkedList<>()).add(cm);
+		return index;
+	}
+
 	/**
 	 * Checks if the given code member {@code cm} is a candidate target for the
 	 * given call, and proceeds to add it to the set of targets if it is.
@@ -409,7 +535,10 @@ public abstract class BaseCallGraph extends BaseGraph<BaseCallGraph, CallGraphNo
 
 	/**
 	 * Matches the name (qualifier + target name) of the given call against the
-	 * given code member.
+	 * given code member. Note that, unless the aliasing information is top,
+	 * candidate code members are retrieved by looking up their name and
+	 * qualifier in an index: overriders should thus only restrict the
+	 * matching, never relax it.
 	 * 
 	 * @param call      the call to match
 	 * @param qualifier the qualifier (name of the defining unit) of the code
@@ -0,0 +1,344 @@
+package it.unive.lisa.logging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A collector of metrics about the fixpoints executed during an analysis.
+ * Metrics are grouped by graph (identified by a name, e.g. the signature of a
+ * cfg) and by context (e.g. the context sensitivity token used by an
+ * interprocedural analysis), and include the number of iterations on each
+ * node, the time spent in each {@link Phase} of the fixpoint, the high-water
+ * mark of the working set and the number of times a graph has been scheduled
+ * for a new analysis after the results of its callees changed.<br>
+ * <br>
+ * Instances of this class can be shared among threads. To keep the overhead
+ * low, each fixpoint records its own metrics through a single-threaded
+ * {@link Recorder}, that is merged into striped counters only once, when
+ * {@link Recorder#flush()} is invoked.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class FixpointMetrics {
+
+	/**
+	 * The phases of a fixpoint whose execution time is measured.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static enum Phase {
+
+		/**
+		 * The computation of the semantics of a node. Since the semantics of
+		 * calls might compute the fixpoint of other graphs, this time includes
+		 * the one spent in such nested fixpoints.
+		 */
+		SEMANTICS,
+
+		/**
+		 * The traversal of an edge.
+		 */
+		TRAVERSE,
+
+		/**
+		 * The least upper bounds, both the ones computing the entry state of a
+		 * node and the ones joining the results of different iterations.
+		 */
+		LUB,
+
+		/**
+		 * The widenings joining the results of different iterations.
+		 */
+		WIDENING,
+
+		/**
+		 * The narrowings applied during descending phases.
+		 */
+		NARROWING,
+
+		/**
+		 * The greatest lower bounds applied during descending phases.
+		 */
+		GLB,
+
+		/**
+		 * The comparisons between the results of different iterations.
+		 */
+		LESS_OR_EQUAL;
+
+		private String key() {
+			return name().toLowerCase();
+		}
+	}
+
+	/**
+	 * The context used for fixpoints that are not computed in any specific
+	 * context.
+	 */
+	public static final String NO_CONTEXT = "";
+
+	/**
+	 * The metrics of each graph, indexed by name
+	 */
+	private final Map<String, GraphMetrics> graphs = new ConcurrentHashMap<>();
+
+	private GraphMetrics graph(String graph) {
+		return graphs.computeIfAbsent(graph, g -> new GraphMetrics());
+	}
+
+	/**
+	 * Yields a new {@link Recorder} for a fixpoint over the given graph,
+	 * computed in the given context. The recorder is not thread-safe, and its
+	 * metrics are made visible to this object when {@link Recorder#flush()} is
+	 * invoked.
+	 * 
+	 * @param graph   the name of the graph
+	 * @param context the context of the fixpoint (can be {@code null})
+	 * 
+	 * @return the recorder
+	 */
+	public Recorder recorder(String graph, String context) {
+		return new Recorder(graph(graph).context(context == null ? NO_CONTEXT : context));
+	}
+
+	/**
+	 * Records that the results of the given graph have been discarded, and
+	 * that it will be analyzed again, since the results of one of its callees
+	 * changed.
+	 * 
+	 * @param graph the name of the graph
+	 */
+	public void reanalysis(String graph) {
+		graph(graph).reanalyses.increment();
+	}
+
+	/**
+	 * Yields whether or not no metric has been recorded.
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isEmpty() {
+		return graphs.isEmpty();
+	}
+
+	/**
+	 * Yields a summary of the metrics of each graph, aggregated over all the
+	 * contexts it has been analyzed in, in the form of a property bag for each
+	 * graph. Iterations on each node are summed over contexts, and times are
+	 * expressed in milliseconds.
+	 * 
+	 * @return a map from the name of each graph to its summary
+	 */
+	public Map<String, Map<String, String>> toPropertyBags() {
+		Map<String, Map<String, String>> bags = new TreeMap<>();
+		for (Entry<String, GraphMetrics> graph : graphs.entrySet()) {
+			Map<String, String> bag = new TreeMap<>();
+			long runs = 0, iterations = 0, maxIterations = 0, maxWorkingSet = 0;
+			long[] times = new long[Phase.values().length];
+			Map<Object, Long> nodes = new HashMap<>();
+			for (ContextMetrics ctx : graph.getValue().contexts.values()) {
+				runs += ctx.runs.sum();
+				maxWorkingSet = Math.max(maxWorkingSet, ctx.maxWorkingSet.get());
+				for (Phase phase : Phase.values())
+					times[phase.ordinal()] += ctx.times[phase.ordinal()].sum();
+				for (Entry<Object, LongAdder> node : ctx.iterations.entrySet())
+					nodes.merge(node.getKey(), node.getValue().sum(), Long::sum);
+			}
+
+			Object hottest = null;
+			for (Entry<Object, Long> node : nodes.entrySet()) {
+				iterations += node.getValue();
+				// ties are broken on the description to keep reports stable
+				if (node.getValue() > maxIterations || (node.getValue() == maxIterations
+						&& hottest != null && describe(node.getKey()).compareTo(describe(hottest)) < 0)) {
+					maxIterations = node.getValue();
+					hottest = node.getKey();
+				}
+			}
+
+			bag.put("contexts", String.valueOf(graph.getValue().contexts.size()));
+			bag.put("runs", String.valueOf(runs));
+			bag.put("reanalyses", String.valueOf(graph.getValue().reanalyses.sum()));
+			bag.put("iterations", String.valueOf(iterations));
+			bag.put("maxNodeIterations", String.valueOf(maxIterations));
+			if (hottest != null)
+				bag.put("maxIterationsNode", describe(hottest));
+			bag.put("maxWorkingSet", String.valueOf(maxWorkingSet));
+			for (Phase phase : Phase.values())
+				bag.put(phase.key() + "Time",
+						String.valueOf(TimeUnit.NANOSECONDS.toMillis(times[phase.ordinal()])));
+			bags.put(graph.getKey(), bag);
+		}
+		return bags;
+	}
+
+	/**
+	 * Dumps all the metrics collected by this object to the given
+	 * {@link Writer} instance, serializing them as a json object. Differently
+	 * from {@link #toPropertyBags()}, metrics are not aggregated over
+	 * contexts, the number of iterations on each node is included, and times
+	 * are expressed in nanoseconds.
+	 * 
+	 * @param writer the writer to write to
+	 * 
+	 * @throws IOException if some I/O error happens while writing to the writer
+	 */
+	public void dump(Writer writer) throws IOException {
+		Map<String, Object> json = new TreeMap<>();
+		for (Entry<String, GraphMetrics> graph : graphs.entrySet()) {
+			Map<String, Object> contexts = new TreeMap<>();
+			for (Entry<String, ContextMetrics> ctx : graph.getValue().contexts.entrySet()) {
+				ContextMetrics metrics = ctx.getValue();
+				Map<String, Long> times = new TreeMap<>();
+				for (Phase phase : Phase.values())
+					times.put(phase.key(), metrics.times[phase.ordinal()].sum());
+				Map<String, Long> nodes = new TreeMap<>();
+				for (Entry<Object, LongAdder> node : metrics.iterations.entrySet())
+					nodes.merge(describe(node.getKey()), node.getValue().sum(), Long::sum);
+
+				Map<String, Object> context = new TreeMap<>();
+				context.put("runs", metrics.runs.sum());
+				context.put("maxWorkingSet", metrics.maxWorkingSet.get());
+				context.put("times", times);
+				context.put("iterations", nodes);
+				contexts.put(ctx.getKey(), context);
+			}
+
+			Map<String, Object> metrics = new TreeMap<>();
+			metrics.put("reanalyses", graph.getValue().reanalyses.sum());
+			metrics.put("contexts", contexts);
+			json.put(graph.getKey(), metrics);
+		}
+
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+		mapper.writeValue(writer, json);
+	}
+
+	private static String describe(Object node) {
+		if (node instanceof ProgramPoint)
+			return node + " at " + ((ProgramPoint) node).getLocation();
+		return String.valueOf(node);
+	}
+
+	@Override
+	public String toString() {
+		return toPropertyBags().toString();
+	}
+
+	/**
+	 * The metrics of a single graph.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	private static class GraphMetrics {
+
+		private final LongAdder reanalyses = new LongAdder();
+
+		private final Map<String, ContextMetrics> contexts = new ConcurrentHashMap<>();
+
+		private ContextMetrics context(String context) {
+			return contexts.computeIfAbsent(context, c -> new ContextMetrics());
+		}
+	}
+
+	/**
+	 * The metrics of the fixpoints over a graph in a single context.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	private static class ContextMetrics {
+
+		private final LongAdder runs = new LongAdder();
+
+		private final LongAdder[] times = new LongAdder[Phase.values().length];
+
+		private final Map<Object, LongAdder> iterations = new ConcurrentHashMap<>();
+
+		private final LongAccumulator maxWorkingSet = new LongAccumulator(Math::max, 0);
+
+		private ContextMetrics() {
+			for (int i = 0; i < times.length; i++)
+				times[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * A single-threaded recorder of the metrics of one fixpoint execution.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static class Recorder {
+
+		private final ContextMetrics target;
+
+		private final Map<Object, Integer> iterations = new HashMap<>();
+
+		private final Map<Phase, Long> times = new EnumMap<>(Phase.class);
+
+		private int maxWorkingSet;
+
+		private Recorder(ContextMetrics target) {
+			this.target = target;
+		}
+
+		/**
+		 * Records an iteration of the fixpoint on the given node.
+		 * 
+		 * @param node the node
+		 */
+		public void iteration(Object node) {
+			iterations.merge(node, 1, Integer::sum);
+		}
+
+		/**
+		 * Records the current size of the working set of the fixpoint.
+		 * 
+		 * @param size the size of the working set
+		 */
+		public void workingSet(int size) {
+			if (size > maxWorkingSet)
+				maxWorkingSet = size;
+		}
+
+		/**
+		 * Records that the given amount of time has been spent in the given
+		 * phase.
+		 * 
+		 * @param phase the phase
+		 * @param nanos the elapsed time, in nanoseconds
+		 */
+		public void time(Phase phase, long nanos) {
+			times.merge(phase, nanos, Long::sum);
+		}
+
+		/**
+		 * Merges the metrics recorded so far into the {@link FixpointMetrics}
+		 * that created this recorder, and resets this recorder. This method
+		 * counts as the end of a fixpoint execution.
+		 */
+		public void flush() {
+			target.runs.increment();
+			target.maxWorkingSet.accumulate(maxWorkingSet);
+			for (Entry<Phase, Long> time : times.entrySet())
+				target.times[time.getKey().ordinal()].add(time.getValue());
+			for (Entry<Object, Integer> node : iterations.entrySet())
+				target.iterations.computeIfAbsent(node.getKey(), n -> new LongAdder()).add(node.getValue());
+			iterations.clear();
+			times.clear();
+			maxWorkingSet = 0;
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package it.unive.lisa.outputs.compare;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import it.unive.lisa.outputs.json.JsonReport;
 import it.unive.lisa.outputs.json.JsonReport.JsonWarning;
 import it.unive.lisa.outputs.serializableGraph.*;
@@ -79,7 +82,13 @@ public class JsonReportComparer {
 		 * Indicates that the difference was found in the collection of
 		 * generated files.
 		 */
-		FILES;
+		FILES,
+
+		/**
+		 * Indicates that the difference was found in the metrics of the
+		 * fixpoints executed during the analysis.
+		 */
+		METRICS;
 	}
 
 	/**
@@ -132,6 +141,22 @@ public class JsonReportComparer {
 		 * @param second the value in the second report
 		 */
 		void configurationDiff(String key, String first, String second);
+
+		/**
+		 * Callback invoked by a {@link JsonReportComparer} whenever a metric of
+		 * the fixpoints executed on a graph is mapped to two different values.
+		 * The default implementation forwards the difference to
+		 * {@link #infoDiff(String, String, String)}, prefixing the key with the
+		 * name of the graph.
+		 * 
+		 * @param graph  the name of the graph
+		 * @param key    the metric key
+		 * @param first  the value in the first report
+		 * @param second the value in the second report
+		 */
+		default void metricsDiff(String graph, String key, String first, String second) {
+			infoDiff(graph + "::" + key, first, second);
+		}
 	}
 
 	/**
@@ -187,9 +212,10 @@ public class JsonReportComparer {
 		boolean sameConfs = compareConfs(first, second, reporter);
 		boolean sameInfos = compareInfos(first, second, reporter);
 		boolean sameWarnings = compareWarnings(first, second, reporter);
+		boolean sameMetrics = compareMetrics(first, second, reporter);
 		CollectionsDiffBuilder<String> files = compareFiles(first, second, reporter);
 
-		if (!sameConfs || !sameInfos || !sameWarnings || !files.sameContent())
+		if (!sameConfs || !sameInfos || !sameWarnings || !sameMetrics || !files.sameContent())
 			return false;
 
 		boolean diffFound = compareFileContents(firstFileRoot, secondFileRoot, reporter, files);
@@ -214,7 +240,9 @@ public class JsonReportComparer {
 				continue;
 
 			String ext = FilenameUtils.getExtension(left.getName());
-			if (ext.endsWith("json"))
+			if (FilenameUtils.getName(left.getName()).equals("metrics.json"))
+				diffFound |= matchJsonMetrics(reporter, left, right);
+			else if (ext.endsWith("json"))
 				diffFound |= matchJsonGraphs(reporter, left, right);
 			else if (ext.equals("dot")
 					|| ext.equals("graphml")
@@ -262,6 +290,30 @@ public class JsonReportComparer {
 				key -> INFO_BLACKLIST.contains(key));
 	}
 
+	private static boolean compareMetrics(JsonReport first, JsonReport second,
+			DiffReporter reporter) {
+		Map<String, Map<String, String>> fmetrics = first.getMetrics();
+		Map<String, Map<String, String>> smetrics = second.getMetrics();
+		CollectionsDiffBuilder<
+				String> builder = new CollectionsDiffBuilder<>(String.class, fmetrics.keySet(), smetrics.keySet());
+		builder.compute(String::compareTo);
+
+		if (!builder.getOnlyFirst().isEmpty())
+			reporter.report(REPORTED_COMPONENT.METRICS, REPORT_TYPE.ONLY_FIRST, builder.getOnlyFirst());
+		if (!builder.getOnlySecond().isEmpty())
+			reporter.report(REPORTED_COMPONENT.METRICS, REPORT_TYPE.ONLY_SECOND, builder.getOnlySecond());
+
+		boolean same = builder.sameContent();
+		for (Pair<String, String> entry : builder.getCommons()) {
+			String graph = entry.getKey();
+			same &= compareBags(REPORTED_COMPONENT.METRICS, fmetrics.get(graph), smetrics.get(graph), reporter,
+					(key, fvalue, svalue) -> reporter.metricsDiff(graph, key, fvalue, svalue),
+					// times depend on the machine running the analysis
+					key -> key.endsWith("Time"));
+		}
+		return same;
+	}
+
 	private static boolean compareBags(REPORTED_COMPONENT component, Map<String, String> first,
 			Map<String, String> second, DiffReporter reporter, TriConsumer<String, String, String> diffReporter,
 			Predicate<String> ignore) {
@@ -308,6 +360,30 @@ public class JsonReportComparer {
 		return warnings.sameContent();
 	}
 
+	private static boolean matchJsonMetrics(DiffReporter reporter, File left, File right)
+			throws IOException, FileNotFoundException {
+		try (Reader l = new InputStreamReader(new FileInputStream(left), StandardCharsets.UTF_8);
+				Reader r = new InputStreamReader(new FileInputStream(right), StandardCharsets.UTF_8)) {
+			ObjectMapper mapper = new ObjectMapper();
+			JsonNode leftMetrics = withoutTimes(mapper.readTree(l));
+			JsonNode rightMetrics = withoutTimes(mapper.readTree(r));
+			if (leftMetrics.equals(rightMetrics))
+				return false;
+
+			reporter.fileDiff(left.toString(), right.toString(), "Metrics are different");
+			return true;
+		}
+	}
+
+	private static JsonNode withoutTimes(JsonNode metrics) {
+		// times depend on the machine running the analysis
+		for (JsonNode graph : metrics)
+			for (JsonNode context : graph.path("contexts"))
+				if (context instanceof ObjectNode)
+					((ObjectNode) context).remove("times");
+		return metrics;
+	}
+
 	private static boolean matchJsonGraphs(DiffReporter reporter, File left, File right)
 			throws IOException, FileNotFoundException {
 		boolean diffFound = false;
@@ -438,6 +514,12 @@ public class JsonReportComparer {
 				else
 					LOG.warn("Configuration keys only in the second report:");
 				break;
+			case METRICS:
+				if (isFirst)
+					LOG.warn("Metrics only in the first report:");
+				else
+					LOG.warn("Metrics only in the second report:");
+				break;
 			default:
 				break;
 			}
@@ -460,6 +542,12 @@ public class JsonReportComparer {
 		public void configurationDiff(String key, String first, String second) {
 			LOG.warn("Different values for configuration key '" + key + "': '" + first + "' and '" + second + "'");
 		}
+
+		@Override
+		public void metricsDiff(String graph, String key, String first, String second) {
+			LOG.warn("Different values for metric '" + key + "' of '" + graph + "': '" + first + "' and '" + second
+					+ "'");
+		}
 	}
 
 	private static final String diff(SerializableValue first, SerializableValue second) {
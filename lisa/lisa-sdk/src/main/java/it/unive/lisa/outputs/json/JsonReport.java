@@ -1,11 +1,14 @@
 package it.unive.lisa.outputs.json;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import it.unive.lisa.LiSAConfiguration;
 import it.unive.lisa.LiSAReport;
 import it.unive.lisa.LiSARunInfo;
 import it.unive.lisa.checks.warnings.Warning;
+import it.unive.lisa.logging.FixpointMetrics;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
@@ -27,11 +30,13 @@ public class JsonReport {
 
 	private final Map<String, String> configuration;
 
+	private final Map<String, Map<String, String>> metrics;
+
 	/**
 	 * Builds an empty report.
 	 */
 	public JsonReport() {
-		this(Collections.emptyList(), Collections.emptyList(), Map.of(), Map.of());
+		this(Collections.emptyList(), Collections.emptyList(), Map.of(), Map.of(), Map.of());
 	}
 
 	/**
@@ -41,14 +46,17 @@ public class JsonReport {
 	 */
 	public JsonReport(LiSAReport report) {
 		this(report.getWarnings(), report.getCreatedFiles(), report.getInfo().toPropertyBag(),
-				report.getConfiguration().toPropertyBag());
+				report.getConfiguration().toPropertyBag(),
+				report.getInfo().getFixpointMetrics() == null ? Map.of()
+						: report.getInfo().getFixpointMetrics().toPropertyBags());
 	}
 
 	private JsonReport(Collection<Warning> warnings, Collection<String> files, Map<String, String> info,
-			Map<String, String> configuration) {
+			Map<String, String> configuration, Map<String, Map<String, String>> metrics) {
 		this.files = new TreeSet<>(files);
 		this.info = info;
 		this.configuration = configuration;
+		this.metrics = metrics;
 		this.warnings = new TreeSet<>();
 		for (Warning warn : warnings)
 			this.warnings.add(new JsonWarning(warn));
@@ -98,6 +106,21 @@ public class JsonReport {
 		return info;
 	}
 
+	/**
+	 * Yields the metrics of the fixpoints executed during the analysis, in the
+	 * form of a property bag for each analyzed cfg. This corresponds to the
+	 * object returned by {@link FixpointMetrics#toPropertyBags()}, and it is
+	 * empty if metrics have not been collected. Since times vary between runs,
+	 * metrics are ignored by {@link #equals(Object)}, while
+	 * {@link JsonReportComparer} compares them ignoring times.
+	 * 
+	 * @return the metrics
+	 */
+	@JsonInclude(value = Include.NON_EMPTY)
+	public Map<String, Map<String, String>> getMetrics() {
+		return metrics;
+	}
+
 	/**
 	 * Dumps this report to the given {@link Writer} instance, serializing it as
 	 * a json object.
@@ -174,7 +197,7 @@ public class JsonReport {
 	@Override
 	public String toString() {
 		return "JsonReport [warnings=" + warnings + ", files=" + files + ", info=" + info + ", configuration="
-				+ configuration + "]";
+				+ configuration + ", metrics=" + metrics + "]";
 	}
 
 	/**
@@ -1,11 +1,15 @@
 package it.unive.lisa.program.cfg;
 
+import it.unive.lisa.FixpointConfiguration;
 import it.unive.lisa.LiSAConfiguration.DescendingPhaseType;
+import it.unive.lisa.LiSAConfiguration.FixpointIterationStrategy;
 import it.unive.lisa.analysis.*;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.TypeDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
+import it.unive.lisa.logging.FixpointMetrics.Phase;
+import it.unive.lisa.logging.FixpointMetrics.Recorder;
 import it.unive.lisa.outputs.serializableGraph.SerializableCFG;
 import it.unive.lisa.outputs.serializableGraph.SerializableGraph;
 import it.unive.lisa.outputs.serializableGraph.SerializableValue;
@@ -27,10 +31,12 @@ import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix;
 import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint;
 import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint.FixpointImplementation;
 import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
 import it.unive.lisa.util.datastructures.graph.code.CodeGraph;
 import it.unive.lisa.util.datastructures.graph.code.NodeList;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -67,6 +73,15 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 	 */
 	private boolean cfsExtracted;
 
+	/**
+	 * The weak topological orders of this cfg, indexed by the set of starting
+	 * points they have been computed from. These are lazily computed by
+	 * fixpoints that use
+	 * {@link FixpointIterationStrategy#WEAK_TOPOLOGICAL_ORDER}, and they are
+	 * discarded whenever the structure of this cfg changes.
+	 */
+	private volatile Map<Set<Statement>, WeakTopologicalOrder<CFG, Statement, Edge>> orders;
+
 	/**
 	 * Builds the control flow graph.
 	 * 
@@ -97,15 +112,18 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 	}
 
 	/**
-	 * Clones the given control flow graph.
+	 * Clones the given control flow graph. The statements and edges of
+	 * {@code other} are not copied, but shared with the new cfg until one of
+	 * the two gets modified (see {@link #isShared()}).
 	 * 
 	 * @param other the original cfg
 	 */
 	public CFG(CFG other) {
-		super(other.entrypoints, other.list);
+		super(other, true);
 		this.descriptor = other.descriptor;
 		this.cfStructs = other.cfStructs;
 		this.cfsExtracted = other.cfsExtracted;
+		this.orders = other.orders;
 	}
 
 	/**
@@ -201,6 +219,95 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 	public void simplify() {
 		super.simplify(NoOp.class, new LinkedList<>(), new HashMap<>());
 		cfStructs.forEach(ControlFlowStructure::simplify);
+		orders = null;
+	}
+
+	@Override
+	public void addNode(Statement node, boolean entrypoint) {
+		super.addNode(node, entrypoint);
+		orders = null;
+	}
+
+	@Override
+	public void addEdge(Edge edge) {
+		super.addEdge(edge);
+		orders = null;
+	}
+
+	/**
+	 * Yields the {@link WeakTopologicalOrder} of this cfg starting from the
+	 * given statements, computing it only if it is not already available.
+	 * 
+	 * @param startingPoints the statements to start the decomposition from
+	 * 
+	 * @return the weak topological order
+	 */
+	private WeakTopologicalOrder<CFG, Statement, Edge> getWeakTopologicalOrder(Set<Statement> startingPoints) {
+		Map<Set<Statement>, WeakTopologicalOrder<CFG, Statement, Edge>> cache = orders;
+		if (cache == null) {
+			// concurrent fixpoints might create more than one cache, but
+			// only the orders stored in the last one will be reused
+			cache = new ConcurrentHashMap<>();
+			orders = cache;
+		}
+		return cache.computeIfAbsent(new HashSet<>(startingPoints), sp -> new WeakTopologicalOrder<>(this, sp));
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The computation uses
+	 * {@link Lattice#lub(Lattice)} to compose results obtained at different
+	 * iterations, up to {@code widenAfter * predecessors_number} times, where
+	 * {@code widenAfter} is {@link FixpointConfiguration#wideningThreshold} and
+	 * {@code predecessors_number} is the number of expressions that are
+	 * predecessors of the one being processed. After overcoming that threshold,
+	 * {@link Lattice#widening(Lattice)} is used. The computation starts at the
+	 * statements returned by {@link #getEntrypoints()}, using
+	 * {@code entryState} as entry state for all of them.
+	 * {@code interprocedural} will be invoked to get the approximation of all
+	 * invoked cfgs, while {@code ws} is used as working set for the statements
+	 * to process.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param <T>             the type of {@link TypeDomain} contained into the
+	 *                            computed abstract state
+	 * @param entryState      the entry states to apply to each
+	 *                            {@link Statement} returned by
+	 *                            {@link #getEntrypoints()}
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param ws              the {@link WorkingSet} instance to use for this
+	 *                            computation
+	 * @param conf            the {@link FixpointConfiguration} containing the
+	 *                            parameters tuning fixpoint behavior
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               unknown/invalid statement ends up in the
+	 *                               working set
+	 */
+	public <A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> CFGWithAnalysisResults<A, H, V, T> fixpoint(
+					AnalysisState<A, H, V, T> entryState,
+					InterproceduralAnalysis<A, H, V, T> interprocedural,
+					WorkingSet<Statement> ws,
+					FixpointConfiguration conf) throws FixpointException {
+		Map<Statement, AnalysisState<A, H, V, T>> start = new HashMap<>();
+		entrypoints.forEach(e -> start.put(e, entryState));
+		return fixpoint(entryState, start, interprocedural, ws, conf);
 	}
 
 	/**
@@ -268,9 +375,73 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 					int widenAfter,
 					DescendingPhaseType descendingPhase,
 					int descendingGlbThreshold) throws FixpointException {
+		return fixpoint(entryState, interprocedural, ws,
+				new FixpointConfiguration(widenAfter, descendingPhase, descendingGlbThreshold));
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph, starting from the
+	 * results of a previous fixpoint over it. This is equivalent to
+	 * {@link #fixpoint(AnalysisState, InterproceduralAnalysis, WorkingSet, FixpointConfiguration)},
+	 * but the results in {@code previous} are used as the initial
+	 * approximation of each statement, and all statements are processed at
+	 * least once. When the results of the cfgs invoked by this one have grown
+	 * since {@code previous} was computed, this avoids starting the
+	 * computation from scratch. The results of the ascending phase are always
+	 * greater or equal than {@code previous}, regardless of
+	 * {@link FixpointConfiguration#iterationStrategy}: with
+	 * {@link FixpointIterationStrategy#WEAK_TOPOLOGICAL_ORDER}, the results of
+	 * statements that are not loop heads are joined with their previous value
+	 * instead of replacing it. The descending phase, if any, might then refine
+	 * them below {@code previous}.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param <T>             the type of {@link TypeDomain} contained into the
+	 *                            computed abstract state
+	 * @param entryState      the entry states to apply to each
+	 *                            {@link Statement} in
+	 *                            {@link #getEntrypoints()}
+	 * @param interprocedural the callgraph that can be queried when a call
+	 *                            towards an other cfg is encountered
+	 * @param ws              the {@link WorkingSet} instance to use for this
+	 *                            computation
+	 * @param conf            the {@link FixpointConfiguration} containing the
+	 *                            parameters tuning fixpoint behavior
+	 * @param previous        the results of a previous fixpoint over this cfg
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               unknown/invalid statement ends up in the
+	 *                               working set
+	 */
+	public <A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> CFGWithAnalysisResults<A, H, V, T> fixpoint(
+					AnalysisState<A, H, V, T> entryState,
+					InterproceduralAnalysis<A, H, V, T> interprocedural,
+					WorkingSet<Statement> ws,
+					FixpointConfiguration conf,
+					CFGWithAnalysisResults<A, H, V, T> previous) throws FixpointException {
 		Map<Statement, AnalysisState<A, H, V, T>> start = new HashMap<>();
 		entrypoints.forEach(e -> start.put(e, entryState));
-		return fixpoint(entryState, start, interprocedural, ws, widenAfter, descendingPhase, descendingGlbThreshold);
+		Recorder metrics = conf.metrics == null ? null
+				: conf.metrics.recorder(descriptor.getFullSignature(), conf.context);
+		try {
+			return fixpoint(entryState, start, interprocedural, ws, conf, metrics, previous);
+		} finally {
+			if (metrics != null)
+				metrics.flush();
+		}
 	}
 
 	/**
@@ -334,6 +505,64 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		return fixpoint(entryState, interprocedural, ws, widenAfter, DescendingPhaseType.NONE, 5);
 	}
 
+	/**
+	 * Computes a fixpoint over this control flow graph. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The computation uses
+	 * {@link Lattice#lub(Lattice)} to compose results obtained at different
+	 * iterations, up to {@code widenAfter * predecessors_number} times, where
+	 * {@code widenAfter} is {@link FixpointConfiguration#wideningThreshold} and
+	 * {@code predecessors_number} is the number of expressions that are
+	 * predecessors of the one being processed. After overcoming that threshold,
+	 * {@link Lattice#widening(Lattice)} is used. The computation starts at the
+	 * statements in {@code entrypoints}, using {@code entryState} as entry
+	 * state for all of them. {@code interprocedural} will be invoked to get the
+	 * approximation of all invoked cfgs, while {@code ws} is used as working
+	 * set for the statements to process.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param <T>             the type of {@link TypeDomain} contained into the
+	 *                            computed abstract state
+	 * @param entrypoints     the collection of {@link Statement}s that to use
+	 *                            as a starting point of the computation (that
+	 *                            must be nodes of this cfg)
+	 * @param entryState      the entry states to apply to each
+	 *                            {@link Statement} in {@code entrypoints}
+	 * @param interprocedural the callgraph that can be queried when a call
+	 *                            towards an other cfg is encountered
+	 * @param ws              the {@link WorkingSet} instance to use for this
+	 *                            computation
+	 * @param conf            the {@link FixpointConfiguration} containing the
+	 *                            parameters tuning fixpoint behavior
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               unknown/invalid statement ends up in the
+	 *                               working set
+	 */
+	public <A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> CFGWithAnalysisResults<A, H, V, T> fixpoint(
+					Collection<Statement> entrypoints,
+					AnalysisState<A, H, V, T> entryState,
+					InterproceduralAnalysis<A, H, V, T> interprocedural,
+					WorkingSet<Statement> ws,
+					FixpointConfiguration conf) throws FixpointException {
+		Map<Statement, AnalysisState<A, H, V, T>> start = new HashMap<>();
+		entrypoints.forEach(e -> start.put(e, entryState));
+		return fixpoint(entryState, start, interprocedural, ws, conf);
+	}
+
 	/**
 	 * Computes a fixpoint over this control flow graph. This method returns a
 	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
@@ -403,9 +632,85 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 					int widenAfter,
 					DescendingPhaseType descendingPhase,
 					int descendingGlbThreshold) throws FixpointException {
-		Map<Statement, AnalysisState<A, H, V, T>> start = new HashMap<>();
-		entrypoints.forEach(e -> start.put(e, entryState));
-		return fixpoint(entryState, start, interprocedural, ws, widenAfter, descendingPhase, descendingGlbThreshold);
+		return fixpoint(entrypoints, entryState, interprocedural, ws,
+				new FixpointConfiguration(widenAfter, descendingPhase, descendingGlbThreshold));
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The computation uses
+	 * {@link Lattice#lub(Lattice)} to compose results obtained at different
+	 * iterations, up to {@code widenAfter * predecessors_number} times, where
+	 * {@code widenAfter} is {@link FixpointConfiguration#wideningThreshold} and
+	 * {@code predecessors_number} is the number of expressions that are
+	 * predecessors of the one being processed. After overcoming that threshold,
+	 * {@link Lattice#widening(Lattice)} is used. The computation starts at the
+	 * statements in {@code startingPoints}, using as its entry state their
+	 * respective value. {@code interprocedural} will be invoked to get the
+	 * approximation of all invoked cfgs, while {@code ws} is used as working
+	 * set for the statements to process.<br>
+	 * <br>
+	 * If {@link FixpointConfiguration#iterationStrategy} is
+	 * {@link FixpointIterationStrategy#WEAK_TOPOLOGICAL_ORDER}, {@code ws} is
+	 * ignored: the statements are instead processed following the
+	 * {@link WeakTopologicalOrder} of this cfg, and widening (or narrowing, or
+	 * glb during the descending phase) is only applied at the heads of its
+	 * components (that is, at loop heads).<br>
+	 * <br>
+	 * If {@link FixpointConfiguration#metrics} is not {@code null}, the
+	 * metrics of this fixpoint are recorded there under the signature of this
+	 * cfg and {@link FixpointConfiguration#context}.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param <T>             the type of {@link TypeDomain} contained into the
+	 *                            computed abstract state
+	 * @param singleton       an instance of the {@link AnalysisState}
+	 *                            containing the abstract state of the analysis
+	 *                            to run, used to retrieve top and bottom values
+	 * @param startingPoints  a map between {@link Statement}s that to use as a
+	 *                            starting point of the computation (that must
+	 *                            be nodes of this cfg) and the entry states to
+	 *                            apply on it
+	 * @param interprocedural the callgraph that can be queried when a call
+	 *                            towards an other cfg is encountered
+	 * @param ws              the {@link WorkingSet} instance to use for this
+	 *                            computation
+	 * @param conf            the {@link FixpointConfiguration} containing the
+	 *                            parameters tuning fixpoint behavior
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               unknown/invalid statement ends up in the
+	 *                               working set
+	 */
+	public <A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> CFGWithAnalysisResults<A, H, V, T> fixpoint(
+					AnalysisState<A, H, V, T> singleton,
+					Map<Statement, AnalysisState<A, H, V, T>> startingPoints,
+					InterproceduralAnalysis<A, H, V, T> interprocedural,
+					WorkingSet<Statement> ws,
+					FixpointConfiguration conf) throws FixpointException {
+
+		Recorder metrics = conf.metrics == null ? null
+				: conf.metrics.recorder(descriptor.getFullSignature(), conf.context);
+		try {
+			return fixpoint(singleton, startingPoints, interprocedural, ws, conf, metrics, null);
+		} finally {
+			if (metrics != null)
+				metrics.flush();
+		}
 	}
 
 	/**
@@ -479,27 +784,74 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 					int widenAfter,
 					DescendingPhaseType descendingPhase,
 					int descendingGlbThreshold) throws FixpointException {
+		return fixpoint(singleton, startingPoints, interprocedural, ws,
+				new FixpointConfiguration(widenAfter, descendingPhase, descendingGlbThreshold));
+	}
 
+	private <A extends AbstractState<A, H, V, T>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			T extends TypeDomain<T>> CFGWithAnalysisResults<A, H, V, T> fixpoint(
+					AnalysisState<A, H, V, T> singleton,
+					Map<Statement, AnalysisState<A, H, V, T>> startingPoints,
+					InterproceduralAnalysis<A, H, V, T> interprocedural,
+					WorkingSet<Statement> ws,
+					FixpointConfiguration conf,
+					Recorder metrics,
+					CFGWithAnalysisResults<A, H, V, T> previous) throws FixpointException {
 		Fixpoint<CFG, Statement, Edge,
-				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> fix = new Fixpoint<>(this);
+				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> fix = new Fixpoint<>(this, metrics);
 		Map<Statement, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> starting = new HashMap<>();
 		startingPoints.forEach((st, state) -> starting.put(st, Pair.of(state, new StatementStore<>(state.bottom()))));
-		Map<Statement, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> ascendingResult = fix.fixpoint(
-				starting,
-				ws,
-				new CFGFixpoint<>(widenAfter, interprocedural, DescendingPhaseType.NONE));
+
+		Map<Statement, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> initial = new HashMap<>(
+				getNodesCount());
+		if (previous != null) {
+			// split the previous results in the format used by the fixpoint:
+			// each node is mapped to its result and to the ones of the
+			// expressions it contains
+			AnalysisState<A, H, V, T> bottom = singleton.bottom();
+			for (Entry<Statement, AnalysisState<A, H, V, T>> res : previous.getResults().entrySet()) {
+				Statement st = res.getKey();
+				Statement root = st instanceof Expression ? ((Expression) st).getRootStatement() : st;
+				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> pair = initial.computeIfAbsent(root,
+						r -> Pair.of(bottom, new StatementStore<>(bottom)));
+				if (root == st)
+					initial.put(root, Pair.of(res.getValue(), pair.getRight()));
+				else
+					pair.getRight().put(st, res.getValue());
+			}
+			// statements might be affected by changes in other cfgs even if
+			// their entry state did not change
+			getNodeList().forEach(ws::push);
+		}
+
+		WeakTopologicalOrder<CFG, Statement, Edge> wto = null;
+		if (conf.iterationStrategy == FixpointIterationStrategy.WEAK_TOPOLOGICAL_ORDER)
+			wto = getWeakTopologicalOrder(startingPoints.keySet());
+
+		CFGFixpoint<A, H, V, T> ascending = new CFGFixpoint<>(conf.wideningThreshold, interprocedural,
+				DescendingPhaseType.NONE, metrics);
+		Map<Statement, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> ascendingResult;
+		if (wto != null)
+			ascendingResult = fix.fixpoint(starting, wto, ascending, initial, previous != null);
+		else
+			ascendingResult = fix.fixpoint(starting, ws, ascending, initial);
 
 		Map<Statement, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>>> fixpoint;
 
-		if (descendingPhase != DescendingPhaseType.NONE) {
-			this.getNodeList().forEach(ws::push);
+		if (conf.descendingPhaseType != DescendingPhaseType.NONE) {
 			starting.clear();
 			startingPoints.forEach((st, state) -> starting.put(st, ascendingResult.get(st)));
 
-			fixpoint = fix.fixpoint(starting,
-					ws,
-					new CFGFixpoint<>(descendingGlbThreshold, interprocedural, descendingPhase),
-					ascendingResult);
+			CFGFixpoint<A, H, V, T> descending = new CFGFixpoint<>(conf.descendingGlbThreshold, interprocedural,
+					conf.descendingPhaseType, metrics);
+			if (wto != null)
+				fixpoint = fix.fixpoint(starting, wto, descending, ascendingResult);
+			else {
+				this.getNodeList().forEach(ws::push);
+				fixpoint = fix.fixpoint(starting, ws, descending, ascendingResult);
+			}
 		} else
 			fixpoint = ascendingResult;
 
@@ -524,38 +876,48 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		private final int threshold;
 		private final Map<Statement, Integer> counter;
 		private DescendingPhaseType descendingPhase;
+		private final Recorder metrics;
 
 		private CFGFixpoint(int threshold,
-				InterproceduralAnalysis<A, H, V, T> interprocedural, DescendingPhaseType descendingPhase) {
+				InterproceduralAnalysis<A, H, V, T> interprocedural, DescendingPhaseType descendingPhase,
+				Recorder metrics) {
 			this.threshold = threshold;
 			this.interprocedural = interprocedural;
 			this.counter = new HashMap<>(CFG.this.getNodesCount());
 			this.descendingPhase = descendingPhase;
+			this.metrics = metrics;
+		}
+
+		private long start() {
+			return metrics == null ? 0 : System.nanoTime();
+		}
+
+		private void stop(Phase phase, long start) {
+			if (metrics != null)
+				metrics.time(phase, System.nanoTime() - start);
 		}
 
 		@Override
 		public Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> semantics(Statement node,
 				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> entrystate) throws SemanticException {
+			long start = start();
 			StatementStore<A, H, V, T> expressions = new StatementStore<>(entrystate.getLeft().bottom());
 			AnalysisState<A, H, V, T> approx = node.semantics(entrystate.getLeft(), interprocedural, expressions);
 			if (node instanceof Expression)
 				approx = approx.forgetIdentifiers(((Expression) node).getMetaVariables());
+			stop(Phase.SEMANTICS, start);
 			return Pair.of(approx, expressions);
 		}
 
 		@Override
 		public Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> traverse(Edge edge,
 				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> entrystate) throws SemanticException {
+			long start = start();
 			AnalysisState<A, H, V, T> approx = edge.traverse(entrystate.getLeft());
 
 			// we remove out of scope variables here
-			List<VariableTableEntry> toRemove = new LinkedList<>();
-			for (VariableTableEntry entry : CFG.this.descriptor.getVariables())
-				if (entry.getScopeEnd() == edge.getSource())
-					toRemove.add(entry);
-
 			Collection<Identifier> ids = new LinkedList<>();
-			for (VariableTableEntry entry : toRemove) {
+			for (VariableTableEntry entry : descriptor.getVariablesEndingAt(edge.getSource())) {
 				SymbolicExpression v = entry.createReference(CFG.this).getVariable();
 				for (SymbolicExpression expr : approx.smallStepSemantics(v, edge.getSource()).getComputedExpressions())
 					ids.add((Identifier) expr);
@@ -564,6 +926,7 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 			if (!ids.isEmpty())
 				approx = approx.forgetIdentifiers(ids);
 
+			stop(Phase.TRAVERSE, start);
 			return Pair.of(approx, new StatementStore<>(approx.bottom()));
 		}
 
@@ -571,7 +934,11 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		public Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> union(Statement node,
 				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> left,
 				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> right) throws SemanticException {
-			return Pair.of(left.getLeft().lub(right.getLeft()), left.getRight().lub(right.getRight()));
+			long start = start();
+			Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> result = Pair.of(
+					left.getLeft().lub(right.getLeft()), left.getRight().lub(right.getRight()));
+			stop(Phase.LUB, start);
+			return result;
 		}
 
 		@Override
@@ -591,9 +958,11 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 			AnalysisState<A, H, V, T> newApprox = approx.getLeft(), oldApprox = old.getLeft();
 			StatementStore<A, H, V, T> newIntermediate = approx.getRight(), oldIntermediate = old.getRight();
 
+			long start = start();
 			if (threshold == 0) {
 				newApprox = newApprox.lub(oldApprox);
 				newIntermediate = newIntermediate.lub(oldIntermediate);
+				stop(Phase.LUB, start);
 			} else {
 				// we multiply by the number of predecessors since
 				// if we have more than one
@@ -602,9 +971,11 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 				if (lub > 0) {
 					newApprox = newApprox.lub(oldApprox);
 					newIntermediate = newIntermediate.lub(oldIntermediate);
+					stop(Phase.LUB, start);
 				} else {
 					newApprox = oldApprox.widening(newApprox);
 					newIntermediate = oldIntermediate.widening(newIntermediate);
+					stop(Phase.WIDENING, start);
 				}
 				counter.put(node, --lub);
 			}
@@ -619,9 +990,11 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 			AnalysisState<A, H, V, T> newApprox = approx.getLeft(), oldApprox = old.getLeft();
 			StatementStore<A, H, V, T> newIntermediate = approx.getRight(), oldIntermediate = old.getRight();
 
+			long start = start();
 			if (this.descendingPhase == DescendingPhaseType.NARROWING) {
 				newApprox = oldApprox.narrowing(newApprox);
 				newIntermediate = oldIntermediate.narrowing(newIntermediate);
+				stop(Phase.NARROWING, start);
 			} else if (this.descendingPhase == DescendingPhaseType.GLB) {
 				int glb = counter.computeIfAbsent(node, st -> threshold);
 				if (glb > 0) {
@@ -632,6 +1005,7 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 					newIntermediate = oldIntermediate;
 				}
 				counter.put(node, --glb);
+				stop(Phase.GLB, start);
 			}
 			return Pair.of(newApprox, newIntermediate);
 		}
@@ -639,10 +1013,14 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 		@Override
 		public boolean equality(Statement node, Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> approx,
 				Pair<AnalysisState<A, H, V, T>, StatementStore<A, H, V, T>> old) throws SemanticException {
+			long start = start();
+			boolean result;
 			if (descendingPhase == DescendingPhaseType.NONE)
-				return equalityAscending(node, approx, old);
+				result = equalityAscending(node, approx, old);
 			else
-				return equalityDescending(node, approx, old);
+				result = equalityDescending(node, approx, old);
+			stop(Phase.LESS_OR_EQUAL, start);
+			return result;
 		}
 
 		public boolean equalityAscending(Statement node,
@@ -667,6 +1045,8 @@ public class CFG extends CodeGraph<CFG, Statement, Edge> implements CodeMember {
 	public void preSimplify(Statement node) {
 		shiftVariableScopes(node);
 		shiftControlFlowStructuresEnd(node);
+		descriptor.scopesChanged();
+		orders = null;
 	}
 
 	private void shiftControlFlowStructuresEnd(Statement node) {
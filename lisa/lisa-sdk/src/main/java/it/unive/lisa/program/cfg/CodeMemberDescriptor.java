@@ -4,6 +4,7 @@ import it.unive.lisa.program.CodeElement;
 import it.unive.lisa.program.Unit;
 import it.unive.lisa.program.annotations.Annotation;
 import it.unive.lisa.program.annotations.Annotations;
+import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.type.Untyped;
 import java.util.*;
@@ -42,6 +43,13 @@ public class CodeMemberDescriptor implements CodeElement {
 	 */
 	private final List<VariableTableEntry> variables;
 
+	/**
+	 * The entries of {@link #variables}, grouped by the statement where their
+	 * scope ends. This is lazily computed the first time it is queried, and it
+	 * is discarded whenever the variable table changes.
+	 */
+	private volatile Map<Statement, Collection<VariableTableEntry>> scopeEnds;
+
 	/**
 	 * Whether or not the cfg is an instance cfg
 	 */
@@ -261,6 +269,42 @@ public class CodeMemberDescriptor implements CodeElement {
 		if (variable.getIndex() != variables.size())
 			variable.setIndex(variables.size());
 		variables.add(variable);
+		scopeEnds = null;
+	}
+
+	/**
+	 * Yields the entries of the variable table whose scope ends at the given
+	 * statement, that is, the variables that go out of scope when leaving it.
+	 * Entries are grouped by their scope end only once, and they are grouped
+	 * again after {@link #addVariable(VariableTableEntry)} or
+	 * {@link #scopesChanged()} are invoked.
+	 * 
+	 * @param st the statement
+	 * 
+	 * @return the entries whose scope ends at {@code st}
+	 */
+	public Collection<VariableTableEntry> getVariablesEndingAt(Statement st) {
+		Map<Statement, Collection<VariableTableEntry>> ends = scopeEnds;
+		if (ends == null) {
+			// concurrent fixpoints might compute this more than once, but
+			// they will all end up with the same table
+			ends = new IdentityHashMap<>();
+			for (VariableTableEntry entry : variables)
+				if (entry.getScopeEnd() != null)
+					ends.computeIfAbsent(entry.getScopeEnd(), e -> new LinkedList<>()).add(entry);
+			scopeEnds = ends;
+		}
+		return ends.getOrDefault(st, Collections.emptyList());
+	}
+
+	/**
+	 * Notifies this descriptor that the scopes of some of the entries of its
+	 * variable table have been changed through
+	 * {@link VariableTableEntry#setScopeStart(Statement)} or
+	 * {@link VariableTableEntry#setScopeEnd(Statement)}.
+	 */
+	public void scopesChanged() {
+		scopeEnds = null;
 	}
 
 	/**
@@ -62,10 +62,11 @@ public class ControlFlowExtractor {
 		// https://www.cs.utexas.edu/~pingali/CS375/2010Sp/lectures/LoopOptimizations.pdf
 		// http://pages.cs.wisc.edu/~fischer/cs701.f14/finding.loops.html
 		Map<Statement, ControlFlowStructure> result = new HashMap<>();
-		Map<Statement, Set<Statement>> dominators = new Dominators<CFG, Statement, Edge>().build(target);
+		Dominators<CFG, Statement, Edge> dominators = new Dominators<>();
+		dominators.build(target);
 		for (Statement conditional : conditionals)
 			for (Statement pred : target.predecessorsOf(conditional))
-				if (dominators.get(pred).contains(conditional))
+				if (dominators.dominates(conditional, pred))
 					new LoopReconstructor(conditional, pred, result).build();
 
 		// now we scan for if statements
@@ -147,7 +147,7 @@ public abstract class ControlFlowStructure {
 		Collection<Statement> nodes = complete.getNodes();
 		for (Statement st : nodes)
 			for (Statement follow : cfgMatrix.followersOf(st))
-				if (nodes.contains(follow))
+				if (complete.containsNode(follow))
 					complete.addEdge(cfgMatrix.getEdgeConnecting(st, follow));
 
 		return complete;
@@ -32,8 +32,8 @@ public class IfThenElse extends ControlFlowStructure {
 	public IfThenElse(NodeList<CFG, Statement, Edge> cfgMatrix, Statement condition, Statement firstFollower,
 			Collection<Statement> trueBranch, Collection<Statement> falseBranch) {
 		super(cfgMatrix, condition, firstFollower);
-		this.trueBranch = trueBranch;
-		this.falseBranch = falseBranch;
+		this.trueBranch = new HashSet<>(trueBranch);
+		this.falseBranch = new HashSet<>(falseBranch);
 	}
 
 	@Override
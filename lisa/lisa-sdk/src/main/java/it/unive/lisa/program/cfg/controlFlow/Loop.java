@@ -28,7 +28,7 @@ public class Loop extends ControlFlowStructure {
 	public Loop(NodeList<CFG, Statement, Edge> cfgMatrix, Statement condition, Statement firstFollower,
 			Collection<Statement> body) {
 		super(cfgMatrix, condition, firstFollower);
-		this.body = body;
+		this.body = new HashSet<>(body);
 	}
 
 	@Override
@@ -10,8 +10,8 @@ import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.type.Untyped;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An expression that is part of a statement of the program.
@@ -33,7 +33,9 @@ public abstract class Expression extends Statement {
 	/**
 	 * The collection of meta variables that are generated by the evaluation of
 	 * this expression. These should be removed as soon as the values computed
-	 * by those gets out of scope (e.g., popped from the stack).
+	 * by those gets out of scope (e.g., popped from the stack). The
+	 * collection is concurrent, since the same expression can be evaluated by
+	 * fixpoints running in parallel.
 	 */
 	private final Collection<Identifier> metaVariables;
 
@@ -61,7 +63,7 @@ public abstract class Expression extends Statement {
 		super(cfg, location);
 		Objects.requireNonNull(staticType, "The expression type of a CFG cannot be null");
 		this.staticType = staticType;
-		this.metaVariables = new HashSet<>();
+		this.metaVariables = ConcurrentHashMap.newKeySet();
 	}
 
 	/**
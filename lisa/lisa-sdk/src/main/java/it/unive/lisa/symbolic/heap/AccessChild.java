@@ -24,6 +24,11 @@ public class AccessChild extends HeapExpression {
 	 */
 	private final SymbolicExpression child;
 
+	/**
+	 * The hash code of this expression, lazily computed and cached
+	 */
+	private int hash;
+
 	/**
 	 * Builds the child access.
 	 * 
@@ -60,6 +65,12 @@ public class AccessChild extends HeapExpression {
 
 	@Override
 	public int hashCode() {
+		if (hash == 0)
+			hash = computeHashCode();
+		return hash;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((container == null) ? 0 : container.hashCode());
@@ -71,6 +82,8 @@ public class AccessChild extends HeapExpression {
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
+		if (obj instanceof AccessChild && hashCode() != obj.hashCode())
+			return false;
 		if (!super.equals(obj))
 			return false;
 		if (getClass() != obj.getClass())
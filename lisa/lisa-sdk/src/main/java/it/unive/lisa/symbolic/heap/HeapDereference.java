@@ -18,6 +18,11 @@ public class HeapDereference extends HeapExpression {
 	 */
 	private final SymbolicExpression toDeref;
 
+	/**
+	 * The hash code of this expression, lazily computed and cached
+	 */
+	private int hash;
+
 	/**
 	 * Builds the heap dereference.
 	 * 
@@ -33,6 +38,12 @@ public class HeapDereference extends HeapExpression {
 
 	@Override
 	public int hashCode() {
+		if (hash == 0)
+			hash = computeHashCode();
+		return hash;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((toDeref == null) ? 0 : toDeref.hashCode());
@@ -43,6 +54,8 @@ public class HeapDereference extends HeapExpression {
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
+		if (obj instanceof HeapDereference && hashCode() != obj.hashCode())
+			return false;
 		if (!super.equals(obj))
 			return false;
 		if (getClass() != obj.getClass())
@@ -18,6 +18,11 @@ public class HeapReference extends HeapExpression {
 	 */
 	private final SymbolicExpression expression;
 
+	/**
+	 * The hash code of this expression, lazily computed and cached
+	 */
+	private int hash;
+
 	/**
 	 * Builds the heap reference.
 	 * 
@@ -38,6 +43,12 @@ public class HeapReference extends HeapExpression {
 
 	@Override
 	public int hashCode() {
+		if (hash == 0)
+			hash = computeHashCode();
+		return hash;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((expression == null) ? 0 : expression.hashCode());
@@ -57,6 +68,8 @@ public class HeapReference extends HeapExpression {
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
+		if (obj instanceof HeapReference && hashCode() != obj.hashCode())
+			return false;
 		if (!super.equals(obj))
 			return false;
 		if (getClass() != obj.getClass())
@@ -31,6 +31,11 @@ public class BinaryExpression extends ValueExpression {
 	 */
 	private final BinaryOperator operator;
 
+	/**
+	 * The hash code of this expression, lazily computed and cached
+	 */
+	private int hash;
+
 	/**
 	 * Builds the binary expression.
 	 * 
@@ -97,6 +102,12 @@ public class BinaryExpression extends ValueExpression {
 
 	@Override
 	public int hashCode() {
+		if (hash == 0)
+			hash = computeHashCode();
+		return hash;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((left == null) ? 0 : left.hashCode());
@@ -109,6 +120,8 @@ public class BinaryExpression extends ValueExpression {
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
+		if (obj instanceof BinaryExpression && hashCode() != obj.hashCode())
+			return false;
 		if (!super.equals(obj))
 			return false;
 		if (getClass() != obj.getClass())
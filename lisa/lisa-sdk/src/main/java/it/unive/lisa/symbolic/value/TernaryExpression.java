@@ -36,6 +36,11 @@ public class TernaryExpression extends ValueExpression {
 	 */
 	private final TernaryOperator operator;
 
+	/**
+	 * The hash code of this expression, lazily computed and cached
+	 */
+	private int hash;
+
 	/**
 	 * Builds the binary expression.
 	 * 
@@ -114,6 +119,12 @@ public class TernaryExpression extends ValueExpression {
 
 	@Override
 	public int hashCode() {
+		if (hash == 0)
+			hash = computeHashCode();
+		return hash;
+	}
+
+	private int computeHashCode() {
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((left == null) ? 0 : left.hashCode());
@@ -127,6 +138,8 @@ public class TernaryExpression extends ValueExpression {
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
+		if (obj instanceof TernaryExpression && hashCode() != obj.hashCode())
+			return false;
 		if (!super.equals(obj))
 			return false;
 		if (getClass() != obj.getClass())
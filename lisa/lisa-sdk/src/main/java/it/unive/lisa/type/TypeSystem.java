@@ -1,6 +1,8 @@
 package it.unive.lisa.type;
 
 import it.unive.lisa.program.Program;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -12,7 +14,13 @@ import java.util.stream.Collectors;
  * A type system, knowing about the types that can appear in a {@link Program}.
  * Types have to be registered through {@link #registerType(Type)} before the
  * analysis begins for them to be known to the system, and consequently to the
- * rest of the analysis.
+ * rest of the analysis.<br>
+ * <br>
+ * Each registered type is also assigned a dense index, in order of
+ * registration, inside an {@link ExternalSetCache}. Sets of types built
+ * through {@link #mkTypeSet(Iterable)} and {@link #getTypeSet()} are bitsets
+ * over such indexes, and can thus be joined, intersected and compared one
+ * machine word at a time.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
@@ -23,12 +31,25 @@ public abstract class TypeSystem {
 	 */
 	private final Map<String, Type> types;
 
+	/**
+	 * The cache assigning an index to each type
+	 */
+	private final ExternalSetCache<Type> cache;
+
+	/**
+	 * The set of types registered in this type system, backed by
+	 * {@link #cache}
+	 */
+	private final ExternalSet<Type> registered;
+
 	/**
 	 * Builds an empty type system, where only {@link #getBooleanType()},
 	 * {@link #getStringType()} and {@link #getIntegerType()} are registered.
 	 */
 	protected TypeSystem() {
 		this.types = new TreeMap<String, Type>();
+		this.cache = new ExternalSetCache<>();
+		this.registered = cache.mkEmptySet();
 	}
 
 	/**
@@ -41,6 +62,50 @@ public abstract class TypeSystem {
 		return new HashSet<>(types.values());
 	}
 
+	/**
+	 * Yields the collection of {@link Type}s that have been registered in this
+	 * type system as an {@link ExternalSet} whose elements are indexed by this
+	 * type system. The returned set is a copy, and modifying it does not affect
+	 * this type system.
+	 * 
+	 * @return the collection of types
+	 */
+	public ExternalSet<Type> getTypeSet() {
+		return registered.copy();
+	}
+
+	/**
+	 * Builds an {@link ExternalSet} containing the given {@link Type}s, whose
+	 * elements are indexed by this type system. Types that have not been
+	 * registered are assigned an index nonetheless, but they are not part of
+	 * {@link #getTypeSet()}. If {@code types} is already an {@link ExternalSet}
+	 * indexed by this type system, it is returned as-is.
+	 * 
+	 * @param types the types to include in the set
+	 * 
+	 * @return the set of types
+	 */
+	public ExternalSet<Type> mkTypeSet(Iterable<Type> types) {
+		if (types instanceof ExternalSet && ((ExternalSet<Type>) types).getCache() == cache)
+			return (ExternalSet<Type>) types;
+		return cache.mkSet(types);
+	}
+
+	/**
+	 * Yields whether or not the given set contains exactly the {@link Type}s
+	 * that have been registered in this type system. If {@code types} has
+	 * been built through {@link #mkTypeSet(Iterable)}, the comparison happens
+	 * one machine word at a time.
+	 * 
+	 * @param types the types to check
+	 * 
+	 * @return {@code true} if and only if {@code types} contains all and only
+	 *             the registered types
+	 */
+	public boolean isFullTypeSet(Set<Type> types) {
+		return registered.equals(types);
+	}
+
 	/**
 	 * Yields the {@link Type} instance with the given name.
 	 * 
@@ -62,7 +127,10 @@ public abstract class TypeSystem {
 	 *             {@code false}, the given type is discarded.
 	 */
 	public final boolean registerType(Type type) {
-		return types.putIfAbsent(type.toString(), type) == null;
+		if (types.putIfAbsent(type.toString(), type) != null)
+			return false;
+		registered.add(type);
+		return true;
 	}
 
 	/**
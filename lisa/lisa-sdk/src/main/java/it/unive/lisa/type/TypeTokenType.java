@@ -43,7 +43,13 @@ public class TypeTokenType implements Type {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((types == null) ? 0 : types.hashCode());
+		int typesHash = 0;
+		if (types != null)
+			// external sets do not follow the contract of Set.hashCode(), and
+			// they can be equal to other sets
+			for (Type t : types)
+				typesHash += t.hashCode();
+		result = prime * result + typesHash;
 		return result;
 	}
 
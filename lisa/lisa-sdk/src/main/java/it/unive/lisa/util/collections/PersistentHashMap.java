@@ -0,0 +1,475 @@
+package it.unive.lisa.util.collections;
+
+import java.util.*;
+
+/**
+ * A {@link Map} backed by a persistent hash array mapped trie (HAMT). The nodes
+ * of the trie are immutable, and each update creates new copies of the nodes
+ * along the path from the root to the modified binding (at most 7 nodes),
+ * sharing all other ones with the previous version of the trie. Instances of
+ * this class are thin mutable handles to the root of a trie: copying an
+ * instance through {@link #PersistentHashMap(Map)} is a constant-time
+ * operation, and subsequent updates on either copy are not visible to the
+ * other one.<br>
+ * <br>
+ * Since subtrees are shared among copies, two maps derived from one another
+ * can be compared by skipping the subtrees that they have in common through
+ * {@link #differentKeys(PersistentHashMap)}, without inspecting the bindings
+ * they contain. Updates that do not change a binding (i.e., that put a value
+ * that is already associated to the same key) do not create new nodes, thus
+ * preserving the sharing. As in {@link HashMap}, updating the value of an
+ * existing key keeps the key object that was originally inserted.<br>
+ * <br>
+ * Iterators returned by this class traverse the trie as it was when they have
+ * been created, and never throw {@link ConcurrentModificationException}s.
+ * Null keys and values are supported. This class is not thread-safe.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ * 
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * 
+ * @see <a href="https://infoscience.epfl.ch/record/64398">P. Bagwell, Ideal
+ *          Hash Trees</a>
+ */
+public class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+	private static final int BITS = 5;
+
+	private static final int MASK = (1 << BITS) - 1;
+
+	private Node<K, V> root;
+
+	private int size;
+
+	/**
+	 * Builds an empty map.
+	 */
+	public PersistentHashMap() {
+		root = null;
+		size = 0;
+	}
+
+	/**
+	 * Builds a map containing the same bindings of the given one. If
+	 * {@code other} is a {@link PersistentHashMap}, this is a constant-time
+	 * operation.
+	 * 
+	 * @param other the map to copy
+	 */
+	@SuppressWarnings("unchecked")
+	public PersistentHashMap(Map<? extends K, ? extends V> other) {
+		if (other instanceof PersistentHashMap) {
+			// nodes are immutable, so they can be safely shared
+			PersistentHashMap<K, V> o = (PersistentHashMap<K, V>) other;
+			root = o.root;
+			size = o.size;
+		} else {
+			root = null;
+			size = 0;
+			putAll(other);
+		}
+	}
+
+	private static int hash(Object key) {
+		int h = key == null ? 0 : key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private static int fragment(int hash, int shift) {
+		return (hash >>> shift) & MASK;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return find(root, 0, hash(key), key) != null;
+	}
+
+	@Override
+	public V get(Object key) {
+		Leaf<K, V> leaf = find(root, 0, hash(key), key);
+		return leaf == null ? null : leaf.value;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		int hash = hash(key);
+		Leaf<K, V> old = find(root, 0, hash, key);
+		root = put(root, 0, new Leaf<>(hash, key, value));
+		if (old == null) {
+			size++;
+			return null;
+		}
+		return old.value;
+	}
+
+	@Override
+	public V remove(Object key) {
+		int hash = hash(key);
+		Leaf<K, V> old = find(root, 0, hash, key);
+		if (old == null)
+			return null;
+		root = remove(root, 0, hash, key);
+		size--;
+		return old.value;
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new AbstractSet<>() {
+
+			@Override
+			public Iterator<Entry<K, V>> iterator() {
+				return new EntryIterator<>(PersistentHashMap.this, root);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				if (!(o instanceof Entry))
+					return false;
+				Entry<?, ?> e = (Entry<?, ?>) o;
+				Leaf<K, V> leaf = find(root, 0, hash(e.getKey()), e.getKey());
+				return leaf != null && Objects.equals(leaf.value, e.getValue());
+			}
+
+			@Override
+			public void clear() {
+				PersistentHashMap.this.clear();
+			}
+		};
+	}
+
+	/**
+	 * Yields the keys of this map that are not bound to the very same value
+	 * (according to {@code ==}) in {@code other}, with the very same key
+	 * object. Subtrees that are shared between the tries of the two maps are
+	 * skipped without being visited: the cost of this operation is thus
+	 * proportional to the portion of the two tries that differ, and not to the
+	 * size of this map.
+	 * 
+	 * @param other the other map
+	 * 
+	 * @return the keys of this map whose binding is not shared with
+	 *             {@code other}
+	 */
+	public Collection<K> differentKeys(PersistentHashMap<K, V> other) {
+		List<K> result = new ArrayList<>();
+		differentKeys(root, other.root, 0, result);
+		return result;
+	}
+
+	private static <K, V> void differentKeys(Node<K, V> mine, Node<K, V> theirs, int shift, List<K> result) {
+		if (mine == null || mine == theirs)
+			return;
+
+		if (mine instanceof Leaf) {
+			Leaf<K, V> leaf = (Leaf<K, V>) mine;
+			Leaf<K, V> match = find(theirs, shift, leaf.hash, leaf.key);
+			if (match == null || match.key != leaf.key || match.value != leaf.value)
+				result.add(leaf.key);
+		} else if (mine instanceof Collision) {
+			for (Leaf<K, V> leaf : ((Collision<K, V>) mine).leaves)
+				differentKeys(leaf, theirs, shift, result);
+		} else {
+			Branch<K, V> branch = (Branch<K, V>) mine;
+			for (int i = 0, bit = 0; i < branch.children.length; i++, bit++) {
+				while ((branch.bitmap & (1 << bit)) == 0)
+					bit++;
+				differentKeys(branch.children[i], childAt(theirs, bit, shift), shift + BITS, result);
+			}
+		}
+	}
+
+	/**
+	 * Yields the node that, in {@code node}, is responsible for hashes whose
+	 * fragment at {@code shift} is {@code fragment}.
+	 */
+	private static <K, V> Node<K, V> childAt(Node<K, V> node, int fragment, int shift) {
+		if (node == null)
+			return null;
+		if (node instanceof Branch) {
+			Branch<K, V> branch = (Branch<K, V>) node;
+			int bit = 1 << fragment;
+			if ((branch.bitmap & bit) == 0)
+				return null;
+			return branch.children[Integer.bitCount(branch.bitmap & (bit - 1))];
+		}
+		return fragment(node.hash(), shift) == fragment ? node : null;
+	}
+
+	private static <K, V> Leaf<K, V> find(Node<K, V> node, int shift, int hash, Object key) {
+		Node<K, V> current = node;
+		int s = shift;
+		while (current != null)
+			if (current instanceof Branch) {
+				current = childAt(current, fragment(hash, s), s);
+				s += BITS;
+			} else if (current instanceof Leaf) {
+				Leaf<K, V> leaf = (Leaf<K, V>) current;
+				return leaf.hash == hash && Objects.equals(leaf.key, key) ? leaf : null;
+			} else {
+				Collision<K, V> collision = (Collision<K, V>) current;
+				if (collision.hash != hash)
+					return null;
+				for (Leaf<K, V> leaf : collision.leaves)
+					if (Objects.equals(leaf.key, key))
+						return leaf;
+				return null;
+			}
+		return null;
+	}
+
+	private static <K, V> Node<K, V> put(Node<K, V> node, int shift, Leaf<K, V> leaf) {
+		if (node == null)
+			return leaf;
+
+		if (node instanceof Branch) {
+			Branch<K, V> branch = (Branch<K, V>) node;
+			int bit = 1 << fragment(leaf.hash, shift);
+			int idx = Integer.bitCount(branch.bitmap & (bit - 1));
+			if ((branch.bitmap & bit) == 0) {
+				Node<K, V>[] children = newArray(branch.children.length + 1);
+				System.arraycopy(branch.children, 0, children, 0, idx);
+				children[idx] = leaf;
+				System.arraycopy(branch.children, idx, children, idx + 1, branch.children.length - idx);
+				return new Branch<>(branch.bitmap | bit, children);
+			}
+
+			Node<K, V> child = branch.children[idx];
+			Node<K, V> updated = put(child, shift + BITS, leaf);
+			if (updated == child)
+				return branch;
+			Node<K, V>[] children = branch.children.clone();
+			children[idx] = updated;
+			return new Branch<>(branch.bitmap, children);
+		}
+
+		if (node.hash() != leaf.hash)
+			return merge(shift, node, leaf);
+
+		if (node instanceof Leaf) {
+			Leaf<K, V> existing = (Leaf<K, V>) node;
+			if (!Objects.equals(existing.key, leaf.key))
+				return new Collision<>(leaf.hash, newLeaves(existing, leaf));
+			// as in HashMap, the original key object is kept
+			return existing.value == leaf.value ? existing : new Leaf<>(leaf.hash, existing.key, leaf.value);
+		}
+
+		Collision<K, V> collision = (Collision<K, V>) node;
+		for (int i = 0; i < collision.leaves.length; i++) {
+			Leaf<K, V> existing = collision.leaves[i];
+			if (Objects.equals(existing.key, leaf.key)) {
+				if (existing.value == leaf.value)
+					return collision;
+				Leaf<K, V>[] leaves = collision.leaves.clone();
+				leaves[i] = new Leaf<>(leaf.hash, existing.key, leaf.value);
+				return new Collision<>(leaf.hash, leaves);
+			}
+		}
+		Leaf<K, V>[] leaves = Arrays.copyOf(collision.leaves, collision.leaves.length + 1);
+		leaves[collision.leaves.length] = leaf;
+		return new Collision<>(leaf.hash, leaves);
+	}
+
+	/**
+	 * Builds a branch containing the two given nodes, that must be leaves or
+	 * collisions with different hashes.
+	 */
+	private static <K, V> Node<K, V> merge(int shift, Node<K, V> first, Node<K, V> second) {
+		int f1 = fragment(first.hash(), shift);
+		int f2 = fragment(second.hash(), shift);
+		if (f1 == f2)
+			return new Branch<>(1 << f1, newArray(merge(shift + BITS, first, second)));
+		if (f1 < f2)
+			return new Branch<>((1 << f1) | (1 << f2), newArray(first, second));
+		return new Branch<>((1 << f1) | (1 << f2), newArray(second, first));
+	}
+
+	private static <K, V> Node<K, V> remove(Node<K, V> node, int shift, int hash, Object key) {
+		if (node instanceof Leaf)
+			return null;
+
+		if (node instanceof Collision) {
+			Collision<K, V> collision = (Collision<K, V>) node;
+			if (collision.leaves.length == 2)
+				return Objects.equals(collision.leaves[0].key, key) ? collision.leaves[1] : collision.leaves[0];
+			Leaf<K, V>[] leaves = Arrays.copyOf(collision.leaves, collision.leaves.length - 1);
+			int j = 0;
+			for (Leaf<K, V> leaf : collision.leaves)
+				if (!Objects.equals(leaf.key, key))
+					leaves[j++] = leaf;
+			return new Collision<>(hash, leaves);
+		}
+
+		Branch<K, V> branch = (Branch<K, V>) node;
+		int bit = 1 << fragment(hash, shift);
+		int idx = Integer.bitCount(branch.bitmap & (bit - 1));
+		Node<K, V> updated = remove(branch.children[idx], shift + BITS, hash, key);
+
+		if (updated == null) {
+			if (branch.children.length == 1)
+				return null;
+			if (branch.children.length == 2 && !(branch.children[1 - idx] instanceof Branch))
+				// the only remaining child can be moved up
+				return branch.children[1 - idx];
+			Node<K, V>[] children = newArray(branch.children.length - 1);
+			System.arraycopy(branch.children, 0, children, 0, idx);
+			System.arraycopy(branch.children, idx + 1, children, idx, branch.children.length - idx - 1);
+			return new Branch<>(branch.bitmap & ~bit, children);
+		}
+
+		if (branch.children.length == 1 && !(updated instanceof Branch))
+			// the only child can be moved up
+			return updated;
+		Node<K, V>[] children = branch.children.clone();
+		children[idx] = updated;
+		return new Branch<>(branch.bitmap, children);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> Node<K, V>[] newArray(int length) {
+		return new Node[length];
+	}
+
+	@SafeVarargs
+	private static <K, V> Node<K, V>[] newArray(Node<K, V>... nodes) {
+		return nodes;
+	}
+
+	@SafeVarargs
+	private static <K, V> Leaf<K, V>[] newLeaves(Leaf<K, V>... leaves) {
+		return leaves;
+	}
+
+	private abstract static class Node<K, V> {
+
+		abstract int hash();
+	}
+
+	private static final class Leaf<K, V> extends Node<K, V> {
+		private final int hash;
+		private final K key;
+		private final V value;
+
+		private Leaf(int hash, K key, V value) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		int hash() {
+			return hash;
+		}
+	}
+
+	private static final class Collision<K, V> extends Node<K, V> {
+		private final int hash;
+		private final Leaf<K, V>[] leaves;
+
+		private Collision(int hash, Leaf<K, V>[] leaves) {
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+
+		@Override
+		int hash() {
+			return hash;
+		}
+	}
+
+	private static final class Branch<K, V> extends Node<K, V> {
+		private final int bitmap;
+		private final Node<K, V>[] children;
+
+		private Branch(int bitmap, Node<K, V>[] children) {
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+
+		@Override
+		int hash() {
+			throw new UnsupportedOperationException("Branches do not have a hash");
+		}
+	}
+
+	private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+		private final PersistentHashMap<K, V> map;
+
+		private final Deque<Node<K, V>> stack = new ArrayDeque<>();
+
+		private final Deque<Leaf<K, V>> pending = new ArrayDeque<>();
+
+		private Leaf<K, V> last;
+
+		private EntryIterator(PersistentHashMap<K, V> map, Node<K, V> root) {
+			this.map = map;
+			if (root != null)
+				stack.push(root);
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (pending.isEmpty() && !stack.isEmpty()) {
+				Node<K, V> node = stack.pop();
+				if (node instanceof Branch) {
+					Node<K, V>[] children = ((Branch<K, V>) node).children;
+					for (int i = children.length - 1; i >= 0; i--)
+						stack.push(children[i]);
+				} else if (node instanceof Collision)
+					pending.addAll(Arrays.asList(((Collision<K, V>) node).leaves));
+				else
+					pending.add((Leaf<K, V>) node);
+			}
+			return !pending.isEmpty();
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			last = pending.poll();
+			return new SimpleEntry<>(last.key, last.value) {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public V setValue(V value) {
+					V old = super.setValue(value);
+					map.put(getKey(), value);
+					return old;
+				}
+			};
+		}
+
+		@Override
+		public void remove() {
+			if (last == null)
+				throw new IllegalStateException();
+			map.remove(last.key);
+			last = null;
+		}
+	}
+}
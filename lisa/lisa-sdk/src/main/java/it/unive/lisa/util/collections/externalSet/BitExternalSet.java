@@ -168,20 +168,9 @@ public final class BitExternalSet<T> implements ExternalSet<T> {
 
 	@Override
 	public int size() {
-		long bitvector;
 		int count = 0;
-		long[] localbits = this.bits;
-
-		for (int pos = localbits.length - 1; pos >= 0; pos--) {
-			bitvector = localbits[pos];
-			if (bitvector != 0L)
-				for (int i = 0; i < 64; i++) {
-					int n = 64 * pos + i;
-					if ((localbits[n >> 6] & 1L << (n % 64)) != 0L)
-						count++;
-				}
-		}
-
+		for (long bitvector : this.bits)
+			count += Long.bitCount(bitvector);
 		return count;
 	}
 
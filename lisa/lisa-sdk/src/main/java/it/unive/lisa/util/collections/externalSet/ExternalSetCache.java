@@ -1,10 +1,30 @@
 package it.unive.lisa.util.collections.externalSet;
 
-import java.util.*;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * A cache for creating {@link ExternalSet}s of the elements contained in this
- * cache.
+ * cache.<br>
+ * <br>
+ * The cache can be shared among threads without a global lock: the index of
+ * each element is kept in a {@link ConcurrentHashMap}, while elements are
+ * stored in an append-only sequence of chunks, each twice as big as the
+ * previous one, that are never moved once allocated. Looking up the index of
+ * an element already in the cache, or the element at a given index, never
+ * blocks. Instead, adding a new element goes through
+ * {@link ConcurrentHashMap#computeIfAbsent(Object, java.util.function.Function)},
+ * that locks the bin of the map where the element falls: concurrent inserts
+ * might thus contend on the map. The number of elements is published through
+ * a volatile counter, that threads adding elements cooperatively advance over
+ * all the positions that have already been filled, so that publishing an
+ * element never waits for another thread.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -13,24 +33,20 @@ import java.util.*;
 public class ExternalSetCache<T> {
 
 	/**
-	 * The collection of elements in this cache
+	 * The object used in place of {@code null}, that cannot be stored in a
+	 * {@link ConcurrentHashMap} and that marks empty positions in the chunks
 	 */
-	private final List<T> elements = new ArrayList<>(16);
+	private static final Object NULL = new Object();
 
 	/**
-	 * A map from the elements to their index
+	 * The base-2 logarithm of the size of the first chunk
 	 */
-	private final Map<T, Integer> indexes = new HashMap<>(16);
+	private static final int FIRST_CHUNK_BITS = 4;
 
 	/**
-	 * The next index available for new elements
+	 * The current contents of the cache, replaced when the cache is cleared
 	 */
-	private int nextIndex = 0;
-
-	/**
-	 * The index assigned to the {@code null} key, if any.
-	 */
-	private int indexOfNull = -1;
+	private volatile Storage<T> storage = new Storage<>();
 
 	/**
 	 * Builds an empty {@link ExternalSet} that uses this cache.
@@ -82,12 +98,9 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the index of {@code e}, or {@code -1}
 	 */
-	protected final synchronized int indexOf(T e) {
-		if (e == null)
-			return indexOfNull;
-
-		Integer result;
-		return (result = indexes.get(e)) == null ? -1 : result;
+	protected final int indexOf(T e) {
+		Integer result = storage.indexes.get(e == null ? NULL : e);
+		return result == null ? -1 : result;
 	}
 
 	/**
@@ -98,23 +111,13 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the index of {@code e}
 	 */
-	protected final synchronized int indexOfOrAdd(T e) {
-		if (e == null) {
-			if (indexOfNull == -1) {
-				elements.add(null);
-				indexOfNull = nextIndex++;
-			}
-			return indexOfNull;
-		}
-
-		Integer result = indexes.get(e);
-		if (result == null)
-			return indexes.computeIfAbsent(e, el -> {
-				elements.add(e);
-				return nextIndex++;
-			});
-
-		return result;
+	protected final int indexOfOrAdd(T e) {
+		Storage<T> local = storage;
+		Object key = e == null ? NULL : e;
+		Integer result = local.indexes.get(key);
+		if (result != null)
+			return result;
+		return local.indexes.computeIfAbsent(key, k -> local.append(e));
 	}
 
 	/**
@@ -123,33 +126,35 @@ public class ExternalSetCache<T> {
 	 * @param pos the position
 	 * 
 	 * @return the element
+	 * 
+	 * @throws IndexOutOfBoundsException if there is no element at the given
+	 *                                       position
 	 */
-	protected final synchronized T get(int pos) {
-		return elements.get(pos);
+	protected final T get(int pos) {
+		return storage.get(pos);
 	}
 
 	/**
-	 * Cleans the cache, removing all elements.
+	 * Cleans the cache, removing all elements. Sets created before clearing
+	 * the cache must not be used afterwards.
 	 */
-	public final synchronized void clear() {
-		elements.clear();
-		indexes.clear();
-		indexOfNull = -1;
-		nextIndex = 0;
+	public final void clear() {
+		storage = new Storage<>();
 	}
 
 	/**
-	 * Yields the total number of elements stored in this cache.
+	 * Yields the total number of elements stored in this cache. Elements that
+	 * are being added concurrently might not be counted yet.
 	 * 
 	 * @return the number of elements
 	 */
-	public final synchronized int size() {
-		return elements.size();
+	public final int size() {
+		return storage.size;
 	}
 
 	@Override
-	public final synchronized String toString() {
-		return elements.toString();
+	public final String toString() {
+		return getAllElements().toString();
 	}
 
 	/**
@@ -158,7 +163,95 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return a view of the elements inside this cache
 	 */
-	synchronized Collection<T> getAllElements() {
-		return Collections.unmodifiableCollection(elements);
+	Collection<T> getAllElements() {
+		Storage<T> local = storage;
+		int size = local.size;
+		return new AbstractList<T>() {
+
+			@Override
+			public T get(int index) {
+				Objects.checkIndex(index, size);
+				return local.get(index);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * The contents of a cache.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 * 
+	 * @param <T> the type of elements stored
+	 */
+	private static final class Storage<T> {
+
+		/**
+		 * A map from the elements to their index
+		 */
+		private final Map<Object, Integer> indexes = new ConcurrentHashMap<>(16);
+
+		/**
+		 * The chunks holding the elements, where the {@code i}-th chunk has
+		 * room for {@code 2^(FIRST_CHUNK_BITS + i)} elements and {@code null}
+		 * elements are stored as {@link ExternalSetCache#NULL}
+		 */
+		private final AtomicReferenceArray<AtomicReferenceArray<Object>> chunks = new AtomicReferenceArray<>(
+				Integer.SIZE - FIRST_CHUNK_BITS);
+
+		/**
+		 * The next index available for new elements
+		 */
+		private final AtomicInteger nextIndex = new AtomicInteger();
+
+		/**
+		 * The number of elements that can be read, such that all the indexes
+		 * below it have been filled
+		 */
+		private volatile int size = 0;
+
+		@SuppressWarnings("rawtypes")
+		private static final AtomicIntegerFieldUpdater<Storage> SIZE = AtomicIntegerFieldUpdater
+				.newUpdater(Storage.class, "size");
+
+		private AtomicReferenceArray<Object> chunk(int pos) {
+			int chunk = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(pos + (1 << FIRST_CHUNK_BITS))
+					- FIRST_CHUNK_BITS;
+			AtomicReferenceArray<Object> elements = chunks.get(chunk);
+			if (elements != null)
+				return elements;
+			AtomicReferenceArray<Object> fresh = new AtomicReferenceArray<>(1 << (chunk + FIRST_CHUNK_BITS));
+			return chunks.compareAndSet(chunk, null, fresh) ? fresh : chunks.get(chunk);
+		}
+
+		private static int offset(int pos) {
+			int shifted = pos + (1 << FIRST_CHUNK_BITS);
+			return shifted - Integer.highestOneBit(shifted);
+		}
+
+		@SuppressWarnings("unchecked")
+		private T get(int pos) {
+			Object e = pos >= 0 && pos < nextIndex.get() ? chunk(pos).get(offset(pos)) : null;
+			if (e == null)
+				throw new IndexOutOfBoundsException("No element at index " + pos);
+			return e == NULL ? null : (T) e;
+		}
+
+		private int append(T e) {
+			int pos = nextIndex.getAndIncrement();
+			chunk(pos).set(offset(pos), e == null ? NULL : e);
+
+			// publish all the elements stored contiguously: if one before pos
+			// is still missing, the thread storing it will publish pos too
+			int published;
+			while ((published = size) < nextIndex.get()
+					&& chunk(published).get(offset(published)) != null)
+				SIZE.compareAndSet(this, published, published + 1);
+			return pos;
+		}
 	}
 }
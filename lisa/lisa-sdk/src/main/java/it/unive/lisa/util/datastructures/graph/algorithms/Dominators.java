@@ -1,7 +1,5 @@
 package it.unive.lisa.util.datastructures.graph.algorithms;
 
-import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
-import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.Edge;
 import it.unive.lisa.util.datastructures.graph.Graph;
 import it.unive.lisa.util.datastructures.graph.Node;
@@ -11,7 +9,16 @@ import java.util.*;
  * An algorithms that evaluates the dominators of each node in a graph. A node
  * {@code d} dominates a node {@code n} if every path from an entry node to
  * {@code n} must go through {@code d}. By definition, every node dominates
- * itself.
+ * itself.<br>
+ * <br>
+ * Instead of storing the whole set of dominators of each node, this class
+ * computes the dominator tree of the graph, where the parent of each node is
+ * its immediate dominator, using the algorithm by Cooper, Harvey and Kennedy.
+ * Nodes are numbered according to their postorder, and all the computations
+ * happen on such numbers. Whether or not a node dominates another one can be
+ * queried through {@link #dominates(Node, Node)} in time linear in the depth
+ * of the tree, while the full sets of dominators (see
+ * {@link #getDominators()}) are only computed on demand.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -22,29 +29,105 @@ import java.util.*;
  * @see <a href=
  *          "https://en.wikipedia.org/wiki/Dominator_(graph_theory)">Dominators
  *          (graph theory)</a>
+ * @see <a href=
+ *          "http://www.hipersoft.rice.edu/grads/publications/dom14.pdf">A
+ *          Simple, Fast Dominance Algorithm</a>
  */
 public class Dominators<G extends Graph<G, N, E>, N extends Node<G, N, E>, E extends Edge<G, N, E>> {
 
-	private final Map<N, Set<N>> dominators;
+	private static final int UNDEFINED = -1;
+
+	/**
+	 * The postorder number of each node reachable from the entrypoints.
+	 */
+	private final Map<N, Integer> indexes;
+
+	/**
+	 * The reachable nodes, sorted by postorder.
+	 */
+	private final List<N> nodes;
+
+	/**
+	 * The postorder number of the immediate dominator of each node. A
+	 * synthetic root, whose number is {@code nodes.size()}, is used as
+	 * immediate dominator of the entrypoints.
+	 */
+	private int[] idoms;
+
+	/**
+	 * The materialized sets of dominators, lazily computed.
+	 */
+	private Map<N, Set<N>> materialized;
+
+	private final Map<N, Set<N>> view;
 
 	/**
 	 * Builds the dominators. To run the algorithm, use {@link #build(Graph)}.
 	 */
 	public Dominators() {
-		dominators = new IdentityHashMap<>();
+		indexes = new IdentityHashMap<>();
+		nodes = new ArrayList<>();
+		idoms = new int[0];
+		view = new DominatorsView();
 	}
 
 	/**
 	 * Yelds the last computed dominators through {@link #build(Graph)}. The
 	 * returned value is a map going from each node of the given graph to the
-	 * set of nodes that dominates it.
+	 * set of nodes that dominates it. The map is a read-only view over the
+	 * dominator tree: individual sets are computed when retrieved, and the
+	 * whole map is materialized only if it is iterated.
 	 * 
 	 * @return a map containing, for each node of the graph passed as argument
 	 *             to the last call to {@link #build(Graph)}, the set of nodes
 	 *             that dominates it
 	 */
 	public Map<N, Set<N>> getDominators() {
-		return dominators;
+		return view;
+	}
+
+	/**
+	 * Yields whether or not {@code dominator} dominates {@code node}, according
+	 * to the last computed dominators through {@link #build(Graph)}. This
+	 * method returns {@code false} if any of the two nodes was not reachable
+	 * from the entrypoints of the graph.
+	 * 
+	 * @param dominator the candidate dominator
+	 * @param node      the node that might be dominated
+	 * 
+	 * @return {@code true} if {@code dominator} dominates {@code node}
+	 */
+	public boolean dominates(N dominator, N node) {
+		Integer d = indexes.get(dominator);
+		Integer n = indexes.get(node);
+		if (d == null || n == null)
+			return false;
+
+		// postorder numbers of dominators are always greater than the ones of
+		// the nodes they dominate, so we can stop as soon as we go past d
+		int current = n;
+		while (current < d)
+			current = idoms[current];
+		return current == d;
+	}
+
+	/**
+	 * Yields the immediate dominator of the given node, that is, its parent
+	 * in the dominator tree, according to the last computed dominators through
+	 * {@link #build(Graph)}.
+	 * 
+	 * @param node the node
+	 * 
+	 * @return the immediate dominator of {@code node}, or {@code null} if
+	 *             {@code node} is an entrypoint or if it is not reachable
+	 *             from the entrypoints
+	 */
+	public N getImmediateDominator(N node) {
+		Integer n = indexes.get(node);
+		if (n == null)
+			return null;
+		int idom = idoms[n];
+		return idom == nodes.size() ? null : nodes.get(idom);
 	}
 
 	/**
@@ -58,47 +141,142 @@ public class Dominators<G extends Graph<G, N, E>, N extends Node<G, N, E>, E ext
 	 *             that dominates it
 	 */
 	public Map<N, Set<N>> build(G graph) {
-		dominators.clear();
+		indexes.clear();
+		nodes.clear();
+		materialized = null;
+
 		Collection<N> entries = graph.getEntrypoints();
-		WorkingSet<N> ws = FIFOWorkingSet.mk();
-		entries.forEach(ws::push);
-		while (!ws.isEmpty()) {
-			N current = ws.pop();
-
-			Set<N> res;
-			if (entries.contains(current))
-				res = new HashSet<>();
-			else
-				res = intersect(graph.predecessorsOf(current));
-			res.add(current);
-
-			if (!res.equals(dominators.get(current))) {
-				dominators.put(current, res);
-				graph.followersOf(current).forEach(ws::push);
+		for (N entry : entries)
+			visit(graph, entry);
+
+		int root = nodes.size();
+		int[][] preds = new int[root][];
+		for (int i = 0; i < root; i++) {
+			N node = nodes.get(i);
+			Collection<N> predecessors = graph.predecessorsOf(node);
+			boolean entry = entries.contains(node);
+			int[] p = new int[predecessors.size() + (entry ? 1 : 0)];
+			int size = 0;
+			if (entry)
+				p[size++] = root;
+			for (N pred : predecessors) {
+				Integer idx = indexes.get(pred);
+				// unreachable predecessors do not contribute
+				if (idx != null)
+					p[size++] = idx;
 			}
+			preds[i] = size == p.length ? p : Arrays.copyOf(p, size);
 		}
 
-		return dominators;
+		idoms = new int[root + 1];
+		Arrays.fill(idoms, UNDEFINED);
+		idoms[root] = root;
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			// reverse postorder, skipping the synthetic root
+			for (int i = root - 1; i >= 0; i--) {
+				int idom = UNDEFINED;
+				for (int pred : preds[i])
+					if (idoms[pred] != UNDEFINED)
+						idom = idom == UNDEFINED ? pred : intersect(pred, idom);
+				if (idoms[i] != idom) {
+					idoms[i] = idom;
+					changed = true;
+				}
+			}
+		}
+
+		return view;
+	}
+
+	private void visit(G graph, N start) {
+		if (indexes.containsKey(start))
+			return;
+
+		// iterative depth-first visit to compute the postorder without
+		// overflowing the stack on large graphs
+		Deque<N> stack = new ArrayDeque<>();
+		Deque<Iterator<N>> iterators = new ArrayDeque<>();
+		// marks nodes as visited, the actual number is assigned later
+		indexes.put(start, UNDEFINED);
+		stack.push(start);
+		iterators.push(graph.followersOf(start).iterator());
+		while (!stack.isEmpty()) {
+			Iterator<N> it = iterators.peek();
+			if (it.hasNext()) {
+				N next = it.next();
+				if (!indexes.containsKey(next)) {
+					indexes.put(next, UNDEFINED);
+					stack.push(next);
+					iterators.push(graph.followersOf(next).iterator());
+				}
+			} else {
+				iterators.pop();
+				N node = stack.pop();
+				indexes.put(node, nodes.size());
+				nodes.add(node);
+			}
+		}
 	}
 
-	private Set<N> intersect(Collection<N> nodes) {
-		if (nodes == null || nodes.isEmpty())
-			return Collections.emptySet();
-
-		Set<N> res = null;
-		for (N node : nodes) {
-			Set<N> doms = dominators.get(node);
-			// might not have been processed yet
-			if (doms != null)
-				if (res == null)
-					res = new HashSet<>(doms);
-				else
-					res.retainAll(doms);
-			if (res != null && res.isEmpty())
-				// nothing more to do
-				break;
+	private int intersect(int first, int second) {
+		while (first != second) {
+			while (first < second)
+				first = idoms[first];
+			while (second < first)
+				second = idoms[second];
 		}
+		return first;
+	}
 
-		return res == null ? new HashSet<>() : res;
+	private Set<N> dominatorsOf(int node) {
+		Set<N> result = new HashSet<>();
+		int root = nodes.size();
+		for (int current = node; current != root; current = idoms[current])
+			result.add(nodes.get(current));
+		return result;
+	}
+
+	private Map<N, Set<N>> materialize() {
+		if (materialized == null) {
+			Map<N, Set<N>> result = new IdentityHashMap<>(nodes.size());
+			for (int i = 0; i < nodes.size(); i++)
+				result.put(nodes.get(i), Collections.unmodifiableSet(dominatorsOf(i)));
+			materialized = Collections.unmodifiableMap(result);
+		}
+		return materialized;
+	}
+
+	/**
+	 * A read-only view over the dominator tree, mapping each node to the set
+	 * of its dominators.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	private class DominatorsView extends AbstractMap<N, Set<N>> {
+
+		@Override
+		public int size() {
+			return nodes.size();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return indexes.containsKey(key);
+		}
+
+		@Override
+		public Set<N> get(Object key) {
+			if (materialized != null)
+				return materialized.get(key);
+			Integer idx = indexes.get(key);
+			return idx == null ? null : Collections.unmodifiableSet(dominatorsOf(idx));
+		}
+
+		@Override
+		public Set<Entry<N, Set<N>>> entrySet() {
+			return materialize().entrySet();
+		}
 	}
 }
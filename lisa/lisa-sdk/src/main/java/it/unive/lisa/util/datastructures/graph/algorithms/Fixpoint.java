@@ -2,6 +2,8 @@ package it.unive.lisa.util.datastructures.graph.algorithms;
 
 import static java.lang.String.format;
 
+import it.unive.lisa.logging.FixpointMetrics;
+import it.unive.lisa.logging.FixpointMetrics.Recorder;
 import it.unive.lisa.util.collections.workset.WorkingSet;
 import it.unive.lisa.util.datastructures.graph.Edge;
 import it.unive.lisa.util.datastructures.graph.Graph;
@@ -27,14 +29,54 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 
 	private Map<N, T> result;
 
+	/**
+	 * The last state computed by traversing each edge, paired with the exit
+	 * state of the source of the edge it has been computed from.
+	 */
+	private final Map<E, Traversal<T>> traversals;
+
+	/**
+	 * The last entry state computed for each node, together with the states
+	 * it has been computed from.
+	 */
+	private final Map<N, EntryState<T>> entries;
+
+	/**
+	 * The states that the results of nodes that are not heads of weak
+	 * topological components are joined with, if any.
+	 */
+	private Map<N, T> seeds;
+
+	/**
+	 * The recorder of the metrics of this fixpoint, if any.
+	 */
+	private final Recorder metrics;
+
 	/**
 	 * Builds a fixpoint for the given {@link Graph}.
 	 * 
 	 * @param graph the source graph
 	 */
 	public Fixpoint(Graph<G, N, E> graph) {
+		this(graph, null);
+	}
+
+	/**
+	 * Builds a fixpoint for the given {@link Graph}, that records the number
+	 * of iterations on each node and the high-water mark of the working set
+	 * into the given {@link Recorder}. Flushing the recorder is up to the
+	 * caller.
+	 * 
+	 * @param graph   the source graph
+	 * @param metrics the recorder of the {@link FixpointMetrics} of this
+	 *                    fixpoint (can be {@code null})
+	 */
+	public Fixpoint(Graph<G, N, E> graph, Recorder metrics) {
 		this.graph = graph;
+		this.metrics = metrics;
 		result = new HashMap<>(graph.getNodesCount());
+		traversals = new HashMap<>();
+		entries = new HashMap<>(graph.getNodesCount());
 	}
 
 	/**
@@ -191,11 +233,12 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 			FixpointImplementation<N, E, T> implementation, Map<N, T> initialResult)
 			throws FixpointException {
 
-		result = initialResult;
+		reset(initialResult);
 		startingPoints.keySet().forEach(ws::push);
 
-		T newApprox;
 		while (!ws.isEmpty()) {
+			if (metrics != null)
+				metrics.workingSet(ws.size());
 			N current = ws.pop();
 
 			if (current == null)
@@ -203,52 +246,223 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 			if (!graph.containsNode(current))
 				throw new FixpointException("'" + current + "' is not part of '" + graph + "'");
 
-			T entrystate = getEntryState(current, startingPoints.get(current), implementation);
-			if (entrystate == null)
-				throw new FixpointException("'" + current + "' does not have an entry state");
+			if (update(current, startingPoints, implementation, true))
+				for (N instr : graph.followersOf(current))
+					ws.push(instr);
+		}
 
-			try {
-				newApprox = implementation.semantics(current, entrystate);
-			} catch (Exception e) {
-				throw new FixpointException(format(ERROR, "computing semantics", current, graph), e);
+		return result;
+	}
+
+	/**
+	 * Runs the fixpoint following the given {@link WeakTopologicalOrder}.
+	 * Invoking this method effectively recomputes the result: no caching on
+	 * previous runs is executed. It starts with empty result.
+	 * 
+	 * @param startingPoints a map containing all the nodes to start the
+	 *                           fixpoint at, each mapped to its entry state.
+	 * @param wto            the weak topological order of the nodes to
+	 *                           process, computed starting from the keys of
+	 *                           {@code startingPoints}
+	 * @param implementation the {@link FixpointImplementation} to use for
+	 *                           running the fixpoint
+	 * 
+	 * @return a mapping from each (reachable) node of the source graph to the
+	 *             fixpoint result computed at that node
+	 * 
+	 * @throws FixpointException if something goes wrong during the fixpoint
+	 *                               execution
+	 * 
+	 * @see #fixpoint(Map, WeakTopologicalOrder, FixpointImplementation, Map)
+	 */
+	public Map<N, T> fixpoint(Map<N, T> startingPoints, WeakTopologicalOrder<G, N, E> wto,
+			FixpointImplementation<N, E, T> implementation)
+			throws FixpointException {
+		return fixpoint(startingPoints, wto, implementation, new HashMap<>(graph.getNodesCount()));
+	}
+
+	/**
+	 * Runs the fixpoint following the given {@link WeakTopologicalOrder}.
+	 * Invoking this method effectively recomputes the result: no caching on
+	 * previous runs is executed.<br>
+	 * <br>
+	 * Elements of the order are processed in sequence, and each component is
+	 * stabilized by repeatedly processing its body until its head does not
+	 * change anymore (Bourdoncle's recursive iteration strategy). As a
+	 * consequence, {@link FixpointImplementation#operation(Object, Object, Object)}
+	 * and {@link FixpointImplementation#equality(Object, Object, Object)} are
+	 * only invoked on the heads of the components, while the results of all
+	 * other nodes are overwritten with the exit state computed by
+	 * {@link FixpointImplementation#semantics(Object, Object)}.
+	 * 
+	 * @param startingPoints a map containing all the nodes to start the
+	 *                           fixpoint at, each mapped to its entry state.
+	 * @param wto            the weak topological order of the nodes to
+	 *                           process, computed starting from the keys of
+	 *                           {@code startingPoints}
+	 * @param implementation the {@link FixpointImplementation} to use for
+	 *                           running the fixpoint
+	 * @param initialResult  the map of initial result to use for running the
+	 *                           fixpoint
+	 * 
+	 * @return a mapping from each (reachable) node of the source graph to the
+	 *             fixpoint result computed at that node
+	 * 
+	 * @throws FixpointException if something goes wrong during the fixpoint
+	 *                               execution
+	 */
+	public Map<N, T> fixpoint(Map<N, T> startingPoints, WeakTopologicalOrder<G, N, E> wto,
+			FixpointImplementation<N, E, T> implementation, Map<N, T> initialResult)
+			throws FixpointException {
+		return fixpoint(startingPoints, wto, implementation, initialResult, false);
+	}
+
+	/**
+	 * Runs the fixpoint following the given {@link WeakTopologicalOrder}, as
+	 * {@link #fixpoint(Map, WeakTopologicalOrder, FixpointImplementation, Map)}
+	 * does. If {@code seeded} is {@code true}, {@code initialResult} is
+	 * treated as a lower bound for the result: the exit state computed for a
+	 * node that is not the head of a component is joined with its initial
+	 * result through
+	 * {@link FixpointImplementation#union(Object, Object, Object)} before
+	 * being stored. Since the results of the heads are always joined with
+	 * their previous value, each node ends up with a result that is greater
+	 * or equal than its initial one.
+	 * 
+	 * @param startingPoints a map containing all the nodes to start the
+	 *                           fixpoint at, each mapped to its entry state.
+	 * @param wto            the weak topological order of the nodes to
+	 *                           process, computed starting from the keys of
+	 *                           {@code startingPoints}
+	 * @param implementation the {@link FixpointImplementation} to use for
+	 *                           running the fixpoint
+	 * @param initialResult  the map of initial result to use for running the
+	 *                           fixpoint
+	 * @param seeded         whether or not the results of all nodes must be
+	 *                           joined with the ones in {@code initialResult}
+	 * 
+	 * @return a mapping from each (reachable) node of the source graph to the
+	 *             fixpoint result computed at that node
+	 * 
+	 * @throws FixpointException if something goes wrong during the fixpoint
+	 *                               execution
+	 */
+	public Map<N, T> fixpoint(Map<N, T> startingPoints, WeakTopologicalOrder<G, N, E> wto,
+			FixpointImplementation<N, E, T> implementation, Map<N, T> initialResult, boolean seeded)
+			throws FixpointException {
+		reset(initialResult);
+		if (seeded)
+			// the result map is updated in place, so we need a snapshot
+			seeds = new HashMap<>(initialResult);
+		iterate(wto.getComponents(), startingPoints, implementation);
+		return result;
+	}
+
+	private void reset(Map<N, T> initialResult) {
+		result = initialResult;
+		seeds = null;
+		// memoized states are only valid within a single run, since they
+		// have been produced by a possibly different implementation
+		traversals.clear();
+		entries.clear();
+	}
+
+	private void iterate(List<WeakTopologicalOrder.Element<N>> elements, Map<N, T> startingPoints,
+			FixpointImplementation<N, E, T> implementation) throws FixpointException {
+		for (WeakTopologicalOrder.Element<N> element : elements)
+			if (!element.isComponent())
+				update(element.getHead(), startingPoints, implementation, false);
+			else {
+				N head = element.getHead();
+				update(head, startingPoints, implementation, true);
+				do
+					iterate(element.getBody(), startingPoints, implementation);
+				while (update(head, startingPoints, implementation, true));
 			}
+	}
 
-			T oldApprox = result.get(current);
-			if (oldApprox != null)
+	/**
+	 * Computes the new result for the given node, storing it in the result.
+	 * If {@code join} is {@code true}, the new result is first joined with the
+	 * previous one (if any), and it is stored only if the two are not equal
+	 * according to the implementation. Otherwise, it is first joined with the
+	 * seed of the node (if any), and it is stored only if it is not equal to
+	 * the previous one. Yields {@code true} if the result of the node has been
+	 * updated.
+	 */
+	private boolean update(N current, Map<N, T> startingPoints, FixpointImplementation<N, E, T> implementation,
+			boolean join) throws FixpointException {
+		if (metrics != null)
+			metrics.iteration(current);
+		T entrystate = getEntryState(current, startingPoints.get(current), implementation);
+		if (entrystate == null)
+			throw new FixpointException("'" + current + "' does not have an entry state");
+
+		T newApprox;
+		try {
+			newApprox = implementation.semantics(current, entrystate);
+		} catch (Exception e) {
+			throw new FixpointException(format(ERROR, "computing semantics", current, graph), e);
+		}
+
+		T oldApprox = result.get(current);
+		if (!join) {
+			T seed = seeds == null ? null : seeds.get(current);
+			if (seed != null)
 				try {
-					newApprox = implementation.operation(current, newApprox, oldApprox);
+					newApprox = implementation.union(current, newApprox, seed);
 				} catch (Exception e) {
 					throw new FixpointException(format(ERROR, "joining states", current, graph), e);
 				}
+			// the previous instance is kept if nothing changed, so that
+			// memoized traversals starting from it can still be reused
+			if (newApprox.equals(oldApprox))
+				return false;
+			result.put(current, newApprox);
+			return true;
+		}
+
+		if (oldApprox != null)
 			try {
-				if (oldApprox == null || !implementation.equality(current, newApprox, oldApprox)) {
-					result.put(current, newApprox);
-					for (N instr : graph.followersOf(current))
-						ws.push(instr);
-				}
+				newApprox = implementation.operation(current, newApprox, oldApprox);
 			} catch (Exception e) {
-				throw new FixpointException(format(ERROR, "updating result", current, graph), e);
+				throw new FixpointException(format(ERROR, "joining states", current, graph), e);
+			}
+		try {
+			if (oldApprox == null || !implementation.equality(current, newApprox, oldApprox)) {
+				result.put(current, newApprox);
+				return true;
 			}
+		} catch (Exception e) {
+			throw new FixpointException(format(ERROR, "updating result", current, graph), e);
 		}
 
-		return result;
+		return false;
 	}
 
+	/**
+	 * Computes the entry state of the given node, that is, the union of the
+	 * starting state (if any) with the states obtained by traversing the edges
+	 * coming from the predecessors that have already been computed. Since the
+	 * result of a node is replaced (and never modified) whenever it changes,
+	 * the states produced by traversing an edge are memoized and reused as
+	 * long as the result of the edge's source is the same object. Similarly,
+	 * the entry state itself is reused if it would be computed from the same
+	 * states of the previous invocation.
+	 */
 	private T getEntryState(N current, T startstate, FixpointImplementation<N, E, T> implementation)
 			throws FixpointException {
 		Collection<N> preds = graph.predecessorsOf(current);
 		List<T> states = new ArrayList<>(preds.size());
 
 		for (N pred : preds)
-			if (result.containsKey(pred)) {
+			if (result.containsKey(pred))
 				// this might not have been computed yet
-				E edge = graph.getEdgeConnecting(pred, current);
-				try {
-					states.add(implementation.traverse(edge, result.get(pred)));
-				} catch (Exception e) {
-					throw new FixpointException(format(ERROR, "computing edge semantics", edge, graph), e);
-				}
-			}
+				states.add(traverse(pred, current, result.get(pred), implementation));
+
+		EntryState<T> cached = entries.get(current);
+		if (cached != null && cached.isComputedFrom(startstate, states))
+			return cached.entrystate;
 
 		T entrystate = startstate;
 		try {
@@ -261,6 +475,56 @@ public class Fixpoint<G extends Graph<G, N, E>, N extends Node<G, N, E>, E exten
 			throw new FixpointException(format(ERROR, "creating entry state", current, graph), e);
 		}
 
+		entries.put(current, new EntryState<>(startstate, states, entrystate));
 		return entrystate;
 	}
+
+	private T traverse(N pred, N current, T exitstate, FixpointImplementation<N, E, T> implementation)
+			throws FixpointException {
+		E edge = graph.getEdgeConnecting(pred, current);
+		Traversal<T> cached = traversals.get(edge);
+		if (cached != null && cached.source == exitstate)
+			return cached.state;
+
+		T state;
+		try {
+			state = implementation.traverse(edge, exitstate);
+		} catch (Exception e) {
+			throw new FixpointException(format(ERROR, "computing edge semantics", edge, graph), e);
+		}
+
+		traversals.put(edge, new Traversal<>(exitstate, state));
+		return state;
+	}
+
+	private static final class Traversal<T> {
+		private final T source;
+		private final T state;
+
+		private Traversal(T source, T state) {
+			this.source = source;
+			this.state = state;
+		}
+	}
+
+	private static final class EntryState<T> {
+		private final T startstate;
+		private final List<T> states;
+		private final T entrystate;
+
+		private EntryState(T startstate, List<T> states, T entrystate) {
+			this.startstate = startstate;
+			this.states = states;
+			this.entrystate = entrystate;
+		}
+
+		private boolean isComputedFrom(T startstate, List<T> states) {
+			if (this.startstate != startstate || this.states.size() != states.size())
+				return false;
+			for (int i = 0; i < states.size(); i++)
+				if (this.states.get(i) != states.get(i))
+					return false;
+			return true;
+		}
+	}
 }
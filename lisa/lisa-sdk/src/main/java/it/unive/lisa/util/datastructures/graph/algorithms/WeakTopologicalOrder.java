@@ -0,0 +1,276 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.*;
+
+/**
+ * A weak topological order (WTO) of the nodes of a graph, computed through
+ * Bourdoncle's recursive decomposition into strongly connected components. A
+ * WTO is a hierarchical ordering of nodes where every strongly connected
+ * component is represented as a <i>component</i> with a <i>head</i> (the node
+ * through which the component is entered) and a <i>body</i> (itself a WTO of
+ * the remaining nodes of the component). Nodes that are not part of any cycle
+ * are plain <i>vertices</i>.<br>
+ * <br>
+ * Traversing a WTO in order guarantees that each node is visited after all of
+ * its predecessors, except for the ones reaching it through back-edges that
+ * target component heads. Heads thus form an admissible set of widening
+ * points: a fixpoint iterating over a WTO can restrict widening and narrowing
+ * to heads only, and stabilize each component by iterating its body until its
+ * head does not change anymore.<br>
+ * <br>
+ * The decomposition only considers the nodes that are reachable from the given
+ * starting points, and it is computed without recursion on the depth of the
+ * graph, so that it can be safely applied to graphs with long paths.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ * 
+ * @param <G> the type of the target {@link Graph}s
+ * @param <N> the type of {@link Node}s in the target graphs
+ * @param <E> the type of {@link Edge}s in the target graphs
+ * 
+ * @see <a href=
+ *          "https://doi.org/10.1007/BFb0039704">F. Bourdoncle, Efficient
+ *          chaotic iteration strategies with widenings</a>
+ */
+public class WeakTopologicalOrder<G extends Graph<G, N, E>, N extends Node<G, N, E>, E extends Edge<G, N, E>> {
+
+	private final Graph<G, N, E> graph;
+
+	private final List<Element<N>> components;
+
+	private final Set<N> heads;
+
+	/**
+	 * Builds the weak topological order of the nodes of {@code graph} that are
+	 * reachable from its entrypoints.
+	 * 
+	 * @param graph the graph whose weak topological order is to be computed
+	 */
+	public WeakTopologicalOrder(Graph<G, N, E> graph) {
+		this(graph, graph.getEntrypoints());
+	}
+
+	/**
+	 * Builds the weak topological order of the nodes of {@code graph} that are
+	 * reachable from the given starting points.
+	 * 
+	 * @param graph          the graph whose weak topological order is to be
+	 *                           computed
+	 * @param startingPoints the nodes to start the decomposition from
+	 */
+	public WeakTopologicalOrder(Graph<G, N, E> graph, Collection<N> startingPoints) {
+		this.graph = graph;
+		this.heads = new HashSet<>();
+		this.components = Collections.unmodifiableList(decompose(startingPoints, null, null));
+	}
+
+	/**
+	 * Yields the top-level elements of this weak topological order, in the
+	 * order they should be visited.
+	 * 
+	 * @return the top-level elements
+	 */
+	public List<Element<N>> getComponents() {
+		return components;
+	}
+
+	/**
+	 * Yields the heads of all the components (at any nesting level) of this
+	 * weak topological order.
+	 * 
+	 * @return the heads
+	 */
+	public Set<N> getHeads() {
+		return Collections.unmodifiableSet(heads);
+	}
+
+	/**
+	 * Yields whether or not the given node is the head of a component of this
+	 * weak topological order.
+	 * 
+	 * @param node the node to check
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isHead(N node) {
+		return heads.contains(node);
+	}
+
+	@Override
+	public String toString() {
+		return toString(components);
+	}
+
+	private static <N> String toString(List<Element<N>> elements) {
+		StringBuilder builder = new StringBuilder();
+		for (Element<N> element : elements) {
+			if (builder.length() > 0)
+				builder.append(" ");
+			builder.append(element);
+		}
+		return builder.toString();
+	}
+
+	private boolean isAdmissible(N node, Set<N> scope, N excluded) {
+		return node != excluded && (scope == null || scope.contains(node));
+	}
+
+	private List<Element<N>> decompose(Collection<N> roots, Set<N> scope, N excluded) {
+		Map<N, Integer> index = new HashMap<>();
+		Map<N, Integer> lowlink = new HashMap<>();
+		Deque<N> stack = new ArrayDeque<>();
+		Set<N> onStack = new HashSet<>();
+		Deque<Frame> calls = new ArrayDeque<>();
+
+		// tarjan's algorithm emits sccs in reverse topological order
+		LinkedList<Scc> sccs = new LinkedList<>();
+
+		for (N root : roots) {
+			if (index.containsKey(root) || !isAdmissible(root, scope, excluded))
+				continue;
+
+			visit(root, index, lowlink, stack, onStack, calls);
+			while (!calls.isEmpty()) {
+				Frame frame = calls.peek();
+				if (frame.successors.hasNext()) {
+					N next = frame.successors.next();
+					if (!isAdmissible(next, scope, excluded))
+						continue;
+					if (!index.containsKey(next))
+						visit(next, index, lowlink, stack, onStack, calls);
+					else if (onStack.contains(next))
+						lowlink.put(frame.node, Math.min(lowlink.get(frame.node), index.get(next)));
+					continue;
+				}
+
+				calls.pop();
+				N node = frame.node;
+				if (!calls.isEmpty()) {
+					N parent = calls.peek().node;
+					lowlink.put(parent, Math.min(lowlink.get(parent), lowlink.get(node)));
+				}
+
+				if (lowlink.get(node).equals(index.get(node))) {
+					Set<N> scc = new HashSet<>();
+					N member;
+					do {
+						member = stack.pop();
+						onStack.remove(member);
+						scc.add(member);
+					} while (member != node);
+					sccs.addFirst(new Scc(node, scc));
+				}
+			}
+		}
+
+		List<Element<N>> result = new ArrayList<>(sccs.size());
+		for (Scc scc : sccs) {
+			N head = scc.head;
+			if (scc.members.size() == 1 && !graph.followersOf(head).contains(head))
+				result.add(new Element<>(head, null));
+			else {
+				heads.add(head);
+				List<N> entries = new ArrayList<>();
+				for (N follower : graph.followersOf(head))
+					if (follower != head && scc.members.contains(follower))
+						entries.add(follower);
+				result.add(new Element<>(head, decompose(entries, scc.members, head)));
+			}
+		}
+
+		return result;
+	}
+
+	private void visit(N node, Map<N, Integer> index, Map<N, Integer> lowlink, Deque<N> stack, Set<N> onStack,
+			Deque<Frame> calls) {
+		int idx = index.size();
+		index.put(node, idx);
+		lowlink.put(node, idx);
+		stack.push(node);
+		onStack.add(node);
+		calls.push(new Frame(node, graph.followersOf(node).iterator()));
+	}
+
+	private final class Frame {
+		private final N node;
+		private final Iterator<N> successors;
+
+		private Frame(N node, Iterator<N> successors) {
+			this.node = node;
+			this.successors = successors;
+		}
+	}
+
+	private final class Scc {
+		private final N head;
+		private final Set<N> members;
+
+		private Scc(N head, Set<N> members) {
+			this.head = head;
+			this.members = members;
+		}
+	}
+
+	/**
+	 * An element of a {@link WeakTopologicalOrder}, that is either a single
+	 * vertex or a component made of a head and a body.
+	 * 
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 * 
+	 * @param <N> the type of nodes contained in this element
+	 */
+	public static final class Element<N> {
+
+		private final N head;
+
+		private final List<Element<N>> body;
+
+		private Element(N head, List<Element<N>> body) {
+			this.head = head;
+			this.body = body == null ? null : Collections.unmodifiableList(body);
+		}
+
+		/**
+		 * Yields the node represented by this element if this is a vertex, or
+		 * the head of the component if this is a component.
+		 * 
+		 * @return the node or the head
+		 */
+		public N getHead() {
+			return head;
+		}
+
+		/**
+		 * Yields the body of this component, that is, the weak topological
+		 * order of its nodes except for the head. If this element is a vertex,
+		 * the returned list is empty.
+		 * 
+		 * @return the body of this component
+		 */
+		public List<Element<N>> getBody() {
+			return body == null ? Collections.emptyList() : body;
+		}
+
+		/**
+		 * Yields whether or not this element is a component (i.e., a strongly
+		 * connected component with a head), instead of a single vertex.
+		 * 
+		 * @return {@code true} if that condition holds
+		 */
+		public boolean isComponent() {
+			return body != null;
+		}
+
+		@Override
+		public String toString() {
+			if (!isComponent())
+				return String.valueOf(head);
+			if (body.isEmpty())
+				return "(" + head + ")";
+			return "(" + head + " " + WeakTopologicalOrder.toString(body) + ")";
+		}
+	}
+}
@@ -14,6 +14,14 @@ import org.apache.commons.lang3.tuple.Pair;
  * can be almost perfectly stored as a list. The {@link NodeList} backing this
  * graph also supports custom edges.<br>
  * <br>
+ * Graphs built through {@link #CodeGraph(CodeGraph, boolean)} can share their
+ * structure (that is, the node list and the entrypoints) with the graph they
+ * originate from: the shared structure is frozen, and the first modification
+ * performed through {@link #addNode(CodeNode, boolean)},
+ * {@link #addEdge(CodeEdge)} or
+ * {@link #simplify(Class, Collection, Map)} on any of the graphs sharing it
+ * will happen on a private copy.<br>
+ * <br>
  * Note that this class does not define {@link #equals(Object)} nor
  * {@link #hashCode()}, since we leave the decision to be unique instances to
  * implementers.
@@ -30,13 +38,19 @@ public abstract class CodeGraph<G extends CodeGraph<G, N, E>, N extends CodeNode
 	/**
 	 * The node list of this graph.
 	 */
-	protected final NodeList<G, N, E> list;
+	protected NodeList<G, N, E> list;
 
 	/**
 	 * The nodes of this graph that are entrypoints, that is, that can be
 	 * executed from other graphs.
 	 */
-	protected final Collection<N> entrypoints;
+	protected Collection<N> entrypoints;
+
+	/**
+	 * Whether or not {@link #list} and {@link #entrypoints} are shared with
+	 * other graphs, and must thus be copied before being modified.
+	 */
+	private volatile boolean shared;
 
 	/**
 	 * Builds the graph.
@@ -69,12 +83,58 @@ public abstract class CodeGraph<G extends CodeGraph<G, N, E>, N extends CodeNode
 	 * @param other the original graph
 	 */
 	protected CodeGraph(G other) {
-		this.list = new NodeList<>(other.list);
-		this.entrypoints = new ArrayList<>(other.entrypoints);
+		this(other, false);
+	}
+
+	/**
+	 * Builds a graph with the same structure of the given one. If
+	 * {@code share} is {@code true}, the node list and the entrypoints of
+	 * {@code other} are not copied: instead, they become shared between the
+	 * two graphs until one of them gets modified.
+	 * 
+	 * @param other the original graph
+	 * @param share whether or not the structure of {@code other} should be
+	 *                  shared instead of copied
+	 */
+	protected CodeGraph(G other, boolean share) {
+		if (share) {
+			((CodeGraph<G, N, E>) other).shared = true;
+			this.shared = true;
+			this.list = other.list;
+			this.entrypoints = other.entrypoints;
+		} else {
+			this.list = new NodeList<>(other.list);
+			this.entrypoints = new ArrayList<>(other.entrypoints);
+		}
+	}
+
+	/**
+	 * Ensures that the structure of this graph is not shared with other
+	 * graphs, copying it if needed. Subclasses that modify {@link #list} or
+	 * {@link #entrypoints} directly must invoke this method first.
+	 */
+	protected synchronized void unshare() {
+		if (!shared)
+			return;
+		list = new NodeList<>(list);
+		entrypoints = new ArrayList<>(entrypoints);
+		shared = false;
+	}
+
+	/**
+	 * Yields whether or not the structure of this graph is shared with other
+	 * graphs, meaning that it will be copied on the first modification.
+	 * 
+	 * @return {@code true} if that condition holds
+	 */
+	public boolean isShared() {
+		return shared;
 	}
 
 	/**
-	 * Yields the node list backing this graph.
+	 * Yields the node list backing this graph. If this graph
+	 * {@link #isShared() is shared}, the returned list must not be modified
+	 * directly.
 	 * 
 	 * @return the list
 	 */
@@ -104,6 +164,7 @@ public abstract class CodeGraph<G extends CodeGraph<G, N, E>, N extends CodeNode
 
 	@Override
 	public void addNode(N node, boolean entrypoint) {
+		unshare();
 		list.addNode(node);
 		if (entrypoint)
 			this.entrypoints.add(node);
@@ -111,6 +172,7 @@ public abstract class CodeGraph<G extends CodeGraph<G, N, E>, N extends CodeNode
 
 	@Override
 	public void addEdge(E edge) {
+		unshare();
 		list.addEdge(edge);
 	}
 
@@ -225,6 +287,7 @@ public abstract class CodeGraph<G extends CodeGraph<G, N, E>, N extends CodeNode
 		Set<N> targets = getNodes().stream().filter(k -> target.isAssignableFrom(k.getClass()))
 				.collect(Collectors.toSet());
 		targets.forEach(this::preSimplify);
+		unshare();
 		list.simplify(targets, entrypoints, removedEdges, replacedEdges);
 		return targets;
 	}
@@ -31,11 +31,17 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	private final List<N> nodes;
 
 	/**
-	 * The list of indexes of the nodes that are cutoff points for sequential
+	 * Mapping from each node to its position inside {@link #nodes}, used as a
+	 * dense index for all the lookups on the list.
+	 */
+	private final Map<N, Integer> indexes;
+
+	/**
+	 * The indexes of the nodes that are cutoff points for sequential
 	 * execution, meaning that its follower in {@link #nodes} is not a follower
 	 * in the code.
 	 */
-	private final Set<Integer> cutoff;
+	private final BitSet cutoff;
 
 	/**
 	 * Mapping from each node to all the edges that cannot be represented as
@@ -60,6 +66,14 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	private final boolean computeOffsets;
 
+	/**
+	 * The immutable neighbours of each node, indexed by the position of the
+	 * node inside {@link #nodes}. This is {@code null} whenever the list has
+	 * been modified since the last time it was computed, and it is lazily
+	 * rebuilt by {@link #adjacency()}.
+	 */
+	private volatile Adjacency<G, N, E> adjacency;
+
 	/**
 	 * Builds a new list. Offsets of nodes added to this list will be set
 	 * automatically.
@@ -85,8 +99,9 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	public NodeList(E sequentialSingleton, boolean computeOffsets) {
 		this.sequentialSingleton = sequentialSingleton;
-		nodes = new LinkedList<>();
-		cutoff = new HashSet<>();
+		nodes = new ArrayList<>();
+		indexes = new HashMap<>();
+		cutoff = new BitSet();
 		extraEdges = new TreeMap<>();
 		nextOffset = 0;
 		this.computeOffsets = computeOffsets;
@@ -99,13 +114,39 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 */
 	public NodeList(NodeList<G, N, E> other) {
 		sequentialSingleton = other.sequentialSingleton;
-		nodes = new LinkedList<>(other.nodes);
-		cutoff = new HashSet<>(other.cutoff);
+		nodes = new ArrayList<>(other.nodes);
+		indexes = new HashMap<>(other.indexes);
+		cutoff = (BitSet) other.cutoff.clone();
 		extraEdges = new TreeMap<>();
 		for (Entry<N, NodeEdges<G, N, E>> entry : other.extraEdges.entrySet())
 			extraEdges.put(entry.getKey(), new NodeEdges<>(entry.getValue()));
 		nextOffset = other.nextOffset;
 		computeOffsets = other.computeOffsets;
+		// the adjacency is immutable, and it can be shared until one of the
+		// two lists gets modified
+		adjacency = other.adjacency;
+	}
+
+	private int indexOf(N node) {
+		Integer idx = indexes.get(node);
+		return idx == null ? -1 : idx;
+	}
+
+	private void invalidate() {
+		adjacency = null;
+	}
+
+	private Adjacency<G, N, E> adjacency() {
+		Adjacency<G, N, E> adj = adjacency;
+		if (adj != null)
+			return adj;
+
+		synchronized (this) {
+			adj = adjacency;
+			if (adj == null)
+				adjacency = adj = new Adjacency<>(this);
+			return adj;
+		}
 	}
 
 	/**
@@ -126,10 +167,12 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 
 		int size = nodes.size();
 		if (size != 0)
-			cutoff.add(size - 1);
+			cutoff.set(size - 1);
 		nodes.add(node);
+		indexes.put(node, size);
 		if (computeOffsets)
 			nextOffset = node.setOffset(nextOffset) + 1;
+		invalidate();
 	}
 
 	/**
@@ -141,23 +184,30 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * @param node the node to remove
 	 */
 	public void removeNode(N node) {
-		if (!containsNode(node))
+		int target = indexOf(node);
+		if (target == -1)
 			return;
 
-		int target = nodes.indexOf(node);
 		NodeEdges<G, N, E> edges = extraEdges.get(node);
 		if (edges != null) {
 			Set<E> union = new HashSet<>(edges.ingoing);
 			union.addAll(edges.outgoing);
 			union.forEach(this::removeEdge);
-			cutoff.remove(target);
+			cutoff.clear(target);
 		}
 
-		nodes.remove(node);
+		nodes.remove(target);
+		indexes.remove(node);
+		for (int i = target; i < nodes.size(); i++)
+			indexes.put(nodes.get(i), i);
+
 		// need to shift all successive cutoff back by one
-		List<Integer> interesting = cutoff.stream().filter(i -> i >= target).sorted().collect(Collectors.toList());
-		cutoff.removeAll(interesting);
-		interesting.forEach(i -> cutoff.add(i - 1));
+		BitSet shifted = cutoff.get(target, Math.max(target, cutoff.length()));
+		cutoff.clear(target, Math.max(target, cutoff.length()));
+		if (target > 0 && shifted.get(0))
+			cutoff.set(target - 1);
+		for (int i = shifted.nextSetBit(1); i >= 0; i = shifted.nextSetBit(i + 1))
+			cutoff.set(target + i - 1);
 
 		if (target != 0)
 			if (target != nodes.size()) { // we don't remove 1 since we want to
@@ -170,13 +220,14 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 					if (predEdges.outgoing.contains(seq)) {
 						// sequential edge can be encoded in the list
 						removeEdge(seq);
-						cutoff.remove(target - 1);
+						cutoff.clear(target - 1);
 					} else
-						cutoff.add(target - 1);
+						cutoff.set(target - 1);
 				} else
-					cutoff.add(target - 1);
+					cutoff.set(target - 1);
 			}
 
+		invalidate();
 		recomputeOffsets();
 	}
 
@@ -190,12 +241,13 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	}
 
 	/**
-	 * Yields the collection of nodes of this list.
+	 * Yields the collection of nodes of this list. The returned collection is
+	 * an unmodifiable view of the list.
 	 * 
 	 * @return the collection of nodes
 	 */
 	public final Collection<N> getNodes() {
-		return nodes;
+		return Collections.unmodifiableList(nodes);
 	}
 
 	/**
@@ -208,21 +260,22 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 *                                           this list
 	 */
 	public void addEdge(E e) {
-		int src = nodes.indexOf(e.getSource());
+		int src = indexOf(e.getSource());
 		if (src == -1)
 			throw new UnsupportedOperationException("The source node is not in the graph");
 
-		int dest = nodes.indexOf(e.getDestination());
+		int dest = indexOf(e.getDestination());
 		if (dest == -1)
 			throw new UnsupportedOperationException("The destination node is not in the graph");
 
 		if (e.isUnconditional() && src == dest - 1)
 			// just remove the cutoff
-			cutoff.remove(src);
+			cutoff.clear(src);
 		else {
 			extraEdges.computeIfAbsent(e.getSource(), n -> new NodeEdges<>()).outgoing.add(e);
 			extraEdges.computeIfAbsent(e.getDestination(), n -> new NodeEdges<>()).ingoing.add(e);
 		}
+		invalidate();
 	}
 
 	/**
@@ -231,14 +284,14 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * @param e the edge to remove
 	 */
 	public void removeEdge(E e) {
-		int src = nodes.indexOf(e.getSource());
-		int dest = nodes.indexOf(e.getDestination());
+		int src = indexOf(e.getSource());
+		int dest = indexOf(e.getDestination());
 		if (src == -1 || dest == -1)
 			return;
 
 		if (e.isUnconditional() && src == dest - 1)
 			// just add the cutoff
-			cutoff.add(src);
+			cutoff.set(src);
 
 		// the edge might still be inside the extraEdges
 		// if this method has been invoked by removeNode
@@ -254,6 +307,7 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 			if (edges.ingoing.isEmpty() && edges.outgoing.isEmpty())
 				extraEdges.remove(e.getDestination());
 		}
+		invalidate();
 	}
 
 	/**
@@ -268,19 +322,16 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 *             {@code null}
 	 */
 	public final E getEdgeConnecting(N source, N destination) {
-		int src = nodes.indexOf(source);
-		int dest = nodes.indexOf(destination);
+		int src = indexOf(source);
+		int dest = indexOf(destination);
 		if (src == -1 || dest == -1)
 			return null;
 
-		if (src == dest - 1 && !cutoff.contains(src))
-			return sequentialSingleton.newInstance(source, destination);
+		Adjacency<G, N, E> adj = adjacency();
+		if (src == dest - 1 && adj.sequential[src] != null)
+			return adj.sequential[src];
 
-		NodeEdges<G, N, E> edges = extraEdges.get(source);
-		if (edges == null)
-			return null;
-
-		for (E e : edges.outgoing)
+		for (E e : adj.outgoing[src])
 			if (e.getDestination().equals(destination))
 				return e;
 		return null;
@@ -297,68 +348,47 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * @return the edges connecting {@code source} to {@code destination}
 	 */
 	public Collection<E> getEdgesConnecting(N source, N destination) {
-		int src = nodes.indexOf(source);
-		int dest = nodes.indexOf(destination);
+		int src = indexOf(source);
+		int dest = indexOf(destination);
 		if (src == -1 || dest == -1)
 			return Collections.emptySet();
 
 		SortedSet<E> result = new TreeSet<>();
-		if (src == dest - 1 && !cutoff.contains(src))
-			result.add(sequentialSingleton.newInstance(source, destination));
-
-		NodeEdges<G, N, E> edges = extraEdges.get(source);
-		if (edges != null)
-			for (E e : edges.outgoing)
-				if (e.getDestination().equals(destination))
-					result.add(e);
+		for (E e : adjacency().outgoing[src])
+			if (e.getDestination().equals(destination))
+				result.add(e);
 
 		return result.isEmpty() ? Collections.emptySet() : result;
 	}
 
 	/**
-	 * Yields the ingoing edges to the given node.
+	 * Yields the ingoing edges to the given node. The returned collection is
+	 * immutable.
 	 * 
 	 * @param node the node
 	 * 
 	 * @return the collection of ingoing edges
 	 */
 	public final Collection<E> getIngoingEdges(N node) {
-		int src = nodes.indexOf(node);
+		int src = indexOf(node);
 		if (src == -1)
 			return Collections.emptySet();
-
-		SortedSet<E> result = new TreeSet<>();
-		if (src != 0 && !cutoff.contains(src - 1))
-			result.add(sequentialSingleton.newInstance(nodes.get(src - 1), node));
-
-		NodeEdges<G, N, E> edges = extraEdges.get(node);
-		if (edges != null)
-			result.addAll(edges.ingoing);
-
-		return result.isEmpty() ? Collections.emptySet() : result;
+		return adjacency().ingoing[src];
 	}
 
 	/**
-	 * Yields the outgoing edges from the given node.
+	 * Yields the outgoing edges from the given node. The returned collection
+	 * is immutable.
 	 * 
 	 * @param node the node
 	 * 
 	 * @return the collection of outgoing edges
 	 */
 	public final Collection<E> getOutgoingEdges(N node) {
-		int src = nodes.indexOf(node);
+		int src = indexOf(node);
 		if (src == -1)
 			return Collections.emptySet();
-
-		SortedSet<E> result = new TreeSet<>();
-		if (src != nodes.size() - 1 && !cutoff.contains(src))
-			result.add(sequentialSingleton.newInstance(node, nodes.get(src + 1)));
-
-		NodeEdges<G, N, E> edges = extraEdges.get(node);
-		if (edges != null)
-			result.addAll(edges.outgoing);
-
-		return result.isEmpty() ? Collections.emptySet() : result;
+		return adjacency().outgoing[src];
 	}
 
 	/**
@@ -371,16 +401,18 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 				.flatMap(c -> Stream.concat(c.ingoing.stream(), c.outgoing.stream()))
 				.distinct()
 				.collect(Collectors.toSet());
-		for (int i = 0; i < nodes.size() - 1; i++)
-			if (!cutoff.contains(i))
-				result.add(sequentialSingleton.newInstance(nodes.get(i), nodes.get(i + 1)));
+		E[] sequential = adjacency().sequential;
+		for (int i = 0; i < sequential.length; i++)
+			if (sequential[i] != null)
+				result.add(sequential[i]);
 		return result;
 	}
 
 	/**
 	 * Yields the collection of the nodes that are followers of the given one,
 	 * that is, all nodes such that there exist an edge in this list going from
-	 * the given node to such node.
+	 * the given node to such node. The returned collection is immutable, and
+	 * it is precomputed when the list is first queried after a modification.
 	 * 
 	 * @param node the node
 	 * 
@@ -389,25 +421,18 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * @throws IllegalArgumentException if the node is not in the graph
 	 */
 	public final Collection<N> followersOf(N node) {
-		int src = nodes.indexOf(node);
+		int src = indexOf(node);
 		if (src == -1)
 			throw new IllegalArgumentException("'" + node + "' is not in the graph");
-
-		SortedSet<N> result = new TreeSet<>();
-		if (src != nodes.size() - 1 && !cutoff.contains(src))
-			result.add(nodes.get(src + 1));
-
-		NodeEdges<G, N, E> edges = extraEdges.get(node);
-		if (edges != null)
-			result.addAll(edges.outgoing.stream().map(Edge::getDestination).collect(Collectors.toSet()));
-
-		return result.isEmpty() ? Collections.emptySet() : result;
+		return adjacency().followers[src];
 	}
 
 	/**
 	 * Yields the collection of the nodes that are predecessors of the given
 	 * vertex, that is, all nodes such that there exist an edge in this list
-	 * going from such node to the given one.
+	 * going from such node to the given one. The returned collection is
+	 * immutable, and it is precomputed when the list is first queried after a
+	 * modification.
 	 * 
 	 * @param node the node
 	 * 
@@ -416,19 +441,10 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * @throws IllegalArgumentException if the node is not in the graph
 	 */
 	public final Collection<N> predecessorsOf(N node) {
-		int src = nodes.indexOf(node);
+		int src = indexOf(node);
 		if (src == -1)
 			throw new IllegalArgumentException("'" + node + "' is not in the graph");
-
-		SortedSet<N> result = new TreeSet<>();
-		if (src != 0 && !cutoff.contains(src - 1))
-			result.add(nodes.get(src - 1));
-
-		NodeEdges<G, N, E> edges = extraEdges.get(node);
-		if (edges != null)
-			result.addAll(edges.ingoing.stream().map(Edge::getSource).collect(Collectors.toSet()));
-
-		return result.isEmpty() ? Collections.emptySet() : result;
+		return adjacency().predecessors[src];
 	}
 
 	/**
@@ -523,7 +539,7 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * @return {@code true} if the node is in this list
 	 */
 	public boolean containsNode(N node) {
-		return nodes.contains(node);
+		return indexes.containsKey(node);
 	}
 
 	/**
@@ -534,12 +550,12 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 	 * @return {@code true} if the edge is in this list
 	 */
 	public boolean containsEdge(E edge) {
-		int src = nodes.indexOf(edge.getSource());
-		int dest = nodes.indexOf(edge.getDestination());
+		int src = indexOf(edge.getSource());
+		int dest = indexOf(edge.getDestination());
 		if (src == -1 || dest == -1)
 			return false;
 
-		if (src == dest - 1 && !cutoff.contains(src)
+		if (src == dest - 1 && !cutoff.get(src)
 				&& edge.isUnconditional()
 				&& sequentialSingleton.newInstance(edge.getSource(), edge.getDestination()).equals(edge))
 			return true;
@@ -553,7 +569,7 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 
 	@Override
 	public Iterator<N> iterator() {
-		return nodes.iterator();
+		return getNodes().iterator();
 	}
 
 	@Override
@@ -623,7 +639,7 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 			}
 
 			res.append("\n");
-			if (cutoff.contains(i))
+			if (cutoff.get(i))
 				res.append("-----\n");
 		}
 		return res.toString();
@@ -766,26 +782,26 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 				continue;
 
 			for (E in : edges.ingoing)
-				validateEdge(nodes, in);
+				validateEdge(in);
 
 			for (E out : edges.outgoing)
-				validateEdge(nodes, out);
+				validateEdge(out);
 
 			// no deadcode
-			int idx = nodes.indexOf(node);
+			int idx = indexOf(node);
 			if (edges.ingoing.isEmpty()
-					&& (idx == 0 || cutoff.contains(idx - 1))
+					&& (idx == 0 || cutoff.get(idx - 1))
 					&& !entrypoints.contains(node))
 				throw new ProgramValidationException(
 						"Unreachable node that is not marked as entrypoint: " + node);
 		}
 	}
 
-	private void validateEdge(Collection<N> nodes, E edge) throws ProgramValidationException {
-		if (!nodes.contains(edge.getSource()))
+	private void validateEdge(E edge) throws ProgramValidationException {
+		if (!containsNode(edge.getSource()))
 			throw new ProgramValidationException("Invalid edge: '" + edge
 					+ "' originates in a node that is not part of the graph");
-		else if (!nodes.contains(edge.getDestination()))
+		else if (!containsNode(edge.getDestination()))
 			throw new ProgramValidationException("Invalid edge: '" + edge
 					+ "' reaches a node that is not part of the graph");
 	}
@@ -871,4 +887,64 @@ public class NodeList<G extends CodeGraph<G, N, E>, N extends CodeNode<G, N, E>,
 			return "ins: " + ingoing + ", outs: " + outgoing;
 		}
 	}
+	/**
+	 * The immutable neighbours of the nodes of a {@link NodeList}, computed
+	 * once after each modification of the list. Each array is indexed by the
+	 * position of the node inside the list, and contains collections sorted
+	 * according to the natural ordering of nodes and edges.
+	 * 
+	 * @param <G> the type of the {@link CodeGraph}s the containing list can be
+	 *                used in
+	 * @param <N> the type of the {@link CodeNode}s in the containing list
+	 * @param <E> the type of the {@link CodeEdge}s in the containing list
+	 */
+	private static final class Adjacency<G extends CodeGraph<G, N, E>,
+			N extends CodeNode<G, N, E>,
+			E extends CodeEdge<G, N, E>> {
+		private final E[] sequential;
+		private final List<E>[] ingoing;
+		private final List<E>[] outgoing;
+		private final List<N>[] followers;
+		private final List<N>[] predecessors;
+
+		@SuppressWarnings("unchecked")
+		private Adjacency(NodeList<G, N, E> list) {
+			int size = list.nodes.size();
+			sequential = (E[]) new CodeEdge[size];
+			ingoing = new List[size];
+			outgoing = new List[size];
+			followers = new List[size];
+			predecessors = new List[size];
+
+			for (int i = 0; i < size; i++)
+				if (i != size - 1 && !list.cutoff.get(i))
+					sequential[i] = list.sequentialSingleton.newInstance(list.nodes.get(i), list.nodes.get(i + 1));
+
+			for (int i = 0; i < size; i++) {
+				N node = list.nodes.get(i);
+				SortedSet<E> ins = new TreeSet<>(), outs = new TreeSet<>();
+				if (i != 0 && sequential[i - 1] != null)
+					ins.add(sequential[i - 1]);
+				if (sequential[i] != null)
+					outs.add(sequential[i]);
+
+				NodeEdges<G, N, E> edges = list.extraEdges.get(node);
+				if (edges != null) {
+					ins.addAll(edges.ingoing);
+					outs.addAll(edges.outgoing);
+				}
+
+				SortedSet<N> preds = new TreeSet<>(), follows = new TreeSet<>();
+				for (E in : ins)
+					preds.add(in.getSource());
+				for (E out : outs)
+					follows.add(out.getDestination());
+
+				ingoing[i] = List.copyOf(ins);
+				outgoing[i] = List.copyOf(outs);
+				predecessors[i] = List.copyOf(preds);
+				followers[i] = List.copyOf(follows);
+			}
+		}
+	}
 }
\ No newline at end of file
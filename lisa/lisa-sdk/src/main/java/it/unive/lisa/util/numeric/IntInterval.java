@@ -44,7 +44,7 @@ public class IntInterval {
 	 * @throws IllegalArgumentException if {@code low > high}
 	 */
 	public IntInterval(int low, int high) {
-		this(new MathNumber(low), new MathNumber(high));
+		this(MathNumber.valueOf(low), MathNumber.valueOf(high));
 	}
 
 	/**
@@ -56,8 +56,8 @@ public class IntInterval {
 	 * @throws IllegalArgumentException if {@code low > high}
 	 */
 	public IntInterval(Integer low, Integer high) {
-		this(low == null ? MathNumber.MINUS_INFINITY : new MathNumber(low),
-				high == null ? MathNumber.PLUS_INFINITY : new MathNumber(high));
+		this(low == null ? MathNumber.MINUS_INFINITY : MathNumber.valueOf(low),
+				high == null ? MathNumber.PLUS_INFINITY : MathNumber.valueOf(high));
 	}
 
 	/**
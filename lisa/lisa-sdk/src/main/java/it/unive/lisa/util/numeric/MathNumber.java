@@ -5,7 +5,17 @@ import java.math.RoundingMode;
 
 /**
  * A wrapper around {@link BigDecimal} to represent the mathematical concept of
- * a number, that can be also plus or minus infinity, in a convenient way.
+ * a number, that can be also plus or minus infinity, in a convenient way.<br>
+ * <br>
+ * Since most numbers are integers fitting in a {@code long}, those are stored
+ * as primitive values, and arithmetic on them is carried out with
+ * overflow-checked primitive operations. A {@link BigDecimal} is used only for
+ * numbers that do not fit in a {@code long}, or that have a non-zero scale
+ * (e.g., non-integral values, or values built from {@code double}s), and for
+ * operations that overflow. The two representations never overlap, and the
+ * semantics of all operations (including the scale of the results) is the one
+ * of {@link BigDecimal}. Instances for small integers can be retrieved through
+ * {@link #valueOf(long)}, that caches them.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
@@ -21,29 +31,64 @@ public class MathNumber implements Comparable<MathNumber> {
 	 */
 	public static final MathNumber MINUS_INFINITY = new MathNumber((byte) 1);
 
+	/**
+	 * A constant for representing numbers obtained from an operation that does
+	 * not produce a result (e.g. infinity divided by infinity).
+	 */
+	public static final MathNumber NaN = new MathNumber((byte) 3);
+
+	/**
+	 * The smallest integer whose instance is cached.
+	 */
+	private static final int CACHE_LOW = -128;
+
+	/**
+	 * The greatest integer whose instance is cached.
+	 */
+	private static final int CACHE_HIGH = 1024;
+
+	/**
+	 * The cached instances of small integers.
+	 */
+	private static final MathNumber[] CACHE = new MathNumber[CACHE_HIGH - CACHE_LOW + 1];
+
+	static {
+		for (int i = 0; i < CACHE.length; i++)
+			CACHE[i] = new MathNumber(i + CACHE_LOW);
+	}
+
 	/**
 	 * The constant {@code 0}.
 	 */
-	public static final MathNumber ZERO = new MathNumber(0);
+	public static final MathNumber ZERO = valueOf(0);
 
 	/**
 	 * The constant {@code 1}.
 	 */
-	public static final MathNumber ONE = new MathNumber(1);
+	public static final MathNumber ONE = valueOf(1);
 
 	/**
 	 * The constant {@code -1}.
 	 */
-	public static final MathNumber MINUS_ONE = new MathNumber(-1);
+	public static final MathNumber MINUS_ONE = valueOf(-1);
 
 	/**
-	 * A constant for representing numbers obtained from an operation that does
-	 * not produce a result (e.g. infinity divided by infinity).
+	 * The value of this number, if it is not representable as a {@code long}.
+	 * This is {@code null} for infinite numbers, for {@link #NaN}, and for
+	 * numbers stored in {@link #value}.
 	 */
-	public static final MathNumber NaN = new MathNumber((byte) 3);
-
 	private final BigDecimal number;
 
+	/**
+	 * The value of this number, meaningful only if {@link #compact} holds.
+	 */
+	private final long value;
+
+	/**
+	 * Whether or not the value of this number is stored in {@link #value}.
+	 */
+	private final boolean compact;
+
 	/**
 	 * True means this number is positive or zero
 	 */
@@ -55,7 +100,9 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @param number the value
 	 */
 	public MathNumber(long number) {
-		this.number = BigDecimal.valueOf(number);
+		this.number = null;
+		this.value = number;
+		this.compact = true;
 		this.sign = number >= 0 ? (byte) 0 : (byte) 1;
 	}
 
@@ -65,8 +112,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @param number the value
 	 */
 	public MathNumber(double number) {
-		this.number = BigDecimal.valueOf(number);
-		this.sign = number >= 0 ? (byte) 0 : (byte) 1;
+		this(BigDecimal.valueOf(number));
 	}
 
 	/**
@@ -75,22 +121,61 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @param number the value
 	 */
 	public MathNumber(BigDecimal number) {
-		this.number = number;
+		if (fitsLong(number)) {
+			this.number = null;
+			this.value = number.longValue();
+			this.compact = true;
+		} else {
+			this.number = number;
+			this.value = 0;
+			this.compact = false;
+		}
 		this.sign = number.signum() >= 0 ? (byte) 0 : (byte) 1;
 	}
 
 	private MathNumber(byte sign) {
 		this.number = null;
+		this.value = 0;
+		this.compact = false;
 		this.sign = sign;
 	}
 
+	private static boolean fitsLong(BigDecimal number) {
+		return number.scale() == 0 && number.unscaledValue().bitLength() < Long.SIZE;
+	}
+
+	/**
+	 * Yields a math number representing the given value. Differently from
+	 * {@link #MathNumber(long)}, instances for small values are cached and
+	 * shared.
+	 * 
+	 * @param number the value
+	 * 
+	 * @return a math number representing {@code number}
+	 */
+	public static MathNumber valueOf(long number) {
+		if (number >= CACHE_LOW && number <= CACHE_HIGH)
+			return CACHE[(int) number - CACHE_LOW];
+		return new MathNumber(number);
+	}
+
+	/**
+	 * Yields the value of this number as a {@link BigDecimal}. This method
+	 * must not be invoked on infinite numbers or {@link #NaN}.
+	 * 
+	 * @return the value of this number
+	 */
+	private BigDecimal toBigDecimal() {
+		return compact ? BigDecimal.valueOf(value) : number;
+	}
+
 	/**
 	 * Yields {@code true} if this number is minus infinity.
 	 * 
 	 * @return {@code true} if that condition holds
 	 */
 	public boolean isMinusInfinity() {
-		return number == null && isNegative();
+		return number == null && !compact && isNegative();
 	}
 
 	/**
@@ -99,7 +184,7 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @return {@code true} if that condition holds
 	 */
 	public boolean isPlusInfinity() {
-		return number == null && isPositiveOrZero();
+		return number == null && !compact && isPositiveOrZero();
 	}
 
 	/**
@@ -130,7 +215,9 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @return {@code true} if that condition holds
 	 */
 	public boolean is(int n) {
-		return number != null && number.equals(new BigDecimal(n));
+		// non-compact numbers are never integers fitting in a long with zero
+		// scale, so they cannot be equal to n
+		return compact && value == n;
 	}
 
 	/**
@@ -162,14 +249,9 @@ public class MathNumber implements Comparable<MathNumber> {
 		return number == null && sign == (byte) 3;
 	}
 
-	private static MathNumber cached(MathNumber i) {
-		if (i.is(0))
-			return ZERO;
-		if (i.is(1))
-			return ONE;
-		if (i.is(-1))
-			return MINUS_ONE;
-		return i;
+	private static MathNumber cached(BigDecimal number) {
+		MathNumber result = new MathNumber(number);
+		return result.compact ? valueOf(result.value) : result;
 	}
 
 	/**
@@ -190,7 +272,14 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isMinusInfinity() || other.isMinusInfinity())
 			return MINUS_INFINITY;
 
-		return cached(new MathNumber(number.add(other.number)));
+		if (compact && other.compact) {
+			long sum = value + other.value;
+			// overflow iff both operands have a sign different from the result
+			if (((value ^ sum) & (other.value ^ sum)) >= 0)
+				return valueOf(sum);
+		}
+
+		return cached(toBigDecimal().add(other.toBigDecimal()));
 	}
 
 	/**
@@ -211,7 +300,15 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isMinusInfinity() || other.isMinusInfinity())
 			return MINUS_INFINITY;
 
-		return cached(new MathNumber(number.subtract(other.number)));
+		if (compact && other.compact) {
+			long diff = value - other.value;
+			// overflow iff the operands have different signs, and the sign of
+			// the result differs from the one of the first operand
+			if (((value ^ other.value) & (value ^ diff)) >= 0)
+				return valueOf(diff);
+		}
+
+		return cached(toBigDecimal().subtract(other.toBigDecimal()));
 	}
 
 	/**
@@ -241,7 +338,16 @@ public class MathNumber implements Comparable<MathNumber> {
 				|| (other.isPlusInfinity() && isPositiveOrZero()))
 			return PLUS_INFINITY;
 
-		return cached(new MathNumber(number.multiply(other.number)));
+		if (compact && other.compact) {
+			long high = Math.multiplyHigh(value, other.value);
+			long low = value * other.value;
+			// no overflow iff the high bits are just the sign extension of the
+			// low ones
+			if ((high == 0 && low >= 0) || (high == -1 && low < 0))
+				return valueOf(low);
+		}
+
+		return cached(toBigDecimal().multiply(other.toBigDecimal()));
 	}
 
 	/**
@@ -279,7 +385,15 @@ public class MathNumber implements Comparable<MathNumber> {
 			else
 				return MINUS_INFINITY;
 
-		return cached(new MathNumber(number.divide(other.number, 100, RoundingMode.HALF_UP).stripTrailingZeros()));
+		if (compact && other.compact && value % other.value == 0 && (value != Long.MIN_VALUE || other.value != -1)) {
+			long quotient = value / other.value;
+			// stripping trailing zeros turns integers that are multiple of 10
+			// into numbers with negative scale: those need a BigDecimal
+			if (quotient % 10 != 0)
+				return valueOf(quotient);
+		}
+
+		return cached(toBigDecimal().divide(other.toBigDecimal(), 100, RoundingMode.HALF_UP).stripTrailingZeros());
 	}
 
 	@Override
@@ -302,7 +416,10 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isPlusInfinity() || other.isMinusInfinity() || (isPositiveOrZero() && other.isNegative()))
 			return 1;
 
-		return number.compareTo(other.number);
+		if (compact && other.compact)
+			return Long.compare(value, other.value);
+
+		return toBigDecimal().compareTo(other.toBigDecimal());
 	}
 
 	/**
@@ -324,7 +441,10 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (other.isMinusInfinity() || isPlusInfinity())
 			return other;
 
-		return cached(new MathNumber(number.min(other.number)));
+		if (compact && other.compact)
+			return value <= other.value ? this : other;
+
+		return cached(toBigDecimal().min(other.toBigDecimal()));
 	}
 
 	/**
@@ -346,7 +466,10 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isMinusInfinity() || other.isPlusInfinity())
 			return other;
 
-		return cached(new MathNumber(number.max(other.number)));
+		if (compact && other.compact)
+			return value >= other.value ? this : other;
+
+		return cached(toBigDecimal().max(other.toBigDecimal()));
 	}
 
 	/**
@@ -365,7 +488,10 @@ public class MathNumber implements Comparable<MathNumber> {
 		if (isMinusInfinity())
 			return PLUS_INFINITY;
 
-		return cached(new MathNumber(number.abs()));
+		if (compact && value != Long.MIN_VALUE)
+			return value >= 0 ? this : valueOf(-value);
+
+		return cached(toBigDecimal().abs());
 	}
 
 	/**
@@ -377,9 +503,9 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @return this number rounded up towards plus infinity
 	 */
 	public MathNumber roundUp() {
-		if (isInfinite() || isNaN())
+		if (isInfinite() || isNaN() || compact)
 			return this;
-		return cached(new MathNumber(number.setScale(0, RoundingMode.CEILING)));
+		return cached(number.setScale(0, RoundingMode.CEILING));
 	}
 
 	/**
@@ -391,9 +517,9 @@ public class MathNumber implements Comparable<MathNumber> {
 	 * @return this number rounded down towards minus infinity
 	 */
 	public MathNumber roundDown() {
-		if (isInfinite() || isNaN())
+		if (isInfinite() || isNaN() || compact)
 			return this;
-		return cached(new MathNumber(number.setScale(0, RoundingMode.FLOOR)));
+		return cached(number.setScale(0, RoundingMode.FLOOR));
 	}
 
 	@Override
@@ -401,12 +527,16 @@ public class MathNumber implements Comparable<MathNumber> {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((number == null) ? 0 : number.hashCode());
+		result = prime * result + (int) (value ^ (value >>> 32));
+		result = prime * result + (compact ? 1231 : 1237);
 		result = prime * result + sign;
 		return result;
 	}
 
 	@Override
 	public boolean equals(Object obj) {
+		// the representation of each number is unique, so comparing all
+		// fields is enough
 		if (this == obj)
 			return true;
 		if (obj == null)
@@ -419,6 +549,10 @@ public class MathNumber implements Comparable<MathNumber> {
 				return false;
 		} else if (!number.equals(other.number))
 			return false;
+		if (value != other.value)
+			return false;
+		if (compact != other.compact)
+			return false;
 		if (sign != other.sign)
 			return false;
 		return true;
@@ -426,6 +560,8 @@ public class MathNumber implements Comparable<MathNumber> {
 
 	@Override
 	public String toString() {
+		if (compact)
+			return Long.toString(value);
 		return isNaN() ? "NaN" : isMinusInfinity() ? "-Inf" : isPlusInfinity() ? "+Inf" : number.toString();
 	}
 }
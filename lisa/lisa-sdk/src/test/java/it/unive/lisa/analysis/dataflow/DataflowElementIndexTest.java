@@ -0,0 +1,150 @@
+package it.unive.lisa.analysis.dataflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.analysis.representation.DomainRepresentation;
+import it.unive.lisa.analysis.representation.StringRepresentation;
+import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Untyped;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class DataflowElementIndexTest {
+
+	private static final int THREADS = 8;
+	private static final int IDS = 50;
+	private static final int ELEMENTS = 5000;
+
+	private static class Def implements DataflowElement<PossibleForwardDataflowDomain<Def>, Def> {
+
+		private final Identifier id;
+		private final int n;
+
+		private Def(Identifier id, int n) {
+			this.id = id;
+			this.n = n;
+		}
+
+		@Override
+		public Collection<Identifier> getInvolvedIdentifiers() {
+			return Collections.singleton(id);
+		}
+
+		@Override
+		public Collection<Def> gen(Identifier id, ValueExpression expression, ProgramPoint pp,
+				PossibleForwardDataflowDomain<Def> domain) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public Collection<Def> gen(ValueExpression expression, ProgramPoint pp,
+				PossibleForwardDataflowDomain<Def> domain) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public Collection<Def> kill(Identifier id, ValueExpression expression, ProgramPoint pp,
+				PossibleForwardDataflowDomain<Def> domain) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public Collection<Def> kill(ValueExpression expression, ProgramPoint pp,
+				PossibleForwardDataflowDomain<Def> domain) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public DomainRepresentation representation() {
+			return new StringRepresentation(id + "@" + n);
+		}
+
+		@Override
+		public Def pushScope(ScopeToken token) {
+			return this;
+		}
+
+		@Override
+		public Def popScope(ScopeToken token) {
+			return this;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(id, n);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Def))
+				return false;
+			Def other = (Def) obj;
+			return id.equals(other.id) && n == other.n;
+		}
+	}
+
+	@Test
+	public void testConcurrentIndexing() throws Exception {
+		List<Identifier> ids = new ArrayList<>();
+		for (int i = 0; i < IDS; i++)
+			ids.add(new Variable(Untyped.INSTANCE, "x" + i, SyntheticLocation.INSTANCE));
+		List<Def> defs = new ArrayList<>();
+		for (int i = 0; i < ELEMENTS; i++)
+			defs.add(new Def(ids.get(i % IDS), i));
+
+		DataflowElementIndex<Def> index = new DataflowElementIndex<>();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CyclicBarrier barrier = new CyclicBarrier(THREADS);
+		try {
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int offset = t;
+				tasks.add(() -> {
+					barrier.await();
+					// overlapping elements, indexed in different orders
+					for (int i = 0; i < ELEMENTS; i++) {
+						Def def = defs.get((i * (offset + 1) + offset) % ELEMENTS);
+						ExternalSet<Def> set = index.mkSet(List.of(def));
+						// an element must be forgettable as soon as a
+						// thread can store it in a bit vector
+						assertSame(set, index.forget(set, ids.get(0).equals(def.id) ? ids.get(1) : ids.get(0)));
+						assertFalse(index.forget(set, def.id).contains(def));
+						assertFalse(index.forget(set, id -> id.equals(def.id)).contains(def));
+					}
+					return null;
+				});
+			}
+
+			Collection<Future<Void>> results = executor.invokeAll(tasks);
+			for (Future<Void> result : results)
+				// rethrows assertion failures
+				result.get();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		ExternalSet<Def> all = index.mkSet(defs);
+		assertEquals(ELEMENTS, all.size());
+		for (Identifier id : ids)
+			assertEquals(ELEMENTS - ELEMENTS / IDS, index.forget(all, id).size());
+	}
+}
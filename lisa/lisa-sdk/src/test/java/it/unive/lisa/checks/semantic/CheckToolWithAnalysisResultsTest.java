@@ -1,15 +1,22 @@
 package it.unive.lisa.checks.semantic;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import it.unive.lisa.*;
 import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.StatementStore;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.symbols.SymbolAliasing;
 import it.unive.lisa.checks.syntactic.CheckTool;
 import it.unive.lisa.checks.warnings.*;
+import it.unive.lisa.interprocedural.InterproceduralAnalysis;
+import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
+import it.unive.lisa.interprocedural.OpenCallPolicy;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
 import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
@@ -23,8 +30,12 @@ import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.VariableRef;
 import it.unive.lisa.program.cfg.statement.call.CFGCall;
 import it.unive.lisa.program.cfg.statement.call.Call;
+import it.unive.lisa.program.cfg.statement.call.OpenCall;
 import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.workset.WorkingSet;
+import it.unive.lisa.util.datastructures.graph.algorithms.FixpointException;
 import it.unive.lisa.util.file.FileManager;
 import java.util.*;
 import org.apache.commons.collections4.CollectionUtils;
@@ -214,4 +225,101 @@ public class CheckToolWithAnalysisResultsTest {
 		assertEquals(res1, tool.getResultOf(cfg).iterator().next());
 		assertEquals(res2, tool.getResultOf(cfg2).iterator().next());
 	}
+
+	private static class ExpandingAnalysis
+			implements InterproceduralAnalysis<TestAbstractState, TestHeapDomain, TestValueDomain, TestTypeDomain> {
+
+		private final Map<CFGWithAnalysisResults<?, ?, ?, ?>, Integer> expansions = new HashMap<>();
+
+		@Override
+		public CFGWithAnalysisResults<TestAbstractState, TestHeapDomain, TestValueDomain, TestTypeDomain> expand(
+				CFGWithAnalysisResults<TestAbstractState, TestHeapDomain, TestValueDomain, TestTypeDomain> result)
+				throws SemanticException {
+			expansions.merge(result, 1, Integer::sum);
+			return new CFGWithAnalysisResults<>(result, result.getEntryState());
+		}
+
+		@Override
+		public void init(Application app, CallGraph callgraph, OpenCallPolicy policy)
+				throws InterproceduralAnalysisException {
+		}
+
+		@Override
+		public void fixpoint(
+				AnalysisState<TestAbstractState, TestHeapDomain, TestValueDomain, TestTypeDomain> entryState,
+				Class<? extends WorkingSet<Statement>> fixpointWorkingSet, FixpointConfiguration conf)
+				throws FixpointException {
+		}
+
+		@Override
+		public Collection<CFGWithAnalysisResults<TestAbstractState, TestHeapDomain, TestValueDomain,
+				TestTypeDomain>> getAnalysisResultsOf(CFG cfg) {
+			return null;
+		}
+
+		@Override
+		public AnalysisState<TestAbstractState, TestHeapDomain, TestValueDomain, TestTypeDomain> getAbstractResultOf(
+				CFGCall call,
+				AnalysisState<TestAbstractState, TestHeapDomain, TestValueDomain, TestTypeDomain> entryState,
+				ExpressionSet<SymbolicExpression>[] parameters,
+				StatementStore<TestAbstractState, TestHeapDomain, TestValueDomain, TestTypeDomain> expressions)
+				throws SemanticException {
+			return null;
+		}
+
+		@Override
+		public AnalysisState<TestAbstractState, TestHeapDomain, TestValueDomain, TestTypeDomain> getAbstractResultOf(
+				OpenCall call,
+				AnalysisState<TestAbstractState, TestHeapDomain, TestValueDomain, TestTypeDomain> entryState,
+				ExpressionSet<SymbolicExpression>[] parameters,
+				StatementStore<TestAbstractState, TestHeapDomain, TestValueDomain, TestTypeDomain> expressions)
+				throws SemanticException {
+			return null;
+		}
+
+		@Override
+		public Call resolve(UnresolvedCall call, Set<Type>[] types, SymbolAliasing aliasing)
+				throws CallResolutionException {
+			return null;
+		}
+	}
+
+	@Test
+	public void testCompactResultsAreExpandedOncePerCFG() {
+		AnalysisState<TestAbstractState,
+				TestHeapDomain,
+				TestValueDomain, TestTypeDomain> singleton = new AnalysisState<>(
+						new TestAbstractState(),
+						new ExpressionSet<>(), new SymbolAliasing());
+		NoOp noop = new NoOp(cfg, new SourceCodeLocation("fake", 3, 0));
+		CFGWithAnalysisResults<TestAbstractState, TestHeapDomain,
+				TestValueDomain, TestTypeDomain> res1 = new CFGWithAnalysisResults<>(cfg, singleton,
+						Map.of(noop, singleton.bottom()), Map.of(noop, singleton.bottom())).compact();
+
+		noop = new NoOp(cfg2, new SourceCodeLocation("fake", 30, 0));
+		CFGWithAnalysisResults<TestAbstractState, TestHeapDomain,
+				TestValueDomain, TestTypeDomain> res2 = new CFGWithAnalysisResults<>(cfg2, singleton,
+						Map.of(noop, singleton.bottom()), Map.of(noop, singleton.bottom())).compact();
+
+		ExpandingAnalysis interproc = new ExpandingAnalysis();
+		CheckToolWithAnalysisResults<TestAbstractState,
+				TestHeapDomain,
+				TestValueDomain,
+				TestTypeDomain> tool = new CheckToolWithAnalysisResults<>(
+						new CheckTool(new LiSAConfiguration(), new FileManager("foo")),
+						Map.of(cfg, Collections.singleton(res1), cfg2, Collections.singleton(res2)), fakeCallGraph,
+						interproc);
+
+		Collection<?> first = tool.getResultOf(cfg);
+		assertSame(first, tool.getResultOf(cfg));
+		assertEquals(Map.of(res1, 1), interproc.expansions);
+
+		tool.getResultOf(cfg2);
+		tool.getResultOf(cfg2);
+		assertEquals(Map.of(res1, 1, res2, 1), interproc.expansions);
+
+		// the expansions of cfg have been dropped when moving to cfg2
+		assertNotSame(first, tool.getResultOf(cfg));
+		assertEquals(Map.of(res1, 2, res2, 1), interproc.expansions);
+	}
 }
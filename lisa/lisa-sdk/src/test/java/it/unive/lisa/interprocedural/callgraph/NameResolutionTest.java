@@ -0,0 +1,128 @@
+package it.unive.lisa.interprocedural.callgraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.TestLanguageFeatures;
+import it.unive.lisa.TestTypeSystem;
+import it.unive.lisa.analysis.symbols.NameSymbol;
+import it.unive.lisa.analysis.symbols.QualifiedNameSymbol;
+import it.unive.lisa.analysis.symbols.QualifierSymbol;
+import it.unive.lisa.analysis.symbols.SymbolAliasing;
+import it.unive.lisa.program.Application;
+import it.unive.lisa.program.ClassUnit;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.Unit;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMemberDescriptor;
+import it.unive.lisa.program.cfg.NativeCFG;
+import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.Ret;
+import it.unive.lisa.program.cfg.statement.call.Call.CallType;
+import it.unive.lisa.program.cfg.statement.call.UnresolvedCall;
+import it.unive.lisa.type.Type;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NameResolutionTest {
+
+	private static final SourceCodeLocation LOCATION = new SourceCodeLocation("fake", 0, 0);
+
+	private Program program;
+
+	private ClassUnit unit;
+
+	private CFG foo, bar, caller;
+
+	private BaseCallGraph cg;
+
+	private static CFG mk(Unit unit, String name) {
+		CFG cfg = new CFG(new CodeMemberDescriptor(LOCATION, unit, false, name));
+		cfg.addNode(new Ret(cfg, LOCATION), true);
+		return cfg;
+	}
+
+	@Before
+	public void setup() throws ProgramValidationException, CallGraphConstructionException {
+		program = new Program(new TestLanguageFeatures(), new TestTypeSystem());
+		unit = new ClassUnit(LOCATION, program, "C", false);
+		program.addUnit(unit);
+
+		foo = mk(program, "foo");
+		caller = mk(program, "caller");
+		bar = mk(unit, "bar");
+		program.addCodeMember(foo);
+		program.addCodeMember(caller);
+		unit.addCodeMember(bar);
+		program.getFeatures().getProgramValidationLogic().validateAndFinalize(program);
+
+		cg = new BaseCallGraph() {
+
+			@Override
+			public Collection<Type> getPossibleTypesOfReceiver(Expression receiver, Set<Type> types)
+					throws CallResolutionException {
+				return receiver.getStaticType().allInstances(receiver.getProgram().getTypes());
+			}
+
+		};
+		cg.init(new Application(program));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Set<CFG> resolve(String qualifier, String name, SymbolAliasing aliasing) throws CallResolutionException {
+		UnresolvedCall call = new UnresolvedCall(caller, LOCATION, CallType.STATIC, qualifier, name);
+		Set<CFG> targets = new HashSet<>();
+		Set<NativeCFG> natives = new HashSet<>();
+		cg.resolveNonInstance(call, new Set[0], targets, natives, aliasing);
+		assertTrue(natives.isEmpty());
+		return targets;
+	}
+
+	@Test
+	public void testPlainNames() throws CallResolutionException {
+		SymbolAliasing aliasing = new SymbolAliasing();
+		assertEquals(Set.of(foo), resolve(null, "foo", aliasing));
+		assertEquals(Set.of(bar), resolve(null, "bar", aliasing));
+		assertEquals(Set.of(bar), resolve("C", "bar", aliasing));
+		assertTrue(resolve("C", "foo", aliasing).isEmpty());
+		assertTrue(resolve(null, "baz", aliasing).isEmpty());
+	}
+
+	@Test
+	public void testAliasedName() throws CallResolutionException {
+		SymbolAliasing aliasing = new SymbolAliasing().putState(new NameSymbol("foo"), new NameSymbol("alias"));
+		assertEquals(Set.of(foo), resolve(null, "alias", aliasing));
+		assertEquals(Set.of(foo), resolve(null, "foo", aliasing));
+		assertTrue(resolve("C", "alias", aliasing).isEmpty());
+	}
+
+	@Test
+	public void testAliasedQualifier() throws CallResolutionException {
+		SymbolAliasing aliasing = new SymbolAliasing().putState(new QualifierSymbol("C"), new QualifierSymbol("D"));
+		assertEquals(Set.of(bar), resolve("D", "bar", aliasing));
+		assertEquals(Set.of(bar), resolve("C", "bar", aliasing));
+		assertTrue(resolve("D", "foo", aliasing).isEmpty());
+	}
+
+	@Test
+	public void testAliasedQualifiedName() throws CallResolutionException {
+		SymbolAliasing aliasing = new SymbolAliasing().putState(new QualifiedNameSymbol("C", "bar"),
+				new QualifiedNameSymbol("E", "other"));
+		assertEquals(Set.of(bar), resolve("E", "other", aliasing));
+		assertEquals(Set.of(bar), resolve(null, "other", aliasing));
+		assertTrue(resolve("C", "other", aliasing).isEmpty());
+		assertTrue(resolve("E", "bar", aliasing).isEmpty());
+	}
+
+	@Test
+	public void testTopAliasing() throws CallResolutionException {
+		SymbolAliasing aliasing = new SymbolAliasing().top();
+		assertEquals(Set.of(foo), resolve(null, "foo", aliasing));
+		assertEquals(Set.of(bar), resolve("C", "bar", aliasing));
+	}
+}
@@ -17,6 +17,7 @@ import it.unive.lisa.program.cfg.edge.TrueEdge;
 import it.unive.lisa.program.cfg.statement.*;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import org.junit.Test;
 
 public class CFGSimplificationTest {
@@ -54,6 +55,41 @@ public class CFGSimplificationTest {
 		assertTrue("Different CFGs", second.isEqualTo(first));
 	}
 
+	@Test
+	public void testScopeEndsFollowVariablesAndSimplification() throws ProgramValidationException {
+		SourceCodeLocation unknown = new SourceCodeLocation("unknown", 0, 0);
+		ClassUnit unit = new ClassUnit(unknown, new Program(new TestLanguageFeatures(), new TestTypeSystem()), "foo",
+				false);
+		CodeMemberDescriptor descriptor = new CodeMemberDescriptor(unknown, unit, true, "foo");
+		CFG cfg = new CFG(descriptor);
+		Assignment assign = new Assignment(cfg, unknown,
+				new VariableRef(cfg, unknown, "x"),
+				new VariableRef(cfg, unknown, "a"));
+		NoOp noop = new NoOp(cfg, unknown);
+		Return ret = new Return(cfg, unknown,
+				new VariableRef(cfg, unknown, "x"));
+		cfg.addNode(assign, true);
+		cfg.addNode(noop);
+		cfg.addNode(ret);
+		cfg.addEdge(new SequentialEdge(assign, noop));
+		cfg.addEdge(new SequentialEdge(noop, ret));
+
+		VariableTableEntry x = new VariableTableEntry(unknown, 0, assign, noop, "x");
+		descriptor.addVariable(x);
+		assertEquals(List.of(x), List.copyOf(descriptor.getVariablesEndingAt(noop)));
+		assertTrue(descriptor.getVariablesEndingAt(ret).isEmpty());
+
+		// variables added after the first query must be visible
+		VariableTableEntry y = new VariableTableEntry(unknown, 0, assign, ret, "y");
+		descriptor.addVariable(y);
+		assertEquals(List.of(y), List.copyOf(descriptor.getVariablesEndingAt(ret)));
+
+		// simplification moves the scope end of x to the follower of noop
+		cfg.simplify();
+		assertTrue(descriptor.getVariablesEndingAt(noop).isEmpty());
+		assertEquals(List.of(x, y), List.copyOf(descriptor.getVariablesEndingAt(ret)));
+	}
+
 	@Test
 	public void testDoubleSimplification() throws ProgramValidationException {
 		SourceCodeLocation unknownLocation = new SourceCodeLocation("fake", 0, 0);
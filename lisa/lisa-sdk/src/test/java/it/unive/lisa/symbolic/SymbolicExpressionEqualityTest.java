@@ -0,0 +1,63 @@
+package it.unive.lisa.symbolic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.SyntheticLocation;
+import it.unive.lisa.program.cfg.CodeLocation;
+import it.unive.lisa.symbolic.heap.AccessChild;
+import it.unive.lisa.symbolic.heap.HeapDereference;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.symbolic.value.operator.binary.Numeric32BitAdd;
+import it.unive.lisa.symbolic.value.operator.binary.Numeric32BitSub;
+import it.unive.lisa.symbolic.value.operator.unary.NumericNegation;
+import it.unive.lisa.type.Untyped;
+import org.junit.Test;
+
+public class SymbolicExpressionEqualityTest {
+
+	private static SymbolicExpression mk(int depth, int leaf, CodeLocation location) {
+		SymbolicExpression expr = new Variable(Untyped.INSTANCE, "x", location);
+		for (int i = 0; i < depth; i++) {
+			SymbolicExpression c = new Constant(Untyped.INSTANCE, i == depth / 2 ? leaf : i, location);
+			expr = new BinaryExpression(Untyped.INSTANCE, expr, c, Numeric32BitAdd.INSTANCE, location);
+			expr = new UnaryExpression(Untyped.INSTANCE, expr, NumericNegation.INSTANCE, location);
+			expr = new AccessChild(Untyped.INSTANCE, new HeapDereference(Untyped.INSTANCE, expr, location), c,
+					location);
+		}
+		return expr;
+	}
+
+	@Test
+	public void testStructuralEquality() {
+		SymbolicExpression first = mk(100, 0, SyntheticLocation.INSTANCE);
+		// locations do not take part in equality
+		SymbolicExpression second = mk(100, 0, new SourceCodeLocation("fake", 0, 0));
+		assertEquals(first, second);
+		assertEquals(first.hashCode(), second.hashCode());
+		// the cached hash must be consistent with the computed one
+		assertEquals(first.hashCode(), first.hashCode());
+		assertEquals(second, first);
+	}
+
+	@Test
+	public void testDifferentTrees() {
+		SymbolicExpression first = mk(100, 0, SyntheticLocation.INSTANCE);
+		SymbolicExpression second = mk(100, 1, SyntheticLocation.INSTANCE);
+		assertNotEquals(first, second);
+		assertNotEquals(second, first);
+
+		SymbolicExpression x = new Variable(Untyped.INSTANCE, "x", SyntheticLocation.INSTANCE);
+		SymbolicExpression one = new Constant(Untyped.INSTANCE, 1, SyntheticLocation.INSTANCE);
+		SymbolicExpression add = new BinaryExpression(Untyped.INSTANCE, x, one, Numeric32BitAdd.INSTANCE,
+				SyntheticLocation.INSTANCE);
+		SymbolicExpression sub = new BinaryExpression(Untyped.INSTANCE, x, one, Numeric32BitSub.INSTANCE,
+				SyntheticLocation.INSTANCE);
+		assertNotEquals(add, sub);
+		assertNotEquals(add, x);
+	}
+}
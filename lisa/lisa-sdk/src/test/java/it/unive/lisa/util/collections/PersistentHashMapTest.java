@@ -0,0 +1,140 @@
+package it.unive.lisa.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.*;
+import org.junit.Test;
+
+public class PersistentHashMapTest {
+
+	private static final int LIMIT = 10000;
+
+	private static final Random random = new Random();
+
+	private static final class Colliding {
+		private final int id;
+
+		private Colliding(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			return id % 3;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Colliding && ((Colliding) obj).id == id;
+		}
+
+		@Override
+		public String toString() {
+			return "c" + id;
+		}
+	}
+
+	@Test
+	public void testRandomOperations() {
+		Map<Integer, Integer> expected = new HashMap<>();
+		PersistentHashMap<Integer, Integer> actual = new PersistentHashMap<>();
+		for (int i = 0; i < LIMIT; i++) {
+			int key = random.nextInt(LIMIT / 2);
+			if (random.nextInt(3) == 0)
+				assertEquals(expected.remove(key), actual.remove(key));
+			else
+				assertEquals(expected.put(key, i), actual.put(key, i));
+			assertEquals(expected.size(), actual.size());
+		}
+
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		for (Integer key : expected.keySet())
+			assertTrue(actual.containsKey(key));
+	}
+
+	@Test
+	public void testCollisions() {
+		Map<Colliding, Integer> expected = new HashMap<>();
+		PersistentHashMap<Colliding, Integer> actual = new PersistentHashMap<>();
+		for (int i = 0; i < 100; i++) {
+			expected.put(new Colliding(i), i);
+			actual.put(new Colliding(i), i);
+		}
+		assertEquals(expected, actual);
+
+		for (int i = 0; i < 100; i += 2) {
+			expected.remove(new Colliding(i));
+			actual.remove(new Colliding(i));
+		}
+		assertEquals(expected, actual);
+		assertNull(actual.get(new Colliding(0)));
+		assertEquals(Integer.valueOf(1), actual.get(new Colliding(1)));
+	}
+
+	@Test
+	public void testCopiesAreIndependent() {
+		PersistentHashMap<Integer, String> original = new PersistentHashMap<>();
+		for (int i = 0; i < 100; i++)
+			original.put(i, String.valueOf(i));
+
+		PersistentHashMap<Integer, String> copy = new PersistentHashMap<>(original);
+		copy.put(5, "five");
+		copy.remove(6);
+		copy.put(1000, "thousand");
+
+		assertEquals("5", original.get(5));
+		assertEquals("6", original.get(6));
+		assertFalse(original.containsKey(1000));
+		assertEquals(100, original.size());
+
+		assertEquals("five", copy.get(5));
+		assertFalse(copy.containsKey(6));
+		assertEquals(100, copy.size());
+	}
+
+	@Test
+	public void testIteratorRemoval() {
+		PersistentHashMap<Integer, Integer> map = new PersistentHashMap<>();
+		for (int i = 0; i < 100; i++)
+			map.put(i, i);
+
+		Iterator<Map.Entry<Integer, Integer>> it = map.entrySet().iterator();
+		while (it.hasNext())
+			if (it.next().getKey() % 2 == 0)
+				it.remove();
+
+		assertEquals(50, map.size());
+		for (int i = 0; i < 100; i++)
+			assertEquals(i % 2 != 0, map.containsKey(i));
+	}
+
+	@Test
+	public void testDifferentKeys() {
+		PersistentHashMap<Integer, String> original = new PersistentHashMap<>();
+		for (int i = 0; i < 1000; i++)
+			original.put(i, String.valueOf(i));
+
+		PersistentHashMap<Integer, String> copy = new PersistentHashMap<>(original);
+		assertTrue(copy.differentKeys(original).isEmpty());
+
+		copy.put(5, "five");
+		copy.remove(6);
+		copy.put(1000, "thousand");
+		// putting the same value does not break the sharing
+		copy.put(7, original.get(7));
+
+		assertEquals(Set.of(5, 1000), new HashSet<>(copy.differentKeys(original)));
+		assertEquals(Set.of(5, 6), new HashSet<>(original.differentKeys(copy)));
+
+		// maps built independently do not share anything
+		PersistentHashMap<Integer, String> other = new PersistentHashMap<>();
+		for (int i = 0; i < 10; i++)
+			other.put(i, String.valueOf(i));
+		assertEquals(10, other.differentKeys(original).size());
+	}
+}
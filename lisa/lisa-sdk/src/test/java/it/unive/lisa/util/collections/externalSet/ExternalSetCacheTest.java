@@ -0,0 +1,109 @@
+package it.unive.lisa.util.collections.externalSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class ExternalSetCacheTest {
+
+	private static final int THREADS = 8;
+	private static final int ELEMENTS = 20000;
+
+	@Test
+	public void testNull() {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		ExternalSet<String> set = cache.mkSingletonSet(null);
+		set.add("foo");
+		assertEquals(0, cache.indexOf(null));
+		assertNull(cache.get(0));
+		assertEquals(2, set.size());
+		assertTrue(set.contains((String) null));
+	}
+
+	@Test
+	public void testChunks() {
+		ExternalSetCache<Integer> cache = new ExternalSetCache<>();
+		for (int i = 0; i < ELEMENTS; i++)
+			assertEquals(i, cache.indexOfOrAdd(i));
+		assertEquals(ELEMENTS, cache.size());
+		for (int i = 0; i < ELEMENTS; i++)
+			assertEquals(i, cache.get(i).intValue());
+		assertEquals(ELEMENTS, cache.getAllElements().size());
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(-1, cache.indexOf(0));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testMissingIndex() {
+		ExternalSetCache<Integer> cache = new ExternalSetCache<>();
+		cache.indexOfOrAdd(0);
+		cache.get(1);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testNegativeIndex() {
+		ExternalSetCache<Integer> cache = new ExternalSetCache<>();
+		cache.indexOfOrAdd(0);
+		cache.get(-1);
+	}
+
+	@Test
+	public void testConcurrentAdditions() throws Exception {
+		ExternalSetCache<Integer> cache = new ExternalSetCache<>();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CyclicBarrier barrier = new CyclicBarrier(THREADS);
+		try {
+			List<Callable<ExternalSet<Integer>>> tasks = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int offset = t;
+				tasks.add(() -> {
+					barrier.await();
+					// overlapping ranges, visited in different orders
+					ExternalSet<Integer> set = cache.mkEmptySet();
+					for (int i = 0; i < ELEMENTS; i++) {
+						Integer e = (i * (offset + 1) + offset) % ELEMENTS;
+						set.add(e);
+						// whatever is readable must be consistent, and an
+						// index is readable as soon as it is known
+						int size = cache.size();
+						int idx = cache.indexOf(e);
+						assertTrue(idx >= 0 && idx < ELEMENTS);
+						assertEquals(e, cache.get(idx));
+						if (size > 0)
+							cache.get(size - 1);
+					}
+					return set;
+				});
+			}
+
+			Collection<Future<ExternalSet<Integer>>> results = executor.invokeAll(tasks);
+			for (Future<ExternalSet<Integer>> result : results)
+				// rethrows assertion failures
+				result.get();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(ELEMENTS, cache.size());
+		BitSet seen = new BitSet();
+		for (int i = 0; i < ELEMENTS; i++) {
+			int idx = cache.indexOf(i);
+			assertTrue(idx >= 0 && idx < ELEMENTS);
+			assertEquals(i, cache.get(idx).intValue());
+			seen.set(idx);
+		}
+		assertEquals(ELEMENTS, seen.cardinality());
+	}
+}
@@ -1,6 +1,9 @@
 package it.unive.lisa.util.datastructures.graph.algorithms;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import it.unive.lisa.util.datastructures.graph.TestGraph;
 import it.unive.lisa.util.datastructures.graph.TestGraph.TestEdge;
@@ -116,4 +119,85 @@ public class DominatorsTest {
 		assertEquals("Fixpoint returned wrong result", exp, res);
 	}
 
+	@Test
+	public void testQueries() {
+		TestGraph graph = new TestGraph();
+		TestNode one = new TestNode(1);
+		TestNode two = new TestNode(2);
+		TestNode three = new TestNode(3);
+		TestNode four = new TestNode(4);
+		TestNode five = new TestNode(5);
+		TestNode unreachable = new TestNode(6);
+		graph.addNode(one, true);
+		graph.addNode(two);
+		graph.addNode(three);
+		graph.addNode(four);
+		graph.addNode(five);
+		graph.addNode(unreachable);
+		graph.addEdge(new TestEdge(one, two));
+		graph.addEdge(new TestEdge(one, three));
+		graph.addEdge(new TestEdge(two, four));
+		graph.addEdge(new TestEdge(three, four));
+		graph.addEdge(new TestEdge(four, five));
+		graph.addEdge(new TestEdge(unreachable, five));
+
+		Dominators<TestGraph, TestNode, TestEdge> dominators = new Dominators<>();
+		dominators.build(graph);
+		assertTrue(dominators.dominates(one, five));
+		assertTrue(dominators.dominates(four, five));
+		assertTrue(dominators.dominates(five, five));
+		assertFalse(dominators.dominates(two, four));
+		assertFalse(dominators.dominates(five, one));
+		assertFalse(dominators.dominates(unreachable, five));
+		assertNull(dominators.getImmediateDominator(one));
+		assertEquals(one, dominators.getImmediateDominator(four));
+		assertEquals(four, dominators.getImmediateDominator(five));
+		assertNull(dominators.getDominators().get(unreachable));
+		assertEquals(Set.of(one, four, five), dominators.getDominators().get(five));
+	}
+
+	@Test
+	public void testMultipleEntrypoints() {
+		TestGraph graph = new TestGraph();
+		TestNode first = new TestNode(1);
+		TestNode second = new TestNode(2);
+		TestNode join = new TestNode(3);
+		TestNode end = new TestNode(4);
+		graph.addNode(first, true);
+		graph.addNode(second, true);
+		graph.addNode(join);
+		graph.addNode(end);
+		graph.addEdge(new TestEdge(first, join));
+		graph.addEdge(new TestEdge(second, join));
+		graph.addEdge(new TestEdge(join, end));
+		graph.addEdge(new TestEdge(end, first));
+
+		Map<TestNode, Set<TestNode>> res = new Dominators<TestGraph, TestNode, TestEdge>().build(graph);
+		assertEquals("Fixpoint returned wrong result",
+				Map.of(first, Set.of(first),
+						second, Set.of(second),
+						join, Set.of(join),
+						end, Set.of(join, end)),
+				res);
+	}
+
+	@Test
+	public void testLongChain() {
+		TestGraph graph = new TestGraph();
+		TestNode[] nodes = new TestNode[50000];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new TestNode(i);
+			graph.addNode(nodes[i], i == 0);
+			if (i > 0)
+				graph.addEdge(new TestEdge(nodes[i - 1], nodes[i]));
+		}
+		graph.addEdge(new TestEdge(nodes[nodes.length - 1], nodes[0]));
+
+		Dominators<TestGraph, TestNode, TestEdge> dominators = new Dominators<>();
+		dominators.build(graph);
+		assertTrue(dominators.dominates(nodes[0], nodes[nodes.length - 1]));
+		assertTrue(dominators.dominates(nodes[nodes.length / 2], nodes[nodes.length - 1]));
+		assertFalse(dominators.dominates(nodes[nodes.length - 1], nodes[nodes.length / 2]));
+		assertEquals(nodes[nodes.length - 2], dominators.getImmediateDominator(nodes[nodes.length - 1]));
+	}
 }
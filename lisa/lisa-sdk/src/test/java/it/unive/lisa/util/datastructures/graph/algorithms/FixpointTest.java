@@ -2,12 +2,16 @@ package it.unive.lisa.util.datastructures.graph.algorithms;
 
 import static org.junit.Assert.*;
 
+import it.unive.lisa.logging.FixpointMetrics;
+import it.unive.lisa.logging.FixpointMetrics.Recorder;
 import it.unive.lisa.util.collections.workset.FIFOWorkingSet;
 import it.unive.lisa.util.datastructures.graph.TestGraph;
 import it.unive.lisa.util.datastructures.graph.TestGraph.TestEdge;
 import it.unive.lisa.util.datastructures.graph.TestGraph.TestNode;
 import it.unive.lisa.util.datastructures.graph.algorithms.Fixpoint.FixpointImplementation;
+import java.io.StringWriter;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -94,6 +98,45 @@ public class FixpointTest {
 				res);
 	}
 
+	@Test
+	public void testMetrics() throws Exception {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode middle = new TestNode(2);
+		TestNode end = new TestNode(3);
+		graph.addNode(source, true);
+		graph.addNode(middle);
+		graph.addNode(end);
+		graph.addEdge(new TestEdge(source, middle));
+		graph.addEdge(new TestEdge(middle, end));
+
+		FixpointMetrics metrics = new FixpointMetrics();
+		assertTrue(metrics.isEmpty());
+		for (int i = 0; i < 2; i++) {
+			Recorder recorder = metrics.recorder("graph", "ctx" + i);
+			new Fixpoint<TestGraph, TestNode, TestEdge, Set<TestNode>>(graph, recorder).fixpoint(
+					Map.of(source, Set.of()),
+					FIFOWorkingSet.mk(),
+					new FixpointTester());
+			recorder.flush();
+		}
+		metrics.reanalysis("graph");
+
+		Map<String, String> bag = metrics.toPropertyBags().get("graph");
+		assertNotNull("Metrics not recorded", bag);
+		assertEquals("2", bag.get("contexts"));
+		assertEquals("2", bag.get("runs"));
+		assertEquals("1", bag.get("reanalyses"));
+		assertEquals("6", bag.get("iterations"));
+		assertEquals("2", bag.get("maxNodeIterations"));
+		assertEquals("1", bag.get("maxWorkingSet"));
+
+		StringWriter writer = new StringWriter();
+		metrics.dump(writer);
+		assertTrue(writer.toString().contains("\"ctx0\""));
+		assertTrue(writer.toString().contains("\"ctx1\""));
+	}
+
 	@Test
 	public void testBranchingGraph() {
 		TestGraph graph = new TestGraph();
@@ -174,6 +217,180 @@ public class FixpointTest {
 				res);
 	}
 
+	@Test
+	public void testCyclicGraphWithWTO() {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode first = new TestNode(2);
+		TestNode second = new TestNode(3);
+		TestNode join = new TestNode(4);
+		TestNode end = new TestNode(5);
+		graph.addNode(source, true);
+		graph.addNode(first);
+		graph.addNode(second);
+		graph.addNode(join);
+		graph.addNode(end);
+		graph.addEdge(new TestEdge(source, join));
+		graph.addEdge(new TestEdge(join, first));
+		graph.addEdge(new TestEdge(first, second));
+		graph.addEdge(new TestEdge(second, join));
+		graph.addEdge(new TestEdge(join, end));
+
+		Map<TestNode, Set<TestNode>> res = null;
+		try {
+			res = new Fixpoint<TestGraph, TestNode, TestEdge, Set<TestNode>>(graph).fixpoint(
+					Map.of(source, Set.of()),
+					new WeakTopologicalOrder<>(graph),
+					new FixpointTester());
+		} catch (FixpointException e) {
+			e.printStackTrace(System.err);
+			fail("The fixpoint computation has thrown an exception");
+		}
+
+		assertNotNull("Fixpoint failed", res);
+		assertEquals("Fixpoint returned wrong result",
+				Map.of(source, Set.of(source),
+						join, Set.of(source, join, first, second),
+						first, Set.of(source, join, first, second),
+						second, Set.of(source, join, first, second),
+						end, Set.of(source, join, first, second, end)),
+				res);
+	}
+
+	private static class CountingTester extends FixpointTester {
+
+		private final Map<TestEdge, Integer> traversals = new HashMap<>();
+
+		private final Map<TestNode, Integer> evaluations = new HashMap<>();
+
+		@Override
+		public Set<TestNode> semantics(TestNode node, Set<TestNode> entrystate) throws Exception {
+			evaluations.merge(node, 1, Integer::sum);
+			return super.semantics(node, entrystate);
+		}
+
+		@Override
+		public Set<TestNode> traverse(TestEdge edge, Set<TestNode> entrystate) throws Exception {
+			traversals.merge(edge, 1, Integer::sum);
+			return super.traverse(edge, entrystate);
+		}
+	}
+
+	@Test
+	public void testTraversalsAreMemoized() throws FixpointException {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode first = new TestNode(2);
+		TestNode second = new TestNode(3);
+		TestNode join = new TestNode(4);
+		TestNode end = new TestNode(5);
+		graph.addNode(source, true);
+		graph.addNode(first);
+		graph.addNode(second);
+		graph.addNode(join);
+		graph.addNode(end);
+		TestEdge entry = new TestEdge(source, join);
+		TestEdge loopEntry = new TestEdge(join, first);
+		TestEdge body = new TestEdge(first, second);
+		TestEdge back = new TestEdge(second, join);
+		TestEdge exit = new TestEdge(join, end);
+		graph.addEdge(entry);
+		graph.addEdge(loopEntry);
+		graph.addEdge(body);
+		graph.addEdge(back);
+		graph.addEdge(exit);
+
+		CountingTester tester = new CountingTester();
+		Map<TestNode, Set<TestNode>> res = new Fixpoint<TestGraph, TestNode, TestEdge, Set<TestNode>>(graph)
+				.fixpoint(Map.of(source, Set.of()), FIFOWorkingSet.mk(), tester);
+
+		assertEquals(Set.of(source, join, first, second, end), res.get(end));
+		// join is reached again through the back edge, and this changes the
+		// results of all the nodes after it except second: the loop is then
+		// evaluated twice, while the edges leaving source and second are
+		// traversed only once since their results never change afterwards
+		assertEquals(Map.of(source, 1, join, 2, first, 2, second, 2, end, 2), tester.evaluations);
+		assertEquals(Map.of(entry, 1, loopEntry, 2, body, 2, back, 1, exit, 2), tester.traversals);
+	}
+
+	@Test
+	public void testTraversalsAreMemoizedWithWTO() throws FixpointException {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode first = new TestNode(2);
+		TestNode second = new TestNode(3);
+		TestNode join = new TestNode(4);
+		TestNode end = new TestNode(5);
+		graph.addNode(source, true);
+		graph.addNode(first);
+		graph.addNode(second);
+		graph.addNode(join);
+		graph.addNode(end);
+		TestEdge entry = new TestEdge(source, join);
+		TestEdge loopEntry = new TestEdge(join, first);
+		TestEdge body = new TestEdge(first, second);
+		TestEdge back = new TestEdge(second, join);
+		TestEdge exit = new TestEdge(join, end);
+		graph.addEdge(entry);
+		graph.addEdge(loopEntry);
+		graph.addEdge(body);
+		graph.addEdge(back);
+		graph.addEdge(exit);
+
+		CountingTester tester = new CountingTester();
+		Map<TestNode, Set<TestNode>> res = new Fixpoint<TestGraph, TestNode, TestEdge, Set<TestNode>>(graph)
+				.fixpoint(Map.of(source, Set.of()), new WeakTopologicalOrder<>(graph), tester);
+
+		assertEquals(Set.of(source, join, first, second, end), res.get(end));
+		// the loop is stabilized after two iterations over its body, and
+		// during the second one the result of second does not change: the
+		// back edge must then be traversed only when second is first reached
+		assertEquals(Map.of(entry, 1, loopEntry, 2, body, 2, back, 1, exit, 1), tester.traversals);
+	}
+
+	@Test
+	public void testSeededWTO() throws FixpointException {
+		TestGraph graph = new TestGraph();
+		TestNode source = new TestNode(1);
+		TestNode first = new TestNode(2);
+		TestNode second = new TestNode(3);
+		TestNode join = new TestNode(4);
+		TestNode end = new TestNode(5);
+		TestNode extra = new TestNode(6);
+		graph.addNode(source, true);
+		graph.addNode(first);
+		graph.addNode(second);
+		graph.addNode(join);
+		graph.addNode(end);
+		graph.addEdge(new TestEdge(source, join));
+		graph.addEdge(new TestEdge(join, first));
+		graph.addEdge(new TestEdge(first, second));
+		graph.addEdge(new TestEdge(second, join));
+		graph.addEdge(new TestEdge(join, end));
+
+		// first is not the head of the loop: without seeding, its initial
+		// result is overwritten and does not reach the other nodes
+		Map<TestNode, Set<TestNode>> res = new Fixpoint<TestGraph, TestNode, TestEdge, Set<TestNode>>(graph)
+				.fixpoint(Map.of(source, Set.of()), new WeakTopologicalOrder<>(graph), new FixpointTester(),
+						new HashMap<>(Map.of(first, Set.of(extra))), false);
+		assertEquals(Map.of(source, Set.of(source),
+				join, Set.of(source, join, first, second),
+				first, Set.of(source, join, first, second),
+				second, Set.of(source, join, first, second),
+				end, Set.of(source, join, first, second, end)),
+				res);
+
+		res = new Fixpoint<TestGraph, TestNode, TestEdge, Set<TestNode>>(graph)
+				.fixpoint(Map.of(source, Set.of()), new WeakTopologicalOrder<>(graph), new FixpointTester(),
+						new HashMap<>(Map.of(first, Set.of(extra))), true);
+		assertEquals(Map.of(source, Set.of(source),
+				join, Set.of(source, join, first, second, extra),
+				first, Set.of(source, join, first, second, extra),
+				second, Set.of(source, join, first, second, extra),
+				end, Set.of(source, join, first, second, end, extra)),
+				res);
+	}
+
 	private static class ExceptionalTester implements FixpointImplementation<TestNode, TestEdge, Set<TestNode>> {
 
 		private final int type;
@@ -0,0 +1,83 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.util.datastructures.graph.TestGraph;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestEdge;
+import it.unive.lisa.util.datastructures.graph.TestGraph.TestNode;
+import java.util.Set;
+import org.junit.Test;
+
+public class WeakTopologicalOrderTest {
+
+	private static TestGraph mk(int nodes, int[][] edges) {
+		TestGraph graph = new TestGraph();
+		TestNode[] all = new TestNode[nodes + 1];
+		for (int i = 1; i <= nodes; i++)
+			graph.addNode(all[i] = new TestNode(i), i == 1);
+		for (int[] edge : edges)
+			graph.addEdge(new TestEdge(all[edge[0]], all[edge[1]]));
+		return graph;
+	}
+
+	@Test
+	public void testEmptyGraph() {
+		WeakTopologicalOrder<TestGraph, TestNode, TestEdge> wto = new WeakTopologicalOrder<>(new TestGraph());
+		assertTrue(wto.getComponents().isEmpty());
+		assertTrue(wto.getHeads().isEmpty());
+	}
+
+	@Test
+	public void testLinearGraph() {
+		TestGraph graph = mk(3, new int[][] { { 1, 2 }, { 2, 3 } });
+		WeakTopologicalOrder<TestGraph, TestNode, TestEdge> wto = new WeakTopologicalOrder<>(graph);
+		assertEquals("1 2 3", wto.toString());
+		assertTrue(wto.getHeads().isEmpty());
+	}
+
+	@Test
+	public void testCyclicGraph() {
+		TestGraph graph = mk(5, new int[][] { { 1, 4 }, { 4, 2 }, { 2, 3 }, { 3, 4 }, { 4, 5 } });
+		WeakTopologicalOrder<TestGraph, TestNode, TestEdge> wto = new WeakTopologicalOrder<>(graph);
+		assertEquals("1 (4 2 3) 5", wto.toString());
+		assertEquals(Set.of(new TestNode(4)), wto.getHeads());
+	}
+
+	@Test
+	public void testSelfLoop() {
+		TestGraph graph = mk(3, new int[][] { { 1, 2 }, { 2, 2 }, { 2, 3 } });
+		WeakTopologicalOrder<TestGraph, TestNode, TestEdge> wto = new WeakTopologicalOrder<>(graph);
+		assertEquals("1 (2) 3", wto.toString());
+		assertTrue(wto.isHead(new TestNode(2)));
+	}
+
+	@Test
+	public void testNestedLoops() {
+		TestGraph graph = mk(6, new int[][] {
+				{ 1, 2 }, { 2, 3 }, { 3, 4 }, { 4, 3 }, { 4, 5 }, { 5, 2 }, { 2, 6 } });
+		WeakTopologicalOrder<TestGraph, TestNode, TestEdge> wto = new WeakTopologicalOrder<>(graph);
+		assertEquals("1 (2 (3 4) 5) 6", wto.toString());
+		assertEquals(Set.of(new TestNode(2), new TestNode(3)), wto.getHeads());
+	}
+
+	@Test
+	public void testUnreachableNodes() {
+		TestGraph graph = mk(4, new int[][] { { 1, 2 }, { 3, 4 }, { 4, 3 } });
+		WeakTopologicalOrder<TestGraph, TestNode, TestEdge> wto = new WeakTopologicalOrder<>(graph);
+		assertEquals("1 2", wto.toString());
+		assertTrue(wto.getHeads().isEmpty());
+	}
+
+	@Test
+	public void testLongChain() {
+		// long paths must not overflow the stack
+		int size = 100_000;
+		int[][] edges = new int[size - 1][];
+		for (int i = 1; i < size; i++)
+			edges[i - 1] = new int[] { i, i + 1 };
+		TestGraph graph = mk(size, edges);
+		WeakTopologicalOrder<TestGraph, TestNode, TestEdge> wto = new WeakTopologicalOrder<>(graph);
+		assertEquals(size, wto.getComponents().size());
+	}
+}
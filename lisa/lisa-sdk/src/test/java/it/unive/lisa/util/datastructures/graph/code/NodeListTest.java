@@ -546,6 +546,42 @@ public class NodeListTest {
 		verify(adj, nodes, edges, matrix, entries, exits, "after removing " + removed.toString());
 	}
 
+	@Test
+	public void testSharedCodeGraph() {
+		TestCodeGraph graph = new TestCodeGraph();
+		TestCodeNode one = new TestCodeNode(1);
+		TestCodeNode two = new TestCodeNode(2);
+		TestCodeNode three = new TestCodeNode(3);
+		graph.addNode(one, true);
+		graph.addNode(two);
+		graph.addEdge(new TestCodeEdge(one, two));
+
+		TestCodeGraph copy = new TestCodeGraph(graph);
+		assertTrue(graph.isShared());
+		assertTrue(copy.isShared());
+		assertSame(graph.getNodeList(), copy.getNodeList());
+		assertSame(graph.getEntrypoints(), copy.getEntrypoints());
+
+		// modifying the copy must not affect the original
+		copy.addNode(three, true);
+		copy.addEdge(new TestCodeEdge(two, three));
+		assertFalse(copy.isShared());
+		assertNotSame(graph.getNodeList(), copy.getNodeList());
+		assertEquals(Set.of(one, two), new HashSet<>(graph.getNodes()));
+		assertEquals(Set.of(one), new HashSet<>(graph.getEntrypoints()));
+		assertEquals(Set.of(one, two, three), new HashSet<>(copy.getNodes()));
+		assertEquals(Set.of(one, three), new HashSet<>(copy.getEntrypoints()));
+		assertEquals(Set.of(two), new HashSet<>(graph.followersOf(one)));
+		assertTrue(graph.followersOf(two).isEmpty());
+		assertEquals(Set.of(three), new HashSet<>(copy.followersOf(two)));
+
+		// the original copies its structure on its first modification too
+		TestCodeGraph other = new TestCodeGraph(graph);
+		graph.addNode(three);
+		assertEquals(Set.of(one, two), new HashSet<>(other.getNodes()));
+		assertEquals(Set.of(one, two, three), new HashSet<>(graph.getNodes()));
+	}
+
 	private static <T> T random(Collection<T> elements) {
 		int idx = rand.nextInt(elements.size());
 		for (T e : elements)
@@ -8,6 +8,10 @@ public class TestCodeGraph extends CodeGraph<TestCodeGraph, TestCodeGraph.TestCo
 		super(new TestCodeEdge(null, null));
 	}
 
+	protected TestCodeGraph(TestCodeGraph other) {
+		super(other, true);
+	}
+
 	public static class TestCodeNode implements CodeNode<TestCodeGraph, TestCodeNode, TestCodeEdge> {
 
 		private final int id;
@@ -2,8 +2,11 @@ package it.unive.lisa.util.numeric;
 
 import static it.unive.lisa.util.numeric.MathNumber.*;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import org.junit.Test;
 
 public class MathNumberTest {
@@ -220,4 +223,61 @@ public class MathNumberTest {
 		assertEquals("-inf max +inf != -inf", PLUS_INFINITY, MINUS_INFINITY.max(PLUS_INFINITY));
 		assertEquals("-inf max -inf != -inf", MINUS_INFINITY, MINUS_INFINITY.max(MINUS_INFINITY));
 	}
+
+	private static final long[] VALUES = { 0, 1, -1, 2, -7, 10, 100, -100, 1024, 1025, -129, 123456789,
+			Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE / 2,
+			Long.MIN_VALUE / 2, 3037000500L, -3037000500L };
+
+	private static void check(String op, BigDecimal expected, MathNumber actual) {
+		MathNumber exp = new MathNumber(expected);
+		assertEquals(op, exp, actual);
+		assertEquals(op, exp.hashCode(), actual.hashCode());
+		assertEquals(op, expected.toString(), actual.toString());
+	}
+
+	@Test
+	public void testAgainstBigDecimal() {
+		for (long l : VALUES)
+			for (long r : VALUES) {
+				BigDecimal left = BigDecimal.valueOf(l), right = BigDecimal.valueOf(r);
+				MathNumber ml = new MathNumber(l), mr = new MathNumber(r);
+				String op = l + " op " + r;
+				check(op.replace("op", "+"), left.add(right), ml.add(mr));
+				check(op.replace("op", "-"), left.subtract(right), ml.subtract(mr));
+				check(op.replace("op", "*"), left.multiply(right), ml.multiply(mr));
+				check(op.replace("op", "min"), left.min(right), ml.min(mr));
+				check(op.replace("op", "max"), left.max(right), ml.max(mr));
+				assertEquals(op.replace("op", "<=>"), left.compareTo(right), ml.compareTo(mr));
+				if (r != 0)
+					check(op.replace("op", "/"),
+							left.divide(right, 100, RoundingMode.HALF_UP).stripTrailingZeros(), ml.divide(mr));
+			}
+
+		for (long l : VALUES)
+			check("abs " + l, BigDecimal.valueOf(l).abs(), new MathNumber(l).abs());
+	}
+
+	@Test
+	public void testMixedRepresentations() {
+		MathNumber half = new MathNumber(0.5);
+		MathNumber big = new MathNumber(BigDecimal.valueOf(Long.MAX_VALUE).add(BigDecimal.ONE));
+		assertEquals("0.5", half.toString());
+		assertEquals("1.5", ONE.add(half).toString());
+		assertEquals("1.0", new MathNumber(1.0).toString());
+		assertEquals(false, new MathNumber(1.0).equals(ONE));
+		assertEquals(0, new MathNumber(1.0).compareTo(ONE));
+		assertEquals(ONE, new MathNumber(1.5).roundDown());
+		assertEquals(new MathNumber(2), new MathNumber(1.5).roundUp());
+		assertEquals(new MathNumber(Long.MAX_VALUE), big.subtract(ONE));
+		assertEquals(1, big.compareTo(new MathNumber(Long.MAX_VALUE)));
+		assertEquals("1E+1", new MathNumber(100).divide(new MathNumber(10)).toString());
+	}
+
+	@Test
+	public void testCache() {
+		assertSame(ZERO, new MathNumber(5).subtract(new MathNumber(5)));
+		assertSame(ONE, new MathNumber(BigDecimal.ONE).multiply(ONE));
+		assertSame(MathNumber.valueOf(42), new MathNumber(40).add(new MathNumber(2)));
+		assertEquals(new MathNumber(100000), MathNumber.valueOf(100000));
+	}
 }